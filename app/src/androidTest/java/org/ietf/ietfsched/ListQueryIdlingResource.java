@@ -10,7 +10,7 @@ import android.widget.ListView;
  * IdlingResource that waits for a ListFragment's query to complete
  * 
  * This resource monitors a view hierarchy and becomes idle when either:
- * - The ListView (android.R.id.list) is visible, OR
+ * - The list (android.R.id.list) is visible, and holds rows if it is a RecyclerView, OR
  * - The empty view (android.R.id.empty) is visible
  * 
  * This indicates that the async query has completed and the fragment has
@@ -115,6 +115,12 @@ public class ListQueryIdlingResource implements IdlingResource {
             }
             // Get empty view directly from ListView (setEmptyText() sets it here)
             emptyView = lv.getEmptyView();
+        } else if (listView instanceof androidx.recyclerview.widget.RecyclerView) {
+            // Session lists are shown before their rows load; only rows mean the query is done.
+            androidx.recyclerview.widget.RecyclerView.Adapter<?> adapter =
+                    ((androidx.recyclerview.widget.RecyclerView) listView).getAdapter();
+            adapterCount = adapter != null ? adapter.getItemCount() : 0;
+            adapterReady = adapterCount > 0;
         }
         
         // Also search hierarchy for empty view as fallback
@@ -125,7 +131,8 @@ public class ListQueryIdlingResource implements IdlingResource {
             }
         }
         
-        boolean listVisible = isViewVisible(listView);
+        boolean listVisible = isViewVisible(listView)
+                && (!(listView instanceof androidx.recyclerview.widget.RecyclerView) || adapterReady);
         boolean emptyVisible = isViewVisible(emptyView);
         
         // Query is complete if:
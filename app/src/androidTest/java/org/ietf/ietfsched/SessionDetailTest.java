@@ -58,10 +58,8 @@ public class SessionDetailTest extends BaseTest {
         TestUtils.waitFor(500);
         
         // Click on first item in the list
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(withId(android.R.id.list))
-                .atPosition(0)
-                .perform(click());
+        androidx.test.espresso.Espresso.onView(withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, click()));
         
         // Wait for session detail to load
         onView(withId(R.id.session_title))
@@ -288,10 +286,8 @@ public class SessionDetailTest extends BaseTest {
                 .check(ViewAssertions.matches(isDisplayed()));
         
         // Navigate back to session detail
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(withId(android.R.id.list))
-                .atPosition(0)
-                .perform(click());
+        androidx.test.espresso.Espresso.onView(withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, click()));
         onView(withId(R.id.session_title))
                 .check(ViewAssertions.matches(isDisplayed()));
         
@@ -304,10 +300,8 @@ public class SessionDetailTest extends BaseTest {
                 .check(ViewAssertions.matches(isDisplayed()));
         
         // Navigate back to session detail
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(withId(android.R.id.list))
-                .atPosition(0)
-                .perform(click());
+        androidx.test.espresso.Espresso.onView(withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, click()));
         onView(withId(R.id.session_title))
                 .check(ViewAssertions.matches(isDisplayed()));
         
@@ -320,10 +314,8 @@ public class SessionDetailTest extends BaseTest {
                 .check(ViewAssertions.matches(isDisplayed()));
         
         // Navigate back to session detail
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(withId(android.R.id.list))
-                .atPosition(0)
-                .perform(click());
+        androidx.test.espresso.Espresso.onView(withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, click()));
         onView(withId(R.id.session_title))
                 .check(ViewAssertions.matches(isDisplayed()));
         
@@ -124,10 +124,8 @@ public class SessionStarringTest extends BaseTest {
         TestUtils.waitFor(500);
         
         // Click on first item in the list
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(withId(android.R.id.list))
-                .atPosition(0)
-                .perform(click());
+        androidx.test.espresso.Espresso.onView(withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, click()));
         
         // Wait for session detail to load
         onView(withId(R.id.session_title))
@@ -440,15 +438,13 @@ public class SessionStarringTest extends BaseTest {
                 .check(ViewAssertions.matches(isDisplayed()));
         
         // Verify the starred session actually appears in the list
-        // Use onData to find the session by title (case-insensitive)
+        // Check the first row's title (case-insensitive)
         try {
             // Check that at least one item contains "TLS" (the session we starred)
-            Espresso.onData(org.hamcrest.Matchers.anything())
-                    .inAdapterView(withId(android.R.id.list))
-                    .atPosition(0)
-                    .onChildView(withId(R.id.session_title))
-                    .check(ViewAssertions.matches(ViewMatchers.withText(
-                            org.hamcrest.Matchers.containsStringIgnoringCase(TEST_SESSION_SEARCH))));
+            onView(withId(android.R.id.list))
+                    .check(ViewAssertions.matches(TestUtils.atPosition(0, ViewMatchers.hasDescendant(
+                            org.hamcrest.Matchers.allOf(withId(R.id.session_title), ViewMatchers.withText(
+                                    org.hamcrest.Matchers.containsStringIgnoringCase(TEST_SESSION_SEARCH)))))));
             Log.d(TAG, "testStarredSessionAppearsInList: Verified starred session appears in list");
         } catch (Exception e) {
             // If we can't verify specific item, at least verify list is not empty
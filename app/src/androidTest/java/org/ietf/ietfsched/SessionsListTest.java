@@ -84,23 +84,17 @@ public class SessionsListTest extends BaseTest {
                 .check(ViewAssertions.matches(isDisplayed()));
         
         // Verify "tls" appears in the list by checking list items
-        // Use onData to find items containing the search term (case-insensitive)
+        // Check the first row contains the search term (case-insensitive)
         try {
-            Espresso.onData(org.hamcrest.Matchers.allOf(
-                    org.hamcrest.Matchers.instanceOf(android.database.Cursor.class),
-                    org.hamcrest.Matchers.anything()))
-                    .inAdapterView(withId(android.R.id.list))
-                    .atPosition(0)
-                    .check(ViewAssertions.matches(ViewMatchers.isDisplayed()));
+            onView(withId(android.R.id.list))
+                    .check(ViewAssertions.matches(TestUtils.atPosition(0, ViewMatchers.isDisplayed())));
             
             // Verify at least one item contains the search term
             // We check the first item since search filters the list
-            Espresso.onData(org.hamcrest.Matchers.anything())
-                    .inAdapterView(withId(android.R.id.list))
-                    .atPosition(0)
-                    .onChildView(withId(R.id.session_title))
-                    .check(ViewAssertions.matches(ViewMatchers.withText(
-                            org.hamcrest.Matchers.containsStringIgnoringCase(TEST_SESSION_SEARCH))));
+            onView(withId(android.R.id.list))
+                    .check(ViewAssertions.matches(TestUtils.atPosition(0, ViewMatchers.hasDescendant(
+                            org.hamcrest.Matchers.allOf(withId(R.id.session_title), ViewMatchers.withText(
+                                    org.hamcrest.Matchers.containsStringIgnoringCase(TEST_SESSION_SEARCH)))))));
         } catch (Exception e) {
             // Fallback: at least verify list is displayed and not empty
             Log.w(TAG, "Could not verify specific search result: " + e.getMessage());
@@ -134,11 +128,9 @@ public class SessionsListTest extends BaseTest {
         TestUtils.waitFor(500);
         
         // Click on first item in the list (should be "tls" session)
-        // Note: Using onData for ListView items
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(withId(android.R.id.list))
-                .atPosition(0)
-                .perform(click());
+        // The list is a RecyclerView, so act on it by position
+        androidx.test.espresso.Espresso.onView(withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, click()));
         
         // Verify session detail is displayed (more reliable than intent matching)
         onView(withId(R.id.session_title))
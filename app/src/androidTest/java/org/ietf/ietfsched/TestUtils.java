@@ -65,10 +65,8 @@ public class TestUtils {
         waitFor(500);
         
         // Click on first item in the list (should match search term)
-        androidx.test.espresso.Espresso.onData(org.hamcrest.Matchers.anything())
-                .inAdapterView(androidx.test.espresso.matcher.ViewMatchers.withId(android.R.id.list))
-                .atPosition(0)
-                .perform(androidx.test.espresso.action.ViewActions.click());
+        androidx.test.espresso.Espresso.onView(androidx.test.espresso.matcher.ViewMatchers.withId(android.R.id.list))
+                .perform(androidx.test.espresso.contrib.RecyclerViewActions.actionOnItemAtPosition(0, androidx.test.espresso.action.ViewActions.click()));
         
         // Wait for session detail to load
         androidx.test.espresso.Espresso.onView(androidx.test.espresso.matcher.ViewMatchers.withId(org.ietf.ietfsched.R.id.session_title))
@@ -311,6 +309,31 @@ public class TestUtils {
         }
     }
 
+    /**
+     * Matches a RecyclerView whose item at {@code position} is laid out and
+     * matches {@code itemMatcher}; the RecyclerView counterpart of
+     * {@code onData(...).atPosition(position)}.
+     */
+    public static org.hamcrest.Matcher<android.view.View> atPosition(final int position,
+            final org.hamcrest.Matcher<android.view.View> itemMatcher) {
+        return new androidx.test.espresso.matcher.BoundedMatcher<android.view.View,
+                androidx.recyclerview.widget.RecyclerView>(
+                androidx.recyclerview.widget.RecyclerView.class) {
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("has item at position " + position + ": ");
+                itemMatcher.describeTo(description);
+            }
+
+            @Override
+            protected boolean matchesSafely(androidx.recyclerview.widget.RecyclerView view) {
+                final androidx.recyclerview.widget.RecyclerView.ViewHolder holder =
+                        view.findViewHolderForAdapterPosition(position);
+                return holder != null && itemMatcher.matches(holder.itemView);
+            }
+        };
+    }
+
     /**
      * Wait for initial database sync to complete
      * 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.io;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that the {@link SlideStore} quota sticks, that with a quota of 0
+ * nothing is downloaded or kept, and that a resumed download reads where a
+ * partial response starts.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SlideStoreTest {
+    private static final String URL =
+            "https://datatracker.ietf.org/meeting/125/materials/slides-125-store-test-00";
+
+    private SlideStore mStore;
+    private long mQuota;
+
+    @Before
+    public void setUp() {
+        mStore = SlideStore.get(InstrumentationRegistry.getInstrumentation().getTargetContext());
+        mQuota = mStore.getQuota();
+    }
+
+    @After
+    public void tearDown() {
+        mStore.setQuota(mQuota);
+    }
+
+    @Test
+    public void keepsQuota() {
+        mStore.setQuota(SlideStore.QUOTAS[1]);
+        assertEquals(SlideStore.QUOTAS[1], mStore.getQuota());
+    }
+
+    @Test
+    public void zeroQuotaDownloadsNothing() throws Exception {
+        mStore.setQuota(0);
+        // Returns before any request is made, so no executor is needed.
+        assertEquals(0, mStore.download(null, URL));
+        mStore.trim();
+        assertNull(mStore.open(URL));
+    }
+
+    @Test
+    public void missesUnknownDeck() {
+        assertNull(mStore.open(URL + "-never-stored"));
+    }
+
+    @Test
+    public void readsContentRangeStart() {
+        assertEquals(100, RemoteExecutor.rangeStart("bytes 100-199/200"));
+        assertEquals(0, RemoteExecutor.rangeStart("bytes 0-99/*"));
+        assertEquals(-1, RemoteExecutor.rangeStart("bytes */200"));
+        assertEquals(-1, RemoteExecutor.rangeStart("items 1-2/3"));
+        assertEquals(-1, RemoteExecutor.rangeStart(null));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.provider;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+import org.ietf.ietfsched.provider.ScheduleDatabase.Tables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link ScheduleDatabase#compact} gives the pages freed by a
+ * purge back to the file system and reports how many.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScheduleDatabaseCompactionTest {
+    private static final String DATABASE_NAME = "schedule-compaction-test.db";
+    private static final int MEETING = 124;
+    private static final int SESSIONS = 2000;
+
+    private Context mContext;
+    private ScheduleDatabase mOpenHelper;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContext.deleteDatabase(DATABASE_NAME);
+        mOpenHelper = new ScheduleDatabase(mContext, DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+        mContext.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void reclaimsPurgedPages() {
+        final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        // The first compaction switches the file to incremental auto_vacuum.
+        mOpenHelper.compact();
+        assertEquals(2, DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null));
+
+        insertSessions(db, 1);
+        insertSessions(db, 2);
+        db.delete(Tables.SESSIONS, Sessions.UPDATED + "<>?", new String[] { "2" });
+        assertTrue(DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null) > 0);
+
+        final long pageSize = DatabaseUtils.longForQuery(db, "PRAGMA page_size", null);
+        final ScheduleDatabase.Compaction compaction = mOpenHelper.compact();
+        assertTrue("Nothing reclaimed", compaction.pagesReclaimed > 0);
+        assertEquals(pageSize, compaction.pageSize);
+        assertEquals(0, DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null));
+        assertEquals(SESSIONS, DatabaseUtils.queryNumEntries(db, Tables.SESSIONS));
+    }
+
+    private static void insertSessions(SQLiteDatabase db, long updated) {
+        final ContentValues values = new ContentValues();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < SESSIONS; i++) {
+                values.clear();
+                values.put(Sessions.SESSION_ID, "session-" + updated + "-" + i);
+                values.put(Sessions.SESSION_TITLE, "Session " + i + " of import " + updated);
+                values.put(Sessions.SESSION_KEYWORDS, "wg" + (i % 97));
+                values.put(Sessions.UPDATED, updated);
+                values.put(Sessions.MEETING, MEETING);
+                db.insertOrThrow(Tables.SESSIONS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.provider;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
+import org.ietf.ietfsched.provider.ScheduleContract.Rooms;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+import org.ietf.ietfsched.provider.ScheduleDatabase.Tables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link ScheduleDatabase} serves UI queries while a sync import is
+ * still inside its transaction, rather than queueing them behind the writer.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScheduleDatabaseConcurrencyTest {
+    private static final String DATABASE_NAME = "schedule-concurrency-test.db";
+    private static final int MEETING = 124;
+    private static final int COMMITTED_SESSIONS = 200;
+    private static final int IMPORTED_SESSIONS = 10000;
+    private static final int SESSIONS_PER_BLOCK = 20;
+    private static final long BLOCK_START = 1700000000000L;
+    private static final long BLOCK_LENGTH = 3600000L;
+
+    /**
+     * Acceptable median latency of a UI query issued during the import. The
+     * median, not the worst sample, so one pause for GC or a busy emulator
+     * doesn't fail the run; a reader queued behind the writer would wait out
+     * most of the import and miss this by seconds.
+     */
+    private static final long LATENCY_BUDGET_MS = 250;
+
+    private static final String[] BLOCKS_PROJECTION = { Blocks._ID, Blocks.BLOCK_ID,
+            Blocks.BLOCK_START, Blocks.SESSIONS_COUNT, Blocks.CONTAINS_STARRED };
+    private static final String[] SESSIONS_PROJECTION = { Sessions._ID, Sessions.SESSION_ID,
+            Sessions.SESSION_TITLE, Sessions.SESSION_STARRED, Sessions.BLOCK_START,
+            Sessions.ROOM_NAME };
+
+    private Context mContext;
+    private ScheduleDatabase mOpenHelper;
+    private ScheduleProvider mProvider;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContext.deleteDatabase(DATABASE_NAME);
+        mOpenHelper = new ScheduleDatabase(mContext, DATABASE_NAME);
+        mProvider = new ScheduleProvider();
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+        mContext.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void usesWriteAheadLogging() {
+        assertTrue(mOpenHelper.getWritableDatabase().isWriteAheadLoggingEnabled());
+    }
+
+    @Test
+    public void queriesKeepLatencyDuringImport() throws Exception {
+        final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            insertSessions(db, 0, COMMITTED_SESSIONS);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        final CountDownLatch importing = new CountDownLatch(1);
+        final AtomicBoolean committed = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    db.beginTransactionNonExclusive();
+                    try {
+                        insertSessions(db, COMMITTED_SESSIONS, COMMITTED_SESSIONS + 1000);
+                        importing.countDown();
+                        insertSessions(db, COMMITTED_SESSIONS + 1000,
+                                COMMITTED_SESSIONS + IMPORTED_SESSIONS);
+                        db.setTransactionSuccessful();
+                    } finally {
+                        db.endTransaction();
+                        committed.set(true);
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                } finally {
+                    importing.countDown();
+                }
+            }
+        }, "import");
+        writer.start();
+        assertTrue(importing.await(30, TimeUnit.SECONDS));
+
+        final List<Long> latencies = new ArrayList<>();
+        while (!committed.get()) {
+            final long start = SystemClock.elapsedRealtime();
+            final int sessions = count(Sessions.CONTENT_URI, SESSIONS_PROJECTION,
+                    Sessions.DEFAULT_SORT);
+            count(Blocks.CONTENT_URI, BLOCKS_PROJECTION, Blocks.DEFAULT_SORT);
+            final long latency = SystemClock.elapsedRealtime() - start;
+            if (committed.get()) break;
+
+            // Readers see the last committed snapshot, not the open import.
+            assertEquals(COMMITTED_SESSIONS, sessions);
+            latencies.add(latency);
+        }
+        writer.join(TimeUnit.MINUTES.toMillis(2));
+        assertNull(failure.get());
+
+        assertTrue("No queries completed while the import was open", !latencies.isEmpty());
+        final List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        final long median = sorted.get(sorted.size() / 2);
+        assertTrue("Median query took " + median + "ms during import " + latencies,
+                median <= LATENCY_BUDGET_MS);
+        assertEquals(COMMITTED_SESSIONS + IMPORTED_SESSIONS,
+                count(Sessions.CONTENT_URI, SESSIONS_PROJECTION, null));
+    }
+
+    private int count(Uri uri, String[] projection, String sortOrder) {
+        final Uri scoped = ScheduleContract.buildMeetingScopedUri(uri, MEETING);
+        try (Cursor cursor = mProvider.buildQuerySelection(scoped)
+                .query(mOpenHelper.getReadableDatabase(), projection, sortOrder)) {
+            return cursor.getCount();
+        }
+    }
+
+    private static void insertSessions(SQLiteDatabase db, int from, int to) {
+        final ContentValues values = new ContentValues();
+        for (int i = from; i < to; i++) {
+            final int block = i / SESSIONS_PER_BLOCK;
+            final long start = BLOCK_START + block * BLOCK_LENGTH;
+            final String blockId = Blocks.generateBlockId(start, start + BLOCK_LENGTH);
+            final String roomId = "room-" + (i % SESSIONS_PER_BLOCK);
+
+            if (i % SESSIONS_PER_BLOCK == 0) {
+                values.clear();
+                values.put(Blocks.BLOCK_ID, blockId);
+                values.put(Blocks.BLOCK_TITLE, "Block " + block);
+                values.put(Blocks.BLOCK_START, start);
+                values.put(Blocks.BLOCK_END, start + BLOCK_LENGTH);
+                values.put(Blocks.UPDATED, 1);
+                values.put(Blocks.MEETING, MEETING);
+                db.insertOrThrow(Tables.BLOCKS, null, values);
+            }
+            if (i < SESSIONS_PER_BLOCK) {
+                values.clear();
+                values.put(Rooms.ROOM_ID, roomId);
+                values.put(Rooms.ROOM_NAME, "Room " + i);
+                values.put(Rooms.MEETING, MEETING);
+                db.insertOrThrow(Tables.ROOMS, null, values);
+            }
+
+            values.clear();
+            values.put(Sessions.SESSION_ID, "session-" + i);
+            values.put(Sessions.SESSION_TITLE, "Session " + i);
+            values.put(Sessions.SESSION_KEYWORDS, "wg" + (i % 97));
+            values.put(Sessions.BLOCK_ID, blockId);
+            values.put(Sessions.ROOM_ID, roomId);
+            values.put(Sessions.SESSION_STARRED, i % 7 == 0 ? 1 : 0);
+            values.put(Sessions.UPDATED, 1);
+            values.put(Sessions.MEETING, MEETING);
+            db.insertOrThrow(Tables.SESSIONS, null, values);
+        }
+    }
+}
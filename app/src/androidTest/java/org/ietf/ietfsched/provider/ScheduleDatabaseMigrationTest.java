@@ -0,0 +1,371 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.provider;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.ietf.ietfsched.util.MeetingPreferences;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Upgrades fixture databases from every historical schema version, and
+ * downgrades one from a newer version, checking that the schedule and stars
+ * survive and the result matches a freshly created schema.
+ * <p>
+ * Fixture schemas are frozen copies of what each release created, limited to
+ * the tables, indexes and triggers the assertions exercise.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScheduleDatabaseMigrationTest {
+    private static final String DATABASE_NAME = "schedule-migration-test.db";
+
+    /** Every schema version that shipped before the current one. */
+    private static final int[] HISTORICAL_VERSIONS = { 21, 22, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39 };
+
+    private static final int VER_SESSION_DRAFTS_URL = 29;
+    private static final int VER_SESSION_RES_URI = 30;
+    private static final int VER_SESSION_IS_BOF = 31;
+    private static final int VER_MEETING_PARTITION = 32;
+    private static final int VER_SCHEDULE_INDEXES = 33;
+    private static final int VER_BLOCK_AGGREGATES = 34;
+    private static final int VER_SESSIONS_FTS4 = 35;
+    private static final int VER_SESSION_MATERIALS = 36;
+    private static final int VER_BLOCK_INTERVALS = 37;
+    private static final int VER_SEARCH_SUGGEST = 38;
+    private static final int VER_ROOMS_UPDATED = 39;
+    private static final int VER_SESSIONS_KEYSET = 40;
+
+    private static final int MEETING = 124;
+    private static final String BLOCK_ID = "1700000000-1700003600";
+    private static final String SLIDES_URL = "https://example.org/plenary-slides.pdf";
+
+    private Context mContext;
+    private ScheduleDatabase mFresh;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContext.deleteDatabase(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (mFresh != null) {
+            mFresh.close();
+        }
+        mContext.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void upgradesFromEveryVersion() {
+        for (int version : HISTORICAL_VERSIONS) {
+            mContext.deleteDatabase(DATABASE_NAME);
+            try (SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(
+                    mContext.getDatabasePath(DATABASE_NAME), null)) {
+                createFixture(db, version);
+                db.setVersion(version);
+            }
+
+            final int meeting = version >= VER_MEETING_PARTITION
+                    ? MEETING : MeetingPreferences.getCurrentMeetingNumber(mContext);
+            final ScheduleDatabase openHelper = new ScheduleDatabase(mContext, DATABASE_NAME);
+            try {
+                assertMigrated("from " + version, openHelper.getWritableDatabase(), meeting);
+            } finally {
+                openHelper.close();
+            }
+        }
+    }
+
+    @Test
+    public void currentFixtureMatchesFreshSchema() {
+        // The next upgrade starts from this fixture, so it has to be what
+        // onCreate builds before it joins HISTORICAL_VERSIONS.
+        try (SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(
+                mContext.getDatabasePath(DATABASE_NAME), null)) {
+            createFixture(db, ScheduleDatabase.DATABASE_VERSION);
+            assertEquals(describeSchema(freshSchema()), describeSchema(db));
+            assertEquals(1700000000000L, DatabaseUtils.longForQuery(db,
+                    "SELECT session_block_start FROM sessions WHERE session_id='plenary'", null));
+        }
+    }
+
+    @Test
+    public void downgradeKeepsData() {
+        ScheduleDatabase openHelper = new ScheduleDatabase(mContext, DATABASE_NAME);
+        try {
+            final SQLiteDatabase db = openHelper.getWritableDatabase();
+            insertFixtureRows(db, ScheduleDatabase.DATABASE_VERSION);
+            db.execSQL("INSERT INTO session_materials (updated, session_id, material_kind,"
+                    + " material_title, material_url, material_order, meeting) VALUES"
+                    + " (1, 'plenary', 'slides', 'Plenary slides', '" + SLIDES_URL + "', 0, "
+                    + MEETING + ")");
+            // What a later release might have added.
+            db.execSQL("ALTER TABLE sessions ADD COLUMN session_chat_url TEXT");
+            db.execSQL("CREATE TABLE session_notes (_id INTEGER PRIMARY KEY, note TEXT)");
+            db.setVersion(ScheduleDatabase.DATABASE_VERSION + 1);
+        } finally {
+            openHelper.close();
+        }
+
+        openHelper = new ScheduleDatabase(mContext, DATABASE_NAME);
+        try {
+            assertMigrated("downgrade", openHelper.getWritableDatabase(), MEETING);
+        } finally {
+            openHelper.close();
+        }
+    }
+
+    private void assertMigrated(String label, SQLiteDatabase db, int meeting) {
+        assertEquals(label, ScheduleDatabase.DATABASE_VERSION, db.getVersion());
+        assertEquals(label, describeSchema(freshSchema()), describeSchema(db));
+
+        try (Cursor cursor = db.rawQuery("SELECT _id, session_title, session_starred, meeting"
+                + " FROM sessions WHERE session_id='plenary'", null)) {
+            assertEquals(label, 1, cursor.getCount());
+            cursor.moveToFirst();
+            assertEquals(label, "IETF Plenary", cursor.getString(1));
+            assertEquals(label, 1, cursor.getInt(2));
+            assertEquals(label, meeting, cursor.getInt(3));
+
+            // Search finds the session through its own row id.
+            assertEquals(label, cursor.getLong(0), DatabaseUtils.longForQuery(db,
+                    "SELECT docid FROM sessions_search WHERE sessions_search MATCH 'ietf*'",
+                    null));
+        }
+
+        assertEquals(label, "2|1", DatabaseUtils.stringForQuery(db,
+                "SELECT sessions_count || '|' || contains_starred FROM blocks WHERE block_id=?",
+                new String[] { BLOCK_ID }));
+        assertEquals(label, SLIDES_URL, DatabaseUtils.stringForQuery(db,
+                "SELECT material_url FROM session_materials WHERE session_id='plenary'"
+                        + " AND material_kind='slides'", null));
+        assertEquals(label, meeting, DatabaseUtils.longForQuery(db,
+                "SELECT meeting FROM sessions_tracks WHERE session_id='plenary'", null));
+        assertEquals(label, 1700000000000L, DatabaseUtils.longForQuery(db,
+                "SELECT session_block_start FROM sessions WHERE session_id='plenary'", null));
+
+        // Triggers work on the migrated tables.
+        db.execSQL("UPDATE sessions SET session_starred=0 WHERE session_id='plenary'");
+        assertEquals(label, 0, DatabaseUtils.longForQuery(db,
+                "SELECT contains_starred FROM blocks WHERE block_id=?", new String[] { BLOCK_ID }));
+    }
+
+    private SQLiteDatabase freshSchema() {
+        if (mFresh == null) {
+            mFresh = new ScheduleDatabase(mContext, null);
+        }
+        return mFresh.getReadableDatabase();
+    }
+
+    /** Columns of every table, and the names of every explicit index. */
+    private static String describeSchema(SQLiteDatabase db) {
+        final Map<String, TreeSet<String>> tables = new HashMap<>();
+        final TreeSet<String> schema = new TreeSet<>();
+        try (Cursor cursor = db.rawQuery("SELECT type, name FROM sqlite_master WHERE"
+                + " name NOT LIKE 'sqlite%' AND name<>'android_metadata'"
+                + " AND name NOT LIKE 'sessions_search_%' AND type IN ('table','index')"
+                + " AND sql IS NOT NULL", null)) {
+            while (cursor.moveToNext()) {
+                if ("index".equals(cursor.getString(0))) {
+                    schema.add("index " + cursor.getString(1));
+                } else {
+                    tables.put(cursor.getString(1), new TreeSet<String>());
+                }
+            }
+        }
+        for (Map.Entry<String, TreeSet<String>> table : tables.entrySet()) {
+            try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + table.getKey() + ")", null)) {
+                while (cursor.moveToNext()) {
+                    table.getValue().add(cursor.getString(cursor.getColumnIndexOrThrow("name")));
+                }
+            }
+            schema.add("table " + table.getKey() + " " + table.getValue());
+        }
+        return schema.toString();
+    }
+
+    /** Create the tables that {@code version} shipped with, and fill them. */
+    private static void createFixture(SQLiteDatabase db, int version) {
+        final boolean partitioned = version >= VER_MEETING_PARTITION;
+        final String meeting = partitioned ? "meeting INTEGER NOT NULL DEFAULT 0," : "";
+        final String unique = partitioned ? "UNIQUE (meeting," : "UNIQUE (";
+
+        db.execSQL("CREATE TABLE blocks (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "block_id TEXT NOT NULL,block_title TEXT NOT NULL,block_start INTEGER NOT NULL,"
+                + "block_end INTEGER NOT NULL,block_type TEXT,updated INTEGER NOT NULL,"
+                + (version >= VER_BLOCK_AGGREGATES ? "sessions_count INTEGER NOT NULL DEFAULT 0,"
+                        + "contains_starred INTEGER NOT NULL DEFAULT 0," : "")
+                + meeting + unique + "block_id) ON CONFLICT REPLACE)");
+        db.execSQL("CREATE TABLE tracks (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "track_id TEXT NOT NULL,track_name TEXT,track_color INTEGER,track_abstract TEXT,"
+                + "updated INTEGER NOT NULL,"
+                + (version >= VER_BLOCK_AGGREGATES ? "sessions_count INTEGER NOT NULL DEFAULT 0," : "")
+                + "UNIQUE (track_id) ON CONFLICT REPLACE)");
+        db.execSQL("CREATE TABLE rooms (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "room_id TEXT NOT NULL,room_name TEXT,room_floor TEXT,"
+                + (version >= VER_ROOMS_UPDATED ? "updated INTEGER NOT NULL DEFAULT 0," : "")
+                + meeting + unique + "room_id) ON CONFLICT REPLACE)");
+        db.execSQL("CREATE TABLE sessions (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "updated INTEGER NOT NULL,session_id TEXT NOT NULL,"
+                + "block_id TEXT REFERENCES blocks(block_id),room_id TEXT REFERENCES rooms(room_id),"
+                + "session_level TEXT,session_title TEXT,session_abstract TEXT,"
+                + "session_requirements TEXT,session_keywords TEXT,session_hashtag TEXT,"
+                + "session_slug TEXT,session_url TEXT,session_moderator_url TEXT,"
+                + "session_youtube_url TEXT,session_pdf_url TEXT,"
+                + (version >= VER_SESSION_DRAFTS_URL ? "session_drafts_url TEXT," : "")
+                + (version >= VER_SESSION_RES_URI ? "session_res_uri TEXT," : "")
+                + "session_feedback_url TEXT,session_notes_url TEXT,"
+                + "session_starred INTEGER NOT NULL DEFAULT 0,"
+                + (version >= VER_SESSION_IS_BOF ? "session_is_bof INTEGER NOT NULL DEFAULT 0," : "")
+                + (version >= VER_SESSIONS_KEYSET
+                        ? "session_block_start INTEGER NOT NULL DEFAULT 0," : "")
+                + meeting + unique + "session_id) ON CONFLICT REPLACE)");
+        db.execSQL("CREATE TABLE sessions_tracks (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "session_id TEXT NOT NULL REFERENCES sessions(session_id),"
+                + "track_id TEXT NOT NULL REFERENCES tracks(track_id),"
+                + meeting + unique + "session_id,track_id) ON CONFLICT REPLACE)");
+        db.execSQL("CREATE TRIGGER sessions_tracks_delete AFTER DELETE ON sessions BEGIN"
+                + " DELETE FROM sessions_tracks WHERE "
+                + (partitioned ? "sessions_tracks.meeting=old.meeting AND " : "")
+                + "sessions_tracks.session_id=old.session_id; END;");
+        if (version >= VER_SEARCH_SUGGEST) {
+            db.execSQL("CREATE TABLE search_suggest (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                    + "suggest_text_1 TEXT NOT NULL,suggest_key TEXT NOT NULL,"
+                    + "suggest_kind TEXT NOT NULL,suggest_weight INTEGER NOT NULL DEFAULT 0,"
+                    + "suggest_usage INTEGER NOT NULL DEFAULT 0,updated INTEGER NOT NULL DEFAULT 0,"
+                    + "meeting INTEGER NOT NULL DEFAULT 0,"
+                    + "UNIQUE (meeting,suggest_key) ON CONFLICT REPLACE)");
+        } else {
+            db.execSQL("CREATE TABLE search_suggest (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                    + "suggest_text_1 TEXT NOT NULL)");
+        }
+
+        if (version >= VER_SESSIONS_FTS4) {
+            db.execSQL("CREATE VIRTUAL TABLE sessions_search USING fts4(search_title,"
+                    + "search_keywords,search_room,search_abstract,prefix=\"2,3\",tokenize=porter)");
+        } else {
+            db.execSQL("CREATE VIRTUAL TABLE sessions_search USING fts3(body TEXT NOT NULL,"
+                    + "session_id TEXT NOT NULL,tokenize=porter)");
+        }
+
+        if (version >= VER_SCHEDULE_INDEXES) {
+            db.execSQL("CREATE INDEX blocks_start_index ON blocks(meeting,block_start)");
+            db.execSQL("CREATE INDEX blocks_end_index ON blocks(meeting,block_end)");
+            db.execSQL("CREATE INDEX sessions_block_id_index ON sessions(meeting,block_id)");
+            db.execSQL("CREATE INDEX sessions_room_id_index ON sessions(meeting,room_id)");
+            db.execSQL("CREATE INDEX sessions_starred_index ON sessions(meeting,session_starred)");
+            db.execSQL("CREATE INDEX sessions_tracks_track_id_index ON sessions_tracks(track_id,meeting)");
+        }
+        if (version >= VER_BLOCK_INTERVALS) {
+            db.execSQL("CREATE INDEX blocks_duration_index"
+                    + " ON blocks(meeting,(block_end-block_start))");
+        }
+        if (version >= VER_BLOCK_AGGREGATES) {
+            final String blockSessions = " FROM sessions WHERE sessions.meeting=blocks.meeting"
+                    + " AND sessions.block_id=blocks.block_id";
+            db.execSQL("CREATE TRIGGER sessions_aggregates_update AFTER UPDATE OF"
+                    + " block_id,session_starred ON sessions BEGIN UPDATE blocks SET"
+                    + " sessions_count=(SELECT COUNT(*)" + blockSessions + "),"
+                    + " contains_starred=(SELECT IFNULL(MAX(session_starred),0)" + blockSessions + ")"
+                    + " WHERE meeting=new.meeting AND block_id IN (old.block_id,new.block_id); END;");
+        }
+        if (version >= VER_SESSIONS_KEYSET) {
+            final String blockStart = "session_block_start=IFNULL((SELECT block_start FROM blocks"
+                    + " WHERE blocks.meeting=sessions.meeting AND blocks.block_id=sessions.block_id),0)";
+            db.execSQL("CREATE TRIGGER sessions_block_start_insert AFTER INSERT ON sessions BEGIN"
+                    + " UPDATE sessions SET " + blockStart + " WHERE _id=new._id; END;");
+            db.execSQL("CREATE TRIGGER sessions_block_start_update AFTER UPDATE OF block_id"
+                    + " ON sessions BEGIN UPDATE sessions SET " + blockStart
+                    + " WHERE _id=new._id; END;");
+            db.execSQL("CREATE TRIGGER blocks_block_start_insert AFTER INSERT ON blocks BEGIN"
+                    + " UPDATE sessions SET session_block_start=new.block_start"
+                    + " WHERE meeting=new.meeting AND block_id=new.block_id; END;");
+            db.execSQL("CREATE INDEX sessions_keyset_index ON sessions(meeting,"
+                    + "session_block_start,ifnull(session_title,'') COLLATE NOCASE,session_id)");
+        }
+        if (version >= VER_SESSION_MATERIALS) {
+            db.execSQL("CREATE TABLE session_materials (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                    + "updated INTEGER NOT NULL,session_id TEXT NOT NULL REFERENCES sessions(session_id),"
+                    + "material_kind TEXT NOT NULL,material_title TEXT,material_url TEXT NOT NULL,"
+                    + "material_order INTEGER NOT NULL DEFAULT 0,meeting INTEGER NOT NULL DEFAULT 0,"
+                    + "UNIQUE (meeting,session_id,material_kind,material_url) ON CONFLICT REPLACE)");
+            db.execSQL("CREATE INDEX session_materials_session_id_index"
+                    + " ON session_materials(meeting,session_id,material_order)");
+        }
+
+        insertFixtureRows(db, version);
+    }
+
+    /** One block holding a starred plenary with slides, and one other session. */
+    private static void insertFixtureRows(SQLiteDatabase db, int version) {
+        final boolean partitioned = version >= VER_MEETING_PARTITION;
+        final String meetingColumn = partitioned ? ",meeting" : "";
+        final String meetingValue = partitioned ? "," + MEETING : "";
+
+        db.execSQL("INSERT INTO blocks (block_id,block_title,block_start,block_end,block_type,"
+                + "updated" + (version >= VER_BLOCK_AGGREGATES ? ",sessions_count,contains_starred" : "")
+                + meetingColumn + ") VALUES ('" + BLOCK_ID + "','Plenary',1700000000000,"
+                + "1700003600000,'Session',1" + (version >= VER_BLOCK_AGGREGATES ? ",2,1" : "")
+                + meetingValue + ")");
+        db.execSQL("INSERT INTO tracks (track_id,track_name,updated) VALUES ('gen','General',1)");
+        db.execSQL("INSERT INTO rooms (room_id,room_name" + meetingColumn + ")"
+                + " VALUES ('hall','Plenary Hall'" + meetingValue + ")");
+        db.execSQL("INSERT INTO sessions (updated,session_id,block_id,room_id,session_title,"
+                + "session_keywords,session_pdf_url,session_starred" + meetingColumn + ")"
+                + " VALUES (1,'plenary','" + BLOCK_ID + "','hall','IETF Plenary','gen',"
+                + "'Plenary slides|||" + SLIDES_URL + "',1" + meetingValue + ")");
+        db.execSQL("INSERT INTO sessions (updated,session_id,block_id,room_id,session_title,"
+                + "session_keywords,session_starred" + meetingColumn + ")"
+                + " VALUES (1,'hackdemo','" + BLOCK_ID + "','hall','Hackathon demos','hackathon',0"
+                + meetingValue + ")");
+        db.execSQL("INSERT INTO sessions_tracks (session_id,track_id" + meetingColumn + ")"
+                + " VALUES ('plenary','gen'" + meetingValue + ")");
+
+        // The current schema indexes through triggers; earlier fixtures are
+        // filled the way their releases' triggers would have.
+        if (version >= ScheduleDatabase.DATABASE_VERSION) return;
+        if (version >= VER_SESSION_MATERIALS) {
+            db.execSQL("INSERT INTO session_materials (updated,session_id,material_kind,"
+                    + "material_title,material_url,material_order,meeting) VALUES (1,'plenary',"
+                    + "'slides','Plenary slides','" + SLIDES_URL + "',0," + MEETING + ")");
+        }
+        if (version >= VER_SESSIONS_FTS4) {
+            db.execSQL("INSERT INTO sessions_search (docid,search_title,search_keywords,"
+                    + "search_room,search_abstract) SELECT _id,session_title,session_keywords,"
+                    + "'Plenary Hall','' FROM sessions");
+        } else {
+            db.execSQL("INSERT INTO sessions_search (body,session_id)"
+                    + " SELECT session_title || ' ' || session_keywords, session_id FROM sessions");
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.ietf.ietfsched.provider;
+
+import android.app.SearchManager;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
+import org.ietf.ietfsched.provider.ScheduleContract.Rooms;
+import org.ietf.ietfsched.provider.ScheduleContract.SearchSuggest;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+import org.ietf.ietfsched.provider.ScheduleContract.Tracks;
+import org.ietf.ietfsched.util.SelectionBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Query plan regression tests for {@link ScheduleProvider}.
+ *
+ * Runs {@code EXPLAIN QUERY PLAN} on the SQL generated for every URI handled by
+ * the provider's expanded selection, against an in-memory {@link ScheduleDatabase},
+ * and fails when a meeting-scoped query falls back to a full table scan. Only
+ * {@code SEARCH} steps pass; a {@code SCAN}, with or without an index, must be
+ * allowed explicitly for its table.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScheduleQueryPlanTest {
+    private static final int MEETING = 124;
+    private static final String BLOCK_ID = "1700000000-1700003600";
+
+    /** "SCAN blocks" on newer SQLite, "SCAN TABLE blocks" on older releases. */
+    private static final Pattern FULL_SCAN = Pattern.compile("^SCAN (?:TABLE )?(\\w+)");
+
+    private ScheduleDatabase mOpenHelper;
+    private SQLiteDatabase mDb;
+    private ScheduleProvider mProvider;
+
+    @Before
+    public void setUp() {
+        mOpenHelper = new ScheduleDatabase(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(), null);
+        mDb = mOpenHelper.getWritableDatabase();
+        mProvider = new ScheduleProvider();
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+    }
+
+    @Test
+    public void blockQueriesUseIndexes() {
+        final String[] projection = { Blocks._ID, Blocks.BLOCK_ID, Blocks.SESSIONS_COUNT,
+                Blocks.CONTAINS_STARRED };
+        assertNoFullScan(Blocks.CONTENT_URI, projection, Blocks.DEFAULT_SORT);
+        assertNoFullScan(Blocks.buildBlocksBetweenDirUri(1700000000000L, 1700086400000L),
+                projection, Blocks.DEFAULT_SORT);
+        assertNoFullScan(Blocks.buildBlocksAtDirUri(1700001000000L), projection,
+                Blocks.DEFAULT_SORT);
+        assertNoFullScan(Blocks.buildBlocksOverlappingDirUri(1700001000000L, 1700009000000L),
+                projection, Blocks.DEFAULT_SORT);
+        assertNoFullScan(Blocks.buildBlocksNextDirUri(1700001000000L), projection,
+                Blocks.DEFAULT_SORT);
+        assertNoFullScan(Blocks.buildBlockUri(BLOCK_ID), projection, null);
+        assertNoFullScan(Blocks.buildSessionsUri(BLOCK_ID), null, Sessions.DEFAULT_SORT);
+    }
+
+    /**
+     * One all-day block must not widen the start-index seek of an overlap
+     * lookup to the whole meeting, and must still be found.
+     */
+    @Test
+    public void overlapLookupSeeksPastLongBlock() {
+        final long start = 1700000000000L;
+        final long hour = 60 * 60 * 1000L;
+        final ContentValues values = new ContentValues();
+        for (int b = 0; b < 7 * 24; b++) {
+            insertBlock(values, "block-" + b, start + b * hour, start + (b + 1) * hour);
+        }
+        insertBlock(values, "registration", start, start + 7 * 24 * hour);
+        assertTrue(7 * 24 * hour > ScheduleProvider.LONG_BLOCK_MILLIS);
+
+        final long time = start + 50 * hour + hour / 2;
+        assertBoundedSeek(Blocks.buildBlocksAtDirUri(time), "registration", "block-50");
+        assertBoundedSeek(Blocks.buildBlocksOverlappingDirUri(time, time + hour),
+                "registration", "block-50", "block-51");
+    }
+
+    @Test
+    public void roomQueriesUseIndexes() {
+        assertNoFullScan(Rooms.CONTENT_URI, null, Rooms.DEFAULT_SORT);
+        assertNoFullScan(Rooms.buildRoomUri("room-1"), null, null);
+        assertNoFullScan(Rooms.buildSessionsDirUri("room-1"), null, Sessions.DEFAULT_SORT);
+    }
+
+    @Test
+    public void sessionQueriesUseIndexes() {
+        assertNoFullScan(Sessions.CONTENT_URI, null, Sessions.DEFAULT_SORT);
+        assertNoFullScan(Sessions.CONTENT_STARRED_URI, null, Sessions.DEFAULT_SORT);
+        assertNoFullScan(Sessions.buildSearchUri("tls"),
+                new String[] { Sessions.SESSION_ID, Sessions.SEARCH_SNIPPET },
+                Sessions.DEFAULT_SORT);
+        assertNoFullScan(Sessions.buildSessionsAtDirUri(1700001000000L), null,
+                Sessions.DEFAULT_SORT);
+        assertNoFullScan(Sessions.buildSessionsOverlappingDirUri(1700001000000L,
+                1700009000000L), null, Sessions.DEFAULT_SORT);
+        assertNoFullScan(Sessions.buildSessionsNextDirUri(1700001000000L), null,
+                Sessions.DEFAULT_SORT);
+        assertNoFullScan(Sessions.buildSessionUri("12345"), null, null);
+        assertNoFullScan(Sessions.buildTracksDirUri("12345"), null, Tracks.DEFAULT_SORT);
+        assertNoFullScan(Sessions.buildMaterialsDirUri("12345"), null,
+                SessionMaterials.DEFAULT_SORT);
+    }
+
+    @Test
+    public void keysetPagesReadInIndexOrder() {
+        final String[] key = Sessions.buildKeysetArgs(1700001000000L, "tls", "12345");
+        assertIndexOrdered(null, null, Sessions.KEYSET_SORT);
+        assertIndexOrdered(Sessions.KEYSET_AFTER, key, Sessions.KEYSET_SORT);
+        assertIndexOrdered(Sessions.KEYSET_FROM, key, Sessions.KEYSET_SORT);
+        assertIndexOrdered(Sessions.KEYSET_BEFORE, key, Sessions.KEYSET_SORT_REVERSE);
+    }
+
+    @Test
+    public void trackQueriesUseIndexes() {
+        // The tracks listing returns every row by design; only its per-track
+        // session count must stay an index lookup.
+        assertNoFullScan(Tracks.CONTENT_URI,
+                new String[] { Tracks.TRACK_ID, Tracks.SESSIONS_COUNT },
+                Tracks.DEFAULT_SORT, ScheduleDatabase.Tables.TRACKS);
+        assertNoFullScan(Tracks.buildTrackUri("ops-tls"), null, null);
+        assertNoFullScan(Tracks.buildSessionsUri("ops-tls"), null, Sessions.DEFAULT_SORT);
+        // Debug listing of the whole session/track mapping.
+        assertNoFullScan(Uri.parse("content://" + ScheduleContract.CONTENT_AUTHORITY
+                + "/" + ScheduleDatabase.Tables.SESSIONS_TRACKS), null, null,
+                ScheduleDatabase.Tables.SESSIONS_TRACKS);
+    }
+
+    @Test
+    public void suggestionQueriesUseIndexes() {
+        final String[] projection = { SearchSuggest._ID, SearchManager.SUGGEST_COLUMN_TEXT_1,
+                SearchManager.SUGGEST_COLUMN_QUERY };
+        assertNoFullScan(SearchSuggest.buildSuggestUri("6m"), projection,
+                SearchSuggest.DEFAULT_SORT);
+        assertNoFullScan(SearchSuggest.CONTENT_URI, projection, SearchSuggest.DEFAULT_SORT);
+    }
+
+    private void assertNoFullScan(Uri uri, String[] projection, String sortOrder,
+            String... allowedScans) {
+        final Uri scoped = ScheduleContract.buildMeetingScopedUri(uri, MEETING);
+        final SelectionBuilder builder = mProvider.buildQuerySelection(scoped);
+        final String sql = builder.buildQuery(projection, sortOrder);
+        final List<String> plan = explain(sql, builder.getSelectionArgs());
+        assertTrue("Empty query plan for " + uri, !plan.isEmpty());
+
+        for (String step : plan) {
+            final Matcher matcher = FULL_SCAN.matcher(step);
+            // "SCAN t USING [COVERING] INDEX i" still visits every row, only in
+            // index order; such scans must be listed in allowedScans like any other.
+            // Full-text tables are matched through their own index.
+            if (!matcher.find() || step.contains("VIRTUAL TABLE")) {
+                continue;
+            }
+            boolean allowed = false;
+            for (String table : allowedScans) {
+                allowed |= table.equals(matcher.group(1));
+            }
+            if (!allowed) {
+                fail("Full table scan for " + uri + ": " + step + "\nSQL: " + sql
+                        + "\nPlan: " + plan);
+            }
+        }
+    }
+
+    /**
+     * Check that a page of {@link Sessions#CONTENT_URI}, as SessionPager reads
+     * it, seeks into the keyset index and reads rows in order: no scan, and no
+     * temporary B-tree sorting the whole meeting to return one page.
+     */
+    private void assertIndexOrdered(String selection, String[] selectionArgs, String sortOrder) {
+        final Uri scoped = ScheduleContract.buildMeetingScopedUri(Sessions.CONTENT_URI, MEETING);
+        final SelectionBuilder builder = mProvider.buildQuerySelection(scoped)
+                .where(selection, selectionArgs);
+        final String sql = builder.buildQuery(new String[] { Sessions.SESSION_ID,
+                Sessions.SESSION_TITLE, Sessions.BLOCK_START }, sortOrder) + " LIMIT 50";
+        final List<String> plan = explain(sql, builder.getSelectionArgs());
+        assertTrue("Empty query plan for " + selection, !plan.isEmpty());
+
+        for (String step : plan) {
+            if (FULL_SCAN.matcher(step).find() || step.contains("TEMP B-TREE")) {
+                fail("Keyset page not read in index order: " + step + "\nSQL: " + sql
+                        + "\nPlan: " + plan);
+            }
+        }
+    }
+
+    private void insertBlock(ContentValues values, String blockId, long start, long end) {
+        values.clear();
+        values.put(Blocks.BLOCK_ID, blockId);
+        values.put(Blocks.BLOCK_TITLE, blockId);
+        values.put(Blocks.BLOCK_START, start);
+        values.put(Blocks.BLOCK_END, end);
+        values.put(Blocks.UPDATED, 1);
+        values.put(Blocks.MEETING, MEETING);
+        mDb.insertOrThrow(ScheduleDatabase.Tables.BLOCKS, null, values);
+    }
+
+    /**
+     * Check that {@code uri} returns exactly {@code blockIds}, in default
+     * order, and only seeks the start index between two bounds.
+     */
+    private void assertBoundedSeek(Uri uri, String... blockIds) {
+        assertNoFullScan(uri, new String[] { Blocks.BLOCK_ID }, Blocks.DEFAULT_SORT);
+
+        final Uri scoped = ScheduleContract.buildMeetingScopedUri(uri, MEETING);
+        final SelectionBuilder builder = mProvider.buildQuerySelection(scoped);
+        final String sql = builder.buildQuery(new String[] { Blocks.BLOCK_ID },
+                Blocks.DEFAULT_SORT);
+        final List<String> plan = explain(sql, builder.getSelectionArgs());
+        for (String step : plan) {
+            if (step.contains("blocks_start_index") && !step.contains("block_start>?")) {
+                fail("Unbounded start-index seek for " + uri + ": " + step + "\nSQL: " + sql
+                        + "\nPlan: " + plan);
+            }
+        }
+
+        final List<String> found = new ArrayList<>();
+        try (Cursor cursor = builder.query(mDb, new String[] { Blocks.BLOCK_ID },
+                Blocks.DEFAULT_SORT)) {
+            while (cursor.moveToNext()) {
+                found.add(cursor.getString(0));
+            }
+        }
+        assertEquals(Arrays.asList(blockIds), found);
+    }
+
+    private List<String> explain(String sql, String[] selectionArgs) {
+        final List<String> plan = new ArrayList<>();
+        try (Cursor cursor = mDb.rawQuery("EXPLAIN QUERY PLAN " + sql, selectionArgs)) {
+            final int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.provider;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+import org.ietf.ietfsched.provider.ScheduleDatabase.Tables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that paging through sessions with the {@code KEYSET_} selections
+ * visits every row once, in {@link Sessions#DEFAULT_SORT} order, forwards and
+ * backwards.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SessionsKeysetTest {
+    private static final String DATABASE_NAME = "sessions-keyset-test.db";
+    private static final long START = 1773648000000L;
+    private static final long HOUR = 3600000L;
+    private static final int BLOCKS = 7;
+    private static final int SESSIONS = 200;
+    private static final int PAGE = 13;
+
+    private static final String[] PROJECTION = {
+            Sessions.SESSION_ID, Sessions.SESSION_TITLE, Blocks.BLOCK_START,
+    };
+
+    private Context mContext;
+    private ScheduleDatabase mOpenHelper;
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContext.deleteDatabase(DATABASE_NAME);
+        mOpenHelper = new ScheduleDatabase(mContext, DATABASE_NAME);
+        mDb = mOpenHelper.getWritableDatabase();
+
+        final ContentValues values = new ContentValues();
+        for (int b = 0; b < BLOCKS; b++) {
+            values.clear();
+            values.put(Blocks.BLOCK_ID, "block-" + b);
+            values.put(Blocks.BLOCK_TITLE, "Block " + b);
+            values.put(Blocks.BLOCK_START, START + b * HOUR);
+            values.put(Blocks.BLOCK_END, START + (b + 1) * HOUR);
+            values.put(Blocks.UPDATED, 1);
+            mDb.insertOrThrow(Tables.BLOCKS, null, values);
+        }
+        for (int i = 0; i < SESSIONS; i++) {
+            values.clear();
+            values.put(Sessions.SESSION_ID, "s" + i);
+            // Few distinct titles in mixed case, so ties fall to the session id;
+            // every 17th session has no block.
+            values.put(Sessions.SESSION_TITLE, (i % 2 == 0 ? "wg " : "WG ") + (i % 5));
+            if (i % 17 != 0) values.put(Sessions.BLOCK_ID, "block-" + (i % BLOCKS));
+            values.put(Sessions.UPDATED, 1);
+            mDb.insertOrThrow(Tables.SESSIONS, null, values);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+        mContext.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void pagesForwardInDefaultOrder() {
+        final List<String> all = query(null, null, Sessions.KEYSET_SORT, null);
+        assertEquals(SESSIONS, all.size());
+
+        final List<String> paged = new ArrayList<>();
+        String[] last = null;
+        while (true) {
+            final List<String[]> page = queryRows(last == null ? null : Sessions.KEYSET_AFTER,
+                    last, Sessions.KEYSET_SORT, String.valueOf(PAGE));
+            for (String[] row : page) paged.add(row[0]);
+            if (page.size() < PAGE) break;
+            last = page.get(page.size() - 1);
+        }
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void pagesBackwardFromTheEnd() {
+        final List<String> all = query(null, null, Sessions.KEYSET_SORT, null);
+        final List<String[]> tail = queryRows(null, null, Sessions.KEYSET_SORT_REVERSE, "1");
+
+        final List<String> paged = new ArrayList<>();
+        paged.add(tail.get(0)[0]);
+        String[] first = tail.get(0);
+        while (true) {
+            final List<String[]> page = queryRows(Sessions.KEYSET_BEFORE, first,
+                    Sessions.KEYSET_SORT_REVERSE, String.valueOf(PAGE));
+            for (String[] row : page) paged.add(row[0]);
+            if (page.size() < PAGE) break;
+            first = page.get(page.size() - 1);
+        }
+        Collections.reverse(paged);
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void fromIncludesTheKeyRow() {
+        final List<String[]> first = queryRows(null, null, Sessions.KEYSET_SORT, "1");
+        final List<String[]> from = queryRows(Sessions.KEYSET_FROM, first.get(0),
+                Sessions.KEYSET_SORT, "1");
+        assertEquals(first.get(0)[0], from.get(0)[0]);
+    }
+
+    private List<String> query(String selection, String[] key, String sortOrder, String limit) {
+        final List<String> ids = new ArrayList<>();
+        for (String[] row : queryRows(selection, key, sortOrder, limit)) ids.add(row[0]);
+        return ids;
+    }
+
+    /** Rows as {session_id, title, block_start}, keyed on {@code key} in the same layout. */
+    private List<String[]> queryRows(String selection, String[] key, String sortOrder,
+            String limit) {
+        final String[] args = key == null ? null
+                : Sessions.buildKeysetArgs(key[2] == null ? 0 : Long.parseLong(key[2]), key[1],
+                        key[0]);
+        final List<String[]> rows = new ArrayList<>();
+        final Cursor cursor = mDb.query(Tables.SESSIONS_JOIN_BLOCKS_ROOMS, PROJECTION, selection,
+                args, null, null, sortOrder, limit);
+        try {
+            while (cursor.moveToNext()) {
+                rows.add(new String[] { cursor.getString(0), cursor.getString(1),
+                        cursor.getString(2) });
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import android.content.Context;
+import android.database.MatrixCursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link SessionRow#DIFF} treats a star toggle as a partial
+ * change, so the list only rebinds the star.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SessionRowTest {
+    private static final long START = 1773648000000L;
+    private static final long HOUR = 3600000L;
+
+    @Test
+    public void starToggleIsPartialChange() {
+        final SessionRow row = read(7, "quic", "QUIC", "Room 101");
+        final SessionRow starred = row.withStarred(true);
+        assertTrue(SessionRow.DIFF.areItemsTheSame(row, starred));
+        assertFalse(SessionRow.DIFF.areContentsTheSame(row, starred));
+        assertSame(SessionRow.PAYLOAD_STARRED, SessionRow.DIFF.getChangePayload(row, starred));
+        assertSame(starred, starred.withStarred(true));
+    }
+
+    @Test
+    public void textChangeRebindsRow() {
+        final SessionRow row = read(7, "quic", "QUIC", "Room 101");
+        final SessionRow moved = read(7, "quic", "QUIC", "Room 102");
+        assertTrue(SessionRow.DIFF.areItemsTheSame(row, moved));
+        assertFalse(SessionRow.DIFF.areContentsTheSame(row, moved));
+        assertNull(SessionRow.DIFF.getChangePayload(row, moved));
+        assertTrue(SessionRow.DIFF.areContentsTheSame(row, read(7, "quic", "QUIC", "Room 101")));
+        assertFalse(SessionRow.DIFF.areItemsTheSame(row, read(8, "tls", "TLS", "Room 101")));
+    }
+
+    private static SessionRow read(long id, String sessionId, String title, String room) {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        final MatrixCursor cursor = new MatrixCursor(SessionRow.SessionsQuery.PROJECTION);
+        cursor.addRow(new Object[] { id, sessionId, title, 0, 0, START, START + HOUR, room });
+        try {
+            cursor.moveToFirst();
+            return SessionRow.fromSessions(cursor, context);
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import android.content.Context;
+import android.database.MatrixCursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks when {@link SessionSearch} narrows earlier results instead of reading
+ * them again, and that narrowing follows the ids the index matched.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SessionSearchTest {
+
+    @Test
+    public void tokenizesLikeTheProvider() {
+        assertArrayEquals(new String[] { "quic", "wg" },
+                SessionSearch.tokenize("  QUIC-wg "));
+        assertArrayEquals(new String[0], SessionSearch.tokenize(" -- "));
+    }
+
+    @Test
+    public void narrowsWhenTheQueryGrows() {
+        assertTrue(narrows("q", "quic"));
+        assertTrue(narrows("quic", "quic wg"));
+        assertTrue(narrows("quic w", "quic wg"));
+        // Editing an earlier word, or deleting, needs a real search.
+        assertFalse(narrows("quic", "qui"));
+        assertFalse(narrows("quic wg", "quick wg"));
+        assertFalse(narrows("quic wg", "quic"));
+        assertFalse(narrows("", "quic"));
+    }
+
+    @Test
+    public void keepsRowsTheIndexMatched() {
+        final SessionRow quic = read(1, "quic", "QUIC");
+        final SessionRow tls = read(2, "tls", "TLS");
+        final SessionRow rtg = read(3, "rtgwg", "Routing Area");
+        final List<SessionRow> rows = Arrays.asList(quic, tls, rtg);
+
+        final List<SessionRow> kept = SessionSearch.keep(rows, Arrays.asList("rtgwg", "quic"));
+        assertEquals(2, kept.size());
+        // In the order the index ranked them, not the earlier one.
+        assertSame(rtg, kept.get(0));
+        assertSame(quic, kept.get(1));
+        assertTrue(SessionSearch.keep(rows, Arrays.<String>asList()).isEmpty());
+    }
+
+    @Test
+    public void searchesAgainWhenTheIndexMatchesMore() {
+        // A stemmed index can match a longer query more widely ("rout" is
+        // the stem of "routing", so "routing" also finds "routes").
+        final List<SessionRow> rows = Arrays.asList(read(3, "rtgwg", "Routing Area"));
+        assertNull(SessionSearch.keep(rows, Arrays.asList("rtgwg", "idr")));
+    }
+
+    private static SessionRow read(long id, String sessionId, String title) {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        final MatrixCursor cursor = new MatrixCursor(SessionRow.SessionsQuery.PROJECTION);
+        cursor.addRow(new Object[] { id, sessionId, title, 0, 0, 0L, 0L, "Room 101" });
+        try {
+            cursor.moveToFirst();
+            return SessionRow.fromSessions(cursor, context);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static boolean narrows(String previous, String next) {
+        return SessionSearch.narrows(SessionSearch.tokenize(previous),
+                SessionSearch.tokenize(next));
+    }
+}
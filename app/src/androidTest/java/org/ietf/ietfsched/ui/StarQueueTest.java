@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import android.content.Context;
+import android.database.MatrixCursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link StarQueue} shows the last toggle of a session before it
+ * is written, and only copies rows whose star it changes.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StarQueueTest {
+    /** Not a session of any meeting, so the eventual write changes nothing. */
+    private static final String SESSION_ID = "star-queue-test";
+
+    @Test
+    public void lastToggleWinsAndOverlaysRows() {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final StarQueue stars = StarQueue.get(context);
+                final SessionRow row = read(context, 1, SESSION_ID);
+                final SessionRow other = read(context, 2, "star-queue-other");
+                final List<SessionRow> rows = Arrays.asList(row, other);
+
+                stars.setStarred(SESSION_ID, true);
+                stars.setStarred(SESSION_ID, false);
+                stars.setStarred(SESSION_ID, true);
+                assertTrue(stars.isStarred(SESSION_ID, false));
+                assertFalse(stars.isStarred("star-queue-other", false));
+
+                final List<SessionRow> shown = stars.apply(rows);
+                assertTrue(shown.get(0).starred);
+                assertSame(other, shown.get(1));
+
+                stars.setStarred(SESSION_ID, false);
+                assertSame(rows, stars.apply(rows));
+                stars.flush();
+            }
+        });
+    }
+
+    private static SessionRow read(Context context, long id, String sessionId) {
+        final MatrixCursor cursor = new MatrixCursor(SessionRow.SessionsQuery.PROJECTION);
+        cursor.addRow(new Object[] { id, sessionId, "Title", 0, 0, 0, 0, "Room" });
+        try {
+            cursor.moveToFirst();
+            return SessionRow.fromSessions(cursor, context);
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.accessibility.AccessibilityNodeProvider;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.ietf.ietfsched.R;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that blocks drawn by {@link BlocksLayout} are hit-tested and exposed
+ * to accessibility services without any child views.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BlocksLayoutTest {
+    private static final int WIDTH = 1080;
+    /** 2026-03-16 00:00 UTC; the ruler in blocks_content starts at 07:00. */
+    private static final long DAY = 1773619200000L;
+    private static final long HOUR = 3600000L;
+    private static final int RULER_START_HOUR = 7;
+
+    private final List<BlocksLayout.Block> mClicked = new ArrayList<>();
+    private Context mContext;
+    private BlocksLayout mLayout;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final View root = LayoutInflater.from(mContext)
+                        .inflate(R.layout.blocks_content, null);
+                mLayout = (BlocksLayout) root.findViewById(R.id.blocks);
+                mLayout.setOnBlockClickListener(new BlocksLayout.OnBlockClickListener() {
+                    @Override
+                    public void onBlockClick(BlocksLayout.Block block) {
+                        mClicked.add(block);
+                    }
+                });
+
+                final ArrayList<BlocksLayout.Block> blocks = new ArrayList<>();
+                blocks.add(new BlocksLayout.Block("session", "Session I", DAY + 9 * HOUR,
+                        DAY + 11 * HOUR, false, 1, 0, true));
+                blocks.add(new BlocksLayout.Block("lunch", "Lunch", DAY + 12 * HOUR,
+                        DAY + 13 * HOUR, false, 0, 0, false));
+                mLayout.setBlocks(blocks);
+
+                root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                root.layout(0, 0, WIDTH, root.getMeasuredHeight());
+            }
+        });
+    }
+
+    @Test
+    public void drawsWithoutChildViews() {
+        // Only the ruler and the "now" bar are views.
+        assertEquals(2, mLayout.getChildCount());
+    }
+
+    @Test
+    public void clicksEnabledBlocks() {
+        tap(1, 9);
+        assertEquals(1, mClicked.size());
+        assertEquals("session", mClicked.get(0).getBlockId());
+
+        // Blocks without sessions are drawn disabled and ignore taps.
+        tap(0, 12);
+        assertEquals(1, mClicked.size());
+    }
+
+    @Test
+    public void updatesStarredInPlace() {
+        tap(1, 9);
+        final BlocksLayout.Block session = mClicked.get(0);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(mLayout.setBlockContainsStarred("session", true));
+                assertFalse(mLayout.setBlockContainsStarred("missing", true));
+            }
+        });
+        assertTrue(session.containsStarred());
+    }
+
+    @Test
+    public void exposesVirtualViews() {
+        final AccessibilityNodeProvider provider = mLayout.getAccessibilityNodeProvider();
+        assertNotNull(provider);
+        final AccessibilityNodeInfo host =
+                provider.createAccessibilityNodeInfo(AccessibilityNodeProvider.HOST_VIEW_ID);
+        assertEquals(2, host.getChildCount());
+
+        final AccessibilityNodeInfo session = provider.createAccessibilityNodeInfo(0);
+        assertTrue(session.getContentDescription().toString().startsWith("Session I"));
+        assertTrue(session.isClickable());
+        final AccessibilityNodeInfo lunch = provider.createAccessibilityNodeInfo(1);
+        assertFalse(lunch.isEnabled());
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                provider.performAction(0, AccessibilityNodeInfo.ACTION_CLICK, null);
+            }
+        });
+        assertEquals(1, mClicked.size());
+    }
+
+    /** Tap the middle of the first hour of a block in {@code column} starting at {@code hour}. */
+    private void tap(int column, int hour) {
+        final int header = mContext.getResources()
+                .getDimensionPixelSize(R.dimen.schedule_label_header_width);
+        final int hourHeight = mContext.getResources()
+                .getDimensionPixelSize(R.dimen.schedule_hour_height);
+        final int columnWidth = (WIDTH - header) / 4;
+        final float x = header + column * columnWidth + columnWidth / 2f;
+        final float y = (hour - RULER_START_HOUR) * hourHeight + hourHeight / 2f;
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final long now = SystemClock.uptimeMillis();
+                final MotionEvent down = MotionEvent.obtain(now, now,
+                        MotionEvent.ACTION_DOWN, x, y, 0);
+                final MotionEvent up = MotionEvent.obtain(now, now + 50,
+                        MotionEvent.ACTION_UP, x, y, 0);
+                mLayout.dispatchTouchEvent(down);
+                mLayout.dispatchTouchEvent(up);
+                down.recycle();
+                up.recycle();
+            }
+        });
+    }
+}
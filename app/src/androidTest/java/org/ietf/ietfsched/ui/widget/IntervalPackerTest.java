@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui.widget;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the lanes {@link IntervalPacker} assigns, and counts the comparisons
+ * it makes on synthetic days with hundreds to thousands of overlapping blocks.
+ */
+@RunWith(AndroidJUnit4.class)
+public class IntervalPackerTest {
+    private static final long MINUTE = 60000L;
+    private static final long DAY_START = 1773648000000L;
+
+    private static final int BENCHMARK_BLOCKS = 800;
+    private static final int BENCHMARK_COLUMNS = 4;
+
+    /**
+     * Comparisons allowed per block and per doubling of the block count: sorting
+     * takes about one, and each block enters and leaves the running heap. A
+     * pairwise packer would need ten times the bound at 800 blocks.
+     */
+    private static final int COMPARISONS_PER_LOG_STEP = 4;
+
+    @Test
+    public void sharesColumnBetweenOverlaps() {
+        // 9:00-10:00 and 9:30-11:00 overlap; 10:00-10:30 reuses the first lane;
+        // 12:00-13:00 stands alone.
+        final long[] starts = { at(540), at(570), at(600), at(720) };
+        final long[] ends = { at(600), at(660), at(630), at(780) };
+        final int[] lanes = new int[4];
+        final int[] laneCounts = new int[4];
+        IntervalPacker.pack(starts, ends, null, null, lanes, laneCounts);
+        assertArrayEquals(new int[] { 0, 1, 0, 0 }, lanes);
+        assertArrayEquals(new int[] { 2, 2, 2, 1 }, laneCounts);
+    }
+
+    @Test
+    public void packsMoreThanTwoLanes() {
+        final long[] starts = { at(540), at(540), at(540), at(560) };
+        final long[] ends = { at(600), at(600), at(600), at(620) };
+        final int[] priorities = { 2, 0, 1, 0 };
+        final int[] lanes = new int[4];
+        final int[] laneCounts = new int[4];
+        IntervalPacker.pack(starts, ends, null, priorities, lanes, laneCounts);
+        // Blocks starting together are ordered by priority.
+        assertArrayEquals(new int[] { 2, 0, 1, 3 }, lanes);
+        assertArrayEquals(new int[] { 4, 4, 4, 4 }, laneCounts);
+    }
+
+    @Test
+    public void keepsColumnsApart() {
+        final long[] starts = { at(540), at(540), at(540) };
+        final long[] ends = { at(600), at(600), at(600) };
+        final int[] columns = { 1, 2, 1 };
+        final int[] lanes = new int[3];
+        final int[] laneCounts = new int[3];
+        IntervalPacker.pack(starts, ends, columns, null, lanes, laneCounts);
+        assertArrayEquals(new int[] { 0, 0, 1 }, lanes);
+        assertArrayEquals(new int[] { 2, 1, 2 }, laneCounts);
+    }
+
+    @Test
+    public void packsSyntheticDaysInLinearithmicComparisons() {
+        final Random random = new Random(41);
+        for (int blocks = BENCHMARK_BLOCKS; blocks <= 8 * BENCHMARK_BLOCKS; blocks *= 2) {
+            final long[] starts = new long[blocks];
+            final long[] ends = new long[blocks];
+            final int[] columns = new int[blocks];
+            final int[] priorities = new int[blocks];
+            final int[] lanes = new int[blocks];
+            final int[] laneCounts = new int[blocks];
+            // 07:00-23:00 in 15 minute steps, 30 to 120 minutes long.
+            for (int i = 0; i < blocks; i++) {
+                starts[i] = at(420 + 15 * random.nextInt(60));
+                ends[i] = starts[i] + 30 * MINUTE * (1 + random.nextInt(4));
+                columns[i] = random.nextInt(BENCHMARK_COLUMNS);
+                priorities[i] = random.nextInt(2);
+            }
+            final long[] comparisons = new long[1];
+            IntervalPacker.pack(starts, ends, columns, priorities, lanes, laneCounts,
+                    comparisons);
+
+            final double bound = COMPARISONS_PER_LOG_STEP * blocks * Math.log(blocks) / Math.log(2);
+            assertTrue(blocks + " blocks took " + comparisons[0] + " comparisons",
+                    comparisons[0] <= bound);
+            if (blocks == BENCHMARK_BLOCKS) {
+                // Pairwise checks are quadratic; one day is enough for them.
+                assertNoConflicts(starts, ends, columns, lanes, laneCounts);
+                assertLowestFreeLanes(starts, ends, columns, lanes);
+            }
+        }
+    }
+
+    /** No two overlapping blocks of a column share a lane, and every lane fits its count. */
+    private static void assertNoConflicts(long[] starts, long[] ends, int[] columns,
+            int[] lanes, int[] laneCounts) {
+        for (int i = 0; i < starts.length; i++) {
+            assertTrue(lanes[i] < laneCounts[i]);
+            for (int j = i + 1; j < starts.length; j++) {
+                if (columns[i] != columns[j]) continue;
+                final boolean overlaps = starts[i] < ends[j] && starts[j] < ends[i];
+                assertFalse("Blocks " + i + " and " + j + " share lane " + lanes[i],
+                        overlaps && lanes[i] == lanes[j]);
+                if (overlaps) {
+                    assertTrue(laneCounts[i] == laneCounts[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every block took the lowest lane free when it started: each lower lane of
+     * its column is held by a block already running at that time.
+     */
+    private static void assertLowestFreeLanes(long[] starts, long[] ends, int[] columns,
+            int[] lanes) {
+        for (int i = 0; i < starts.length; i++) {
+            for (int lane = 0; lane < lanes[i]; lane++) {
+                boolean held = false;
+                for (int j = 0; j < starts.length && !held; j++) {
+                    held = j != i && columns[j] == columns[i] && lanes[j] == lane
+                            && starts[j] <= starts[i] && starts[i] < ends[j];
+                }
+                assertTrue("Block " + i + " skipped free lane " + lane, held);
+            }
+        }
+    }
+
+    private static long at(int minuteOfDay) {
+        return DAY_START + minuteOfDay * MINUTE;
+    }
+}
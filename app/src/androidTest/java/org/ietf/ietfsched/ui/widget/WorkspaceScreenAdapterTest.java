@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui.widget;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that a {@link Workspace} with a {@link Workspace.ScreenAdapter} only
+ * binds the current screen and its neighbours, and reuses recycled views.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WorkspaceScreenAdapterTest {
+    private static final int SCREENS = 14;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    private final List<Integer> mBound = new ArrayList<>();
+    private int mInflated;
+    private Workspace mWorkspace;
+
+    private final Workspace.ScreenAdapter mAdapter = new Workspace.ScreenAdapter() {
+        @Override
+        public View getScreenView(int index, View recycled, ViewGroup parent) {
+            mBound.add(index);
+            if (recycled != null) return recycled;
+            mInflated++;
+            return new View(parent.getContext());
+        }
+
+        @Override
+        public void onScreenRecycled(int index, View view) {
+            mBound.remove(Integer.valueOf(index));
+        }
+    };
+
+    @Before
+    public void setUp() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mWorkspace = new Workspace(
+                        InstrumentationRegistry.getInstrumentation().getTargetContext(), null);
+                mWorkspace.setScreenAdapter(mAdapter, SCREENS);
+                mWorkspace.setCurrentScreenNow(SCREENS / 2);
+                layout();
+            }
+        });
+    }
+
+    @Test
+    public void bindsOnlyNeighbours() {
+        assertEquals(SCREENS, mWorkspace.getScreenCount());
+        assertEquals(3, mBound.size());
+        assertEquals(3, mInflated);
+        for (int i = 0; i < SCREENS; i++) {
+            final boolean near = Math.abs(i - SCREENS / 2) <= 1;
+            assertEquals("Screen " + i, near ? 1 : 0,
+                    ((ViewGroup) mWorkspace.getScreenAt(i)).getChildCount());
+        }
+    }
+
+    @Test
+    public void recyclesWhileSwiping() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < SCREENS; i++) {
+                    mWorkspace.setCurrentScreenNow(i);
+                    settle();
+                }
+            }
+        });
+        assertEquals(SCREENS - 1, mWorkspace.getCurrentScreen());
+        assertEquals(2, mBound.size());
+        // Swiping through the whole meeting reuses the first three pages.
+        assertEquals(3, mInflated);
+    }
+
+    private void layout() {
+        mWorkspace.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mWorkspace.layout(0, 0, WIDTH, HEIGHT);
+        settle();
+    }
+
+    private void settle() {
+        // A zero-duration snap finishes on the first step and completes on the next.
+        mWorkspace.computeScroll();
+        mWorkspace.computeScroll();
+    }
+}
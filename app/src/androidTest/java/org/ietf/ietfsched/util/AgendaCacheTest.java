@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.util;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link AgendaCache} gives back what it stored, validator and
+ * all, nothing for an agenda it never saw, and drops agendas past their
+ * expiry.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AgendaCacheTest {
+    private static final String URL =
+            "https://datatracker.ietf.org/meeting/125/materials/agenda-125-cache-test";
+
+    private AgendaCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new AgendaCache(InstrumentationRegistry.getInstrumentation().getTargetContext());
+    }
+
+    @Test
+    public void roundTripsRenderedAgenda() {
+        final String html = "<!DOCTYPE html><html><body><h1>Agenda — QUIC</h1></body></html>";
+        mCache.put(URL, new AgendaCache.Entry("\"abc123\"", false, html));
+
+        final AgendaCache.Entry entry = mCache.get(URL);
+        assertEquals("\"abc123\"", entry.etag);
+        assertFalse(entry.loadSource);
+        assertEquals(html, entry.html);
+    }
+
+    @Test
+    public void keepsSourceAgendaWithoutEtag() {
+        mCache.put(URL + "-html", new AgendaCache.Entry(null, true, null));
+
+        final AgendaCache.Entry entry = mCache.get(URL + "-html");
+        assertNull(entry.etag);
+        assertTrue(entry.loadSource);
+        assertEquals("", entry.html);
+    }
+
+    @Test
+    public void trimDropsExpiredAgendas() {
+        final long now = System.currentTimeMillis();
+        mCache.put(URL + "-ended", new AgendaCache.Entry(null, false, "<p>ended</p>", now - 1000));
+        mCache.put(URL + "-upcoming",
+                new AgendaCache.Entry(null, false, "<p>upcoming</p>", now + 3600000));
+        mCache.trim();
+
+        assertNull(mCache.get(URL + "-ended"));
+        final AgendaCache.Entry entry = mCache.get(URL + "-upcoming");
+        assertEquals(now + 3600000, entry.expiresAt);
+        assertEquals("<p>upcoming</p>", entry.html);
+    }
+
+    @Test
+    public void missesUnknownAgenda() {
+        assertNull(mCache.get(URL + "-never-stored"));
+    }
+}
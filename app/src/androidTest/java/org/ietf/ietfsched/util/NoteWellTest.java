@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.util;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the Note Well page rendered at sync time is a complete,
+ * styled document with its links already made.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteWellTest {
+    @Test
+    public void rendersStyledPageWithLinks() {
+        final String html = NoteWell.render(
+                "# Note Well\n\nSee https://www.ietf.org/about/note-well/ for details.\n");
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("<style>"));
+        assertTrue(html.contains("<h1>Note Well</h1>"));
+        assertTrue(html.contains("<a href=\"https://www.ietf.org/about/note-well/\">"));
+        assertTrue(html.endsWith("</body></html>"));
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.io;
+
+import android.util.Log;
+
+import org.ietf.ietfsched.util.AgendaCache;
+import org.ietf.ietfsched.util.MarkdownHtml;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches session agendas from Datatracker and renders them for the Agenda
+ * tab, keeping the result in an {@link AgendaCache}.
+ * <p>
+ * The Content-Type decides the rendering: text/html is kept as is,
+ * text/markdown goes through commonmark, and text/plain is escaped into a
+ * pre-wrap page. A cached agenda is revalidated with the ETag it was
+ * rendered from.
+ */
+public final class AgendaFetcher {
+    private static final String TAG = "AgendaFetcher";
+
+    /** What one {@link #fetch} found. */
+    public static final class Result {
+        /** The current agenda, or null if the server returned none. */
+        public final AgendaCache.Entry entry;
+        /** Whether {@link #entry} differs from the cached agenda. */
+        public final boolean changed;
+        /** Bytes downloaded; 0 when the cached agenda was still current. */
+        public final long downloaded;
+
+        Result(AgendaCache.Entry entry, boolean changed, long downloaded) {
+            this.entry = entry;
+            this.changed = changed;
+            this.downloaded = downloaded;
+        }
+    }
+
+    private final AgendaCache mCache;
+    private final RemoteExecutor mRemoteExecutor = new RemoteExecutor();
+
+    public AgendaFetcher(AgendaCache cache) {
+        mCache = cache;
+    }
+
+    /** Whether {@code url} is a Datatracker agenda, rendered here rather than loaded as is. */
+    public static boolean isRenderable(String url) {
+        return url != null && url.contains("datatracker.ietf.org") && url.contains("agenda");
+    }
+
+    /**
+     * Revalidate {@code cached}, the cached agenda of {@code url} if any, and
+     * store what changed. The entry is kept at least until {@code expiresAt};
+     * pass 0 to keep the expiry it already has.
+     */
+    public Result fetch(String url, AgendaCache.Entry cached, long expiresAt) throws Exception {
+        final long expiry = Math.max(expiresAt, cached != null ? cached.expiresAt : 0);
+        final RemoteExecutor.HttpGetResult result = mRemoteExecutor.executeConditionalGet(url,
+                cached != null ? cached.etag : null);
+        if (result.notModified) {
+            if (expiry != cached.expiresAt) {
+                mCache.put(url, cached.withExpiry(expiry));
+            }
+            return new Result(cached, false, 0);
+        }
+        final String content = result.body != null ? result.body : "";
+        Log.d(TAG, "fetch: length=" + content.length() + " contentType=" + result.contentType);
+        if (content.isEmpty()) {
+            return new Result(null, false, result.bytes);
+        }
+
+        final AgendaCache.Entry rendered = render(content, result.contentType, result.etag, expiry);
+        mCache.put(url, rendered);
+        return new Result(rendered, cached == null || !cached.sameContent(rendered),
+                result.bytes);
+    }
+
+    /** Abort the {@link #fetch} in flight on another thread, which then throws. */
+    public void cancel() {
+        mRemoteExecutor.cancel();
+    }
+
+    /** Escape plain text as HTML, turning http(s) URLs into links. */
+    public static String linkifyPlainText(String text) {
+        return escapePlainTextPreservingLinks(convertUrlsToLinks(text));
+    }
+
+    private static AgendaCache.Entry render(String content, String contentType, String etag,
+            long expiresAt) {
+        AgendaFormat format = classifyAgenda(primaryMimeType(contentType), content);
+        Log.d(TAG, "render: format=" + format);
+        if (format == AgendaFormat.HTML) {
+            return new AgendaCache.Entry(etag, true, content, expiresAt);
+        } else if (format == AgendaFormat.MARKDOWN) {
+            // Links only via commonmark AutolinkExtension — do not run convertUrlsToLinks.
+            return new AgendaCache.Entry(etag, false, wrapMarkdownAgendaHtml(content), expiresAt);
+        }
+        return new AgendaCache.Entry(etag, false, wrapPlainTextAgendaHtml(content), expiresAt);
+    }
+
+    private enum AgendaFormat {
+        HTML,
+        MARKDOWN,
+        PLAIN
+    }
+
+    private static String primaryMimeType(String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            return null;
+        }
+        int semi = contentType.indexOf(';');
+        String primary = semi >= 0 ? contentType.substring(0, semi) : contentType;
+        return primary.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static AgendaFormat classifyAgenda(String mime, String content) {
+        if (mime != null) {
+            if (mime.equals("text/html") || mime.equals("application/xhtml+xml")) {
+                return AgendaFormat.HTML;
+            }
+            if (mime.equals("text/markdown") || mime.equals("text/x-markdown")) {
+                return AgendaFormat.MARKDOWN;
+            }
+            if (mime.equals("text/plain")) {
+                return AgendaFormat.PLAIN;
+            }
+        }
+        // No useful Content-Type: keep HTML sniff; otherwise treat as markdown (#45).
+        if (isHtmlContent(content)) {
+            return AgendaFormat.HTML;
+        }
+        return AgendaFormat.MARKDOWN;
+    }
+
+    private static String wrapMarkdownAgendaHtml(String markdown) {
+        String htmlContent = MarkdownHtml.render(markdown);
+        String css =
+                "body { " +
+                "  font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; " +
+                "  font-size: 16px; " +
+                "  line-height: 1.6; " +
+                "  color: #333; " +
+                "  padding: 16px; " +
+                "  word-wrap: break-word; " +
+                "} " +
+                "a { color: #0066cc; text-decoration: underline; } " +
+                "h1, h2, h3, h4 { margin-top: 1.2em; margin-bottom: 0.4em; } " +
+                "ul, ol { padding-left: 1.4em; } " +
+                "li { margin-bottom: 0.35em; } " +
+                "code, pre { font-family: ui-monospace, Consolas, monospace; font-size: 0.92em; } " +
+                "pre { overflow-x: auto; background: #f5f5f5; padding: 8px; }";
+        return "<!DOCTYPE html>" +
+                "<html><head>" +
+                "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
+                "<style>" + css + "</style>" +
+                "</head><body>" +
+                htmlContent +
+                "</body></html>";
+    }
+
+    private static String wrapPlainTextAgendaHtml(String content) {
+        String escapedContent = escapePlainTextPreservingLinks(convertUrlsToLinks(content));
+
+        String css =
+                "body { " +
+                "  font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; " +
+                "  font-size: 16px; " +
+                "  line-height: 1.6; " +
+                "  color: #333; " +
+                "  padding: 16px; " +
+                "  white-space: pre-wrap; " +
+                "  word-wrap: break-word; " +
+                "} " +
+                "a { " +
+                "  color: #0066cc; " +
+                "  text-decoration: underline; " +
+                "}";
+
+        return "<!DOCTYPE html>" +
+                "<html><head>" +
+                "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
+                "<style>" + css + "</style>" +
+                "</head><body>" +
+                escapedContent +
+                "</body></html>";
+    }
+
+
+    /**
+     * Convert plain text http(s) URLs to HTML anchor tags.
+     * Used only for {@link AgendaFormat#PLAIN} — markdown uses AutolinkExtension.
+     */
+    private static String convertUrlsToLinks(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+
+        Pattern urlPattern = Pattern.compile(
+            "(https?://[\\w.\\-/:?#\\[\\]@!$&'()*+,;=%]+)");
+
+        Matcher matcher = urlPattern.matcher(text);
+        StringBuffer result = new StringBuffer();
+
+        while (matcher.find()) {
+            String url = matcher.group(1);
+            matcher.appendReplacement(result,
+                    Matcher.quoteReplacement("<a href=\"" + url + "\">" + url + "</a>"));
+        }
+        matcher.appendTail(result);
+
+        return result.toString();
+    }
+
+    /**
+     * Escape plain text for HTML while preserving &lt;a href&gt; tags from
+     * {@link #convertUrlsToLinks}.
+     */
+    private static String escapePlainTextPreservingLinks(String contentWithLinks) {
+        String temp = contentWithLinks.replaceAll(
+                "<a href=\"([^\"]+)\">([^<]+)</a>",
+                "___LINK_START___$1___LINK_MID___$2___LINK_END___");
+        String escaped = temp.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+        return escaped.replace("___LINK_START___", "<a href=\"")
+                .replace("___LINK_MID___", "\">")
+                .replace("___LINK_END___", "</a>");
+    }
+    
+    /**
+     * Check if content is HTML or plain text.
+     */
+    private static boolean isHtmlContent(String content) {
+        if (content == null || content.trim().isEmpty()) {
+            return false;
+        }
+        
+        // Check for common HTML indicators
+        String trimmed = content.trim();
+        
+        // Check for HTML doctype
+        if (trimmed.toLowerCase().startsWith("<!doctype html")) {
+            return true;
+        }
+        
+        // Check for HTML tags (common ones)
+        if (trimmed.contains("<html") || trimmed.contains("<HTML")) {
+            return true;
+        }
+        if (trimmed.contains("<body") || trimmed.contains("<BODY")) {
+            return true;
+        }
+        if (trimmed.contains("<div") || trimmed.contains("<DIV")) {
+            return true;
+        }
+        if (trimmed.contains("<p>") || trimmed.contains("<P>")) {
+            return true;
+        }
+        if (trimmed.contains("<h1") || trimmed.contains("<H1")) {
+            return true;
+        }
+        if (trimmed.contains("<table") || trimmed.contains("<TABLE")) {
+            return true;
+        }
+        
+        return false;
+    }
+}
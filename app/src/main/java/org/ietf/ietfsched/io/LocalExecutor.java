@@ -22,6 +22,8 @@ import org.ietf.ietfsched.util.UIUtils;
 import org.ietf.ietfsched.provider.ScheduleContract;
 import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
 import org.ietf.ietfsched.provider.ScheduleContract.Rooms;
+import org.ietf.ietfsched.provider.ScheduleContract.SearchSuggest;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials;
 import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
 import org.ietf.ietfsched.provider.ScheduleContract.Tracks;
 import org.ietf.ietfsched.provider.ScheduleDatabase.SessionsTracks;
@@ -30,11 +32,14 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import android.app.SearchManager;
 import android.content.ContentProviderOperation;
 import android.content.ContentProviderResult;
 import android.content.ContentResolver;
+import android.content.ContentValues;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Log;
 import android.content.res.Resources;
@@ -44,6 +49,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 
 public class LocalExecutor {
@@ -52,11 +58,30 @@ public class LocalExecutor {
     private Resources mRes;
     private ContentResolver mResolver;
 	private final String mAuthority = ScheduleContract.CONTENT_AUTHORITY;
-	private final HashSet<String> blockRefs = new HashSet<>();
 
-	// Map of (day -> sorted list of session start times) for assigning session numbers (I, II, III)
-	private final HashMap<String, ArrayList<Long>> mDaySessionTimes = new HashMap<>();
+	/**
+	 * State of a single import run. Kept out of the executor so concurrent or
+	 * back-to-back imports of different meetings never share bookkeeping.
+	 */
+	private static final class Build {
+		final int meetingNumber;
+		final long versionBuild;
+		final HashSet<String> blockRefs = new HashSet<>();
+		// Map of (day -> sorted list of session start times) for assigning session numbers (I, II, III)
+		final HashMap<String, ArrayList<Long>> daySessionTimes = new HashMap<>();
+		// Search suggestion vocabulary, keyed by SearchSuggest.SUGGEST_KEY
+		final LinkedHashMap<String, ContentValues> suggestions = new LinkedHashMap<>();
+
+		Build(int meetingNumber, long versionBuild) {
+			this.meetingNumber = meetingNumber;
+			this.versionBuild = versionBuild;
+		}
 
+		/** Scope a content {@link Uri} to the meeting being imported. */
+		Uri scoped(Uri uri) {
+			return ScheduleContract.buildMeetingScopedUri(uri, meetingNumber);
+		}
+	}
 
     public LocalExecutor(Resources res, ContentResolver resolver) {
         mRes = res;
@@ -84,10 +109,7 @@ public class LocalExecutor {
 	 */
 	public void execute(JSONObject stream, int meetingNumber, JSONObject sideMeetingsData) throws Exception {
 		if (stream != null) {
-			// Set the meeting number for Meeting objects to use when building URLs
-			Meeting.setMeetingNumber(meetingNumber);
-			
-			ArrayList<Meeting> meetings = decode(stream);
+			ArrayList<Meeting> meetings = decode(stream, meetingNumber);
 			if (meetings.size() == 0) {
 				throw new IOException("Cannot decode inputStream. Not an agenda ? ");
 			}
@@ -99,29 +121,27 @@ public class LocalExecutor {
 	}
 
 	private void executeBuild(ArrayList<Meeting> meetings, int meetingNumber, JSONObject sideMeetingsData) {
-		final long versionBuild = System.currentTimeMillis();
+		final Build build = new Build(meetingNumber, System.currentTimeMillis());
 		try {
-			ArrayList<ContentProviderOperation> batch = transform(meetings, versionBuild);
+			ArrayList<ContentProviderOperation> batch = transform(meetings, build);
 			if (sideMeetingsData != null) {
 				batch.addAll(SideMeetingImporter.buildOperations(
-						sideMeetingsData, meetingNumber, versionBuild, mResolver));
+						sideMeetingsData, meetingNumber, build.versionBuild, mResolver));
 			}
+			// Purge in the same batch, so observers get a single summary
+			// notification once the whole import has committed.
+			batch.addAll(purge(build));
 			mResolver.applyBatch(mAuthority, batch);
-			ArrayList<ContentProviderOperation> batchClean = purge(versionBuild);
-			mResolver.applyBatch(mAuthority, batchClean);
-			
-			// Explicitly notify observers that blocks have changed (for schedule rebuild)
-			mResolver.notifyChange(ScheduleContract.Blocks.CONTENT_URI, null);
+			compact();
 		}
 		catch (Exception e) {
 			e.printStackTrace();
 		}
-		blockRefs.clear();
 	}
 
-	private ArrayList<ContentProviderOperation> transform(ArrayList<Meeting> meetings, long versionBuild) throws Exception {
+	private ArrayList<ContentProviderOperation> transform(ArrayList<Meeting> meetings, Build build) throws Exception {
 		// First pass: build map of session start times per day for numbering (I, II, III)
-		buildSessionTimesMap(meetings);
+		buildSessionTimesMap(meetings, build.daySessionTimes);
 
 		final ArrayList<ContentProviderOperation> batch = Lists.newArrayList();
 		for (int i = 0; i < meetings.size(); i++) {
@@ -130,40 +150,93 @@ public class LocalExecutor {
 			if (isRegistration(m)) {
 				continue;
 			}
-			ContentProviderOperation cp = createBlock(m, versionBuild); 
+			ContentProviderOperation cp = createBlock(m, build); 
 			if (cp != null) {
 				batch.add(cp);
 			}
-			cp = createTrack(m, versionBuild);
+			cp = createTrack(m, build.versionBuild);
 			if (cp != null) {
 				batch.add(cp);
 			}
 			if (! (m.location.length() == 0)) {
-				cp = createRoom(m);
+				cp = createRoom(m, build);
 				if (cp != null) {
 					batch.add(cp);
 				}
 			}		
-			cp = createSession(m, versionBuild);
+			cp = createSession(m, build);
 			if (cp != null) {
 				batch.add(cp);
 			}
-			cp = createSessionTrack(m);
+			cp = createSessionTrack(m, build);
 			if (cp != null) {
 				batch.add(cp);
 			}
+			createMaterials(m, build, batch);
+			collectSuggestions(m, build);
+		}
+		for (ContentValues values : build.suggestions.values()) {
+			batch.add(ContentProviderOperation.newInsert(build.scoped(SearchSuggest.ENTRIES_URI))
+					.withValues(values)
+					.build());
 		}
 		return batch;
 	}
 
+	/**
+	 * Add the terms people search this session by to the suggestion
+	 * vocabulary. A term seen again only gains weight, so groups meeting
+	 * several times and busy rooms rank above one-off names.
+	 */
+	private static void collectSuggestions(Meeting m, Build build) {
+		if (!m.group.isEmpty() && !"Unknown".equals(m.group)) {
+			addSuggestion(build, SearchSuggest.KIND_GROUP, m.group, 4);
+		}
+		if (!m.area.isEmpty() && !"Unknown".equals(m.area)) {
+			addSuggestion(build, SearchSuggest.KIND_AREA, m.area, 2);
+		}
+		if (m.location.length() != 0) {
+			addSuggestion(build, SearchSuggest.KIND_ROOM, m.location, 1);
+		}
+		if (m.isBof) {
+			addSuggestion(build, SearchSuggest.KIND_BOF, m.title, 4);
+		}
+		if (m.drafts != null) {
+			for (String draft : m.drafts) {
+				// Entries are "draft-name|||url" as decoded by Meeting.
+				final int separator = draft.indexOf("|||");
+				addSuggestion(build, SearchSuggest.KIND_DRAFT,
+						separator >= 0 ? draft.substring(0, separator) : draft, 2);
+			}
+		}
+	}
+
+	private static void addSuggestion(Build build, String kind, String text, int weight) {
+		final String key = SearchSuggest.normalize(text);
+		if (key.isEmpty()) return;
+		ContentValues values = build.suggestions.get(key);
+		if (values == null) {
+			values = new ContentValues();
+			values.put(SearchManager.SUGGEST_COLUMN_TEXT_1, text.trim());
+			values.put(SearchSuggest.SUGGEST_KEY, key);
+			values.put(SearchSuggest.SUGGEST_KIND, kind);
+			values.put(SearchSuggest.SUGGEST_WEIGHT, weight);
+			values.put(SearchSuggest.UPDATED, build.versionBuild);
+			build.suggestions.put(key, values);
+		} else {
+			values.put(SearchSuggest.SUGGEST_WEIGHT,
+					values.getAsInteger(SearchSuggest.SUGGEST_WEIGHT) + weight);
+		}
+	}
+
 	private static boolean isRegistration(Meeting m) {
 		String titleLower = m.title.toLowerCase(Locale.ROOT);
 		return m.typeSession.contains("Registration") || titleLower.contains("registration");
 	}
 	
-	private ContentProviderOperation createBlock(Meeting m, long versionBuild) throws Exception {
-		final ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(Blocks.CONTENT_URI);
-        builder.withValue(Blocks.UPDATED, versionBuild);
+	private ContentProviderOperation createBlock(Meeting m, Build build) throws Exception {
+		final ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(build.scoped(Blocks.CONTENT_URI));
+        builder.withValue(Blocks.UPDATED, build.versionBuild);
 	
 		String title;
 		Long startTime;
@@ -235,9 +308,9 @@ public class LocalExecutor {
 		else if (sessionType.contains("session")) {
 			// Only use numbered session title (I, II, III) if this time is in the session times map
 			// Otherwise use the actual meeting title (for special events, evening sessions, etc.)
-			if (isInSessionTimesMap(startTime)) {
+			if (isInSessionTimesMap(build.daySessionTimes, startTime)) {
 				// Regular numbered session → Red
-				title = generateBlockTitle(startTime);
+				title = generateBlockTitle(build.daySessionTimes, startTime);
 				blockType = ParserUtils.BLOCK_TYPE_SESSION;
 			} else {
 			// Special event → assign appropriate color based on type
@@ -273,11 +346,11 @@ public class LocalExecutor {
 		// Create one block per unique blockId (which includes start+end+title)
 		// Multiple events can start at the same time, so we need to use blockId instead of just startTime
 		if (debug) Log.d(TAG, "Block blockId: " + blockId + " for title: " + title);
-		if (blockRefs.contains(blockId)) {
+		if (build.blockRefs.contains(blockId)) {
 			if (debug) Log.d(TAG, "DUPLICATE BLOCK FILTERED: " + blockId + " for title: " + title);
 			return null;
 		}
-		blockRefs.add(blockId);
+		build.blockRefs.add(blockId);
 		if (debug) Log.d(TAG, "BLOCK ADDED: " + blockId + " for title: " + title);
 
 		builder.withValue(Blocks.BLOCK_ID, blockId);
@@ -297,8 +370,9 @@ public class LocalExecutor {
 	 * special events typically have 1. Using 2+ avoids showing one arbitrary session
 	 * name (e.g. "SRv6 Operations") when a slot has 2-4 sessions.
 	 */
-	private void buildSessionTimesMap(ArrayList<Meeting> meetings) {
-		mDaySessionTimes.clear();
+	private static void buildSessionTimesMap(ArrayList<Meeting> meetings,
+			HashMap<String, ArrayList<Long>> daySessionTimes) {
+		daySessionTimes.clear();
 		
 		// Count parallel meetings per start time, excluding special events
 		HashMap<Long, Integer> parallelCounts = new HashMap<>();
@@ -325,16 +399,16 @@ public class LocalExecutor {
 			// Once we know this time slot has enough meetings, add it to the map
 			if (count == MIN_PARALLEL_MEETINGS) {
 				String dayKey = getDayKey(startTime);
-				if (!mDaySessionTimes.containsKey(dayKey)) {
-					mDaySessionTimes.put(dayKey, new ArrayList<Long>());
+				if (!daySessionTimes.containsKey(dayKey)) {
+					daySessionTimes.put(dayKey, new ArrayList<Long>());
 				}
-				mDaySessionTimes.get(dayKey).add(startTime);
+				daySessionTimes.get(dayKey).add(startTime);
 			}
 		}
 		
 		// Sort times for each day
-		for (String day : mDaySessionTimes.keySet()) {
-			ArrayList<Long> times = mDaySessionTimes.get(day);
+		for (String day : daySessionTimes.keySet()) {
+			ArrayList<Long> times = daySessionTimes.get(day);
 			Collections.sort(times);
 			
 			// Debug: log session times for this day
@@ -354,7 +428,7 @@ public class LocalExecutor {
 	/**
 	 * Get the day key (YYYY-DDD format) for a given timestamp.
 	 */
-	private String getDayKey(long timeMillis) {
+	private static String getDayKey(long timeMillis) {
 		java.util.Calendar cal = java.util.Calendar.getInstance(UIUtils.getConferenceTimeZone());
 		cal.setTimeInMillis(timeMillis);
 		return String.format(Locale.ROOT, "%04d-%03d", 
@@ -366,8 +440,9 @@ public class LocalExecutor {
 	 * Check if a given start time is in the session times map.
 	 * Returns true if this time should be numbered as a session (I, II, III).
 	 */
-	private boolean isInSessionTimesMap(long startTimeMillis) {
-		ArrayList<Long> times = mDaySessionTimes.get(getDayKey(startTimeMillis));
+	private static boolean isInSessionTimesMap(HashMap<String, ArrayList<Long>> daySessionTimes,
+			long startTimeMillis) {
+		ArrayList<Long> times = daySessionTimes.get(getDayKey(startTimeMillis));
 		return times != null && times.contains(startTimeMillis);
 	}
 	
@@ -377,7 +452,8 @@ public class LocalExecutor {
 	 * 
 	 * Session numbers are assigned chronologically within each day.
 	 */
-	private String generateBlockTitle(long startTimeMillis) {
+	private static String generateBlockTitle(HashMap<String, ArrayList<Long>> daySessionTimes,
+			long startTimeMillis) {
 		// Use Calendar with conference timezone to get the correct day name
 		java.util.Calendar cal = java.util.Calendar.getInstance(UIUtils.getConferenceTimeZone());
 		cal.setTimeInMillis(startTimeMillis);
@@ -388,7 +464,7 @@ public class LocalExecutor {
 		String dayName = dayNames[dayOfWeek];
 		
 		// Get session number based on chronological order within the day
-		ArrayList<Long> times = mDaySessionTimes.get(getDayKey(startTimeMillis));
+		ArrayList<Long> times = daySessionTimes.get(getDayKey(startTimeMillis));
 		if (times == null) {
 			return dayName + " Session I";
 		}
@@ -400,9 +476,9 @@ public class LocalExecutor {
 		return dayName + " Session " + number;
 	}
 
-	private ContentProviderOperation createSession(Meeting m, long versionBuild) throws Exception {
-		final ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(Sessions.CONTENT_URI);
-        builder.withValue(Sessions.UPDATED, versionBuild);
+	private ContentProviderOperation createSession(Meeting m, Build build) throws Exception {
+		final ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(build.scoped(Sessions.CONTENT_URI));
+        builder.withValue(Sessions.UPDATED, build.versionBuild);
 
         Long startTime;
         Long endTime;
@@ -438,28 +514,16 @@ public class LocalExecutor {
 			builder.withValue(Sessions.SESSION_ABSTRACT, null);
 			builder.withValue(Sessions.SESSION_URL, m.hrefDetail);
 			builder.withValue(Sessions.SESSION_REQUIREMENTS, null);
-			builder.withValue(Sessions.SESSION_KEYWORDS, null);
+			builder.withValue(Sessions.SESSION_KEYWORDS, buildKeywords(m));
 			builder.withValue(Sessions.BLOCK_ID, blockId);
 			builder.withValue(Sessions.ROOM_ID, roomId);
-		if (m.slides != null ) {
-			// Store multiple slide URLs separated by "::"
-			builder.withValue(Sessions.SESSION_PDF_URL, TextUtils.join("::", m.slides));
-		} else {
-			builder.withValue(Sessions.SESSION_PDF_URL, "::");
-		}
-		if (m.drafts != null && m.drafts.length > 0) {
-			// Store multiple draft entries separated by "::"
-			builder.withValue(Sessions.SESSION_DRAFTS_URL, TextUtils.join("::", m.drafts));
-		} else {
-			builder.withValue(Sessions.SESSION_DRAFTS_URL, null);
-		}
 		if (m.sessionResUri != null && !m.sessionResUri.isEmpty()) {
 			builder.withValue(Sessions.SESSION_RES_URI, m.sessionResUri);
 		} else {
 			builder.withValue(Sessions.SESSION_RES_URI, null);
 		}
 			
-			final Uri sessionUri = Sessions.buildSessionUri(sessionId);
+			final Uri sessionUri = build.scoped(Sessions.buildSessionUri(sessionId));
 			final int starred = querySessionStarred(sessionUri, mResolver);
 			if (starred != -1) {
 				builder.withValue(Sessions.SESSION_STARRED, starred);
@@ -475,8 +539,56 @@ public class LocalExecutor {
 		}
 	}
 	
-	private ContentProviderOperation createRoom(Meeting m) throws Exception {
-		ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(Rooms.CONTENT_URI);
+	/**
+	 * Upsert one {@link SessionMaterials} row per slide deck and draft of the
+	 * session. Rows not refreshed by this import are removed by {@link #purge}.
+	 */
+	private static void createMaterials(Meeting m, Build build, ArrayList<ContentProviderOperation> batch) {
+		final Uri materialsUri = build.scoped(
+				Sessions.buildMaterialsDirUri(Sessions.generateSessionId(m.key)));
+		int order = 0;
+		for (String[] entries : new String[][] { m.slides, m.drafts }) {
+			if (entries == null) continue;
+			final String kind = entries == m.slides
+					? SessionMaterials.KIND_SLIDES : SessionMaterials.KIND_DRAFT;
+			for (String entry : entries) {
+				// Entries are "title|||url" as decoded by Meeting.
+				final int separator = entry.indexOf("|||");
+				final String url = (separator >= 0 ? entry.substring(separator + 3) : entry).trim();
+				if (url.isEmpty()) continue;
+				batch.add(ContentProviderOperation.newInsert(materialsUri)
+						.withValue(SessionMaterials.UPDATED, build.versionBuild)
+						.withValue(SessionMaterials.MATERIAL_KIND, kind)
+						.withValue(SessionMaterials.MATERIAL_TITLE,
+								separator >= 0 ? entry.substring(0, separator).trim() : null)
+						.withValue(SessionMaterials.MATERIAL_URL, url)
+						.withValue(SessionMaterials.MATERIAL_ORDER, order++)
+						.build());
+			}
+		}
+	}
+
+	/**
+	 * Search keywords for a session: its group and area acronyms plus the names
+	 * of its drafts and presentations, so those match in session search.
+	 */
+	private static String buildKeywords(Meeting m) {
+		final ArrayList<String> keywords = new ArrayList<>();
+		if (!m.group.isEmpty() && !"Unknown".equals(m.group)) keywords.add(m.group);
+		if (!m.area.isEmpty() && !"Unknown".equals(m.area)) keywords.add(m.area);
+		for (String[] materials : new String[][] { m.drafts, m.slides }) {
+			if (materials == null) continue;
+			for (String material : materials) {
+				final int separator = material.indexOf("|||");
+				keywords.add(separator >= 0 ? material.substring(0, separator) : material);
+			}
+		}
+		return keywords.isEmpty() ? null : TextUtils.join(" ", keywords);
+	}
+
+	private ContentProviderOperation createRoom(Meeting m, Build build) throws Exception {
+		ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(build.scoped(Rooms.CONTENT_URI));
+		builder.withValue(Rooms.UPDATED, build.versionBuild);
 	
 		builder.withValue(Rooms.ROOM_ID, Rooms.generateRoomId(m.location));
 		builder.withValue(Rooms.ROOM_NAME, m.location);
@@ -500,13 +612,13 @@ public class LocalExecutor {
 		return builder.build();
 	}
 
-	private ContentProviderOperation createSessionTrack(Meeting m) throws Exception {
+	private ContentProviderOperation createSessionTrack(Meeting m, Build build) throws Exception {
 		if (m.group.length() == 0 || m.area.length() == 0) {
 			return null;
 		}
 
 	final String sessionId = Sessions.generateSessionId(m.key);
-		final Uri sessionsTracksUri = Sessions.buildTracksDirUri(sessionId);
+		final Uri sessionsTracksUri = build.scoped(Sessions.buildTracksDirUri(sessionId));
 		ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(sessionsTracksUri);
 		builder.withValue(SessionsTracks.SESSION_ID, sessionId);
 		builder.withValue(SessionsTracks.TRACK_ID, Tracks.generateTrackId(m.area + m.group));
@@ -515,14 +627,43 @@ public class LocalExecutor {
 	}
 	
 	/**
-	 * Purge the sessions and blocks removed from the agenda. 
+	 * Purge the sessions, blocks, materials, search suggestions and rooms
+	 * removed from the agenda. Only rows of the meeting being imported are
+	 * considered, so archived meetings survive. Tracks are shared between
+	 * meetings, so only those no session refers to any more are removed; the
+	 * session purge runs first so its trigger-maintained counts are current.
 	 */
-	private ArrayList<ContentProviderOperation> purge(long versionBuild) throws Exception {
+	private ArrayList<ContentProviderOperation> purge(Build build) throws Exception {
 		ArrayList<ContentProviderOperation> batchClean = Lists.newArrayList();
-		batchClean.add(buildPurge(Sessions.CONTENT_URI, versionBuild));
-		batchClean.add(buildPurge(Blocks.CONTENT_URI, versionBuild));
+		batchClean.add(buildPurge(build.scoped(Sessions.CONTENT_URI), build.versionBuild));
+		batchClean.add(buildPurge(build.scoped(Blocks.CONTENT_URI), build.versionBuild));
+		batchClean.add(buildPurge(build.scoped(SessionMaterials.CONTENT_URI), build.versionBuild));
+		batchClean.add(buildPurge(build.scoped(SearchSuggest.ENTRIES_URI), build.versionBuild));
+		batchClean.add(buildPurge(build.scoped(Rooms.CONTENT_URI), build.versionBuild));
+		batchClean.add(ContentProviderOperation.newDelete(Tracks.CONTENT_URI)
+				.withSelection(Tracks.UPDATED + " <> ? AND " + Tracks.SESSIONS_COUNT + "=0",
+						new String[] { "" + build.versionBuild })
+				.build());
 		return batchClean;
 	}
+
+	/**
+	 * Garbage-collect the database once the purge has committed. Failure only
+	 * leaves space unreclaimed until the next import.
+	 */
+	private void compact() {
+		try {
+			final Bundle stats = mResolver.call(ScheduleContract.BASE_CONTENT_URI,
+					ScheduleContract.METHOD_COMPACT, null, null);
+			if (stats != null) {
+				Log.d(TAG, String.format(Locale.ROOT, "Compacted database: %d pages, %d bytes reclaimed",
+						stats.getLong(ScheduleContract.EXTRA_PAGES_RECLAIMED),
+						stats.getLong(ScheduleContract.EXTRA_BYTES_RECLAIMED)));
+			}
+		} catch (RuntimeException e) {
+			Log.w(TAG, "Database compaction failed", e);
+		}
+	}
 	
 	private ContentProviderOperation buildPurge(Uri contentURI, long versionBuild) throws Exception {
 		ContentProviderOperation.Builder builder = ContentProviderOperation.newDelete(contentURI);
@@ -534,7 +675,7 @@ public class LocalExecutor {
 
 
 	// decode, decodes the JSON content from the origin (datatracker).
-	private ArrayList<Meeting> decode(final JSONObject jsAgenda) throws IOException {
+	private static ArrayList<Meeting> decode(final JSONObject jsAgenda, int meetingNumber) throws IOException {
 		final ArrayList<Meeting> meetings = new ArrayList<>();
 		if (jsAgenda != null) {
 			try {
@@ -542,7 +683,7 @@ public class LocalExecutor {
 				for (int i = 0; i < jsAgendaArray.length(); i++) {
 					JSONObject mJSON = jsAgendaArray.getJSONObject(i);
 					try {
-						Meeting m = new Meeting(mJSON);
+						Meeting m = new Meeting(mJSON, meetingNumber);
 						meetings.add(m);
 					} catch (UnScheduledMeetingException e) {
 						// Skip unscheduled meetings
@@ -559,7 +700,9 @@ public class LocalExecutor {
             
 	private static int querySessionStarred(Uri uri, ContentResolver resolver) {
         final String[] projection = { Sessions.SESSION_STARRED };
-		try (Cursor cursor = resolver.query(uri, projection, null, null, null)) {
+		// One lookup per session; through the cache they would evict what the UI reads.
+		try (Cursor cursor = resolver.query(ScheduleContract.buildUncachedUri(uri),
+				projection, null, null, null)) {
 			assert cursor != null;
 			if (cursor.moveToFirst()) {
 				return cursor.getInt(0);
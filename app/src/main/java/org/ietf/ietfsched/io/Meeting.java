@@ -48,9 +48,6 @@ class Meeting {
 	// Hack: timezone format (Z) = +0800 where the ietfsched application expects +08:00.
 	private final static SimpleDateFormat afterFormat = ParserUtils.df;
 
-	// Meeting number is set dynamically by LocalExecutor before parsing
-	private static int sMeetingNumber = 0;
-
 	String startHour; //2010-05-19 10:45:00
 	String endHour; // 2010-05-19 11:45:00
 	String title;
@@ -66,21 +63,14 @@ class Meeting {
 	/** True if this session is a Birds of a Feather (BoF). From API is_bof. */
 	boolean isBof;
 
-	/**
-	 * Sets the current meeting number. Must be called before creating Meeting objects.
-	 */
-	static void setMeetingNumber(int meetingNumber) {
-		sMeetingNumber = meetingNumber;
-	}
-
 	static {
 		jsonDate.setTimeZone((UIUtils.AGENDA_TIME_ZONE));
 		// Note: afterFormat is ParserUtils.df, which gets its timezone set by
 		// ParserUtils static initializer and updated by ParserUtils.updateTimezone()
 	}
 
-	// Handle parsing each line of the agenda.
-	Meeting(JSONObject mJSON) throws UnScheduledMeetingException, Exception {
+	// Handle parsing each line of the agenda. meetingNumber is used to build material URLs.
+	Meeting(JSONObject mJSON, int meetingNumber) throws UnScheduledMeetingException, Exception {
 		try {
 			title = mJSON.getString("name");
 		} catch (JSONException e) {
@@ -203,7 +193,7 @@ class Meeting {
 				if (url == null || url.isEmpty()) {
 					// Fallback: construct URL from name
 					String name = presentation.getString("name");
-					String baseUrl = "https://datatracker.ietf.org/meeting/" + sMeetingNumber + "/";
+					String baseUrl = "https://datatracker.ietf.org/meeting/" + meetingNumber + "/";
 					url = baseUrl + "materials/" + name;
 					Log.w(TAG, "No URL in presentation, constructed: " + url);
 				}
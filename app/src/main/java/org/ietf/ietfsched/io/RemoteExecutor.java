@@ -21,7 +21,13 @@ import android.util.Log;
 import org.json.JSONObject;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
@@ -40,15 +46,72 @@ public class RemoteExecutor {
 	public static final class HttpGetResult {
 		public final String body;
 		public final String contentType;
+		/** ETag validator of the body, or null if the server sent none. */
+		public final String etag;
+		/** True for a 304 to a conditional GET; the body is then empty. */
+		public final boolean notModified;
+		/** Bytes of body read off the connection; 0 for a 304. */
+		public final long bytes;
 
 		public HttpGetResult(String body, String contentType) {
+			this(body, contentType, null, false, 0);
+		}
+
+		public HttpGetResult(String body, String contentType, String etag, boolean notModified,
+				long bytes) {
 			this.body = body != null ? body : "";
 			this.contentType = contentType;
+			this.etag = etag;
+			this.notModified = notModified;
+			this.bytes = bytes;
 		}
 	}
 
+	/** What {@link #executeDownload} left in its file. */
+	public static final class DownloadResult {
+		/** Content-Type of the body, or null if this response didn't say. */
+		public final String contentType;
+		/** ETag of the body, to resume it by; null if the server sent none. */
+		public final String etag;
+		/** Bytes of the body now in the file. */
+		public final long length;
+		/** Bytes of it this call received. */
+		public final long received;
+		/** True when the file holds the whole body. */
+		public final boolean complete;
+		/** True when the body is longer than allowed; the file is then of no use. */
+		public final boolean tooLarge;
+
+		DownloadResult(String contentType, String etag, long length, long received,
+				boolean complete, boolean tooLarge) {
+			this.contentType = contentType;
+			this.etag = etag;
+			this.length = length;
+			this.received = received;
+			this.complete = complete;
+			this.tooLarge = tooLarge;
+		}
+	}
+
+	/** Not among the {@link HttpURLConnection} constants. */
+	private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+	/** Connection of the conditional GET in flight, for {@link #cancel}. */
+	private volatile HttpURLConnection mConnection;
+
     public RemoteExecutor() { }
 
+	/**
+	 * Abort the {@link #executeConditionalGet} in flight, if any, from another
+	 * thread: it fails with an IOException. Later requests still run.
+	 */
+	public void cancel() {
+		final HttpURLConnection connection = mConnection;
+		if (connection != null) {
+			connection.disconnect();
+		}
+	}
+
 
 	public String executeHead(String urlString) throws Exception {
     	URL url;
@@ -92,18 +155,35 @@ public class RemoteExecutor {
 	 * GET text body and Content-Type (e.g. text/markdown from Datatracker materials).
 	 */
 	public HttpGetResult executeGetWithContentType(String urlString) throws Exception {
+		return executeConditionalGet(urlString, null);
+	}
+
+	/**
+	 * GET text body and Content-Type, unless it still matches {@code etag}:
+	 * then the result is {@link HttpGetResult#notModified} and carries no body.
+	 * Pass a null {@code etag} for a plain GET.
+	 */
+	public HttpGetResult executeConditionalGet(String urlString, String etag) throws Exception {
 		HttpsURLConnection urlConnection = null;
 		try {
 			URL url = new URI(urlString).toURL();
 			urlConnection = (HttpsURLConnection) url.openConnection();
+			mConnection = urlConnection;
+			if (etag != null) {
+				urlConnection.setRequestProperty("If-None-Match", etag);
+			}
 
 			int status = urlConnection.getResponseCode();
 			Log.d(TAG, "executeGet: status=" + status + " for " + urlString);
 
+			if (status == HttpsURLConnection.HTTP_NOT_MODIFIED && etag != null) {
+				return new HttpGetResult("", null, etag, true, 0);
+			}
 			if (status == HttpsURLConnection.HTTP_OK) {
 				String contentType = urlConnection.getContentType();
 				StringBuilder result = new StringBuilder();
-				BufferedReader reader = new BufferedReader(new InputStreamReader(urlConnection.getInputStream()));
+				CountingInputStream in = new CountingInputStream(urlConnection.getInputStream());
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in));
 				String line;
 				while ((line = reader.readLine()) != null) {
 					try {
@@ -114,7 +194,8 @@ public class RemoteExecutor {
 						break;
 					}
 				}
-				return new HttpGetResult(result.toString(), contentType);
+				return new HttpGetResult(result.toString(), contentType,
+						urlConnection.getHeaderField("ETag"), false, in.count);
 			} else {
 				Log.w(TAG, "executeGet: Non-200 status " + status + " for " + urlString);
 				if (status == 503 || status >= 500) {
@@ -122,6 +203,7 @@ public class RemoteExecutor {
 				}
 			}
 		} finally {
+			mConnection = null;
 			if (urlConnection != null) {
 				urlConnection.disconnect();
 			}
@@ -129,6 +211,140 @@ public class RemoteExecutor {
 		return new HttpGetResult("", null);
 	}
 
+	/** Counts the bytes read through it. */
+	private static final class CountingInputStream extends FilterInputStream {
+		long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+	/**
+	 * GET {@code urlString} into {@code file}, resuming: if {@code file} holds
+	 * the start of a body that came with ETag {@code validator}, only the rest
+	 * is asked for, with a Range and If-Range. A server that can't resume, or
+	 * whose body has changed, sends it whole and {@code file} is rewritten.
+	 * A partial response that doesn't start where {@code file} ends, or a 416,
+	 * means {@code file} no longer matches the body: it is dropped and the
+	 * body fetched whole.
+	 * <p>
+	 * Stops, keeping what it has, when the thread is interrupted, and gives up
+	 * on a body longer than {@code maxBytes}.
+	 */
+	public DownloadResult executeDownload(String urlString, File file, String validator,
+			long maxBytes) throws Exception {
+		long offset = validator != null && file.exists() ? file.length() : 0;
+		HttpsURLConnection urlConnection = null;
+		try {
+			URL url = new URI(urlString).toURL();
+			urlConnection = (HttpsURLConnection) url.openConnection();
+			if (offset > 0) {
+				urlConnection.setRequestProperty("Range", "bytes=" + offset + "-");
+				urlConnection.setRequestProperty("If-Range", validator);
+			}
+
+			int status = urlConnection.getResponseCode();
+			Log.d(TAG, "executeDownload: status=" + status + " from " + offset + " for " + urlString);
+
+			if (offset > 0 && (status == HTTP_RANGE_NOT_SATISFIABLE
+					|| status == HttpsURLConnection.HTTP_PARTIAL
+							&& rangeStart(urlConnection.getHeaderField("Content-Range")) != offset)) {
+				Log.w(TAG, "executeDownload: can't resume at " + offset + ", restarting " + urlString);
+				urlConnection.disconnect();
+				urlConnection = null;
+				if (!file.delete()) {
+					Log.w(TAG, "executeDownload: failed to drop " + file);
+				}
+				return executeDownload(urlString, file, null, maxBytes);
+			}
+			final boolean append = status == HttpsURLConnection.HTTP_PARTIAL && offset > 0;
+			if (!append) {
+				if (status != HttpsURLConnection.HTTP_OK) {
+					throw new Exception("Download failed: HTTP " + status);
+				}
+				offset = 0;
+			}
+			String contentType = urlConnection.getContentType();
+			String etag = urlConnection.getHeaderField("ETag");
+			long remaining = urlConnection.getContentLengthLong();
+			if (remaining >= 0 && offset + remaining > maxBytes) {
+				return new DownloadResult(contentType, etag, offset, 0, false, true);
+			}
+
+			long length = offset;
+			boolean complete = false;
+			try (InputStream in = urlConnection.getInputStream();
+					OutputStream out = new FileOutputStream(file, append)) {
+				byte[] buffer = new byte[16 * 1024];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					if (length + read > maxBytes) {
+						return new DownloadResult(contentType, etag, length, length - offset, false, true);
+					}
+					out.write(buffer, 0, read);
+					length += read;
+					if (Thread.currentThread().isInterrupted()) {
+						break;
+					}
+				}
+				complete = read == -1;
+			} catch (IOException e) {
+				// Lost the connection part way: what arrived is kept to resume from.
+				Log.w(TAG, "executeDownload: stopped at " + length + " for " + urlString + ": " + e);
+			}
+			return new DownloadResult(contentType, etag, length, length - offset, complete, false);
+		} finally {
+			if (urlConnection != null) {
+				urlConnection.disconnect();
+			}
+		}
+	}
+
+	/**
+	 * First byte of a Content-Range such as {@code bytes 100-199/200}, or -1
+	 * if {@code contentRange} is missing or not a byte range.
+	 */
+	static long rangeStart(String contentRange) {
+		if (contentRange == null || !contentRange.startsWith("bytes ")) {
+			return -1;
+		}
+		final int dash = contentRange.indexOf('-', 6);
+		if (dash < 0) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(contentRange.substring(6, dash).trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
 	// Get a JSON object from a remote server.
 	public JSONObject executeJSONGet(String urlString) throws Exception {
 		return executeJSONGet(urlString, 0, 0);
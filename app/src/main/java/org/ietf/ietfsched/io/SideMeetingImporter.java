@@ -23,6 +23,7 @@ import android.net.Uri;
 import android.text.TextUtils;
 import android.util.Log;
 
+import org.ietf.ietfsched.provider.ScheduleContract;
 import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
 import org.ietf.ietfsched.provider.ScheduleContract.Rooms;
 import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
@@ -91,7 +92,8 @@ public class SideMeetingImporter {
             for (int i = 0; i < bookings.length(); i++) {
                 JSONObject booking = bookings.optJSONObject(i);
                 if (booking == null) continue;
-                ContentProviderOperation[] ops = buildBookingOps(booking, roomSubColumn, versionBuild, resolver);
+                ContentProviderOperation[] ops = buildBookingOps(booking, roomSubColumn,
+                        expectedMeetingNumber, versionBuild, resolver);
                 if (ops != null) {
                     Collections.addAll(batch, ops);
                 }
@@ -125,7 +127,7 @@ public class SideMeetingImporter {
         for (int i = 0; i < sorted.size(); i++) {
             long id = sorted.get(i).optLong("id", -1);
             if (id >= 0) {
-                map.put(id, Math.min(i, 1)); // at most two parallel rooms
+                map.put(id, i); // orders same-start bookings; BlocksLayout packs lanes
             }
         }
         return map;
@@ -133,7 +135,7 @@ public class SideMeetingImporter {
 
     private static ContentProviderOperation[] buildBookingOps(
             JSONObject booking, HashMap<Long, Integer> roomSubColumn,
-            long versionBuild, ContentResolver resolver) {
+            int meetingNumber, long versionBuild, ContentResolver resolver) {
         try {
             long bookingId = booking.optLong("id", -1);
             if (bookingId < 0) return null;
@@ -183,14 +185,17 @@ public class SideMeetingImporter {
             ArrayList<ContentProviderOperation> ops = new ArrayList<>();
 
             if (roomId != null) {
-                ops.add(ContentProviderOperation.newInsert(Rooms.CONTENT_URI)
+                ops.add(ContentProviderOperation.newInsert(
+                        ScheduleContract.buildMeetingScopedUri(Rooms.CONTENT_URI, meetingNumber))
+                        .withValue(Rooms.UPDATED, versionBuild)
                         .withValue(Rooms.ROOM_ID, roomId)
                         .withValue(Rooms.ROOM_NAME, roomName)
                         .withValue(Rooms.ROOM_FLOOR, " ")
                         .build());
             }
 
-            ops.add(ContentProviderOperation.newInsert(Blocks.CONTENT_URI)
+            ops.add(ContentProviderOperation.newInsert(
+                    ScheduleContract.buildMeetingScopedUri(Blocks.CONTENT_URI, meetingNumber))
                     .withValue(Blocks.UPDATED, versionBuild)
                     .withValue(Blocks.BLOCK_ID, blockId)
                     .withValue(Blocks.BLOCK_TITLE, title)
@@ -199,7 +204,8 @@ public class SideMeetingImporter {
                     .withValue(Blocks.BLOCK_TYPE, blockType)
                     .build());
 
-            ContentProviderOperation.Builder session = ContentProviderOperation.newInsert(Sessions.CONTENT_URI)
+            ContentProviderOperation.Builder session = ContentProviderOperation.newInsert(
+                    ScheduleContract.buildMeetingScopedUri(Sessions.CONTENT_URI, meetingNumber))
                     .withValue(Sessions.UPDATED, versionBuild)
                     .withValue(Sessions.SESSION_ID, sessionId)
                     .withValue(Sessions.SESSION_TITLE, title)
@@ -209,12 +215,11 @@ public class SideMeetingImporter {
                     .withValue(Sessions.SESSION_REQUIREMENTS, null)
                     .withValue(Sessions.BLOCK_ID, blockId)
                     .withValue(Sessions.ROOM_ID, roomId)
-                    .withValue(Sessions.SESSION_PDF_URL, null)
-                    .withValue(Sessions.SESSION_DRAFTS_URL, null)
                     .withValue(Sessions.SESSION_RES_URI, null)
                     .withValue(Sessions.SESSION_IS_BOF, 0);
 
-            final Uri sessionUri = Sessions.buildSessionUri(sessionId);
+            final Uri sessionUri = ScheduleContract.buildMeetingScopedUri(
+                    Sessions.buildSessionUri(sessionId), meetingNumber);
             final int starred = querySessionStarred(sessionUri, resolver);
             if (starred != -1) {
                 session.withValue(Sessions.SESSION_STARRED, starred);
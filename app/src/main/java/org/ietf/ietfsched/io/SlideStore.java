@@ -0,0 +1,329 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.io;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.AtomicFile;
+import android.util.Log;
+import android.webkit.MimeTypeMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Slide decks kept in app storage for offline reading, one copy per URL
+ * however many sessions list it.
+ * <p>
+ * A download that stops, for a lost network or a stopped job, leaves its
+ * part behind and is resumed from there by the next {@link #download}, as
+ * long as the server still sends the same ETag. Decks and parts together
+ * stay within a quota the user picks ({@link #QUOTAS}); past it, the least
+ * recently opened go first. A quota of 0 keeps nothing.
+ * <p>
+ * Files are named by the SHA-1 of their URL: the deck, with an extension
+ * from its Content-Type so viewers know what it is, its ".part" while
+ * downloading, and a ".meta" with the URL, ETag and Content-Type.
+ * Methods block on disk; {@link #download} also on the network.
+ */
+public final class SlideStore {
+    private static final String TAG = "SlideStore";
+    private static final String DIRECTORY = "slides";
+    private static final int VERSION = 1;
+
+    private static final String PART = ".part";
+    private static final String META = ".meta";
+    private static final String DEFAULT_TYPE = "application/pdf";
+
+    private static final String PREFS = "slide_store";
+    private static final String PREF_QUOTA = "quota_bytes";
+
+    private static final long MB = 1024 * 1024;
+    /** Quotas offered in the menu, smallest first. */
+    public static final long[] QUOTAS = {0, 50 * MB, 200 * MB, 500 * MB};
+    static final long DEFAULT_QUOTA = 200 * MB;
+
+    private static SlideStore sInstance;
+
+    private final SharedPreferences mPrefs;
+    private final File mDirectory;
+    /** Hashes of the URLs being downloaded; trimming leaves them alone. */
+    private final Set<String> mDownloading = new HashSet<>();
+
+    /** URL, validator and type of a deck, complete or not. */
+    private static final class Meta {
+        final String url;
+        final String etag;
+        final String contentType;
+
+        Meta(String url, String etag, String contentType) {
+            this.url = url;
+            this.etag = etag;
+            this.contentType = contentType != null ? contentType : DEFAULT_TYPE;
+        }
+    }
+
+    public static synchronized SlideStore get(Context context) {
+        if (sInstance == null) {
+            sInstance = new SlideStore(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private SlideStore(Context context) {
+        mPrefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        mDirectory = new File(context.getFilesDir(), DIRECTORY);
+    }
+
+    /** Bytes the store may hold; 0 when offline slides are off. */
+    public long getQuota() {
+        return mPrefs.getLong(PREF_QUOTA, DEFAULT_QUOTA);
+    }
+
+    /** Change the quota; call {@link #trim} afterwards to apply a smaller one. */
+    public void setQuota(long quota) {
+        mPrefs.edit().putLong(PREF_QUOTA, quota).apply();
+    }
+
+    /**
+     * The complete local copy of {@code url}, or null if there is none.
+     * Counts as a use for eviction.
+     */
+    public synchronized File open(String url) {
+        final String hash = hash(url);
+        final Meta meta = readMeta(hash);
+        if (meta == null || !url.equals(meta.url)) {
+            return null;
+        }
+        final File deck = deckFile(hash, meta.contentType);
+        if (!deck.exists()) {
+            return null;
+        }
+        deck.setLastModified(System.currentTimeMillis());
+        return deck;
+    }
+
+    /** Content-Type of the local copy of {@code url}. */
+    public synchronized String getType(String url) {
+        final Meta meta = readMeta(hash(url));
+        return meta != null ? meta.contentType : DEFAULT_TYPE;
+    }
+
+    /**
+     * Download {@code url}, or the rest of it, unless it is already here or
+     * being downloaded. Returns the bytes fetched.
+     */
+    public long download(RemoteExecutor executor, String url) throws Exception {
+        final String hash = hash(url);
+        final long quota = getQuota();
+        final Meta meta;
+        synchronized (this) {
+            if (quota == 0 || open(url) != null || !mDownloading.add(hash)) {
+                return 0;
+            }
+            meta = readMeta(hash);
+        }
+        try {
+            if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+                Log.w(TAG, "Can't create " + mDirectory);
+                return 0;
+            }
+            final File part = new File(mDirectory, hash + PART);
+            final String validator = meta != null && url.equals(meta.url) ? meta.etag : null;
+            if (validator != null && part.length() > 0) {
+                Log.d(TAG, "Resuming " + url + " at " + part.length());
+            }
+
+            final RemoteExecutor.DownloadResult result =
+                    executor.executeDownload(url, part, validator, quota);
+            synchronized (this) {
+                if (result.tooLarge) {
+                    Log.d(TAG, "Skipping " + url + ": larger than the quota");
+                    delete(hash);
+                    return 0;
+                }
+                final Meta saved = new Meta(url, result.etag,
+                        result.contentType != null ? primary(result.contentType)
+                                : meta != null ? meta.contentType : null);
+                writeMeta(hash, saved);
+                if (result.complete && !part.renameTo(deckFile(hash, saved.contentType))) {
+                    Log.w(TAG, "Failed to keep " + url);
+                    delete(hash);
+                }
+            }
+            trim();
+            return result.received;
+        } finally {
+            synchronized (this) {
+                mDownloading.remove(hash);
+            }
+        }
+    }
+
+    /**
+     * Drop the least recently used decks and parts until the rest fit in
+     * the quota. Downloads under way are left alone.
+     */
+    public synchronized void trim() {
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final Map<String, long[]> usage = new HashMap<>();
+        long total = 0;
+        for (File file : files) {
+            final String name = file.getName();
+            final int dot = name.indexOf('.');
+            final String hash = dot >= 0 ? name.substring(0, dot) : name;
+            long[] use = usage.get(hash);
+            if (use == null) {
+                // {bytes, last used}
+                use = new long[2];
+                usage.put(hash, use);
+            }
+            use[0] += file.length();
+            if (!name.endsWith(META)) {
+                use[1] = Math.max(use[1], file.lastModified());
+            }
+            total += file.length();
+        }
+
+        final long quota = getQuota();
+        if (total <= quota) {
+            return;
+        }
+        final List<Map.Entry<String, long[]>> byUse = new ArrayList<>(usage.entrySet());
+        Collections.sort(byUse, new Comparator<Map.Entry<String, long[]>>() {
+            @Override
+            public int compare(Map.Entry<String, long[]> a, Map.Entry<String, long[]> b) {
+                return Long.compare(a.getValue()[1], b.getValue()[1]);
+            }
+        });
+        for (Map.Entry<String, long[]> entry : byUse) {
+            if (total <= quota) {
+                break;
+            }
+            if (mDownloading.contains(entry.getKey())) {
+                continue;
+            }
+            delete(entry.getKey());
+            total -= entry.getValue()[0];
+        }
+    }
+
+    /** Remove every file of {@code hash}. */
+    private void delete(String hash) {
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().startsWith(hash)) {
+                file.delete();
+            }
+        }
+    }
+
+    private File deckFile(String hash, String contentType) {
+        final String extension = MimeTypeMap.getSingleton().getExtensionFromMimeType(contentType);
+        return new File(mDirectory, extension != null ? hash + "." + extension : hash);
+    }
+
+    private Meta readMeta(String hash) {
+        final File file = new File(mDirectory, hash + META);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new AtomicFile(file).openRead()))) {
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+            final String url = in.readUTF();
+            final String etag = in.readBoolean() ? in.readUTF() : null;
+            final String contentType = in.readBoolean() ? in.readUTF() : null;
+            return new Meta(url, etag, contentType);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable slides " + hash, e);
+            delete(hash);
+            return null;
+        }
+    }
+
+    private void writeMeta(String hash, Meta meta) {
+        final AtomicFile file = new AtomicFile(new File(mDirectory, hash + META));
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(VERSION);
+            out.writeUTF(meta.url);
+            out.writeBoolean(meta.etag != null);
+            if (meta.etag != null) {
+                out.writeUTF(meta.etag);
+            }
+            out.writeBoolean(true);
+            out.writeUTF(meta.contentType);
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save slides " + meta.url, e);
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+        }
+    }
+
+    /** "application/pdf" of "application/pdf; charset=binary". */
+    private static String primary(String contentType) {
+        final int semi = contentType.indexOf(';');
+        return (semi >= 0 ? contentType.substring(0, semi) : contentType).trim()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static String hash(String url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(url.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16))
+                        .append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
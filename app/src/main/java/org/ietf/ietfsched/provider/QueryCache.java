@@ -0,0 +1,352 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.provider;
+
+import android.database.AbstractCursor;
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.util.LruCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of materialized {@link ScheduleProvider} query results.
+ * <p>
+ * Every write bumps a data version; an entry is only served while its version
+ * is current, so a result read before a write committed can never be returned
+ * after it. Entries are bounded by an estimate of their size in bytes and
+ * evicted least recently used first. Results too large to cache are
+ * returned as the database {@link Cursor} itself, without a copy.
+ */
+final class QueryCache {
+    /** Upper bound on the estimated size of all cached results. */
+    static final int MAX_BYTES = 2 * 1024 * 1024;
+
+    /** Results larger than this are returned but never cached. */
+    private static final int MAX_ENTRY_BYTES = MAX_BYTES / 4;
+
+    /** Runs the real query when the cache cannot answer. */
+    interface Loader {
+        Cursor load(CancellationSignal cancellationSignal);
+    }
+
+    private final AtomicLong mVersion = new AtomicLong();
+
+    private final LruCache<String, Snapshot> mEntries = new LruCache<String, Snapshot>(MAX_BYTES) {
+        @Override
+        protected int sizeOf(String key, Snapshot snapshot) {
+            return snapshot.bytes;
+        }
+    };
+
+    /** Current data version, bumped by {@link #invalidate}. */
+    long version() {
+        return mVersion.get();
+    }
+
+    /**
+     * Record that the underlying data changed. Results cached under the
+     * previous version are dropped.
+     */
+    void invalidate() {
+        mVersion.incrementAndGet();
+        mEntries.evictAll();
+    }
+
+    /**
+     * Return the result for {@code key}, from the cache when it holds one at
+     * the current version, otherwise from {@code loader}. A cacheable result
+     * comes back as a {@link Cursor} that re-resolves through the cache on
+     * {@link Cursor#requery}; a larger one as the loaded cursor itself.
+     */
+    Cursor query(String key, Loader loader, CancellationSignal cancellationSignal) {
+        final long version = mVersion.get();
+        final Snapshot cached = get(key, version);
+        if (cached != null) {
+            return new SnapshotCursor(this, key, loader, cached);
+        }
+        final Cursor cursor = loader.load(cancellationSignal);
+        final Snapshot snapshot = copy(key, cursor, version);
+        return snapshot != null ? new SnapshotCursor(this, key, loader, snapshot) : cursor;
+    }
+
+    /**
+     * Reload {@code target} for a {@link Cursor#requery}, under the same size
+     * limit as {@link #query}: a result too large to cache is read through
+     * the loaded cursor rather than copied. The cancellation signal of the
+     * first query is not reused: it may have been cancelled since, and
+     * requery has no way to pass a new one.
+     */
+    private void reload(SnapshotCursor target) {
+        final long version = mVersion.get();
+        final Snapshot cached = get(target.mKey, version);
+        if (cached != null) {
+            target.setResult(cached, null);
+            return;
+        }
+        final Cursor cursor = target.mLoader.load(null);
+        final Snapshot snapshot = copy(target.mKey, cursor, version);
+        target.setResult(snapshot, snapshot == null ? cursor : null);
+    }
+
+    /**
+     * Cache a copy of {@code cursor} and close it, or return null, leaving it
+     * open and rewound, when the result is too large to cache.
+     */
+    private Snapshot copy(String key, Cursor cursor, long version) {
+        final Snapshot snapshot;
+        try {
+            snapshot = Snapshot.of(cursor, version, MAX_ENTRY_BYTES);
+        } catch (RuntimeException e) {
+            cursor.close();
+            throw e;
+        }
+        if (snapshot == null) {
+            cursor.moveToPosition(-1);
+            return null;
+        }
+        cursor.close();
+        put(key, snapshot);
+        return snapshot;
+    }
+
+    private Snapshot get(String key, long version) {
+        final Snapshot snapshot = mEntries.get(key);
+        return snapshot != null && snapshot.version == version ? snapshot : null;
+    }
+
+    private void put(String key, Snapshot snapshot) {
+        // A write may have committed while we read; keep only what is current.
+        if (mVersion.get() == snapshot.version) {
+            mEntries.put(key, snapshot);
+        }
+    }
+
+    /** Immutable copy of a query result. */
+    private static final class Snapshot {
+        final String[] columns;
+        final Object[] values;
+        final int count;
+        final long version;
+        final int bytes;
+
+        private Snapshot(String[] columns, Object[] values, int count, long version, int bytes) {
+            this.columns = columns;
+            this.values = values;
+            this.count = count;
+            this.version = version;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Copy {@code cursor}, or return null, leaving it open, once the copy
+         * would be larger than {@code maxBytes}.
+         */
+        static Snapshot of(Cursor cursor, long version, int maxBytes) {
+            final String[] columns = cursor.getColumnNames();
+            final int width = columns.length;
+            final int count = cursor.getCount();
+            long bytes = 64 + 8L * count * width;
+            if (bytes > maxBytes) {
+                return null;
+            }
+            final Object[] values = new Object[count * width];
+            int row = 0;
+            while (row < count && cursor.moveToNext()) {
+                if (bytes > maxBytes) {
+                    return null;
+                }
+                for (int column = 0; column < width; column++) {
+                    final Object value;
+                    switch (cursor.getType(column)) {
+                        case Cursor.FIELD_TYPE_NULL:
+                            value = null;
+                            break;
+                        case Cursor.FIELD_TYPE_INTEGER:
+                            value = cursor.getLong(column);
+                            bytes += 16;
+                            break;
+                        case Cursor.FIELD_TYPE_FLOAT:
+                            value = cursor.getDouble(column);
+                            bytes += 16;
+                            break;
+                        case Cursor.FIELD_TYPE_BLOB: {
+                            final byte[] blob = cursor.getBlob(column);
+                            value = blob;
+                            bytes += 16 + blob.length;
+                            break;
+                        }
+                        default: {
+                            final String text = cursor.getString(column);
+                            value = text;
+                            bytes += 40 + 2 * text.length();
+                            break;
+                        }
+                    }
+                    values[row * width + column] = value;
+                }
+                row++;
+            }
+            if (bytes > maxBytes) {
+                return null;
+            }
+            return new Snapshot(columns, values, row, version,
+                    (int) Math.min(bytes, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Read-only {@link Cursor} over a {@link Snapshot}, or over the loaded
+     * cursor once a requery returned a result too large to cache.
+     */
+    private static final class SnapshotCursor extends AbstractCursor {
+        private final QueryCache mCache;
+        private final String mKey;
+        private final Loader mLoader;
+        private Snapshot mSnapshot;
+        private Cursor mLive;
+
+        SnapshotCursor(QueryCache cache, String key, Loader loader, Snapshot snapshot) {
+            mCache = cache;
+            mKey = key;
+            mLoader = loader;
+            mSnapshot = snapshot;
+        }
+
+        /** Read {@code snapshot}, or {@code live} when it is not null. */
+        void setResult(Snapshot snapshot, Cursor live) {
+            if (mLive != null) {
+                mLive.close();
+            }
+            mSnapshot = snapshot;
+            mLive = live;
+        }
+
+        private Object get(int column) {
+            if (column < 0 || column >= mSnapshot.columns.length) {
+                throw new IndexOutOfBoundsException("Column " + column + " out of range");
+            }
+            if (mPos < 0 || mPos >= mSnapshot.count) {
+                throw new IndexOutOfBoundsException("Position " + mPos + " out of range");
+            }
+            return mSnapshot.values[mPos * mSnapshot.columns.length + column];
+        }
+
+        private Number getNumber(int column) {
+            final Object value = get(column);
+            if (value == null) return 0;
+            if (value instanceof Number) return (Number) value;
+            try {
+                return Double.parseDouble(value.toString());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public boolean onMove(int oldPosition, int newPosition) {
+            return mLive == null || mLive.moveToPosition(newPosition);
+        }
+
+        @Override
+        public int getCount() {
+            return mLive != null ? mLive.getCount() : mSnapshot.count;
+        }
+
+        @Override
+        public String[] getColumnNames() {
+            return mLive != null ? mLive.getColumnNames() : mSnapshot.columns;
+        }
+
+        @Override
+        public int getType(int column) {
+            if (mLive != null) return mLive.getType(column);
+            final Object value = get(column);
+            if (value == null) return FIELD_TYPE_NULL;
+            if (value instanceof Long) return FIELD_TYPE_INTEGER;
+            if (value instanceof Double) return FIELD_TYPE_FLOAT;
+            if (value instanceof byte[]) return FIELD_TYPE_BLOB;
+            return FIELD_TYPE_STRING;
+        }
+
+        @Override
+        public String getString(int column) {
+            if (mLive != null) return mLive.getString(column);
+            final Object value = get(column);
+            return value == null ? null : value.toString();
+        }
+
+        @Override
+        public byte[] getBlob(int column) {
+            if (mLive != null) return mLive.getBlob(column);
+            final Object value = get(column);
+            if (value == null || value instanceof byte[]) return (byte[]) value;
+            return value.toString().getBytes();
+        }
+
+        @Override
+        public short getShort(int column) {
+            if (mLive != null) return mLive.getShort(column);
+            return getNumber(column).shortValue();
+        }
+
+        @Override
+        public int getInt(int column) {
+            if (mLive != null) return mLive.getInt(column);
+            return getNumber(column).intValue();
+        }
+
+        @Override
+        public long getLong(int column) {
+            if (mLive != null) return mLive.getLong(column);
+            return getNumber(column).longValue();
+        }
+
+        @Override
+        public float getFloat(int column) {
+            if (mLive != null) return mLive.getFloat(column);
+            return getNumber(column).floatValue();
+        }
+
+        @Override
+        public double getDouble(int column) {
+            if (mLive != null) return mLive.getDouble(column);
+            return getNumber(column).doubleValue();
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            if (mLive != null) return mLive.isNull(column);
+            return get(column) == null;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean requery() {
+            if (isClosed()) return false;
+            mCache.reload(this);
+            moveToPosition(-1);
+            return super.requery();
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            setResult(mSnapshot, null);
+        }
+    }
+}
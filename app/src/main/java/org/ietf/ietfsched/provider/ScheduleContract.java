@@ -25,6 +25,7 @@ import android.provider.BaseColumns;
 import android.text.format.DateUtils;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Contract class for interacting with {@link ScheduleProvider}. Unless
@@ -54,6 +55,11 @@ public class ScheduleContract {
         String UPDATED = "updated";
     }
 
+    interface MeetingColumns {
+        /** IETF meeting number this entry was imported for. */
+        String MEETING = "meeting";
+    }
+
     interface BlocksColumns {
         /** Unique string identifying this block of time. */
         String BLOCK_ID = "block_id";
@@ -110,9 +116,17 @@ public class ScheduleContract {
         String SESSION_MODERATOR_URL = "session_moderator_url";
         /** Full URL to YouTube. */
         String SESSION_YOUTUBE_URL = "session_youtube_url";
-        /** Full URL to PDF. */
+        /**
+         * Slides packed as "title|||url" separated by "::".
+         * @deprecated No longer written; use {@link SessionMaterials}.
+         */
+        @Deprecated
         String SESSION_PDF_URL = "session_pdf_url";
-        /** Internet drafts associated with this session (stored as "draft-name|||url" separated by "::", where draft-name is the raw draft identifier like "draft-ietf-6man-enhanced-vpn-vtn-id"). */
+        /**
+         * Internet drafts packed as "draft-name|||url" separated by "::".
+         * @deprecated No longer written; use {@link SessionMaterials}.
+         */
+        @Deprecated
         String SESSION_DRAFTS_URL = "session_drafts_url";
         /** Session resource URI for fetching detailed session data (e.g., "/api/v1/meeting/session/{id}/"). */
         String SESSION_RES_URI = "session_res_uri";
@@ -124,6 +138,34 @@ public class ScheduleContract {
         String SESSION_STARRED = "session_starred";
         /** Whether this session is a Birds of a Feather (BoF) session. From API is_bof. */
         String SESSION_IS_BOF = "session_is_bof";
+        /**
+         * Copy of the {@link BlocksColumns#BLOCK_START} of the session's block,
+         * or 0 without one, kept by the database so sessions can be ordered
+         * by time from their own index.
+         */
+        String SESSION_BLOCK_START = "session_block_start";
+    }
+
+    interface SessionMaterialsColumns {
+        /** Kind of material, such as {@link SessionMaterials#KIND_SLIDES}. */
+        String MATERIAL_KIND = "material_kind";
+        /** Title shown for this material, if known. */
+        String MATERIAL_TITLE = "material_title";
+        /** Full URL to open this material. */
+        String MATERIAL_URL = "material_url";
+        /** Position of this material among those of its session. */
+        String MATERIAL_ORDER = "material_order";
+    }
+
+    interface SearchSuggestColumns {
+        /** Normalized {@link SearchManager#SUGGEST_COLUMN_TEXT_1}, matched by prefix. */
+        String SUGGEST_KEY = "suggest_key";
+        /** What this suggestion names, such as {@link SearchSuggest#KIND_GROUP}. */
+        String SUGGEST_KIND = "suggest_kind";
+        /** Weight assigned on import, from how often and where the term appears. */
+        String SUGGEST_WEIGHT = "suggest_weight";
+        /** Number of times this suggestion was picked. */
+        String SUGGEST_USAGE = "suggest_usage";
     }
 
     interface SpeakersColumns {
@@ -162,11 +204,18 @@ public class ScheduleContract {
 
     public static final String CONTENT_AUTHORITY = "org.ietf.ietfsched";
 
-    private static final Uri BASE_CONTENT_URI = Uri.parse("content://" + CONTENT_AUTHORITY);
+    /**
+     * Root of every {@link ScheduleContract} {@link Uri}. Observers registered
+     * here with descendants see every change, including the single summary
+     * sent after a batch.
+     */
+    public static final Uri BASE_CONTENT_URI = Uri.parse("content://" + CONTENT_AUTHORITY);
 
     private static final String PATH_BLOCKS = "blocks";
     private static final String PATH_AT = "at";
     private static final String PATH_BETWEEN = "between";
+    private static final String PATH_OVERLAPPING = "overlapping";
+    private static final String PATH_NEXT = "next";
     private static final String PATH_TRACKS = "tracks";
 	private static final String PATH_ROOMS = "rooms";
     private static final String PATH_SESSIONS = "sessions";
@@ -176,6 +225,118 @@ public class ScheduleContract {
     private static final String PATH_EXPORT = "export";
     private static final String PATH_SEARCH = "search";
     private static final String PATH_SEARCH_SUGGEST = "search_suggest_query";
+    private static final String PATH_SEARCH_SUGGEST_ENTRIES = "search_suggest";
+    private static final String PATH_USAGE = "usage";
+    private static final String PATH_MEETINGS = "meetings";
+    private static final String PATH_MATERIALS = "materials";
+    private static final String PATH_SESSION_MATERIALS = "session_materials";
+
+    /**
+     * Query parameter that scopes any {@link Blocks}, {@link Rooms} or
+     * {@link Sessions} {@link Uri} to a single meeting. When absent, the
+     * provider scopes to the meeting currently selected for display.
+     */
+    public static final String PARAM_MEETING = "meeting";
+
+    /**
+     * Return a copy of the given {@link Uri} scoped to the requested meeting
+     * number, so the same path can address the current or an archived meeting.
+     */
+    public static Uri buildMeetingScopedUri(Uri uri, int meetingNumber) {
+        return uri.buildUpon().appendQueryParameter(PARAM_MEETING,
+                String.valueOf(meetingNumber)).build();
+    }
+
+    /**
+     * Read the meeting number from a {@link Uri} built by
+     * {@link #buildMeetingScopedUri}, or {@code 0} when it is not scoped.
+     */
+    public static int getMeetingNumber(Uri uri) {
+        final String meeting = uri.getQueryParameter(PARAM_MEETING);
+        if (meeting == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(meeting);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Query parameter capping the number of rows a directory {@link Uri}
+     * returns, so long lists can be read a page at a time.
+     */
+    public static final String PARAM_LIMIT = "limit";
+
+    /** Return a copy of the given {@link Uri} returning at most {@code limit} rows. */
+    public static Uri buildLimitUri(Uri uri, int limit) {
+        return uri.buildUpon().appendQueryParameter(PARAM_LIMIT, String.valueOf(limit)).build();
+    }
+
+    /**
+     * Query parameter asking the provider to read straight from the database
+     * rather than through its result cache, for one-off lookups such as
+     * those of an import that would only evict results the UI reuses.
+     */
+    public static final String PARAM_NO_CACHE = "nocache";
+
+    /** Return a copy of the given {@link Uri} read without the provider's result cache. */
+    public static Uri buildUncachedUri(Uri uri) {
+        return uri.buildUpon().appendQueryParameter(PARAM_NO_CACHE, "true").build();
+    }
+
+    /**
+     * Query parameter carried by change notifications describing what
+     * changed, as a combination of the {@code CHANGE_} flags. Observers read
+     * it with {@link #getChangeFlags}.
+     */
+    public static final String PARAM_CHANGES = "changes";
+
+    /** Row contents changed, or rows were added or removed. */
+    public static final int CHANGE_CONTENT = 1;
+    /** Only {@link SessionsColumns#SESSION_STARRED} changed. */
+    public static final int CHANGE_STARRED = 1 << 1;
+    /**
+     * Summary of a batch; the notified {@link Uri} is an ancestor of
+     * everything that may have changed.
+     */
+    public static final int CHANGE_BULK = 1 << 2;
+
+    /** Return a copy of the given {@link Uri} carrying the given change flags. */
+    public static Uri buildChangeUri(Uri uri, int flags) {
+        return uri.buildUpon().appendQueryParameter(PARAM_CHANGES,
+                String.valueOf(flags)).build();
+    }
+
+    /**
+     * Read the change flags from a notified {@link Uri}. Notifications sent
+     * without flags are treated as {@link #CHANGE_CONTENT}.
+     */
+    public static int getChangeFlags(Uri uri) {
+        final String changes = uri == null ? null : uri.getQueryParameter(PARAM_CHANGES);
+        if (changes == null) {
+            return CHANGE_CONTENT;
+        }
+        try {
+            return Integer.parseInt(changes);
+        } catch (NumberFormatException e) {
+            return CHANGE_CONTENT;
+        }
+    }
+
+    /**
+     * {@link android.content.ContentResolver#call} method that garbage-collects
+     * the database after an import: merges full-text index segments and
+     * returns free pages to the file system. The result carries
+     * {@link #EXTRA_PAGES_RECLAIMED} and {@link #EXTRA_BYTES_RECLAIMED}.
+     */
+    public static final String METHOD_COMPACT = "compact";
+
+    /** Database pages a {@link #METHOD_COMPACT} call gave back. */
+    public static final String EXTRA_PAGES_RECLAIMED = "pages_reclaimed";
+    /** Bytes a {@link #METHOD_COMPACT} call gave back. */
+    public static final String EXTRA_BYTES_RECLAIMED = "bytes_reclaimed";
 
 
 
@@ -183,18 +344,20 @@ public class ScheduleContract {
      * Blocks are generic timeslots that {@link Sessions} and other related
      * events fall into.
      */
-    public static class Blocks implements BlocksColumns, BaseColumns, SyncColumns {
+    public static class Blocks implements BlocksColumns, BaseColumns, SyncColumns,
+            MeetingColumns {
         public static final Uri CONTENT_URI = BASE_CONTENT_URI.buildUpon().appendPath(PATH_BLOCKS).build();
 
         public static final String CONTENT_TYPE = "vnd.android.cursor.dir/vnd.ietfsched.block";
         public static final String CONTENT_ITEM_TYPE = "vnd.android.cursor.item/vnd.ietfsched.block";
 
-        /** Count of {@link Sessions} inside given block. */
+        /** Count of {@link Sessions} inside given block, kept current by triggers. */
         public static final String SESSIONS_COUNT = "sessions_count";
 
         /**
          * Flag indicating that at least one {@link Sessions#SESSION_ID} inside
-         * this block has {@link Sessions#SESSION_STARRED} set.
+         * this block has {@link Sessions#SESSION_STARRED} set. Kept current by
+         * triggers, like {@link #SESSIONS_COUNT}.
          */
         public static final String CONTAINS_STARRED = "contains_starred";
 
@@ -223,11 +386,44 @@ public class ScheduleContract {
                     String.valueOf(startTime)).appendPath(String.valueOf(endTime)).build();
         }
 
+        /**
+         * Build {@link Uri} that references any {@link Blocks} in progress at
+         * the requested time.
+         */
+        public static Uri buildBlocksAtDirUri(long time) {
+            return CONTENT_URI.buildUpon().appendPath(PATH_AT).appendPath(String.valueOf(time))
+                    .build();
+        }
+
+        /**
+         * Build {@link Uri} that references any {@link Blocks} whose span
+         * overlaps the requested time boundaries.
+         */
+        public static Uri buildBlocksOverlappingDirUri(long startTime, long endTime) {
+            return CONTENT_URI.buildUpon().appendPath(PATH_OVERLAPPING).appendPath(
+                    String.valueOf(startTime)).appendPath(String.valueOf(endTime)).build();
+        }
+
+        /**
+         * Build {@link Uri} that references the {@link Blocks} starting
+         * soonest after the requested time.
+         */
+        public static Uri buildBlocksNextDirUri(long time) {
+            return CONTENT_URI.buildUpon().appendPath(PATH_NEXT).appendPath(String.valueOf(time))
+                    .build();
+        }
+
         /** Read {@link #BLOCK_ID} from {@link Blocks} {@link Uri}. */
         public static String getBlockId(Uri uri) {
             return uri.getPathSegments().get(1);
         }
 
+        /** Whether the {@link Uri} addresses a single {@link Blocks} row. */
+        public static boolean isBlockItemUri(Uri uri) {
+            List<String> pathSegments = uri.getPathSegments();
+            return pathSegments.size() == 2 && PATH_BLOCKS.equals(pathSegments.get(0));
+        }
+
         /**
          * Generate a {@link #BLOCK_ID} that will always match the requested
          * {@link Blocks} details.
@@ -252,7 +448,7 @@ public class ScheduleContract {
         public static final String CONTENT_ITEM_TYPE =
                 "vnd.android.cursor.item/vnd.ietfsched.track";
 
-        /** Count of {@link Sessions} inside given track. */
+        /** Count of {@link Sessions} inside given track, kept current by triggers. */
         public static final String SESSIONS_COUNT = "sessions_count";
         /** Count of {@link Vendors} inside given track. */
         public static final String VENDORS_COUNT = "vendors_count";
@@ -301,7 +497,7 @@ public class ScheduleContract {
     /**
      * Rooms are physical locations at the conference venue.
      */
-    public static class Rooms implements RoomsColumns, BaseColumns {
+    public static class Rooms implements RoomsColumns, BaseColumns, SyncColumns, MeetingColumns {
         public static final Uri CONTENT_URI =
                 BASE_CONTENT_URI.buildUpon().appendPath(PATH_ROOMS).build();
 
@@ -346,7 +542,7 @@ public class ScheduleContract {
      * {@link Rooms}, and zero or more {@link Speakers}.
      */
     public static class Sessions implements SessionsColumns, BlocksColumns, RoomsColumns,
-            SyncColumns, BaseColumns {
+            SyncColumns, MeetingColumns, BaseColumns {
         public static final Uri CONTENT_URI =  BASE_CONTENT_URI.buildUpon().appendPath(PATH_SESSIONS).build();
         public static final Uri CONTENT_STARRED_URI = CONTENT_URI.buildUpon().appendPath(PATH_STARRED).build();
 
@@ -365,6 +561,40 @@ public class ScheduleContract {
         public static final String DEFAULT_SORT = BlocksColumns.BLOCK_START + " ASC,"
                 + SessionsColumns.SESSION_TITLE + " COLLATE NOCASE ASC";
 
+        private static final String KEY_START = SessionsColumns.SESSION_BLOCK_START;
+        private static final String KEY_TITLE = "ifnull(" + SessionsColumns.SESSION_TITLE
+                + ",'') COLLATE NOCASE";
+        private static final String KEY = "(" + KEY_START + "," + KEY_TITLE + ","
+                + SessionsColumns.SESSION_ID + ")";
+
+        /**
+         * {@link #DEFAULT_SORT} made total by {@link #SESSION_ID}, so the
+         * {@code KEYSET_} selections can page through it by the last row seen
+         * rather than by offset. Every term is a column or expression of the
+         * sessions table, so a page is read straight from its keyset index.
+         */
+        public static final String KEYSET_SORT = KEY_START + " ASC," + KEY_TITLE + " ASC,"
+                + SessionsColumns.SESSION_ID + " ASC";
+
+        /** {@link #KEYSET_SORT} reversed, for reading the page before a row. */
+        public static final String KEYSET_SORT_REVERSE = KEY_START + " DESC," + KEY_TITLE
+                + " DESC," + SessionsColumns.SESSION_ID + " DESC";
+
+        /** Rows after a key in {@link #KEYSET_SORT}; see {@link #buildKeysetArgs}. */
+        public static final String KEYSET_AFTER = KEY + ">(CAST(? AS INTEGER),?,?)";
+
+        /** Rows from a key on in {@link #KEYSET_SORT}; see {@link #buildKeysetArgs}. */
+        public static final String KEYSET_FROM = KEY + ">=(CAST(? AS INTEGER),?,?)";
+
+        /** Rows before a key in {@link #KEYSET_SORT}; see {@link #buildKeysetArgs}. */
+        public static final String KEYSET_BEFORE = KEY + "<(CAST(? AS INTEGER),?,?)";
+
+        /** Selection arguments for the {@code KEYSET_} selections, keyed on one row. */
+        public static String[] buildKeysetArgs(long blockStart, String title, String sessionId) {
+            return new String[] { String.valueOf(blockStart), title == null ? "" : title,
+                    sessionId };
+        }
+
         /** Build {@link Uri} for requested {@link #SESSION_ID}. */
         public static Uri buildSessionUri(String sessionId) {
             return CONTENT_URI.buildUpon().appendPath(sessionId).build();
@@ -386,11 +616,45 @@ public class ScheduleContract {
             return CONTENT_URI.buildUpon().appendPath(sessionId).appendPath(PATH_TRACKS).build();
         }
 
+        /**
+         * Build {@link Uri} that references any {@link SessionMaterials}
+         * associated with the requested {@link #SESSION_ID}.
+         */
+        public static Uri buildMaterialsDirUri(String sessionId) {
+            return CONTENT_URI.buildUpon().appendPath(sessionId).appendPath(PATH_MATERIALS).build();
+        }
+
+        /**
+         * Build {@link Uri} that references any {@link SessionMaterials} of the
+         * session at {@code sessionUri}, keeping its meeting scope.
+         */
+        public static Uri buildMaterialsDirUri(Uri sessionUri) {
+            return sessionUri.buildUpon().appendPath(PATH_MATERIALS).build();
+        }
+
         public static Uri buildSessionsAtDirUri(long time) {
             return CONTENT_URI.buildUpon().appendPath(PATH_AT).appendPath(String.valueOf(time))
                     .build();
         }
 
+        /**
+         * Build {@link Uri} that references any {@link Sessions} whose block
+         * overlaps the requested time boundaries.
+         */
+        public static Uri buildSessionsOverlappingDirUri(long startTime, long endTime) {
+            return CONTENT_URI.buildUpon().appendPath(PATH_OVERLAPPING).appendPath(
+                    String.valueOf(startTime)).appendPath(String.valueOf(endTime)).build();
+        }
+
+        /**
+         * Build {@link Uri} that references the {@link Sessions} of the block
+         * starting soonest after the requested time.
+         */
+        public static Uri buildSessionsNextDirUri(long time) {
+            return CONTENT_URI.buildUpon().appendPath(PATH_NEXT).appendPath(String.valueOf(time))
+                    .build();
+        }
+
         public static Uri buildSearchUri(String query) {
             return CONTENT_URI.buildUpon().appendPath(PATH_SEARCH).appendPath(query).build();
         }
@@ -405,6 +669,13 @@ public class ScheduleContract {
             return uri.getPathSegments().get(1);
         }
 
+        /** Whether the {@link Uri} addresses a single {@link Sessions} row. */
+        public static boolean isSessionItemUri(Uri uri) {
+            List<String> pathSegments = uri.getPathSegments();
+            return pathSegments.size() == 2 && PATH_SESSIONS.equals(pathSegments.get(0))
+                    && !PATH_STARRED.equals(pathSegments.get(1));
+        }
+
         public static String getSearchQuery(Uri uri) {
             return uri.getPathSegments().get(2);
         }
@@ -518,12 +789,111 @@ public class ScheduleContract {
         }
     }
 
-    public static class SearchSuggest {
+    /**
+     * Meetings that have schedule data stored locally, one row per
+     * {@link MeetingColumns#MEETING}. Used to switch between the current
+     * meeting and archived ones without a network round trip.
+     */
+    public static class Meetings implements MeetingColumns, BaseColumns {
+        public static final Uri CONTENT_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_MEETINGS).build();
+
+        public static final String CONTENT_TYPE =
+                "vnd.android.cursor.dir/vnd.ietfsched.meeting";
+
+        /** Start of the earliest {@link Blocks} stored for this meeting. */
+        public static final String MEETING_START = "meeting_start";
+        /** End of the latest {@link Blocks} stored for this meeting. */
+        public static final String MEETING_END = "meeting_end";
+        /** Count of {@link Sessions} stored for this meeting. */
+        public static final String SESSIONS_COUNT = "sessions_count";
+
+        /** Default "ORDER BY" clause, most recent meeting first. */
+        public static final String DEFAULT_SORT = MeetingColumns.MEETING + " DESC";
+    }
+
+    /**
+     * Slides, drafts and other documents attached to a {@link Sessions}, one
+     * row per item so they can be queried and updated individually.
+     */
+    public static class SessionMaterials implements SessionMaterialsColumns, SyncColumns,
+            MeetingColumns, BaseColumns {
+        public static final Uri CONTENT_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_SESSION_MATERIALS).build();
+
+        public static final String CONTENT_TYPE =
+                "vnd.android.cursor.dir/vnd.ietfsched.session_material";
+
+        public static final String SESSION_ID = "session_id";
+
+        /** {@link #MATERIAL_KIND} of presentation slides. */
+        public static final String KIND_SLIDES = "slides";
+        /** {@link #MATERIAL_KIND} of an Internet draft. */
+        public static final String KIND_DRAFT = "draft";
+
+        /** Default "ORDER BY" clause. */
+        public static final String DEFAULT_SORT = SessionMaterialsColumns.MATERIAL_ORDER + " ASC";
+    }
+
+    /**
+     * Vocabulary offered as search suggestions: group acronyms, areas, rooms,
+     * BoF titles and draft names, built on import. Suggestions are queried by
+     * prefix through {@link #CONTENT_URI} and written through
+     * {@link #ENTRIES_URI}.
+     */
+    public static class SearchSuggest implements SearchSuggestColumns, SyncColumns,
+            MeetingColumns, BaseColumns {
         public static final Uri CONTENT_URI =
                 BASE_CONTENT_URI.buildUpon().appendPath(PATH_SEARCH_SUGGEST).build();
+        public static final Uri ENTRIES_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_SEARCH_SUGGEST_ENTRIES).build();
 
-        public static final String DEFAULT_SORT = SearchManager.SUGGEST_COLUMN_TEXT_1
-                + " COLLATE NOCASE ASC";
+        public static final String CONTENT_TYPE =
+                "vnd.android.cursor.dir/vnd.ietfsched.search_suggest";
+
+        /** {@link #SUGGEST_KIND} of a working group acronym. */
+        public static final String KIND_GROUP = "group";
+        /** {@link #SUGGEST_KIND} of an area acronym. */
+        public static final String KIND_AREA = "area";
+        /** {@link #SUGGEST_KIND} of a room name. */
+        public static final String KIND_ROOM = "room";
+        /** {@link #SUGGEST_KIND} of a BoF session title. */
+        public static final String KIND_BOF = "bof";
+        /** {@link #SUGGEST_KIND} of an Internet-Draft name. */
+        public static final String KIND_DRAFT = "draft";
+
+        /** Default "ORDER BY" clause: most picked, then heaviest, then by name. */
+        public static final String DEFAULT_SORT = SearchSuggestColumns.SUGGEST_USAGE + " DESC,"
+                + SearchSuggestColumns.SUGGEST_WEIGHT + " DESC,"
+                + SearchManager.SUGGEST_COLUMN_TEXT_1 + " COLLATE NOCASE ASC";
+
+        /** Build {@link Uri} for suggestions starting with the typed text. */
+        public static Uri buildSuggestUri(String query) {
+            return CONTENT_URI.buildUpon().appendPath(query).build();
+        }
+
+        /**
+         * Build {@link Uri} that records a use of the suggestion with the
+         * given text when updated. The values of the update are ignored.
+         */
+        public static Uri buildUsageUri(String text) {
+            return ENTRIES_URI.buildUpon().appendPath(PATH_USAGE).appendPath(normalize(text))
+                    .build();
+        }
+
+        /** Read {@link #SUGGEST_KEY} from a {@link #buildUsageUri} {@link Uri}. */
+        public static String getSuggestKey(Uri uri) {
+            return uri.getPathSegments().get(2);
+        }
+
+        /**
+         * Reduce suggestion or typed text to its {@link #SUGGEST_KEY} form,
+         * so prefix matching ignores case and runs of whitespace.
+         */
+        public static String normalize(String text) {
+            return text == null ? "" : text.trim().replaceAll("\\s+", " ")
+                    .toLowerCase(Locale.ROOT);
+        }
     }
 
     private ScheduleContract() {
@@ -18,21 +18,36 @@ package org.ietf.ietfsched.provider;
 
 import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
 import org.ietf.ietfsched.provider.ScheduleContract.BlocksColumns;
+import org.ietf.ietfsched.provider.ScheduleContract.MeetingColumns;
 import org.ietf.ietfsched.provider.ScheduleContract.Rooms;
+import org.ietf.ietfsched.provider.ScheduleContract.SearchSuggest;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterialsColumns;
 import org.ietf.ietfsched.provider.ScheduleContract.RoomsColumns;
 import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
 import org.ietf.ietfsched.provider.ScheduleContract.SessionsColumns;
 import org.ietf.ietfsched.provider.ScheduleContract.SyncColumns;
 import org.ietf.ietfsched.provider.ScheduleContract.Tracks;
 import org.ietf.ietfsched.provider.ScheduleContract.TracksColumns;
+import org.ietf.ietfsched.util.MeetingPreferences;
 
 import android.app.SearchManager;
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.provider.BaseColumns;
 import android.util.Log;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Helper for managing {@link SQLiteDatabase} that stores data for
  * {@link ScheduleProvider}.
@@ -42,7 +57,12 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "schedule.db";
 
-    // NOTE: carefully update onUpgrade() when bumping database versions to make
+    /** Pages of WAL after which a commit triggers a passive checkpoint. */
+    private static final int WAL_AUTOCHECKPOINT_PAGES = 500;
+    /** Size the WAL file is truncated to after a checkpoint. */
+    private static final long WAL_SIZE_LIMIT_BYTES = 4 * 1024 * 1024;
+
+    // NOTE: add a step to migrate() when bumping database versions to make
     // sure user data is saved.
 
     private static final int VER_LAUNCH = 21;
@@ -51,8 +71,32 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
     private static final int VER_SESSION_DRAFTS_URL = 29;
     private static final int VER_SESSION_RES_URI = 30;
     private static final int VER_SESSION_IS_BOF = 31;
+    private static final int VER_MEETING_PARTITION = 32;
+    private static final int VER_SCHEDULE_INDEXES = 33;
+    private static final int VER_BLOCK_AGGREGATES = 34;
+    private static final int VER_SESSIONS_FTS4 = 35;
+    private static final int VER_SESSION_MATERIALS = 36;
+    private static final int VER_BLOCK_INTERVALS = 37;
+    private static final int VER_SEARCH_SUGGEST = 38;
+    private static final int VER_ROOMS_UPDATED = 39;
+    private static final int VER_SESSIONS_KEYSET = 40;
+
+    /** Package-private so migration tests can build fixtures below it. */
+    static final int DATABASE_VERSION = VER_SESSIONS_KEYSET;
+
+    /** {@code PRAGMA auto_vacuum} value for incremental mode. */
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
 
-    private static final int DATABASE_VERSION = VER_SESSION_IS_BOF;
+    /**
+     * Tables whose rows {@link #copyIntoCurrentSchema} carries over, in an
+     * order where each table's aggregates are maintained by later copies.
+     */
+    private static final String[] COPIED_TABLES = { Tables.BLOCKS, Tables.TRACKS, Tables.ROOMS,
+            Tables.SESSIONS, Tables.SESSIONS_TRACKS, Tables.SESSION_MATERIALS,
+            Tables.SEARCH_SUGGEST };
+
+    /** Suffix of tables renamed aside while {@link #copyIntoCurrentSchema} runs. */
+    private static final String PREVIOUS_SUFFIX = "_previous";
 
     interface Tables {
         String BLOCKS = "blocks";
@@ -60,33 +104,70 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
         String ROOMS = "rooms";
         String SESSIONS = "sessions";
         String SESSIONS_TRACKS = "sessions_tracks";
+        String SESSION_MATERIALS = "session_materials";
 		String SESSIONS_SEARCH = "sessions_search";
 		String SEARCH_SUGGEST = "search_suggest";
         String SESSIONS_TRACKS_JOIN_TRACKS = "sessions_tracks "
                 + "LEFT OUTER JOIN tracks ON sessions_tracks.track_id=tracks.track_id";
 	  String SESSIONS_JOIN_BLOCKS_ROOMS = "sessions "
                 + "LEFT OUTER JOIN blocks ON sessions.block_id=blocks.block_id "
-                + "LEFT OUTER JOIN rooms ON sessions.room_id=rooms.room_id";
+                + "AND sessions.meeting=blocks.meeting "
+                + "LEFT OUTER JOIN rooms ON sessions.room_id=rooms.room_id "
+                + "AND sessions.meeting=rooms.meeting";
 	
 	 String SESSIONS_SEARCH_JOIN_SESSIONS_BLOCKS_ROOMS = "sessions_search "
-                + "LEFT OUTER JOIN sessions ON sessions_search.session_id=sessions.session_id "
+                + "INNER JOIN sessions ON sessions_search.docid=sessions._id "
                 + "LEFT OUTER JOIN blocks ON sessions.block_id=blocks.block_id "
-                + "LEFT OUTER JOIN rooms ON sessions.room_id=rooms.room_id";
+                + "AND sessions.meeting=blocks.meeting "
+                + "LEFT OUTER JOIN rooms ON sessions.room_id=rooms.room_id "
+                + "AND sessions.meeting=rooms.meeting";
 	
 	String SESSIONS_TRACKS_JOIN_SESSIONS_BLOCKS_ROOMS = "sessions_tracks "
 				+ "LEFT OUTER JOIN sessions ON sessions_tracks.session_id=sessions.session_id "
+				+ "AND sessions_tracks.meeting=sessions.meeting "
 				+ "LEFT OUTER JOIN blocks ON sessions.block_id=blocks.block_id "
-				+ "LEFT OUTER JOIN rooms ON sessions.room_id=rooms.room_id";	
+				+ "AND sessions.meeting=blocks.meeting "
+				+ "LEFT OUTER JOIN rooms ON sessions.room_id=rooms.room_id "
+				+ "AND sessions.meeting=rooms.meeting";	
+
 
+    }
 
+    private interface Indexes {
+        String BLOCKS_START = "blocks_start_index";
+        String BLOCKS_END = "blocks_end_index";
+        String BLOCKS_DURATION = "blocks_duration_index";
+        String SESSIONS_BLOCK_ID = "sessions_block_id_index";
+        String SESSIONS_ROOM_ID = "sessions_room_id_index";
+        String SESSIONS_STARRED = "sessions_starred_index";
+        String SESSIONS_KEYSET = "sessions_keyset_index";
+        String SESSIONS_TRACKS_TRACK_ID = "sessions_tracks_track_id_index";
+        String SESSION_MATERIALS_SESSION_ID = "session_materials_session_id_index";
     }
 
     private interface Triggers {
         String SESSIONS_SEARCH_INSERT = "sessions_search_insert";
         String SESSIONS_SEARCH_DELETE = "sessions_search_delete";
         String SESSIONS_SEARCH_UPDATE = "sessions_search_update";
+        String SESSIONS_SEARCH_REPLACE = "sessions_search_replace";
 	
 		String SESSIONS_TRACKS_DELETE = "sessions_tracks_delete";
+        String SESSION_MATERIALS_DELETE = "session_materials_delete";
+
+        String BLOCKS_AGGREGATES_INSERT = "blocks_aggregates_insert";
+        String SESSIONS_AGGREGATES_MOVE = "sessions_aggregates_move";
+        String SESSIONS_AGGREGATES_INSERT = "sessions_aggregates_insert";
+        String SESSIONS_AGGREGATES_DELETE = "sessions_aggregates_delete";
+        String SESSIONS_AGGREGATES_UPDATE = "sessions_aggregates_update";
+        String TRACKS_AGGREGATES_INSERT = "tracks_aggregates_insert";
+        String SESSIONS_TRACKS_AGGREGATES_INSERT = "sessions_tracks_aggregates_insert";
+        String SESSIONS_TRACKS_AGGREGATES_DELETE = "sessions_tracks_aggregates_delete";
+
+        String SESSIONS_BLOCK_START_INSERT = "sessions_block_start_insert";
+        String SESSIONS_BLOCK_START_UPDATE = "sessions_block_start_update";
+        String BLOCKS_BLOCK_START_INSERT = "blocks_block_start_insert";
+        String BLOCKS_BLOCK_START_UPDATE = "blocks_block_start_update";
+        String BLOCKS_BLOCK_START_DELETE = "blocks_block_start_delete";
     }
 
     public interface SessionsTracks {
@@ -94,15 +175,23 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
         String TRACK_ID = "track_id";
     }
 
+    /**
+     * Columns of {@link Tables#SESSIONS_SEARCH}, in the order that
+     * {@link SearchRanker} weights them. Each row's {@code docid} is the
+     * {@link BaseColumns#_ID} of its {@link Tables#SESSIONS} row.
+     */
     interface SessionsSearchColumns {
-        String SESSION_ID = "session_id";
-        String BODY = "body";
+        String TITLE = "search_title";
+        String KEYWORDS = "search_keywords";
+        String ROOM = "search_room";
+        String ABSTRACT = "search_abstract";
     }
 
     /** Fully-qualified field names. */
     private interface Qualified {
-        String SESSIONS_SEARCH_SESSION_ID = Tables.SESSIONS_SEARCH + "." + SessionsSearchColumns.SESSION_ID;
-        String SESSIONS_SEARCH = Tables.SESSIONS_SEARCH + "(" + SessionsSearchColumns.SESSION_ID + "," + SessionsSearchColumns.BODY + ")";
+        String SESSIONS_SEARCH = Tables.SESSIONS_SEARCH + "(docid,"
+                + SessionsSearchColumns.TITLE + "," + SessionsSearchColumns.KEYWORDS + ","
+                + SessionsSearchColumns.ROOM + "," + SessionsSearchColumns.ABSTRACT + ")";
     }
 
     /** {@code REFERENCES} clauses. */
@@ -115,17 +204,83 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
 
     private interface Subquery {
         /**
-         * Subquery used to build the {@link SessionsSearchColumns#BODY} string
-         * used for indexing {@link Sessions} content.
+         * Sessions of the {@link Tables#BLOCKS} row being updated. Aggregates are
+         * recomputed rather than incremented so that {@code ON CONFLICT REPLACE},
+         * which deletes without firing delete triggers, cannot skew them.
          */
-        String SESSIONS_BODY = "(new." + Sessions.SESSION_TITLE
-                + "||'; '||new." + Sessions.SESSION_ABSTRACT
-                + "||'; '||" + "coalesce(new." + Sessions.SESSION_KEYWORDS + ", '')"
-                + ")";
+        String BLOCK_SESSIONS = " FROM " + Tables.SESSIONS + " WHERE "
+                + Tables.SESSIONS + "." + MeetingColumns.MEETING + "="
+                + Tables.BLOCKS + "." + MeetingColumns.MEETING + " AND "
+                + Tables.SESSIONS + "." + Sessions.BLOCK_ID + "="
+                + Tables.BLOCKS + "." + BlocksColumns.BLOCK_ID;
+
+        /** {@code SET} clause recomputing {@link Blocks} aggregates. */
+        String BLOCK_AGGREGATES = Blocks.SESSIONS_COUNT + "=(SELECT COUNT(*)" + BLOCK_SESSIONS + "),"
+                + Blocks.CONTAINS_STARRED + "=(SELECT IFNULL(MAX("
+                + SessionsColumns.SESSION_STARRED + "),0)" + BLOCK_SESSIONS + ")";
+
+        /** Same as {@link #BLOCK_AGGREGATES}, ignoring the session being replaced. */
+        String BLOCK_AGGREGATES_WITHOUT_NEW = Blocks.SESSIONS_COUNT + "=(SELECT COUNT(*)"
+                + BLOCK_SESSIONS + " AND " + SessionsColumns.SESSION_ID + "<>new."
+                + SessionsColumns.SESSION_ID + ")," + Blocks.CONTAINS_STARRED
+                + "=(SELECT IFNULL(MAX(" + SessionsColumns.SESSION_STARRED + "),0)"
+                + BLOCK_SESSIONS + " AND " + SessionsColumns.SESSION_ID + "<>new."
+                + SessionsColumns.SESSION_ID + ")";
+
+        /** {@code SET} clause copying the block start of the {@link Tables#SESSIONS} row being updated. */
+        String SESSION_BLOCK_START = SessionsColumns.SESSION_BLOCK_START + "=IFNULL((SELECT "
+                + BlocksColumns.BLOCK_START + " FROM " + Tables.BLOCKS + " WHERE "
+                + Tables.BLOCKS + "." + MeetingColumns.MEETING + "="
+                + Tables.SESSIONS + "." + MeetingColumns.MEETING + " AND "
+                + Tables.BLOCKS + "." + BlocksColumns.BLOCK_ID + "="
+                + Tables.SESSIONS + "." + Sessions.BLOCK_ID + "),0)";
+
+        /** {@code SET} clause recomputing {@link Tracks#SESSIONS_COUNT}. */
+        String TRACK_AGGREGATES = Tracks.SESSIONS_COUNT + "=(SELECT COUNT(*) FROM "
+                + Tables.SESSIONS_TRACKS + " WHERE " + Tables.SESSIONS_TRACKS + "."
+                + SessionsTracks.TRACK_ID + "=" + Tables.TRACKS + "." + TracksColumns.TRACK_ID + ")";
 	}
 
+    private final Context mContext;
+
     ScheduleDatabase(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * Open the schedule database under the given file name, or in memory
+     * when {@code name} is {@code null}. Used by tests.
+     */
+    ScheduleDatabase(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        mContext = context;
+        // Let UI queries read the last committed schedule on pooled
+        // connections while a sync batch is still being written.
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        if (!db.isWriteAheadLoggingEnabled()) return;
+
+        // NORMAL only syncs at checkpoints in WAL mode; a crash can lose the
+        // last sync, which is simply fetched again.
+        db.execSQL("PRAGMA synchronous=NORMAL");
+        // A shorter WAL keeps lookups cheap for readers, and the size limit
+        // truncates the file a large import leaves behind.
+        pragma(db, "wal_autocheckpoint=" + WAL_AUTOCHECKPOINT_PAGES);
+        pragma(db, "journal_size_limit=" + WAL_SIZE_LIMIT_BYTES);
+    }
+
+    /** Run a {@code PRAGMA} that reports its new value as a result row. */
+    private static void pragma(SQLiteDatabase db, String pragma) {
+        final Cursor cursor = db.rawQuery("PRAGMA " + pragma, null);
+        try {
+            cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
     }
 
     @Override
@@ -140,7 +295,11 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
                 + BlocksColumns.BLOCK_END + " INTEGER NOT NULL,"
                 + BlocksColumns.BLOCK_TYPE + " TEXT,"
 				+ SyncColumns.UPDATED + " INTEGER NOT NULL,"
-                + "UNIQUE (" + BlocksColumns.BLOCK_ID + ") ON CONFLICT REPLACE)");
+                + Blocks.SESSIONS_COUNT + " INTEGER NOT NULL DEFAULT 0,"
+                + Blocks.CONTAINS_STARRED + " INTEGER NOT NULL DEFAULT 0,"
+                + MeetingColumns.MEETING + " INTEGER NOT NULL DEFAULT 0,"
+                + "UNIQUE (" + MeetingColumns.MEETING + ","
+                        + BlocksColumns.BLOCK_ID + ") ON CONFLICT REPLACE)");
 
         db.execSQL("CREATE TABLE " + Tables.TRACKS + " ("
                 + BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
@@ -149,6 +308,7 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
                 + TracksColumns.TRACK_COLOR + " INTEGER,"
                 + TracksColumns.TRACK_ABSTRACT + " TEXT,"
 				+ SyncColumns.UPDATED + " INTEGER NOT NULL,"	
+                + Tracks.SESSIONS_COUNT + " INTEGER NOT NULL DEFAULT 0,"
                 + "UNIQUE (" + TracksColumns.TRACK_ID + ") ON CONFLICT REPLACE)");
 	
 		db.execSQL("CREATE TABLE " + Tables.ROOMS + " ("
@@ -156,7 +316,10 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
                 + RoomsColumns.ROOM_ID + " TEXT NOT NULL,"
                 + RoomsColumns.ROOM_NAME + " TEXT,"
                 + RoomsColumns.ROOM_FLOOR + " TEXT,"
-                + "UNIQUE (" + RoomsColumns.ROOM_ID + ") ON CONFLICT REPLACE)");	
+                + SyncColumns.UPDATED + " INTEGER NOT NULL DEFAULT 0,"
+                + MeetingColumns.MEETING + " INTEGER NOT NULL DEFAULT 0,"
+                + "UNIQUE (" + MeetingColumns.MEETING + ","
+                        + RoomsColumns.ROOM_ID + ") ON CONFLICT REPLACE)");	
 
 
         db.execSQL("CREATE TABLE " + Tables.SESSIONS + " ("
@@ -182,135 +345,555 @@ public class ScheduleDatabase extends SQLiteOpenHelper {
                 + SessionsColumns.SESSION_NOTES_URL + " TEXT,"
                 + SessionsColumns.SESSION_STARRED + " INTEGER NOT NULL DEFAULT 0,"
                 + SessionsColumns.SESSION_IS_BOF + " INTEGER NOT NULL DEFAULT 0,"
-                + "UNIQUE (" + SessionsColumns.SESSION_ID + ") ON CONFLICT REPLACE)");
+                + MeetingColumns.MEETING + " INTEGER NOT NULL DEFAULT 0,"
+                + SessionsColumns.SESSION_BLOCK_START + " INTEGER NOT NULL DEFAULT 0,"
+                + "UNIQUE (" + MeetingColumns.MEETING + ","
+                        + SessionsColumns.SESSION_ID + ") ON CONFLICT REPLACE)");
 
         db.execSQL("CREATE TABLE " + Tables.SESSIONS_TRACKS + " ("
                 + BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
                 + SessionsTracks.SESSION_ID + " TEXT NOT NULL " + References.SESSION_ID + ", "
                 + SessionsTracks.TRACK_ID + " TEXT NOT NULL " + References.TRACK_ID + ", "
-                + "UNIQUE (" + SessionsTracks.SESSION_ID + ","
+                + MeetingColumns.MEETING + " INTEGER NOT NULL DEFAULT 0,"
+                + "UNIQUE (" + MeetingColumns.MEETING + "," + SessionsTracks.SESSION_ID + ","
                         + SessionsTracks.TRACK_ID + ") ON CONFLICT REPLACE)");
 						
 		db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_TRACKS_DELETE + " AFTER DELETE ON " + Tables.SESSIONS +
 				" BEGIN DELETE FROM " + Tables.SESSIONS_TRACKS + " WHERE " +
-					Tables.SESSIONS_TRACKS + "." + SessionsTracks.SESSION_ID + " = old." + Sessions.SESSION_ID +
+					Tables.SESSIONS_TRACKS + "." + MeetingColumns.MEETING + " = old." + MeetingColumns.MEETING +
+					" AND " + Tables.SESSIONS_TRACKS + "." + SessionsTracks.SESSION_ID + " = old." + Sessions.SESSION_ID +
 					"; END;"); 
 
+        createSessionMaterials(db);
         createSessionsSearch(db);
 
+        createSearchSuggest(db);
+
+        createIndexes(db);
+        createAggregateTriggers(db);
+        createBlockStartTriggers(db);
+    }
+
+    /**
+     * Create triggers that keep {@link Blocks#SESSIONS_COUNT},
+     * {@link Blocks#CONTAINS_STARRED} and {@link Tracks#SESSIONS_COUNT} current
+     * as sessions are inserted, moved, starred and deleted, so block and track
+     * queries read plain columns instead of running a subquery per row.
+     */
+    private static void createAggregateTriggers(SQLiteDatabase db) {
+        // A replaced block or track row starts from the column defaults.
+        db.execSQL("CREATE TRIGGER " + Triggers.BLOCKS_AGGREGATES_INSERT + " AFTER INSERT ON "
+                + Tables.BLOCKS + " BEGIN UPDATE " + Tables.BLOCKS + " SET "
+                + Subquery.BLOCK_AGGREGATES + " WHERE " + BaseColumns._ID + "=new." + BaseColumns._ID
+                + "; END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.TRACKS_AGGREGATES_INSERT + " AFTER INSERT ON "
+                + Tables.TRACKS + " BEGIN UPDATE " + Tables.TRACKS + " SET "
+                + Subquery.TRACK_AGGREGATES + " WHERE " + BaseColumns._ID + "=new." + BaseColumns._ID
+                + "; END;");
+
+        // A session re-imported into a different block leaves its old block
+        // before the REPLACE silently removes the previous row.
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_AGGREGATES_MOVE + " BEFORE INSERT ON "
+                + Tables.SESSIONS + " BEGIN UPDATE " + Tables.BLOCKS + " SET "
+                + Subquery.BLOCK_AGGREGATES_WITHOUT_NEW
+                + " WHERE " + MeetingColumns.MEETING + "=new." + MeetingColumns.MEETING
+                + " AND " + BlocksColumns.BLOCK_ID + " IN (SELECT " + Sessions.BLOCK_ID
+                + " FROM " + Tables.SESSIONS + " WHERE " + MeetingColumns.MEETING + "=new."
+                + MeetingColumns.MEETING + " AND " + SessionsColumns.SESSION_ID + "=new."
+                + SessionsColumns.SESSION_ID + " AND " + Sessions.BLOCK_ID + "<>new."
+                + Sessions.BLOCK_ID + "); END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_AGGREGATES_INSERT + " AFTER INSERT ON "
+                + Tables.SESSIONS + " BEGIN UPDATE " + Tables.BLOCKS + " SET "
+                + Subquery.BLOCK_AGGREGATES + " WHERE " + MeetingColumns.MEETING + "=new."
+                + MeetingColumns.MEETING + " AND " + BlocksColumns.BLOCK_ID + "=new."
+                + Sessions.BLOCK_ID + "; END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_AGGREGATES_DELETE + " AFTER DELETE ON "
+                + Tables.SESSIONS + " BEGIN UPDATE " + Tables.BLOCKS + " SET "
+                + Subquery.BLOCK_AGGREGATES + " WHERE " + MeetingColumns.MEETING + "=old."
+                + MeetingColumns.MEETING + " AND " + BlocksColumns.BLOCK_ID + "=old."
+                + Sessions.BLOCK_ID + "; END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_AGGREGATES_UPDATE + " AFTER UPDATE OF "
+                + Sessions.BLOCK_ID + "," + SessionsColumns.SESSION_STARRED + " ON "
+                + Tables.SESSIONS + " BEGIN UPDATE " + Tables.BLOCKS + " SET "
+                + Subquery.BLOCK_AGGREGATES + " WHERE " + MeetingColumns.MEETING + "=new."
+                + MeetingColumns.MEETING + " AND " + BlocksColumns.BLOCK_ID + " IN (old."
+                + Sessions.BLOCK_ID + ",new." + Sessions.BLOCK_ID + "); END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_TRACKS_AGGREGATES_INSERT + " AFTER INSERT ON "
+                + Tables.SESSIONS_TRACKS + " BEGIN UPDATE " + Tables.TRACKS + " SET "
+                + Subquery.TRACK_AGGREGATES + " WHERE " + TracksColumns.TRACK_ID + "=new."
+                + SessionsTracks.TRACK_ID + "; END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_TRACKS_AGGREGATES_DELETE + " AFTER DELETE ON "
+                + Tables.SESSIONS_TRACKS + " BEGIN UPDATE " + Tables.TRACKS + " SET "
+                + Subquery.TRACK_AGGREGATES + " WHERE " + TracksColumns.TRACK_ID + "=old."
+                + SessionsTracks.TRACK_ID + "; END;");
+    }
+
+    /**
+     * Create triggers that keep {@link SessionsColumns#SESSION_BLOCK_START}
+     * equal to the start of the session's block as either side is imported,
+     * moved or removed, so sessions sort by time without joining blocks.
+     */
+    private static void createBlockStartTriggers(SQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_BLOCK_START_INSERT + " AFTER INSERT ON "
+                + Tables.SESSIONS + " BEGIN UPDATE " + Tables.SESSIONS + " SET "
+                + Subquery.SESSION_BLOCK_START + " WHERE " + BaseColumns._ID + "=new."
+                + BaseColumns._ID + "; END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_BLOCK_START_UPDATE + " AFTER UPDATE OF "
+                + Sessions.BLOCK_ID + " ON " + Tables.SESSIONS + " BEGIN UPDATE "
+                + Tables.SESSIONS + " SET " + Subquery.SESSION_BLOCK_START + " WHERE "
+                + BaseColumns._ID + "=new." + BaseColumns._ID + "; END;");
+
+        // A replaced block fires only the insert trigger, which sets the new start.
+        db.execSQL("CREATE TRIGGER " + Triggers.BLOCKS_BLOCK_START_INSERT + " AFTER INSERT ON "
+                + Tables.BLOCKS + " BEGIN UPDATE " + Tables.SESSIONS + " SET "
+                + SessionsColumns.SESSION_BLOCK_START + "=new." + BlocksColumns.BLOCK_START
+                + " WHERE " + MeetingColumns.MEETING + "=new." + MeetingColumns.MEETING
+                + " AND " + Sessions.BLOCK_ID + "=new." + BlocksColumns.BLOCK_ID + "; END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.BLOCKS_BLOCK_START_UPDATE + " AFTER UPDATE OF "
+                + BlocksColumns.BLOCK_START + "," + BlocksColumns.BLOCK_ID + " ON "
+                + Tables.BLOCKS + " BEGIN UPDATE " + Tables.SESSIONS + " SET "
+                + Subquery.SESSION_BLOCK_START + " WHERE " + MeetingColumns.MEETING + "=new."
+                + MeetingColumns.MEETING + " AND " + Sessions.BLOCK_ID + " IN (old."
+                + BlocksColumns.BLOCK_ID + ",new." + BlocksColumns.BLOCK_ID + "); END;");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.BLOCKS_BLOCK_START_DELETE + " AFTER DELETE ON "
+                + Tables.BLOCKS + " BEGIN UPDATE " + Tables.SESSIONS + " SET "
+                + SessionsColumns.SESSION_BLOCK_START + "=0 WHERE " + MeetingColumns.MEETING
+                + "=old." + MeetingColumns.MEETING + " AND " + Sessions.BLOCK_ID + "=old."
+                + BlocksColumns.BLOCK_ID + "; END;");
+    }
+
+    /**
+     * Create secondary indexes backing the provider's range filters, the
+     * per-block session lookups and the starred filter. Every index leads
+     * with the meeting column, since all provider queries are meeting-scoped,
+     * except the track index: {@link Tracks#SESSIONS_COUNT} counts a track's
+     * sessions across meetings, as tracks are shared.
+     * <p>
+     * The duration index answers the longest regular block of a meeting,
+     * which bounds how far before a time an overlapping block can start, and
+     * lists the few all-day blocks apart; together with the start index that
+     * turns "at" and "overlapping" lookups into range seeks.
+     * The keyset index holds sessions in {@link Sessions#KEYSET_SORT} order,
+     * so a page of the list is a seek and a short read.
+     */
+    private static void createIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.BLOCKS_START + " ON " + Tables.BLOCKS
+                + "(" + MeetingColumns.MEETING + "," + BlocksColumns.BLOCK_START + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.BLOCKS_END + " ON " + Tables.BLOCKS
+                + "(" + MeetingColumns.MEETING + "," + BlocksColumns.BLOCK_END + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.BLOCKS_DURATION + " ON " + Tables.BLOCKS
+                + "(" + MeetingColumns.MEETING + ",(" + BlocksColumns.BLOCK_END + "-"
+                + BlocksColumns.BLOCK_START + "))");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.SESSIONS_BLOCK_ID + " ON " + Tables.SESSIONS
+                + "(" + MeetingColumns.MEETING + "," + Sessions.BLOCK_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.SESSIONS_ROOM_ID + " ON " + Tables.SESSIONS
+                + "(" + MeetingColumns.MEETING + "," + Sessions.ROOM_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.SESSIONS_STARRED + " ON " + Tables.SESSIONS
+                + "(" + MeetingColumns.MEETING + "," + SessionsColumns.SESSION_STARRED + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.SESSIONS_KEYSET + " ON " + Tables.SESSIONS
+                + "(" + MeetingColumns.MEETING + "," + SessionsColumns.SESSION_BLOCK_START + ","
+                + "ifnull(" + SessionsColumns.SESSION_TITLE + ",'') COLLATE NOCASE,"
+                + SessionsColumns.SESSION_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.SESSIONS_TRACKS_TRACK_ID + " ON "
+                + Tables.SESSIONS_TRACKS + "(" + SessionsTracks.TRACK_ID + ","
+                + MeetingColumns.MEETING + ")");
+    }
+
+    /**
+     * Create {@link Tables#SEARCH_SUGGEST}. The unique key doubles as the
+     * prefix index: suggestions are looked up by a range on
+     * {@link SearchSuggest#SUGGEST_KEY} within a meeting.
+     */
+    private static void createSearchSuggest(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE " + Tables.SEARCH_SUGGEST + " ("
                 + BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
-                + SearchManager.SUGGEST_COLUMN_TEXT_1 + " TEXT NOT NULL)");
+                + SearchManager.SUGGEST_COLUMN_TEXT_1 + " TEXT NOT NULL,"
+                + SearchSuggest.SUGGEST_KEY + " TEXT NOT NULL,"
+                + SearchSuggest.SUGGEST_KIND + " TEXT NOT NULL,"
+                + SearchSuggest.SUGGEST_WEIGHT + " INTEGER NOT NULL DEFAULT 0,"
+                + SearchSuggest.SUGGEST_USAGE + " INTEGER NOT NULL DEFAULT 0,"
+                + SyncColumns.UPDATED + " INTEGER NOT NULL DEFAULT 0,"
+                + MeetingColumns.MEETING + " INTEGER NOT NULL DEFAULT 0,"
+                + "UNIQUE (" + MeetingColumns.MEETING + "," + SearchSuggest.SUGGEST_KEY
+                        + ") ON CONFLICT REPLACE)");
+    }
 
+    /**
+     * Create {@link Tables#SESSION_MATERIALS}, one row per slide deck or draft
+     * of a session, removed along with its session.
+     */
+    private static void createSessionMaterials(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + Tables.SESSION_MATERIALS + " ("
+                + BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + SyncColumns.UPDATED + " INTEGER NOT NULL,"
+                + SessionMaterials.SESSION_ID + " TEXT NOT NULL " + References.SESSION_ID + ","
+                + SessionMaterialsColumns.MATERIAL_KIND + " TEXT NOT NULL,"
+                + SessionMaterialsColumns.MATERIAL_TITLE + " TEXT,"
+                + SessionMaterialsColumns.MATERIAL_URL + " TEXT NOT NULL,"
+                + SessionMaterialsColumns.MATERIAL_ORDER + " INTEGER NOT NULL DEFAULT 0,"
+                + MeetingColumns.MEETING + " INTEGER NOT NULL DEFAULT 0,"
+                + "UNIQUE (" + MeetingColumns.MEETING + "," + SessionMaterials.SESSION_ID + ","
+                        + SessionMaterialsColumns.MATERIAL_KIND + ","
+                        + SessionMaterialsColumns.MATERIAL_URL + ") ON CONFLICT REPLACE)");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.SESSION_MATERIALS_SESSION_ID + " ON "
+                + Tables.SESSION_MATERIALS + "(" + MeetingColumns.MEETING + ","
+                + SessionMaterials.SESSION_ID + "," + SessionMaterialsColumns.MATERIAL_ORDER + ")");
+
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSION_MATERIALS_DELETE + " AFTER DELETE ON "
+                + Tables.SESSIONS + " BEGIN DELETE FROM " + Tables.SESSION_MATERIALS
+                + " WHERE " + MeetingColumns.MEETING + "=old." + MeetingColumns.MEETING
+                + " AND " + SessionMaterials.SESSION_ID + "=old." + Sessions.SESSION_ID + ";"
+                + " END;");
+    }
+
+    /**
+     * Move the slides and drafts packed into {@link Sessions#SESSION_PDF_URL}
+     * and {@link Sessions#SESSION_DRAFTS_URL} into {@link Tables#SESSION_MATERIALS}.
+     */
+    @SuppressWarnings("deprecation")
+    private static void unpackSessionMaterials(SQLiteDatabase db) {
+        final String[] projection = { MeetingColumns.MEETING, Sessions.SESSION_ID,
+                SyncColumns.UPDATED, Sessions.SESSION_PDF_URL, Sessions.SESSION_DRAFTS_URL };
+        final ContentValues values = new ContentValues();
+        try (Cursor cursor = db.query(Tables.SESSIONS, projection, null, null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                values.clear();
+                values.put(MeetingColumns.MEETING, cursor.getInt(0));
+                values.put(SessionMaterials.SESSION_ID, cursor.getString(1));
+                values.put(SyncColumns.UPDATED, cursor.getLong(2));
+                int order = 0;
+                for (int column = 3; column <= 4; column++) {
+                    final String packed = cursor.getString(column);
+                    if (packed == null) continue;
+                    values.put(SessionMaterialsColumns.MATERIAL_KIND, column == 3
+                            ? SessionMaterials.KIND_SLIDES : SessionMaterials.KIND_DRAFT);
+                    for (String entry : packed.split("::")) {
+                        final int separator = entry.indexOf("|||");
+                        final String url = (separator >= 0 ? entry.substring(separator + 3) : entry).trim();
+                        if (url.isEmpty()) continue;
+                        values.put(SessionMaterialsColumns.MATERIAL_TITLE,
+                                separator >= 0 ? entry.substring(0, separator).trim() : null);
+                        values.put(SessionMaterialsColumns.MATERIAL_URL, url);
+                        values.put(SessionMaterialsColumns.MATERIAL_ORDER, order++);
+                        db.insert(Tables.SESSION_MATERIALS, null, values);
+                    }
+                }
+            }
+        }
     }
 
     /**
-     * Create triggers that automatically build {@link Tables#SESSIONS_SEARCH}
-     * as values are changed in {@link Tables#SESSIONS}.
+     * Create {@link Tables#SESSIONS_SEARCH} and the triggers that keep it in
+     * step with {@link Tables#SESSIONS}.
      */
     private static void createSessionsSearch(SQLiteDatabase db) {
         // Using the "porter" tokenizer for simple stemming, so that
-        // "frustration" matches "frustrated."
-
-        db.execSQL("CREATE VIRTUAL TABLE " + Tables.SESSIONS_SEARCH + " USING fts3("
-                + BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
-                + SessionsSearchColumns.BODY + " TEXT NOT NULL,"
-                + SessionsSearchColumns.SESSION_ID
-                        + " TEXT NOT NULL " + References.SESSION_ID + ","
-                + "UNIQUE (" + SessionsSearchColumns.SESSION_ID + ") ON CONFLICT REPLACE,"
+        // "frustration" matches "frustrated." Prefix indexes keep the
+        // "term*" queries issued while typing from scanning the full index.
+        db.execSQL("CREATE VIRTUAL TABLE " + Tables.SESSIONS_SEARCH + " USING fts4("
+                + SessionsSearchColumns.TITLE + ","
+                + SessionsSearchColumns.KEYWORDS + ","
+                + SessionsSearchColumns.ROOM + ","
+                + SessionsSearchColumns.ABSTRACT + ","
+                + "prefix=\"2,3\","
                 + "tokenize=porter)");
 
-        // TODO: handle null fields in body, which cause trigger to fail
-        // TODO: implement update trigger, not currently exercised
+        // ON CONFLICT REPLACE removes the old session without firing the
+        // delete trigger, so drop its document before the new row lands.
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_SEARCH_REPLACE + " BEFORE INSERT ON "
+                + Tables.SESSIONS + " BEGIN DELETE FROM " + Tables.SESSIONS_SEARCH
+                + " WHERE docid IN (SELECT " + BaseColumns._ID + " FROM " + Tables.SESSIONS
+                + " WHERE " + MeetingColumns.MEETING + "=new." + MeetingColumns.MEETING
+                + " AND " + Sessions.SESSION_ID + "=new." + Sessions.SESSION_ID + ");"
+                + " END;");
 
         db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_SEARCH_INSERT + " AFTER INSERT ON "
-                + Tables.SESSIONS + " BEGIN INSERT INTO " + Qualified.SESSIONS_SEARCH + " "
-                + " VALUES(new." + Sessions.SESSION_ID + ", " + Subquery.SESSIONS_BODY + ");"
+                + Tables.SESSIONS + " BEGIN INSERT INTO " + Qualified.SESSIONS_SEARCH
+                + " VALUES(" + buildSessionsSearchValues("new") + ");"
                 + " END;");
 
         db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_SEARCH_DELETE + " AFTER DELETE ON "
-                + Tables.SESSIONS + " BEGIN DELETE FROM " + Tables.SESSIONS_SEARCH + " "
-                + " WHERE " + Qualified.SESSIONS_SEARCH_SESSION_ID + "=old." + Sessions.SESSION_ID
-                + ";" + " END;");
-
-        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_SEARCH_UPDATE 
-                + " AFTER UPDATE ON " + Tables.SESSIONS
-                + " BEGIN UPDATE sessions_search SET " + SessionsSearchColumns.BODY  + " = "
-                + Subquery.SESSIONS_BODY + " WHERE session_id = old.session_id"
-                + "; END;");
+                + Tables.SESSIONS + " BEGIN DELETE FROM " + Tables.SESSIONS_SEARCH
+                + " WHERE docid=old." + BaseColumns._ID + ";"
+                + " END;");
 
+        // Starring a session does not change what is indexed.
+        db.execSQL("CREATE TRIGGER " + Triggers.SESSIONS_SEARCH_UPDATE + " AFTER UPDATE OF "
+                + Sessions.SESSION_TITLE + "," + Sessions.SESSION_KEYWORDS + ","
+                + Sessions.SESSION_ABSTRACT + "," + Sessions.ROOM_ID + ","
+                + Sessions.SESSION_IS_BOF + " ON " + Tables.SESSIONS
+                + " BEGIN DELETE FROM " + Tables.SESSIONS_SEARCH
+                + " WHERE docid=old." + BaseColumns._ID + ";"
+                + " INSERT INTO " + Qualified.SESSIONS_SEARCH
+                + " VALUES(" + buildSessionsSearchValues("new") + ");"
+                + " END;");
     }
 
+    /**
+     * Values indexed in {@link Tables#SESSIONS_SEARCH} for the {@link Sessions}
+     * row named {@code row}. BoF and side meeting badges are indexed as the
+     * words "bof" and "side" so they can be found like any other keyword.
+     */
+    private static String buildSessionsSearchValues(String row) {
+        return row + "." + BaseColumns._ID
+                + ",coalesce(" + row + "." + Sessions.SESSION_TITLE + ",'')"
+                + ",coalesce(" + row + "." + Sessions.SESSION_KEYWORDS + ",'')"
+                + "||CASE WHEN " + row + "." + Sessions.SESSION_IS_BOF + " THEN ' bof' ELSE '' END"
+                + "||CASE WHEN " + row + "." + Sessions.SESSION_ID + " LIKE 'side-%' THEN ' side' ELSE '' END"
+                + ",coalesce((SELECT " + Rooms.ROOM_NAME + " FROM " + Tables.ROOMS
+                + " WHERE " + Tables.ROOMS + "." + MeetingColumns.MEETING + "=" + row + "." + MeetingColumns.MEETING
+                + " AND " + Tables.ROOMS + "." + Rooms.ROOM_ID + "=" + row + "." + Sessions.ROOM_ID + "),'')"
+                + ",coalesce(" + row + "." + Sessions.SESSION_ABSTRACT + ",'')";
+    }
+
+    /** Remove {@link Tables#SESSIONS_SEARCH} along with its triggers. */
+    private static void dropSessionsSearch(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_REPLACE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_DELETE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_UPDATE);
+        db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS_SEARCH);
+    }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.d(TAG, "onUpgrade() from " + oldVersion + " to " + newVersion);
 
-        // NOTE: This switch statement is designed to handle cascading database
-        // updates, starting at the current version and falling through to all
-        // future upgrade cases. Only use "break;" when you want to drop and
-        // recreate the entire database.
-        switch (oldVersion) {
-            case VER_LAUNCH:
-            case VER_SESSION_FEEDBACK_URL:
-            case VER_SESSION_NOTES_URL_SLUG:
-                // Add SESSION_DRAFTS_URL column
-                db.execSQL("ALTER TABLE " + Tables.SESSIONS + " ADD COLUMN "
-                        + SessionsColumns.SESSION_DRAFTS_URL + " TEXT DEFAULT ''");
-                // Fall through
-            case VER_SESSION_DRAFTS_URL:
-                // Add SESSION_RES_URI column
-                db.execSQL("ALTER TABLE " + Tables.SESSIONS + " ADD COLUMN "
-                        + SessionsColumns.SESSION_RES_URI + " TEXT DEFAULT ''");
-                // Fall through
-            case VER_SESSION_RES_URI:
-                // Add SESSION_IS_BOF column (Birds of a Feather)
-                db.execSQL("ALTER TABLE " + Tables.SESSIONS + " ADD COLUMN "
-                        + SessionsColumns.SESSION_IS_BOF + " INTEGER NOT NULL DEFAULT 0");
-                // Fall through
+        // Each step only alters tables or copies rows into new ones, so
+        // starred sessions and the last synced schedule survive any upgrade.
+        int version = oldVersion;
+        while (version < DATABASE_VERSION) {
+            final int next = migrate(db, version);
+            Log.d(TAG, "migrated from version " + version + " to " + next);
+            version = next;
         }
+    }
 
-        Log.d(TAG, "after upgrade logic, at version " + oldVersion);
-        if (oldVersion != DATABASE_VERSION) {
-            Log.w(TAG, "Destroying old data during upgrade");
-
-            db.execSQL("DROP TABLE IF EXISTS " + Tables.BLOCKS);
-            db.execSQL("DROP TABLE IF EXISTS " + Tables.TRACKS);
-			db.execSQL("DROP TABLE IF EXISTS " + Tables.ROOMS);
-            db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS);
-            db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS_TRACKS);
+    /**
+     * Upgrade the schema by one step from {@code version}, returning the
+     * version reached.
+     */
+    private int migrate(SQLiteDatabase db, int version) {
+        switch (version) {
+            case VER_MEETING_PARTITION:
+                createIndexes(db);
+                return VER_SCHEDULE_INDEXES;
+            case VER_SCHEDULE_INDEXES:
+                db.execSQL("ALTER TABLE " + Tables.BLOCKS + " ADD COLUMN "
+                        + Blocks.SESSIONS_COUNT + " INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("ALTER TABLE " + Tables.BLOCKS + " ADD COLUMN "
+                        + Blocks.CONTAINS_STARRED + " INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("ALTER TABLE " + Tables.TRACKS + " ADD COLUMN "
+                        + Tracks.SESSIONS_COUNT + " INTEGER NOT NULL DEFAULT 0");
+                createAggregateTriggers(db);
+                db.execSQL("UPDATE " + Tables.BLOCKS + " SET " + Subquery.BLOCK_AGGREGATES);
+                db.execSQL("UPDATE " + Tables.TRACKS + " SET " + Subquery.TRACK_AGGREGATES);
+                return VER_BLOCK_AGGREGATES;
+            case VER_BLOCK_AGGREGATES:
+                // Replace the single-body FTS3 index with per-column FTS4;
+                // the new triggers need room names, so rebuild from sessions.
+                dropSessionsSearch(db);
+                createSessionsSearch(db);
+                db.execSQL("INSERT INTO " + Qualified.SESSIONS_SEARCH + " SELECT "
+                        + buildSessionsSearchValues("session")
+                        + " FROM " + Tables.SESSIONS + " AS session");
+                return VER_SESSIONS_FTS4;
+            case VER_SESSIONS_FTS4:
+                createSessionMaterials(db);
+                unpackSessionMaterials(db);
+                return VER_SESSION_MATERIALS;
+            case VER_SESSION_MATERIALS:
+                createIndexes(db);
+                return VER_BLOCK_INTERVALS;
+            case VER_BLOCK_INTERVALS:
+                // Nothing ever wrote suggestions; the next import fills them.
+                db.execSQL("DROP TABLE IF EXISTS " + Tables.SEARCH_SUGGEST);
+                createSearchSuggest(db);
+                return VER_SEARCH_SUGGEST;
+            case VER_SEARCH_SUGGEST:
+                db.execSQL("ALTER TABLE " + Tables.ROOMS + " ADD COLUMN "
+                        + SyncColumns.UPDATED + " INTEGER NOT NULL DEFAULT 0");
+                return VER_ROOMS_UPDATED;
+            case VER_ROOMS_UPDATED:
+                db.execSQL("ALTER TABLE " + Tables.SESSIONS + " ADD COLUMN "
+                        + SessionsColumns.SESSION_BLOCK_START + " INTEGER NOT NULL DEFAULT 0");
+                createBlockStartTriggers(db);
+                db.execSQL("UPDATE " + Tables.SESSIONS + " SET " + Subquery.SESSION_BLOCK_START);
+                createIndexes(db);
+                return VER_SESSIONS_KEYSET;
+            default:
+                // Versions before meeting partitioning changed UNIQUE
+                // constraints, which ALTER TABLE cannot do, and unknown
+                // versions have no step; both are copied into new tables.
+                copyIntoCurrentSchema(db);
+                return DATABASE_VERSION;
+        }
+    }
 
-            db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_INSERT);
-            db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_DELETE);
-            db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS_SEARCH);
+    /** Outcome of {@link #compact}. */
+    static final class Compaction {
+        final long pagesReclaimed;
+        final long pageSize;
 
-            db.execSQL("DROP TABLE IF EXISTS " + Tables.SEARCH_SUGGEST);
+        Compaction(long pagesReclaimed, long pageSize) {
+            this.pagesReclaimed = pagesReclaimed;
+            this.pageSize = pageSize;
+        }
+    }
 
-            onCreate(db);
+    /**
+     * Garbage-collect after an import has purged stale rows: merge the
+     * {@link Tables#SESSIONS_SEARCH} segments each import appends, then give
+     * free pages back with an incremental vacuum. The first call converts
+     * the file to incremental auto_vacuum with one full {@code VACUUM}, since
+     * WAL mode is already set by the time a new file could take the pragma.
+     * Must not run inside a transaction.
+     */
+    Compaction compact() {
+        final SQLiteDatabase db = getWritableDatabase();
+        db.execSQL("INSERT INTO " + Tables.SESSIONS_SEARCH + "(" + Tables.SESSIONS_SEARCH
+                + ") VALUES('optimize')");
+
+        final long pageSize = DatabaseUtils.longForQuery(db, "PRAGMA page_size", null);
+        final long pagesBefore = DatabaseUtils.longForQuery(db, "PRAGMA page_count", null);
+        try {
+            if (DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null)
+                    != AUTO_VACUUM_INCREMENTAL) {
+                pragma(db, "auto_vacuum=INCREMENTAL");
+                db.execSQL("VACUUM");
+            } else if (DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null) > 0) {
+                // Each step frees one page, so read every row.
+                final Cursor cursor = db.rawQuery("PRAGMA incremental_vacuum", null);
+                try {
+                    while (cursor.moveToNext()) {
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+        } catch (SQLiteException e) {
+            // A reader holding the file open keeps the pages for next time.
+            Log.w(TAG, "Vacuum deferred: " + e.getMessage());
         }
+        final long pagesAfter = DatabaseUtils.longForQuery(db, "PRAGMA page_count", null);
+        return new Compaction(Math.max(0, pagesBefore - pagesAfter), pageSize);
     }
 
     @Override
     public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.w(TAG, "onDowngrade() from " + oldVersion + " to " + newVersion);
-        // Handle database downgrade by dropping and recreating tables
-        // This is safe since the app will re-sync data from the server
-        Log.w(TAG, "Destroying old data during downgrade");
+        // A newer schema is unknown here, but its rows still fit ours.
+        copyIntoCurrentSchema(db);
+    }
 
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.BLOCKS);
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.TRACKS);
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.ROOMS);
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS_TRACKS);
+    /**
+     * Rebuild every table with the current schema and copy the existing rows
+     * across, column by column. Columns the old tables lack take their
+     * defaults; rows from before meeting partitioning are assigned to the
+     * current meeting. Triggers repopulate the search index and aggregates
+     * as rows are copied.
+     */
+    private void copyIntoCurrentSchema(SQLiteDatabase db) {
+        Log.w(TAG, "Copying data into current schema");
+
+        // Triggers and indexes keep their names across a rename, which
+        // would stop onCreate() from defining them on the new tables.
+        for (String[] object : querySchema(db, "type IN ('trigger','index','view')"
+                + " AND sql IS NOT NULL")) {
+            db.execSQL("DROP " + object[0].toUpperCase(Locale.ROOT) + " IF EXISTS " + object[1]);
+        }
+        dropSessionsSearch(db);
+
+        final HashSet<String> previous = new HashSet<>();
+        for (String[] table : querySchema(db, "type='table' AND name NOT LIKE 'sqlite\\_%' ESCAPE '\\'"
+                + " AND name<>'android_metadata'")) {
+            final String name = table[1];
+            if (Arrays.asList(COPIED_TABLES).contains(name)) {
+                db.execSQL("ALTER TABLE " + name + " RENAME TO " + name + PREVIOUS_SUFFIX);
+                previous.add(name);
+            } else {
+                db.execSQL("DROP TABLE IF EXISTS " + name);
+            }
+        }
 
-        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_INSERT);
-        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_DELETE);
-        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_SEARCH_UPDATE);
-        db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.SESSIONS_TRACKS_DELETE);
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.SESSIONS_SEARCH);
+        onCreate(db);
 
-        db.execSQL("DROP TABLE IF EXISTS " + Tables.SEARCH_SUGGEST);
+        final int meeting = MeetingPreferences.getCurrentMeetingNumber(mContext);
+        for (String table : COPIED_TABLES) {
+            if (!previous.contains(table)) continue;
+            copyRows(db, table + PREVIOUS_SUFFIX, table, meeting);
+            db.execSQL("DROP TABLE " + table + PREVIOUS_SUFFIX);
+        }
+        if (!previous.contains(Tables.SESSION_MATERIALS)) {
+            unpackSessionMaterials(db);
+        }
+    }
 
-        onCreate(db);
+    /** Return {@code {type, name}} of each {@code sqlite_master} entry matching {@code where}. */
+    private static List<String[]> querySchema(SQLiteDatabase db, String where) {
+        final ArrayList<String[]> objects = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT type, name FROM sqlite_master WHERE " + where, null)) {
+            while (cursor.moveToNext()) {
+                objects.add(new String[] { cursor.getString(0), cursor.getString(1) });
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Copy every row of {@code from} into {@code to}, keeping the columns
+     * they share. {@link MeetingColumns#MEETING} falls back to
+     * {@code meeting}, and other required columns without a default to zero
+     * or an empty string.
+     */
+    private static void copyRows(SQLiteDatabase db, String from, String to, int meeting) {
+        final HashSet<String> source = new HashSet<>();
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + from + ")", null)) {
+            final int name = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                source.add(cursor.getString(name));
+            }
+        }
+
+        final StringBuilder columns = new StringBuilder();
+        final StringBuilder values = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + to + ")", null)) {
+            final int nameIndex = cursor.getColumnIndexOrThrow("name");
+            final int typeIndex = cursor.getColumnIndexOrThrow("type");
+            final int notNullIndex = cursor.getColumnIndexOrThrow("notnull");
+            final int defaultIndex = cursor.getColumnIndexOrThrow("dflt_value");
+            while (cursor.moveToNext()) {
+                final String name = cursor.getString(nameIndex);
+                final String value;
+                if (source.contains(name)) {
+                    value = name;
+                } else if (MeetingColumns.MEETING.equals(name)) {
+                    value = String.valueOf(meeting);
+                } else if (cursor.getInt(notNullIndex) != 0 && cursor.isNull(defaultIndex)) {
+                    value = cursor.getString(typeIndex).toUpperCase(Locale.ROOT).contains("INT")
+                            ? "0" : "''";
+                } else {
+                    continue;
+                }
+                if (columns.length() > 0) {
+                    columns.append(',');
+                    values.append(',');
+                }
+                columns.append(name);
+                values.append(value);
+            }
+        }
+        db.execSQL("INSERT INTO " + to + " (" + columns + ") SELECT " + values + " FROM " + from
+                + (source.contains(BaseColumns._ID) ? " ORDER BY " + BaseColumns._ID : ""));
     }
 }
@@ -17,16 +17,18 @@
 package org.ietf.ietfsched.provider;
 
 import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
+import org.ietf.ietfsched.provider.ScheduleContract.Meetings;
 import org.ietf.ietfsched.provider.ScheduleContract.Rooms;
 import org.ietf.ietfsched.provider.ScheduleContract.SearchSuggest;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials;
 import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
 import org.ietf.ietfsched.provider.ScheduleContract.Speakers;
 import org.ietf.ietfsched.provider.ScheduleContract.Tracks;
 import org.ietf.ietfsched.provider.ScheduleContract.Vendors;
-import org.ietf.ietfsched.provider.ScheduleDatabase.SessionsSearchColumns;
 import org.ietf.ietfsched.provider.ScheduleDatabase.SessionsTracks;
 import org.ietf.ietfsched.provider.ScheduleDatabase.Tables;
 import org.ietf.ietfsched.service.SyncService;
+import org.ietf.ietfsched.util.MeetingPreferences;
 import org.ietf.ietfsched.util.SelectionBuilder;
 
 import android.app.Activity;
@@ -40,7 +42,10 @@ import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.net.Uri;
+import android.os.Bundle;
+import android.os.CancellationSignal;
 import android.os.ParcelFileDescriptor;
 import android.provider.BaseColumns;
 import android.util.Log;
@@ -59,14 +64,29 @@ public class ScheduleProvider extends ContentProvider {
     private static final String TAG = "ScheduleProvider";
     private static final boolean LOGV = false;
 
+    /**
+     * Longest block that bounds the start-index seek of an overlap lookup;
+     * longer ones are found by duration. Above any working group session.
+     */
+    static final long LONG_BLOCK_MILLIS = 4 * 60 * 60 * 1000L;
+
     private ScheduleDatabase mOpenHelper;
 
+    /** Change flags gathered by the {@link #applyBatch} running on this thread. */
+    private final ThreadLocal<int[]> mBatchChanges = new ThreadLocal<>();
+
+    /** Materialized query results, invalidated by every write. */
+    private final QueryCache mQueryCache = new QueryCache();
+
     private static final UriMatcher sUriMatcher = buildUriMatcher();
 
     private static final int BLOCKS = 100;
     private static final int BLOCKS_BETWEEN = 101;
     private static final int BLOCKS_ID = 102;
     private static final int BLOCKS_ID_SESSIONS = 103;
+    private static final int BLOCKS_AT = 104;
+    private static final int BLOCKS_OVERLAPPING = 105;
+    private static final int BLOCKS_NEXT = 106;
 
     private static final int TRACKS = 200;
     private static final int TRACKS_ID = 201;
@@ -84,8 +104,12 @@ public class ScheduleProvider extends ContentProvider {
     private static final int SESSIONS_ID = 404;
     private static final int SESSIONS_ID_SPEAKERS = 405;
     private static final int SESSIONS_ID_TRACKS = 406;
+    private static final int SESSIONS_ID_MATERIALS = 407;
+    private static final int SESSIONS_OVERLAPPING = 408;
+    private static final int SESSIONS_NEXT = 409;
 	
 	private static final int SESSIONS_TRACKS = 450;
+    private static final int SESSION_MATERIALS = 460;
 
     private static final int SPEAKERS = 500;
     private static final int SPEAKERS_ID = 501;
@@ -96,7 +120,11 @@ public class ScheduleProvider extends ContentProvider {
     private static final int VENDORS_SEARCH = 603;
     private static final int VENDORS_ID = 604;
 
+    private static final int MEETINGS = 700;
+
     private static final int SEARCH_SUGGEST = 800;
+    private static final int SEARCH_SUGGEST_ENTRIES = 801;
+    private static final int SEARCH_SUGGEST_USAGE = 802;
 
     private static final String MIME_XML = "text/xml";
 
@@ -110,6 +138,9 @@ public class ScheduleProvider extends ContentProvider {
 
         matcher.addURI(authority, "blocks", BLOCKS);
         matcher.addURI(authority, "blocks/between/*/*", BLOCKS_BETWEEN);
+        matcher.addURI(authority, "blocks/at/*", BLOCKS_AT);
+        matcher.addURI(authority, "blocks/overlapping/*/*", BLOCKS_OVERLAPPING);
+        matcher.addURI(authority, "blocks/next/*", BLOCKS_NEXT);
         matcher.addURI(authority, "blocks/*", BLOCKS_ID);
         matcher.addURI(authority, "blocks/*/sessions", BLOCKS_ID_SESSIONS);
 
@@ -126,11 +157,15 @@ public class ScheduleProvider extends ContentProvider {
         matcher.addURI(authority, "sessions/starred", SESSIONS_STARRED);
         matcher.addURI(authority, "sessions/search/*", SESSIONS_SEARCH);
         matcher.addURI(authority, "sessions/at/*", SESSIONS_AT);
+        matcher.addURI(authority, "sessions/overlapping/*/*", SESSIONS_OVERLAPPING);
+        matcher.addURI(authority, "sessions/next/*", SESSIONS_NEXT);
         matcher.addURI(authority, "sessions/*", SESSIONS_ID);
         matcher.addURI(authority, "sessions/*/speakers", SESSIONS_ID_SPEAKERS);
         matcher.addURI(authority, "sessions/*/tracks", SESSIONS_ID_TRACKS);
+        matcher.addURI(authority, "sessions/*/materials", SESSIONS_ID_MATERIALS);
 		
 		matcher.addURI(authority, "sessions_tracks", SESSIONS_TRACKS);
+        matcher.addURI(authority, "session_materials", SESSION_MATERIALS);
 		
         matcher.addURI(authority, "speakers", SPEAKERS);
         matcher.addURI(authority, "speakers/*", SPEAKERS_ID);
@@ -141,7 +176,12 @@ public class ScheduleProvider extends ContentProvider {
         matcher.addURI(authority, "vendors/search/*", VENDORS_SEARCH);
         matcher.addURI(authority, "vendors/*", VENDORS_ID);
 
+        matcher.addURI(authority, "meetings", MEETINGS);
+
         matcher.addURI(authority, "search_suggest_query", SEARCH_SUGGEST);
+        matcher.addURI(authority, "search_suggest_query/*", SEARCH_SUGGEST);
+        matcher.addURI(authority, "search_suggest", SEARCH_SUGGEST_ENTRIES);
+        matcher.addURI(authority, "search_suggest/usage/*", SEARCH_SUGGEST_USAGE);
 
         return matcher;
     }
@@ -161,6 +201,9 @@ public class ScheduleProvider extends ContentProvider {
             case BLOCKS:
                 return Blocks.CONTENT_TYPE;
             case BLOCKS_BETWEEN:
+            case BLOCKS_AT:
+            case BLOCKS_OVERLAPPING:
+            case BLOCKS_NEXT:
                 return Blocks.CONTENT_TYPE;
             case BLOCKS_ID:
                 return Blocks.CONTENT_ITEM_TYPE;
@@ -189,6 +232,8 @@ public class ScheduleProvider extends ContentProvider {
             case SESSIONS_SEARCH:
                 return Sessions.CONTENT_TYPE;
             case SESSIONS_AT:
+            case SESSIONS_OVERLAPPING:
+            case SESSIONS_NEXT:
                 return Sessions.CONTENT_TYPE;
             case SESSIONS_ID:
                 return Sessions.CONTENT_ITEM_TYPE;
@@ -196,6 +241,10 @@ public class ScheduleProvider extends ContentProvider {
                 return Speakers.CONTENT_TYPE;
             case SESSIONS_ID_TRACKS:
                 return Tracks.CONTENT_TYPE;
+            case SESSIONS_ID_MATERIALS:
+                return SessionMaterials.CONTENT_TYPE;
+            case SESSION_MATERIALS:
+                return SessionMaterials.CONTENT_TYPE;
             case SPEAKERS:
                 return Speakers.CONTENT_TYPE;
             case SPEAKERS_ID:
@@ -210,6 +259,12 @@ public class ScheduleProvider extends ContentProvider {
                 return Vendors.CONTENT_TYPE;
             case VENDORS_ID:
                 return Vendors.CONTENT_ITEM_TYPE;
+            case MEETINGS:
+                return Meetings.CONTENT_TYPE;
+            case SEARCH_SUGGEST:
+                return SearchManager.SUGGEST_MIME_TYPE;
+            case SEARCH_SUGGEST_ENTRIES:
+                return SearchSuggest.CONTENT_TYPE;
             default:
                 throw new UnsupportedOperationException("Unknown uri: " + uri);
         }
@@ -217,34 +272,88 @@ public class ScheduleProvider extends ContentProvider {
 
 	
 
+    /**
+     * {@inheritDoc}
+     * Results are served from {@link QueryCache} while no write has happened
+     * since they were read, so repeat navigation doesn't reach SQLite.
+     */
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection,
+            String[] selectionArgs, String sortOrder) {
+        return query(uri, projection, selection, selectionArgs, sortOrder, null);
+    }
+
     /** {@inheritDoc} */
     @Override
-    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+    public Cursor query(final Uri uri, final String[] projection, final String selection,
+            final String[] selectionArgs, final String sortOrder,
+            final CancellationSignal cancellationSignal) {
         if (LOGV) Log.v(TAG, "query(uri=" + uri + ", proj=" + Arrays.toString(projection) + ")");
-        final SQLiteDatabase db = mOpenHelper.getReadableDatabase();
-
         final int match = sUriMatcher.match(uri);
+        // A batch in progress on this thread would see rows that may still
+        // roll back; readers that asked to bypass the cache would only fill it.
+        if (mBatchChanges.get() != null
+                || uri.getBooleanQueryParameter(ScheduleContract.PARAM_NO_CACHE, false)) {
+            return queryDatabase(uri, match, projection, selection, selectionArgs, sortOrder,
+                    cancellationSignal);
+        }
+        final String key = resolveMeeting(uri) + "\n" + uri + "\n" + Arrays.toString(projection)
+                + "\n" + selection + "\n" + Arrays.toString(selectionArgs) + "\n" + sortOrder;
+        return mQueryCache.query(key, new QueryCache.Loader() {
+            @Override
+            public Cursor load(CancellationSignal signal) {
+                return queryDatabase(uri, match, projection, selection, selectionArgs, sortOrder,
+                        signal);
+            }
+        }, cancellationSignal);
+    }
+
+    private Cursor queryDatabase(Uri uri, int match, String[] projection, String selection,
+            String[] selectionArgs, String sortOrder, CancellationSignal cancellationSignal) {
+        final SQLiteDatabase db = mOpenHelper.getReadableDatabase();
         switch (match) {
             case SEARCH_SUGGEST: {
-                final SelectionBuilder builder = new SelectionBuilder();
-
-                // Adjust incoming query to become SQL text match
-                selectionArgs[0] = selectionArgs[0] + "%";
-                builder.table(Tables.SEARCH_SUGGEST);
-                builder.where(selection, selectionArgs);
-                builder.map(SearchManager.SUGGEST_COLUMN_QUERY,
-                        SearchManager.SUGGEST_COLUMN_TEXT_1);
-
+                // Searchable metadata with a searchSuggestSelection passes the
+                // typed text as an argument rather than a trailing segment.
+                final Uri suggestUri = selectionArgs != null && selectionArgs.length > 0
+                        && uri.getPathSegments().size() == 1
+                        ? uri.buildUpon().appendPath(selectionArgs[0]).build() : uri;
                 projection = new String[] { BaseColumns._ID, SearchManager.SUGGEST_COLUMN_TEXT_1,
                         SearchManager.SUGGEST_COLUMN_QUERY };
 
                 final String limit = uri.getQueryParameter(SearchManager.SUGGEST_PARAMETER_LIMIT);
-                return builder.query(db, projection, null, null, SearchSuggest.DEFAULT_SORT, limit);
+                return buildQuerySelection(suggestUri).query(db, projection, null, null,
+                        SearchSuggest.DEFAULT_SORT, limit, cancellationSignal);
+            }
+            case MEETINGS: {
+                final SelectionBuilder builder = new SelectionBuilder();
+                builder.table(Tables.BLOCKS)
+                        .map(Meetings._ID, Qualified.BLOCKS_MEETING)
+                        .map(Meetings.MEETING_START, "MIN(" + Blocks.BLOCK_START + ")")
+                        .map(Meetings.MEETING_END, "MAX(" + Blocks.BLOCK_END + ")")
+                        .map(Meetings.SESSIONS_COUNT, "SUM(" + Blocks.SESSIONS_COUNT + ")")
+                        .where(selection, selectionArgs);
+                if (sortOrder == null) sortOrder = Meetings.DEFAULT_SORT;
+                return builder.query(db, projection, Qualified.BLOCKS_MEETING, null, sortOrder, null,
+                        cancellationSignal);
+            }
+            case SESSIONS_SEARCH: {
+                // Rank by relevance; the requested order only breaks ties.
+                final SelectionBuilder builder = buildQuerySelection(uri).where(selection, selectionArgs);
+                if (projection == null) {
+                    return builder.query(db, null, null, null, sortOrder, null, cancellationSignal);
+                }
+                final String[] ranked = Arrays.copyOf(projection, projection.length + 1);
+                ranked[projection.length] = SearchRanker.MATCHINFO;
+                return SearchRanker.rank(builder.query(db, ranked, null, null, sortOrder, null,
+                        cancellationSignal), projection.length);
             }
             default: {
                 // Most cases are handled with simple SelectionBuilder
-                final SelectionBuilder builder = buildExpandedSelection(uri, match);
-                return builder.where(selection, selectionArgs).query(db, projection, sortOrder);
+                final SelectionBuilder builder = buildQuerySelection(uri);
+                final String limit = uri.getQueryParameter(ScheduleContract.PARAM_LIMIT);
+                return builder.where(selection, selectionArgs).query(db, projection, null, null,
+                        sortOrder, limit, cancellationSignal);
             }
         }
     }
@@ -258,30 +367,58 @@ public class ScheduleProvider extends ContentProvider {
         final int match = sUriMatcher.match(uri);
         switch (match) {
             case BLOCKS: {
-                long row = db.insertOrThrow(Tables.BLOCKS, null, values);
-                Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
-				Uri blockid = Blocks.buildBlockUri(values.getAsString(Blocks.BLOCK_ID));
+                stampMeeting(uri, values);
+                db.insertOrThrow(Tables.BLOCKS, null, values);
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
                 return Blocks.buildBlockUri(values.getAsString(Blocks.BLOCK_ID));
             }
             case TRACKS: {
                 db.insertOrThrow(Tables.TRACKS, null, values);
-                Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
                 return Tracks.buildTrackUri(values.getAsString(Tracks.TRACK_ID));
             }
             case ROOMS: {
+                stampMeeting(uri, values);
                 db.insertOrThrow(Tables.ROOMS, null, values);
-                Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
                 return Rooms.buildRoomUri(values.getAsString(Rooms.ROOM_ID));
             }
             case SESSIONS: {
+                stampMeeting(uri, values);
                 db.insertOrThrow(Tables.SESSIONS, null, values);
-                Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
                 return Sessions.buildSessionUri(values.getAsString(Sessions.SESSION_ID));
+            }
+            case SESSIONS_ID_MATERIALS: {
+                values.put(SessionMaterials.SESSION_ID, Sessions.getSessionId(uri));
+                stampMeeting(uri, values);
+                db.insertOrThrow(Tables.SESSION_MATERIALS, null, values);
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
+                return uri;
+            }
+            case SEARCH_SUGGEST_ENTRIES: {
+                stampMeeting(uri, values);
+                if (!values.containsKey(SearchSuggest.SUGGEST_KEY)) {
+                    values.put(SearchSuggest.SUGGEST_KEY, SearchSuggest.normalize(
+                            values.getAsString(SearchManager.SUGGEST_COLUMN_TEXT_1)));
+                }
+                // Refresh an existing entry in place, so its usage survives
+                // re-imports; the REPLACE conflict clause would reset it.
+                final int updated = db.update(Tables.SEARCH_SUGGEST, values,
+                        SearchSuggest.MEETING + "=? AND " + SearchSuggest.SUGGEST_KEY + "=?",
+                        new String[] { values.getAsString(SearchSuggest.MEETING),
+                                values.getAsString(SearchSuggest.SUGGEST_KEY) });
+                if (updated == 0) {
+                    db.insertOrThrow(Tables.SEARCH_SUGGEST, null, values);
+                }
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
+                return uri;
             }
 			case SESSIONS_ID_TRACKS:
             case SESSIONS_ID: {
+                stampMeeting(uri, values);
                 db.insertOrThrow(Tables.SESSIONS_TRACKS, null, values);
-                Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
                 return Tracks.buildTrackUri(values.getAsString(SessionsTracks.TRACK_ID));
             }
             default: {
@@ -295,9 +432,26 @@ public class ScheduleProvider extends ContentProvider {
     public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
         if (LOGV) Log.v(TAG, "update(uri=" + uri + ", values=" + values.toString() + ")");
         final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        if (sUriMatcher.match(uri) == SEARCH_SUGGEST_USAGE) {
+            return recordSuggestionUsage(db, uri);
+        }
         final SelectionBuilder builder = buildSimpleSelection(uri);
+        scopeToMeeting(builder, uri, sUriMatcher.match(uri));
         int retVal = builder.where(selection, selectionArgs).update(db, values);
-        Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
+        if (values.size() == 1 && values.containsKey(Sessions.SESSION_STARRED)) {
+            notifyChange(uri, ScheduleContract.CHANGE_STARRED);
+            if (sUriMatcher.match(uri) == SESSIONS_ID) {
+                // Schedule pages observe blocks; point them at the one that changed.
+                final String blockId = findSessionBlockId(db, uri);
+                if (blockId != null) {
+                    notifyChange(ScheduleContract.buildMeetingScopedUri(
+                            Blocks.buildBlockUri(blockId), resolveMeeting(uri)),
+                            ScheduleContract.CHANGE_STARRED);
+                }
+            }
+        } else {
+            notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
+        }
         return retVal;
     }
 
@@ -307,21 +461,28 @@ public class ScheduleProvider extends ContentProvider {
         if (LOGV) Log.v(TAG, "delete(uri=" + uri + ")");
         final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
         final SelectionBuilder builder = buildSimpleSelection(uri);
+        scopeToMeeting(builder, uri, sUriMatcher.match(uri));
         int retVal = builder.where(selection, selectionArgs).delete(db);
-        Objects.requireNonNull(getContext()).getContentResolver().notifyChange(uri, null);
+        notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
         return retVal;
     }
 
     /**
      * Apply the given set of {@link ContentProviderOperation}, executing inside
      * a {@link SQLiteDatabase} transaction. All changes will be rolled back if
-     * any single one fails.
+     * any single one fails. Observers hear about a committed batch once,
+     * through {@link ScheduleContract#BASE_CONTENT_URI} flagged with
+     * {@link ScheduleContract#CHANGE_BULK}, rather than once per operation.
      */
     @Override
     public ContentProviderResult[] applyBatch(ArrayList<ContentProviderOperation> operations)
             throws OperationApplicationException {
         final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
-        db.beginTransaction();
+        final int[] changes = new int[1];
+        mBatchChanges.set(changes);
+        boolean committed = false;
+        // Queries keep reading the previous snapshot until this commits.
+        db.beginTransactionNonExclusive();
         try {
             final int numOperations = operations.size();
             final ContentProviderResult[] results = new ContentProviderResult[numOperations];
@@ -329,12 +490,230 @@ public class ScheduleProvider extends ContentProvider {
                 results[i] = operations.get(i).apply(this, results, i);
             }
             db.setTransactionSuccessful();
+            committed = true;
             return results;
         } finally {
             db.endTransaction();
+            mBatchChanges.remove();
+            if (committed && changes[0] != 0) {
+                notifyChange(ScheduleContract.BASE_CONTENT_URI,
+                        ScheduleContract.CHANGE_BULK | changes[0]);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Supports {@link ScheduleContract#METHOD_COMPACT}, which leaves data
+     * unchanged and so sends no notification.
+     */
+    @Override
+    public Bundle call(String method, String arg, Bundle extras) {
+        if (ScheduleContract.METHOD_COMPACT.equals(method)) {
+            final ScheduleDatabase.Compaction compaction = mOpenHelper.compact();
+            final Bundle result = new Bundle();
+            result.putLong(ScheduleContract.EXTRA_PAGES_RECLAIMED, compaction.pagesReclaimed);
+            result.putLong(ScheduleContract.EXTRA_BYTES_RECLAIMED,
+                    compaction.pagesReclaimed * compaction.pageSize);
+            return result;
+        }
+        return super.call(method, arg, extras);
+    }
+
+    /**
+     * Notify observers of {@code uri} with the given
+     * {@link ScheduleContract#PARAM_CHANGES} flags, after invalidating cached
+     * results. Inside {@link #applyBatch} the flags are only collected, for the
+     * summary sent on commit.
+     */
+    private void notifyChange(Uri uri, int flags) {
+        final int[] batchChanges = mBatchChanges.get();
+        if (batchChanges != null) {
+            batchChanges[0] |= flags;
+            return;
+        }
+        mQueryCache.invalidate();
+        Objects.requireNonNull(getContext()).getContentResolver().notifyChange(
+                ScheduleContract.buildChangeUri(uri, flags), null);
+    }
+
+    /**
+     * Count one more pick of the suggestion addressed by a
+     * {@link SearchSuggest#buildUsageUri} {@link Uri}, so it ranks higher.
+     */
+    private int recordSuggestionUsage(SQLiteDatabase db, Uri uri) {
+        final SQLiteStatement statement = db.compileStatement("UPDATE " + Tables.SEARCH_SUGGEST
+                + " SET " + SearchSuggest.SUGGEST_USAGE + "=" + SearchSuggest.SUGGEST_USAGE + "+1"
+                + " WHERE " + SearchSuggest.MEETING + "=? AND " + SearchSuggest.SUGGEST_KEY + "=?");
+        try {
+            statement.bindLong(1, resolveMeeting(uri));
+            statement.bindString(2, SearchSuggest.getSuggestKey(uri));
+            final int retVal = statement.executeUpdateDelete();
+            if (retVal > 0) {
+                notifyChange(uri, ScheduleContract.CHANGE_CONTENT);
+            }
+            return retVal;
+        } finally {
+            statement.close();
+        }
+    }
+
+    /** Look up the {@link Sessions#BLOCK_ID} of the session at {@code uri}. */
+    private String findSessionBlockId(SQLiteDatabase db, Uri uri) {
+        final SelectionBuilder builder = buildSimpleSelection(uri);
+        scopeToMeeting(builder, uri, SESSIONS_ID);
+        try (Cursor cursor = builder.query(db, new String[] { Sessions.BLOCK_ID }, null)) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    /**
+     * Build the {@link SelectionBuilder} that {@link #query} uses for the
+     * requested {@link Uri}, including meeting scoping. Package-private so
+     * query plan tests can inspect the generated SQL.
+     */
+    SelectionBuilder buildQuerySelection(Uri uri) {
+        final int match = sUriMatcher.match(uri);
+        final SelectionBuilder builder = buildExpandedSelection(uri, match);
+        scopeToMeeting(builder, uri, match);
+        return builder;
+    }
+
+    /**
+     * Meeting that the requested {@link Uri} addresses: the one given by
+     * {@link ScheduleContract#PARAM_MEETING}, otherwise the meeting currently
+     * selected for display. Returns {@code 0} when no meeting is known yet.
+     */
+    private int resolveMeeting(Uri uri) {
+        final int meeting = ScheduleContract.getMeetingNumber(uri);
+        if (meeting != 0) {
+            return meeting;
+        }
+        return MeetingPreferences.getSelectedMeetingNumber(Objects.requireNonNull(getContext()));
+    }
+
+    /** Fill in {@link Blocks#MEETING} on inserts that do not carry one. */
+    private void stampMeeting(Uri uri, ContentValues values) {
+        if (!values.containsKey(Blocks.MEETING)) {
+            values.put(Blocks.MEETING, resolveMeeting(uri));
         }
     }
 
+    /**
+     * Restrict the given {@link SelectionBuilder} to a single meeting when
+     * the matched {@link Uri} addresses meeting-partitioned data.
+     */
+    private void scopeToMeeting(SelectionBuilder builder, Uri uri, int match) {
+        final String column;
+        switch (match) {
+            case BLOCKS:
+            case BLOCKS_BETWEEN:
+            case BLOCKS_AT:
+            case BLOCKS_OVERLAPPING:
+            case BLOCKS_NEXT:
+            case BLOCKS_ID:
+                column = Qualified.BLOCKS_MEETING;
+                break;
+            case ROOMS:
+            case ROOMS_ID:
+                column = Qualified.ROOMS_MEETING;
+                break;
+            case TRACKS_ID_SESSIONS:
+            case SESSIONS_ID_TRACKS:
+            case SESSIONS_TRACKS:
+                column = Qualified.SESSIONS_TRACKS_MEETING;
+                break;
+            case BLOCKS_ID_SESSIONS:
+            case ROOMS_ID_SESSIONS:
+            case SESSIONS:
+            case SESSIONS_STARRED:
+            case SESSIONS_SEARCH:
+            case SESSIONS_AT:
+            case SESSIONS_OVERLAPPING:
+            case SESSIONS_NEXT:
+            case SESSIONS_ID:
+                column = Qualified.SESSIONS_MEETING;
+                break;
+            case SESSIONS_ID_MATERIALS:
+            case SESSION_MATERIALS:
+                column = Qualified.SESSION_MATERIALS_MEETING;
+                break;
+            case SEARCH_SUGGEST:
+            case SEARCH_SUGGEST_ENTRIES:
+                column = Qualified.SEARCH_SUGGEST_MEETING;
+                break;
+            default:
+                return;
+        }
+        final int meeting = resolveMeeting(uri);
+        if (meeting != 0) {
+            switch (match) {
+                case BLOCKS_AT:
+                case BLOCKS_OVERLAPPING:
+                case SESSIONS_AT:
+                case SESSIONS_OVERLAPPING:
+                    // whereOverlaps already seeks within the meeting; left
+                    // indexable, this term draws SQLite into reading all of it.
+                    builder.where("+" + column + "=?", String.valueOf(meeting));
+                    break;
+                default:
+                    builder.where(column + "=?", String.valueOf(meeting));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Restrict {@code builder} to blocks whose span overlaps
+     * {@code [startTime, endTime]}, picked by rowid from two index seeks.
+     * <p>
+     * A block no longer than {@link #LONG_BLOCK_MILLIS} lasts at most as long
+     * as the longest such block in its meeting, so it starts within that
+     * duration before {@code startTime}: a range seek on the start index.
+     * Longer blocks, such as all-day registration, would stretch that range
+     * over the whole meeting, so they are read off the duration index
+     * instead; there are only a few of them.
+     */
+    private SelectionBuilder whereOverlaps(SelectionBuilder builder, Uri uri,
+            String startTime, String endTime) {
+        final int meeting = resolveMeeting(uri);
+        final String inMeeting = meeting != 0 ? Subquery.INTERVAL_MEETING + "=? AND " : "";
+        final String longest = "(SELECT IFNULL(MAX(" + Subquery.LONGEST_DURATION + "),0) FROM "
+                + Tables.BLOCKS + " AS " + Subquery.LONGEST + " WHERE "
+                + (meeting != 0 ? Subquery.LONGEST_MEETING + "=? AND " : "")
+                + Subquery.LONGEST_DURATION + "<=" + LONG_BLOCK_MILLIS + ")";
+        final String candidates = Qualified.BLOCKS_ID + " IN (SELECT " + Subquery.INTERVAL_ID
+                + " FROM " + Tables.BLOCKS + " AS " + Subquery.INTERVAL + " WHERE " + inMeeting
+                + Subquery.INTERVAL_START + "<=? AND " + Subquery.INTERVAL_START + ">=?-" + longest
+                + " UNION ALL SELECT " + Subquery.INTERVAL_ID
+                + " FROM " + Tables.BLOCKS + " AS " + Subquery.INTERVAL + " WHERE " + inMeeting
+                + Subquery.INTERVAL_DURATION + ">" + LONG_BLOCK_MILLIS + ")";
+        if (meeting != 0) {
+            final String meetingArg = String.valueOf(meeting);
+            builder.where(candidates, meetingArg, endTime, startTime, meetingArg, meetingArg);
+        } else {
+            builder.where(candidates, endTime, startTime);
+        }
+        // Unary + keeps these to filtering the candidates rather than seeking.
+        return builder.where("+" + Qualified.BLOCKS_BLOCK_START + "<=?", endTime)
+                .where("+" + Qualified.BLOCKS_BLOCK_END + ">=?", startTime);
+    }
+
+    /**
+     * Restrict {@code builder} to the blocks that start soonest after
+     * {@code time}; several blocks can share that start.
+     */
+    private SelectionBuilder whereStartsNext(SelectionBuilder builder, Uri uri, String time) {
+        final int meeting = resolveMeeting(uri);
+        final String next = Qualified.BLOCKS_BLOCK_START + "=(SELECT MIN("
+                + Subquery.INTERVAL_START + ") FROM " + Tables.BLOCKS + " AS " + Subquery.INTERVAL
+                + " WHERE " + Subquery.INTERVAL_START + ">?"
+                + (meeting != 0 ? " AND " + Subquery.INTERVAL_MEETING + "=?" : "") + ")";
+        return meeting != 0
+                ? builder.where(next, time, String.valueOf(meeting))
+                : builder.where(next, time);
+    }
+
     /**
      * Build a simple {@link SelectionBuilder} to match the requested
      * {@link Uri}. This is usually enough to support {@link #insert},
@@ -382,6 +761,17 @@ public class ScheduleProvider extends ContentProvider {
                 return builder.table(Tables.SESSIONS_TRACKS)
                         .where(Sessions.SESSION_ID + "=?", sessionId);
             }
+            case SESSIONS_ID_MATERIALS: {
+                final String sessionId = Sessions.getSessionId(uri);
+                return builder.table(Tables.SESSION_MATERIALS)
+                        .where(SessionMaterials.SESSION_ID + "=?", sessionId);
+            }
+            case SESSION_MATERIALS: {
+                return builder.table(Tables.SESSION_MATERIALS);
+            }
+            case SEARCH_SUGGEST_ENTRIES: {
+                return builder.table(Tables.SEARCH_SUGGEST);
+            }
             default: {
                 throw new UnsupportedOperationException("Unknown uri: " + uri);
             }
@@ -407,23 +797,30 @@ public class ScheduleProvider extends ContentProvider {
                 final String startTime = segments.get(2);
                 final String endTime = segments.get(3);
                 return builder.table(Tables.BLOCKS)
-                        .map(Blocks.SESSIONS_COUNT, Subquery.BLOCK_SESSIONS_COUNT)
-                        .map(Blocks.CONTAINS_STARRED, Subquery.BLOCK_CONTAINS_STARRED)
                         .where(Blocks.BLOCK_START + ">=?", startTime)
                         .where(Blocks.BLOCK_START + "<=?", endTime);
             }
+            case BLOCKS_AT: {
+                final String time = uri.getPathSegments().get(2);
+                return whereOverlaps(builder.table(Tables.BLOCKS), uri, time, time);
+            }
+            case BLOCKS_OVERLAPPING: {
+                final List<String> segments = uri.getPathSegments();
+                return whereOverlaps(builder.table(Tables.BLOCKS), uri,
+                        segments.get(2), segments.get(3));
+            }
+            case BLOCKS_NEXT: {
+                final String time = uri.getPathSegments().get(2);
+                return whereStartsNext(builder.table(Tables.BLOCKS), uri, time);
+            }
             case BLOCKS_ID: {
                 final String blockId = Blocks.getBlockId(uri);
                 return builder.table(Tables.BLOCKS)
-                        .map(Blocks.SESSIONS_COUNT, Subquery.BLOCK_SESSIONS_COUNT)
-                        .map(Blocks.CONTAINS_STARRED, Subquery.BLOCK_CONTAINS_STARRED)
                         .where(Blocks.BLOCK_ID + "=?", blockId);
             }
             case BLOCKS_ID_SESSIONS: {
                 final String blockId = Blocks.getBlockId(uri);
                 return builder.table(Tables.SESSIONS_JOIN_BLOCKS_ROOMS)
-                        .map(Blocks.SESSIONS_COUNT, Subquery.BLOCK_SESSIONS_COUNT)
-                        .map(Blocks.CONTAINS_STARRED, Subquery.BLOCK_CONTAINS_STARRED)
                         .mapToTable(Sessions._ID, Tables.SESSIONS)
                         .mapToTable(Sessions.SESSION_ID, Tables.SESSIONS)
                         .mapToTable(Sessions.BLOCK_ID, Tables.SESSIONS)
@@ -463,21 +860,38 @@ public class ScheduleProvider extends ContentProvider {
                 final String query = Sessions.getSearchQuery(uri);
                 return builder.table(Tables.SESSIONS_SEARCH_JOIN_SESSIONS_BLOCKS_ROOMS)
                         .map(Sessions.SEARCH_SNIPPET, Subquery.SESSIONS_SNIPPET)
+                        .map(SearchRanker.MATCHINFO, Subquery.SESSIONS_MATCHINFO)
                         .mapToTable(Sessions._ID, Tables.SESSIONS)
                         .mapToTable(Sessions.SESSION_ID, Tables.SESSIONS)
                         .mapToTable(Sessions.BLOCK_ID, Tables.SESSIONS)
                         .mapToTable(Sessions.ROOM_ID, Tables.SESSIONS)
-                        .where(SessionsSearchColumns.BODY + " MATCH ?", query);
+                        .where(Tables.SESSIONS_SEARCH + " MATCH ?",
+                                SearchRanker.buildPrefixQuery(query));
             }
             case SESSIONS_AT: {
                 final List<String> segments = uri.getPathSegments();
                 final String time = segments.get(2);
-                return builder.table(Tables.SESSIONS_JOIN_BLOCKS_ROOMS)
+                builder.table(Tables.SESSIONS_JOIN_BLOCKS_ROOMS)
                         .mapToTable(Sessions._ID, Tables.SESSIONS)
                         .mapToTable(Sessions.BLOCK_ID, Tables.SESSIONS)
-                        .mapToTable(Sessions.ROOM_ID, Tables.SESSIONS)
-                        .where(Sessions.BLOCK_START + "<=?", time)
-                        .where(Sessions.BLOCK_END + ">=?", time);
+                        .mapToTable(Sessions.ROOM_ID, Tables.SESSIONS);
+                return whereOverlaps(builder, uri, time, time);
+            }
+            case SESSIONS_OVERLAPPING: {
+                final List<String> segments = uri.getPathSegments();
+                builder.table(Tables.SESSIONS_JOIN_BLOCKS_ROOMS)
+                        .mapToTable(Sessions._ID, Tables.SESSIONS)
+                        .mapToTable(Sessions.BLOCK_ID, Tables.SESSIONS)
+                        .mapToTable(Sessions.ROOM_ID, Tables.SESSIONS);
+                return whereOverlaps(builder, uri, segments.get(2), segments.get(3));
+            }
+            case SESSIONS_NEXT: {
+                final String time = uri.getPathSegments().get(2);
+                builder.table(Tables.SESSIONS_JOIN_BLOCKS_ROOMS)
+                        .mapToTable(Sessions._ID, Tables.SESSIONS)
+                        .mapToTable(Sessions.BLOCK_ID, Tables.SESSIONS)
+                        .mapToTable(Sessions.ROOM_ID, Tables.SESSIONS);
+                return whereStartsNext(builder, uri, time);
             }
             case SESSIONS_ID: {
                 final String sessionId = Sessions.getSessionId(uri);
@@ -494,9 +908,28 @@ public class ScheduleProvider extends ContentProvider {
                         .mapToTable(Tracks.TRACK_ID, Tables.TRACKS)
                         .where(Qualified.SESSIONS_TRACKS_SESSION_ID + "=?", sessionId);
             }
+            case SESSIONS_ID_MATERIALS: {
+                final String sessionId = Sessions.getSessionId(uri);
+                return builder.table(Tables.SESSION_MATERIALS)
+                        .where(SessionMaterials.SESSION_ID + "=?", sessionId);
+            }
+            case SESSION_MATERIALS: {
+                return builder.table(Tables.SESSION_MATERIALS);
+            }
+            case SEARCH_SUGGEST: {
+                // Prefix match as a range on the key, so it seeks the unique
+                // index where LIKE would scan.
+                final List<String> segments = uri.getPathSegments();
+                final String prefix = SearchSuggest.normalize(
+                        segments.size() > 1 ? segments.get(1) : null);
+                return builder.table(Tables.SEARCH_SUGGEST)
+                        .map(SearchManager.SUGGEST_COLUMN_QUERY,
+                                SearchManager.SUGGEST_COLUMN_TEXT_1)
+                        .where(SearchSuggest.SUGGEST_KEY + ">=?", prefix)
+                        .where(SearchSuggest.SUGGEST_KEY + "<?", prefix + '\uffff');
+            }
           case TRACKS: {
-                return builder.table(Tables.TRACKS)
-                        .map(Tracks.SESSIONS_COUNT, Subquery.TRACK_SESSIONS_COUNT);
+                return builder.table(Tables.TRACKS);
 //                        .map(Tracks.VENDORS_COUNT, Subquery.TRACK_VENDORS_COUNT);
             }
             case TRACKS_ID: {
@@ -520,19 +953,23 @@ public class ScheduleProvider extends ContentProvider {
     }
 
     private interface Subquery {
-        String BLOCK_SESSIONS_COUNT = "(SELECT COUNT(" + Qualified.SESSIONS_SESSION_ID + ") FROM "
-                + Tables.SESSIONS + " WHERE " + Qualified.SESSIONS_BLOCK_ID + "="
-                + Qualified.BLOCKS_BLOCK_ID + ")";
-
-        String BLOCK_CONTAINS_STARRED = "(SELECT MAX(" + Qualified.SESSIONS_STARRED + ") FROM "
-                + Tables.SESSIONS + " WHERE " + Qualified.SESSIONS_BLOCK_ID + "="
-                + Qualified.BLOCKS_BLOCK_ID + ")";
-
-        String TRACK_SESSIONS_COUNT = "(SELECT COUNT(" + Qualified.SESSIONS_TRACKS_SESSION_ID
-                + ") FROM " + Tables.SESSIONS_TRACKS + " WHERE "
-                + Qualified.SESSIONS_TRACKS_TRACK_ID + "=" + Qualified.TRACKS_TRACK_ID + ")";
-
         String SESSIONS_SNIPPET = "snippet(" + Tables.SESSIONS_SEARCH + ",'{','}','\u2026')";
+        String SESSIONS_MATCHINFO = "matchinfo(" + Tables.SESSIONS_SEARCH + ",'"
+                + SearchRanker.MATCHINFO_FORMAT + "')";
+
+        /** Alias for the {@link Tables#BLOCKS} copy scanned by interval subqueries. */
+        String INTERVAL = "interval";
+        String INTERVAL_ID = INTERVAL + "." + BaseColumns._ID;
+        String INTERVAL_START = INTERVAL + "." + Blocks.BLOCK_START;
+        String INTERVAL_MEETING = INTERVAL + "." + Blocks.MEETING;
+        String INTERVAL_DURATION = "(" + INTERVAL + "." + Blocks.BLOCK_END + "-"
+                + INTERVAL + "." + Blocks.BLOCK_START + ")";
+
+        /** Alias for the {@link Tables#BLOCKS} copy that bounds block duration. */
+        String LONGEST = "longest";
+        String LONGEST_MEETING = LONGEST + "." + Blocks.MEETING;
+        String LONGEST_DURATION = "(" + LONGEST + "." + Blocks.BLOCK_END + "-"
+                + LONGEST + "." + Blocks.BLOCK_START + ")";
     }
 
     /**
@@ -543,16 +980,20 @@ public class ScheduleProvider extends ContentProvider {
         String SESSIONS_SESSION_ID = Tables.SESSIONS + "." + Sessions.SESSION_ID;
         String SESSIONS_BLOCK_ID = Tables.SESSIONS + "." + Sessions.BLOCK_ID;
         String SESSIONS_ROOM_ID = Tables.SESSIONS + "." + Sessions.ROOM_ID;
+        String SESSIONS_MEETING = Tables.SESSIONS + "." + Sessions.MEETING;
 
         String SESSIONS_TRACKS_SESSION_ID = Tables.SESSIONS_TRACKS + "."
                 + SessionsTracks.SESSION_ID;
         String SESSIONS_TRACKS_TRACK_ID = Tables.SESSIONS_TRACKS + "."
                 + SessionsTracks.TRACK_ID;
-
-        @SuppressWarnings("hiding")
-        String SESSIONS_STARRED = Tables.SESSIONS + "." + Sessions.SESSION_STARRED;
-
-        String TRACKS_TRACK_ID = Tables.TRACKS + "." + Tracks.TRACK_ID;
-        String BLOCKS_BLOCK_ID = Tables.BLOCKS + "." + Blocks.BLOCK_ID;
+        String SESSIONS_TRACKS_MEETING = Tables.SESSIONS_TRACKS + "." + Sessions.MEETING;
+
+        String BLOCKS_ID = Tables.BLOCKS + "." + BaseColumns._ID;
+        String BLOCKS_MEETING = Tables.BLOCKS + "." + Blocks.MEETING;
+        String BLOCKS_BLOCK_START = Tables.BLOCKS + "." + Blocks.BLOCK_START;
+        String BLOCKS_BLOCK_END = Tables.BLOCKS + "." + Blocks.BLOCK_END;
+        String ROOMS_MEETING = Tables.ROOMS + "." + Rooms.MEETING;
+        String SESSION_MATERIALS_MEETING = Tables.SESSION_MATERIALS + "." + SessionMaterials.MEETING;
+        String SEARCH_SUGGEST_MEETING = Tables.SEARCH_SUGGEST + "." + SearchSuggest.MEETING;
     }
 }
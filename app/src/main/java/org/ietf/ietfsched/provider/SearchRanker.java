@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.provider;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Relevance ranking for {@link ScheduleDatabase} full-text search.
+ * <p>
+ * The platform SQLite ships FTS3/FTS4 but not FTS5, so there is no built-in
+ * {@code bm25()}. Instead the search query selects
+ * {@code matchinfo(sessions_search, 'pcnalx')} and this class scores each row
+ * with BM25 in Java, then presents the rows in descending score order.
+ */
+final class SearchRanker {
+    /** Column alias carrying the {@code matchinfo} blob. */
+    static final String MATCHINFO = "search_matchinfo";
+
+    /** Argument to {@code matchinfo()} matching {@link #score}. */
+    static final String MATCHINFO_FORMAT = "pcnalx";
+
+    /**
+     * Per-column weights, in {@code sessions_search} column order: title,
+     * keywords (group, area, materials, badges), room and abstract.
+     */
+    private static final double[] WEIGHTS = { 4.0, 2.0, 1.0, 1.0 };
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private SearchRanker() {
+    }
+
+    /**
+     * Turn free text typed by the user into an FTS query where every word is
+     * a prefix term, all of which must match. FTS syntax characters are
+     * dropped so partial input never produces a malformed query.
+     */
+    static String buildPrefixQuery(String text) {
+        final StringBuilder query = new StringBuilder();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            // Bare operators would be parsed as syntax rather than words.
+            if (token.equals("and") || token.equals("or") || token.equals("not")
+                    || token.equals("near")) {
+                token = "\"" + token + "\"";
+            }
+            if (query.length() > 0) query.append(' ');
+            query.append(token).append('*');
+        }
+        return query.toString();
+    }
+
+    /**
+     * BM25 score of one row from its {@code matchinfo(..., 'pcnalx')} blob.
+     * Higher is more relevant.
+     */
+    static double score(byte[] matchinfo) {
+        if (matchinfo == null || matchinfo.length < 12) return 0;
+        final ByteBuffer buffer = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        final int phrases = buffer.getInt(0);
+        final int columns = buffer.getInt(4);
+        final long rows = buffer.getInt(8) & 0xffffffffL;
+        final int avgOffset = 3;
+        final int lengthOffset = avgOffset + columns;
+        final int hitsOffset = lengthOffset + columns;
+        if (matchinfo.length < 4 * (hitsOffset + 3 * phrases * columns)) return 0;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                final int hits = hitsOffset + 3 * (phrase * columns + column);
+                final double termFrequency = buffer.getInt(4 * hits);
+                if (termFrequency == 0) continue;
+                final double docsWithHits = buffer.getInt(4 * (hits + 2));
+                final double avgLength = Math.max(1, buffer.getInt(4 * (avgOffset + column)));
+                final double length = buffer.getInt(4 * (lengthOffset + column));
+                // Floor the idf so very common terms still count a little.
+                final double idf = Math.max(0.01,
+                        Math.log((rows - docsWithHits + 0.5) / (docsWithHits + 0.5)));
+                final double weight = column < WEIGHTS.length ? WEIGHTS[column] : 1.0;
+                score += weight * idf * (termFrequency * (K1 + 1))
+                        / (termFrequency + K1 * (1 - B + B * length / avgLength));
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Wrap a search {@link Cursor} so its rows appear by descending relevance.
+     * Rows with equal scores keep the order of the underlying query.
+     */
+    static Cursor rank(Cursor cursor, int matchinfoColumn) {
+        return new RankedCursor(cursor, matchinfoColumn);
+    }
+
+    /** {@link CursorWrapper} that presents rows through a score-sorted index. */
+    private static class RankedCursor extends CursorWrapper {
+        private final int mMatchinfoColumn;
+        private int[] mOrder;
+        private int mPos = -1;
+
+        RankedCursor(Cursor cursor, int matchinfoColumn) {
+            super(cursor);
+            mMatchinfoColumn = matchinfoColumn;
+            computeOrder();
+        }
+
+        private void computeOrder() {
+            final Cursor cursor = getWrappedCursor();
+            final int count = cursor.getCount();
+            final double[] scores = new double[count];
+            final ArrayList<Integer> order = new ArrayList<>(count);
+            for (int i = 0; i < count && cursor.moveToPosition(i); i++) {
+                scores[i] = score(cursor.getBlob(mMatchinfoColumn));
+                order.add(i);
+            }
+            Collections.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(scores[b], scores[a]);
+                }
+            });
+            mOrder = new int[count];
+            for (int i = 0; i < count; i++) {
+                mOrder[i] = order.get(i);
+            }
+            mPos = -1;
+            cursor.moveToPosition(-1);
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean requery() {
+            if (!super.requery()) return false;
+            computeOrder();
+            return true;
+        }
+
+        @Override
+        public int getPosition() {
+            return mPos;
+        }
+
+        @Override
+        public boolean moveToPosition(int position) {
+            final int count = mOrder.length;
+            if (position >= count) {
+                mPos = count;
+                getWrappedCursor().moveToPosition(count);
+                return false;
+            }
+            if (position < 0) {
+                mPos = -1;
+                getWrappedCursor().moveToPosition(-1);
+                return false;
+            }
+            mPos = position;
+            return getWrappedCursor().moveToPosition(mOrder[position]);
+        }
+
+        @Override
+        public boolean move(int offset) {
+            return moveToPosition(mPos + offset);
+        }
+
+        @Override
+        public boolean moveToFirst() {
+            return moveToPosition(0);
+        }
+
+        @Override
+        public boolean moveToLast() {
+            return moveToPosition(mOrder.length - 1);
+        }
+
+        @Override
+        public boolean moveToNext() {
+            return moveToPosition(mPos + 1);
+        }
+
+        @Override
+        public boolean moveToPrevious() {
+            return moveToPosition(mPos - 1);
+        }
+
+        @Override
+        public boolean isFirst() {
+            return mPos == 0 && mOrder.length != 0;
+        }
+
+        @Override
+        public boolean isLast() {
+            return mPos == mOrder.length - 1 && mOrder.length != 0;
+        }
+
+        @Override
+        public boolean isBeforeFirst() {
+            return mOrder.length == 0 || mPos == -1;
+        }
+
+        @Override
+        public boolean isAfterLast() {
+            return mOrder.length == 0 || mPos == mOrder.length;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.service;
+
+import org.ietf.ietfsched.io.AgendaFetcher;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+import org.ietf.ietfsched.util.AgendaCache;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Downloads the agendas of starred sessions and of the next few blocks
+ * while the device is on an unmetered network, so that the Agenda tab has
+ * them offline.
+ * <p>
+ * Starred sessions come first, then upcoming blocks in time order; a run
+ * stops after {@link #MAX_BYTES_PER_RUN} of new downloads. Agendas still
+ * current by their ETag cost nothing against that. Each agenda is kept in
+ * the {@link AgendaCache} until its session has ended.
+ * <p>
+ * Only agendas are fetched: the rest of a session's details come with the
+ * schedule sync and are already in the provider.
+ */
+public class AgendaPrefetchService extends JobService {
+    private static final String TAG = "AgendaPrefetchService";
+
+    private static final int JOB_ID = 0x1e7f;
+
+    /** Upcoming blocks whose agendas are fetched, after the starred sessions. */
+    static final int NEXT_BLOCKS = 3;
+    /** Response bytes per run, at most; a run ends at the first agenda past it. */
+    static final long MAX_BYTES_PER_RUN = 4 * 1024 * 1024;
+
+    private interface AgendasQuery {
+        String[] PROJECTION = {
+                Sessions.SESSION_URL,
+                Sessions.BLOCK_START,
+                Sessions.BLOCK_END,
+        };
+
+        int SESSION_URL = 0;
+        int BLOCK_START = 1;
+        int BLOCK_END = 2;
+    }
+
+    private volatile boolean mStopped;
+    /** Fetcher of the run in progress, so that {@link #onStopJob} can abort its request. */
+    private volatile AgendaFetcher mFetcher;
+
+    /** Ask for a prefetch on the next unmetered network; replaces one already pending. */
+    public static void schedule(Context context) {
+        final JobScheduler scheduler = context.getSystemService(JobScheduler.class);
+        if (scheduler == null) {
+            return;
+        }
+        final JobInfo job = new JobInfo.Builder(JOB_ID,
+                new ComponentName(context, AgendaPrefetchService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .build();
+        scheduler.schedule(job);
+    }
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        mStopped = false;
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                prefetch();
+                jobFinished(params, false);
+            }
+        }, TAG).start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Lost the network: drop the request in flight and pick up where we
+        // left off next time.
+        mStopped = true;
+        final AgendaFetcher fetcher = mFetcher;
+        if (fetcher != null) {
+            fetcher.cancel();
+        }
+        return true;
+    }
+
+    private void prefetch() {
+        final AgendaCache cache = new AgendaCache(getApplicationContext());
+        cache.trim();
+
+        final long now = System.currentTimeMillis();
+        final Map<String, Long> agendas = collectAgendas(getContentResolver(), now);
+        Log.d(TAG, "Prefetching up to " + agendas.size() + " agendas");
+
+        final AgendaFetcher fetcher = new AgendaFetcher(cache);
+        mFetcher = fetcher;
+        long downloaded = 0;
+        int fetched = 0;
+        for (Map.Entry<String, Long> agenda : agendas.entrySet()) {
+            if (mStopped || downloaded >= MAX_BYTES_PER_RUN) {
+                break;
+            }
+            final String url = agenda.getKey();
+            try {
+                final AgendaFetcher.Result result =
+                        fetcher.fetch(url, cache.get(url), agenda.getValue());
+                downloaded += result.downloaded;
+                if (result.changed) {
+                    fetched++;
+                }
+            } catch (Exception e) {
+                if (!mStopped) {
+                    Log.w(TAG, "Failed to prefetch " + url + ": " + e);
+                }
+            }
+        }
+        mFetcher = null;
+        Log.d(TAG, "Prefetched " + fetched + " agendas, " + downloaded + " bytes");
+    }
+
+    /**
+     * Agenda URLs to fetch, most wanted first, each with the end of its
+     * session: starred sessions not yet over, then the next
+     * {@link #NEXT_BLOCKS} blocks.
+     */
+    static Map<String, Long> collectAgendas(ContentResolver resolver, long now) {
+        final LinkedHashMap<String, Long> agendas = new LinkedHashMap<>();
+        collect(resolver.query(Sessions.CONTENT_STARRED_URI, AgendasQuery.PROJECTION,
+                Sessions.BLOCK_END + ">=?", new String[] {String.valueOf(now)},
+                Sessions.DEFAULT_SORT), agendas);
+
+        long time = now;
+        for (int i = 0; i < NEXT_BLOCKS; i++) {
+            final long start = collect(resolver.query(Sessions.buildSessionsNextDirUri(time),
+                    AgendasQuery.PROJECTION, null, null, Sessions.DEFAULT_SORT), agendas);
+            if (start <= time) {
+                break;
+            }
+            time = start;
+        }
+        return agendas;
+    }
+
+    /** Add the renderable agendas of {@code cursor}; returns the latest block start seen. */
+    private static long collect(Cursor cursor, Map<String, Long> agendas) {
+        long lastStart = Long.MIN_VALUE;
+        if (cursor == null) {
+            return lastStart;
+        }
+        try {
+            while (cursor.moveToNext()) {
+                lastStart = Math.max(lastStart, cursor.getLong(AgendasQuery.BLOCK_START));
+                final String url = cursor.getString(AgendasQuery.SESSION_URL);
+                if (!AgendaFetcher.isRenderable(url) || agendas.containsKey(url)) {
+                    continue;
+                }
+                agendas.put(url, cursor.getLong(AgendasQuery.BLOCK_END));
+            }
+        } finally {
+            cursor.close();
+        }
+        return lastStart;
+    }
+}
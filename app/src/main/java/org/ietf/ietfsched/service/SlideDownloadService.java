@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.service;
+
+import org.ietf.ietfsched.io.RemoteExecutor;
+import org.ietf.ietfsched.io.SlideStore;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Downloads the slides of starred sessions into the {@link SlideStore}
+ * while the device is on an unmetered network with storage to spare, so
+ * they open without the venue network when the session starts.
+ * <p>
+ * Sessions that start soonest go first. A deck listed by several sessions
+ * is fetched once; one cut short by a stopped job is resumed by the next.
+ */
+public class SlideDownloadService extends JobService {
+    private static final String TAG = "SlideDownloadService";
+
+    private static final int JOB_ID = 0x51d3;
+
+    private interface StarredQuery {
+        String[] PROJECTION = {
+                Sessions.SESSION_ID,
+        };
+
+        int SESSION_ID = 0;
+    }
+
+    private interface SlidesQuery {
+        String[] PROJECTION = {
+                SessionMaterials.MATERIAL_URL,
+        };
+
+        int MATERIAL_URL = 0;
+    }
+
+    private Thread mWorker;
+
+    /**
+     * Ask for the slides of starred sessions on the next unmetered network;
+     * replaces one already pending. Nothing is scheduled while the quota is 0.
+     */
+    public static void schedule(Context context) {
+        if (SlideStore.get(context).getQuota() == 0) {
+            return;
+        }
+        final JobScheduler scheduler = context.getSystemService(JobScheduler.class);
+        if (scheduler == null) {
+            return;
+        }
+        final JobInfo job = new JobInfo.Builder(JOB_ID,
+                new ComponentName(context, SlideDownloadService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresStorageNotLow(true)
+                .build();
+        scheduler.schedule(job);
+    }
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        mWorker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final boolean stopped = download();
+                // A job stopped part way is rescheduled by onStopJob.
+                if (!stopped) {
+                    jobFinished(params, false);
+                }
+            }
+        }, TAG);
+        mWorker.start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Ends the download under way at its next read; its part is kept.
+        if (mWorker != null) {
+            mWorker.interrupt();
+        }
+        return true;
+    }
+
+    /** Download what is missing; returns whether the job was stopped first. */
+    private boolean download() {
+        final SlideStore store = SlideStore.get(this);
+        store.trim();
+
+        final Set<String> urls = collectSlides(getContentResolver(),
+                System.currentTimeMillis());
+        Log.d(TAG, "Checking " + urls.size() + " slide decks");
+
+        final RemoteExecutor executor = new RemoteExecutor();
+        long downloaded = 0;
+        for (String url : urls) {
+            if (Thread.currentThread().isInterrupted()) {
+                Log.d(TAG, "Stopped after " + downloaded + " bytes");
+                return true;
+            }
+            try {
+                downloaded += store.download(executor, url);
+            } catch (Exception e) {
+                Log.w(TAG, "Failed to download " + url + ": " + e);
+            }
+        }
+        Log.d(TAG, "Downloaded " + downloaded + " bytes of slides");
+        return Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Slide URLs of the starred sessions not yet over, soonest first, each
+     * once.
+     */
+    static Set<String> collectSlides(ContentResolver resolver, long now) {
+        final LinkedHashSet<String> urls = new LinkedHashSet<>();
+        final Cursor sessions = resolver.query(Sessions.CONTENT_STARRED_URI,
+                StarredQuery.PROJECTION, Sessions.BLOCK_END + ">=?",
+                new String[] {String.valueOf(now)}, Sessions.DEFAULT_SORT);
+        if (sessions == null) {
+            return urls;
+        }
+        try {
+            while (sessions.moveToNext()) {
+                final Cursor slides = resolver.query(
+                        Sessions.buildMaterialsDirUri(sessions.getString(StarredQuery.SESSION_ID)),
+                        SlidesQuery.PROJECTION, SessionMaterials.MATERIAL_KIND + "=?",
+                        new String[] {SessionMaterials.KIND_SLIDES}, SessionMaterials.DEFAULT_SORT);
+                if (slides == null) {
+                    continue;
+                }
+                try {
+                    while (slides.moveToNext()) {
+                        final String url = slides.getString(SlidesQuery.MATERIAL_URL);
+                        if (url != null && url.startsWith("https://")) {
+                            urls.add(url);
+                        }
+                    }
+                } finally {
+                    slides.close();
+                }
+            }
+        } finally {
+            sessions.close();
+        }
+        return urls;
+    }
+}
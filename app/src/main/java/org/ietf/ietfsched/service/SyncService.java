@@ -24,6 +24,7 @@ import org.ietf.ietfsched.io.RemoteExecutor;
 import org.ietf.ietfsched.io.SideMeetingImporter;
 import org.ietf.ietfsched.provider.ScheduleProvider;
 import org.ietf.ietfsched.util.MeetingPreferences;
+import org.ietf.ietfsched.util.NoteWell;
 import org.ietf.ietfsched.util.ParserUtils;
 import org.ietf.ietfsched.util.UIUtils;
 import org.json.JSONObject;
@@ -70,7 +71,6 @@ public class SyncService extends IntentService {
     private LocalExecutor mLocalExecutor;
     private RemoteExecutor mRemoteExecutor;
 
-	public static String noteWellString = "";
     public SyncService() {
         super(TAG);
     }
@@ -145,13 +145,21 @@ public class SyncService extends IntentService {
 		}
 
 	// Get the NoteWell text. It's convenient to get that here instead of in the WellNoteFragment.
+	// It rarely changes: only download and render it again when its ETag moves.
 	try {
-		String txt = mRemoteExecutor.executeGet(noteWellURL);
-		if (txt.length() > 0 ) {
-			noteWellString = txt;
-			// Persist Note Well content across app restarts
-			prefs.edit().putString(Prefs.NOTE_WELL_CONTENT, txt).apply();
-			Log.d(TAG, String.format(java.util.Locale.ROOT, "Retrieved and saved the remote notewell (%d chars)", txt.length()));
+		final boolean saved = NoteWell.migrateLegacy(context);
+		final String noteWellEtag = saved ? prefs.getString(Prefs.NOTE_WELL_ETAG, null) : null;
+		RemoteExecutor.HttpGetResult noteWell =
+				mRemoteExecutor.executeConditionalGet(noteWellURL, noteWellEtag);
+		if (noteWell.notModified) {
+			Log.d(TAG, "Remote notewell unchanged");
+		} else if (noteWell.body.length() > 0 && NoteWell.save(context, noteWell.body)) {
+			if (noteWell.etag != null) {
+				prefs.edit().putString(Prefs.NOTE_WELL_ETAG, noteWell.etag).apply();
+			} else {
+				prefs.edit().remove(Prefs.NOTE_WELL_ETAG).apply();
+			}
+			Log.d(TAG, String.format(java.util.Locale.ROOT, "Retrieved and rendered the remote notewell (%d chars)", noteWell.body.length()));
 		}
 	} catch (Exception e) {
 		Log.d(TAG, String.format(java.util.Locale.ROOT, "Failed to get remote notewell: %s", e));
@@ -183,6 +191,9 @@ public class SyncService extends IntentService {
 			prefs.edit().putString(Prefs.LAST_ETAG, remoteEtag).apply();
 			prefs.edit().putInt(Prefs.LOCAL_VERSION, VERSION_CURRENT).apply();
 			Log.d(TAG, "remote sync finished");
+			// Agendas and starred slides, for offline use.
+			AgendaPrefetchService.schedule(context);
+			SlideDownloadService.schedule(context);
 			if (receiver != null) receiver.send(STATUS_FINISHED, Bundle.EMPTY);
 		}
 		catch (Exception e) {
@@ -202,6 +213,6 @@ public class SyncService extends IntentService {
         String LOCAL_VERSION = "local_version";
 		String LAST_LENGTH = "last_length";
 		String LAST_SYNC_TIME = "last_stime";
-		String NOTE_WELL_CONTENT = "note_well_content";
+		String NOTE_WELL_ETAG = "note_well_etag";
     }
 }
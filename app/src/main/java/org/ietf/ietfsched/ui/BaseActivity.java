@@ -17,6 +17,7 @@
 package org.ietf.ietfsched.ui;
 
 import org.ietf.ietfsched.util.ActivityHelper;
+import org.ietf.ietfsched.util.GeckoRuntimeHelper;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
@@ -37,6 +38,8 @@ public abstract class BaseActivity extends FragmentActivity {
     protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		getActivityHelper();
+		// Whichever screen opens first, have GeckoView ready before a web tab is shown.
+		GeckoRuntimeHelper.prewarm(this);
     }
 
     @Override
@@ -17,12 +17,16 @@
 package org.ietf.ietfsched.ui;
 
 import org.ietf.ietfsched.R;
+import org.ietf.ietfsched.io.SlideStore;
+import org.ietf.ietfsched.service.SlideDownloadService;
 import org.ietf.ietfsched.service.SyncService;
 import org.ietf.ietfsched.util.DetachableResultReceiver;
 import org.ietf.ietfsched.util.MeetingPreferences;
 
 import android.app.Activity;
+import android.app.AlertDialog;
 import android.app.BackgroundServiceStartNotAllowedException;
+import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Build;
@@ -35,6 +39,8 @@ import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.Toast;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Front-door {@link Activity} that displays high-level features the schedule application offers to
@@ -49,6 +55,7 @@ public class HomeActivity extends BaseActivity {
     private static final String PREF_LAST_SYNC = "last_sync_millis";
     private static final long CACHE_DURATION_MS = 60 * 60 * 1000; // 1 hour
     private static final long CACHE_JITTER_MS = 20 * 60 * 1000;   // ±20 minutes
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
 
     private SyncStatusUpdaterFragment mSyncStatusUpdaterFragment;
     private boolean mIsManualRefresh = false; // Track if sync was manually triggered
@@ -106,9 +113,52 @@ public class HomeActivity extends BaseActivity {
             triggerRefresh();
             return true;
         }
+        if (item.getItemId() == R.id.menu_offline_slides) {
+            showSlideQuotaDialog();
+            return true;
+        }
         return super.onOptionsItemSelected(item);
     }
 
+    /**
+     * Let the user pick how much storage slides of starred sessions may take
+     * offline, or turn that off.
+     */
+    private void showSlideQuotaDialog() {
+        final SlideStore store = SlideStore.get(this);
+        final long current = store.getQuota();
+        final String[] labels = new String[SlideStore.QUOTAS.length];
+        int checked = -1;
+        for (int i = 0; i < labels.length; i++) {
+            final long quota = SlideStore.QUOTAS[i];
+            labels[i] = quota == 0 ? getString(R.string.slide_quota_off)
+                    : getString(R.string.slide_quota_mb, (int) (quota / (1024 * 1024)));
+            if (quota == current) {
+                checked = i;
+            }
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.slide_quota_title)
+                .setSingleChoiceItems(labels, checked, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        dialog.dismiss();
+                        final long quota = SlideStore.QUOTAS[which];
+                        if (quota == current) {
+                            return;
+                        }
+                        store.setQuota(quota);
+                        if (quota < current) {
+                            // Make room now rather than at the next download.
+                            sExecutor.execute(store::trim);
+                        } else {
+                            SlideDownloadService.schedule(HomeActivity.this);
+                        }
+                    }
+                })
+                .show();
+    }
+
     /**
      * Check if cached data is stale and needs refresh.
      * Uses 1 hour + random jitter (0 to +20 minutes) to avoid thundering herd.
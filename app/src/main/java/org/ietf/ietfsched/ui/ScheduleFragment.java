@@ -20,24 +20,25 @@ import org.ietf.ietfsched.R;
 import org.ietf.ietfsched.provider.ScheduleContract;
 import org.ietf.ietfsched.ui.phone.SessionDetailActivity;
 import org.ietf.ietfsched.ui.phone.SessionsActivity;
-import org.ietf.ietfsched.ui.widget.BlockView;
 import org.ietf.ietfsched.ui.widget.BlocksLayout;
 import org.ietf.ietfsched.ui.widget.ObservableScrollView;
 import org.ietf.ietfsched.ui.widget.Workspace;
 import org.ietf.ietfsched.util.Maps;
+import org.ietf.ietfsched.util.MeetingPreferences;
 import org.ietf.ietfsched.util.MotionEventUtils;
 import org.ietf.ietfsched.util.NotifyingAsyncQueryHandler;
 import org.ietf.ietfsched.util.ParserUtils;
 import org.ietf.ietfsched.util.UIUtils;
 
+import android.app.AlertDialog;
 import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.database.ContentObserver;
 import android.database.Cursor;
 import android.graphics.Rect;
-import android.graphics.drawable.LayerDrawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
@@ -58,20 +59,24 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
 
 /**
  * Shows a horizontally-pageable calendar of conference days. Horizontal paging is achieved using
  * {@link Workspace}, and the primary UI classes for rendering the calendar are
- * {@link org.ietf.ietfsched.ui.widget.TimeRulerView},
- * {@link BlocksLayout}, and {@link BlockView}.
+ * {@link org.ietf.ietfsched.ui.widget.TimeRulerView}
+ * and {@link BlocksLayout}, which draws each day's blocks itself.
  */
 public class ScheduleFragment extends Fragment implements
         NotifyingAsyncQueryHandler.AsyncQueryListener,
         ObservableScrollView.OnScrollListener,
-        View.OnClickListener {
+        BlocksLayout.OnBlockClickListener {
 
     private static final String TAG = "ScheduleFragment";
     private static final boolean debug = false;
@@ -89,15 +94,41 @@ public class ScheduleFragment extends Fragment implements
      */
     private ArrayList<Long> START_DAYS = new ArrayList<Long>();
 
+    /** Meeting whose days START_DAYS holds, and the time zone they start in. */
+    private int mMeetingNumber;
+    private TimeZone mTimeZone;
+
     /**
-     * Generates the START_DAYS list based on the conference start/end dates.
-     * Creates tabs for each day of the meeting.
+     * {meeting, first block start, last block end} of the archived meeting
+     * last read by {@link MeetingRangeQuery}, or null.
+     */
+    private long[] mMeetingRange;
+
+    /**
+     * Generates the START_DAYS list based on the selected meeting's start/end dates:
+     * the conference dates for the current meeting, the span of its stored blocks
+     * for an archived one. Creates tabs for each day of the meeting. An archived
+     * meeting's span is queried first, and START_DAYS stays empty until it arrives.
      */
     private void generateStartDays() {
         START_DAYS.clear();
         
+        mMeetingNumber = MeetingPreferences.getSelectedMeetingNumber(getActivity());
         long conferenceStart = UIUtils.getConferenceStart();
         long conferenceEnd = UIUtils.getConferenceEnd();
+        mTimeZone = UIUtils.getConferenceTimeZone();
+        if (mMeetingNumber != MeetingPreferences.getCurrentMeetingNumber(getActivity())) {
+            if (mMeetingRange == null || mMeetingRange[0] != mMeetingNumber) {
+                mHandler.startQuery(MeetingRangeQuery._TOKEN, mMeetingNumber,
+                        ScheduleContract.Meetings.CONTENT_URI, MeetingRangeQuery.PROJECTION,
+                        ScheduleContract.Meetings.MEETING + "=?",
+                        new String[] {String.valueOf(mMeetingNumber)}, null);
+                return;
+            }
+            conferenceStart = mMeetingRange[1];
+            conferenceEnd = mMeetingRange[2];
+            mTimeZone = MeetingPreferences.getMeetingTimeZone(getActivity(), mMeetingNumber);
+        }
         
         if (conferenceStart == 0 || conferenceEnd == 0) {
             Log.w(TAG, "Conference dates not set yet, cannot generate schedule days");
@@ -105,7 +136,7 @@ public class ScheduleFragment extends Fragment implements
         }
         
         // Generate a day entry for each day of the conference
-        Calendar cal = Calendar.getInstance(UIUtils.getConferenceTimeZone());
+        Calendar cal = Calendar.getInstance(mTimeZone);
         cal.setTimeInMillis(conferenceStart);
         cal.set(Calendar.HOUR_OF_DAY, 0);
         cal.set(Calendar.MINUTE, 0);
@@ -118,11 +149,10 @@ public class ScheduleFragment extends Fragment implements
         }
     }
 
-    private static final int DISABLED_BLOCK_ALPHA = 100;
-
     private static final HashMap<String, Integer> sTypeColumnMap = buildTypeColumnMap();
 
     private NotifyingAsyncQueryHandler mHandler;
+    private StarQueue mStars;
 
     private Workspace mWorkspace;
     private TextView mTitle;
@@ -132,6 +162,7 @@ public class ScheduleFragment extends Fragment implements
 
     /**
      * A helper class containing object references related to a particular day in the schedule.
+     * The view references are only set while {@link Workspace} has the day's page bound.
      */
     private class Day {
         private ViewGroup rootView;
@@ -141,13 +172,29 @@ public class ScheduleFragment extends Fragment implements
 
         private int index = -1;
         private String label = null;
-        private Uri blocksUri = null;
         private long timeStart = -1;
         private long timeEnd = -1;
     }
 
     private List<Day> mDays = new ArrayList<>();
 
+    /** Vertical offset shared by every day page, applied to pages as they are bound. */
+    private int mScrollY;
+
+    /** Set when "now" should be centered once its day's page is bound. */
+    private boolean mPendingNowScroll;
+
+    /** Pages bound since the last blocks query; {@link #mLoadBoundDays} loads them together. */
+    private final List<Day> mUnloadedDays = new ArrayList<>();
+
+    private final Runnable mLoadBoundDays = new Runnable() {
+        public void run() {
+            final List<Day> days = new ArrayList<>(mUnloadedDays);
+            mUnloadedDays.clear();
+            requery(days);
+        }
+    };
+
     // Map a session type to the column in Schedule Display.
     // Assignment to these types happens in LocalExecutor.java.
     private static HashMap<String, Integer> buildTypeColumnMap() {
@@ -155,9 +202,8 @@ public class ScheduleFragment extends Fragment implements
         map.put(ParserUtils.BLOCK_TYPE_FOOD, 0);
         map.put(ParserUtils.BLOCK_TYPE_SESSION, 1);
         map.put(ParserUtils.BLOCK_TYPE_HACKATHON, 1);
+        // Side meetings with a room index suffix are mapped in onQueryComplete.
         map.put(ParserUtils.BLOCK_TYPE_SIDE_MEETING, 2);
-        map.put(ParserUtils.BLOCK_TYPE_SIDE_MEETING + "0", 2);
-        map.put(ParserUtils.BLOCK_TYPE_SIDE_MEETING + "1", 2);
         // Legacy officehours (if any remain in DB) still render in green until next sync
         map.put(ParserUtils.BLOCK_TYPE_OFFICE_HOURS, 2);
         map.put(ParserUtils.BLOCK_TYPE_NOC_HELPDESK, 3);
@@ -169,6 +215,7 @@ public class ScheduleFragment extends Fragment implements
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         mHandler = new NotifyingAsyncQueryHandler(getActivity().getContentResolver(), this);
+        mStars = StarQueue.get(getActivity());
         setHasOptionsMenu(true);
     }
 
@@ -227,8 +274,9 @@ public class ScheduleFragment extends Fragment implements
 		}
 		
 		for (long day : START_DAYS) {
-			setupDay(inflater, day);
+			setupDay(day);
 		}
+		mWorkspace.setScreenAdapter(mDayAdapter, mDays.size());
 		
 		// Find which day corresponds to "now" and start on that day
 		int initialDay = findCurrentDayIndex();
@@ -290,34 +338,75 @@ public class ScheduleFragment extends Fragment implements
         return mDays.size() - 1;
     }
 
-    private void setupDay(LayoutInflater inflater, long startMillis) {
+    private void setupDay(long startMillis) {
         Day day = new Day();
         if (debug) Log.d(TAG, "Setup day");
         // Setup data
         day.index = mDays.size();
         day.timeStart = startMillis;
         day.timeEnd = startMillis + DateUtils.DAY_IN_MILLIS;
-        day.blocksUri = ScheduleContract.Blocks.buildBlocksBetweenDirUri(
-                day.timeStart, day.timeEnd);
         if (debug) Log.d(TAG, "Day " + day.index + " range: " + day.timeStart + " to " + day.timeEnd + 
                 " (" + new java.util.Date(day.timeStart) + " to " + new java.util.Date(day.timeEnd) + ")");
 
-        // Setup views
-        day.rootView = (ViewGroup) inflater.inflate(R.layout.blocks_content, null);
-
-        day.scrollView = (ObservableScrollView) day.rootView.findViewById(R.id.blocks_scroll);
-        day.scrollView.setOnScrollListener(this);
-
-        day.blocksView = (BlocksLayout) day.rootView.findViewById(R.id.blocks);
-        day.nowView = day.rootView.findViewById(R.id.blocks_now);
-
-        TimeZone.setDefault(UIUtils.getConferenceTimeZone());
+        // Views are attached by mDayAdapter once the page comes near the screen
+        TimeZone.setDefault(mTimeZone);
         day.label = DateUtils.formatDateTime(getActivity(), startMillis, TIME_FLAGS);
 
-        mWorkspace.addView(day.rootView);
         mDays.add(day);
     }
 
+    /**
+     * Supplies {@link Workspace} with day pages on demand, so only the visible day and its
+     * neighbours are inflated and queried however long the meeting runs.
+     */
+    private final Workspace.ScreenAdapter mDayAdapter = new Workspace.ScreenAdapter() {
+        public View getScreenView(int index, View recycled, ViewGroup parent) {
+            final Day day = mDays.get(index);
+            day.rootView = recycled != null ? (ViewGroup) recycled
+                    : (ViewGroup) LayoutInflater.from(parent.getContext())
+                            .inflate(R.layout.blocks_content, parent, false);
+            day.rootView.setTag(day);
+
+            day.scrollView = (ObservableScrollView) day.rootView.findViewById(R.id.blocks_scroll);
+            day.scrollView.setOnScrollListener(ScheduleFragment.this);
+            day.blocksView = (BlocksLayout) day.rootView.findViewById(R.id.blocks);
+            day.blocksView.setOnBlockClickListener(ScheduleFragment.this);
+            day.nowView = day.rootView.findViewById(R.id.blocks_now);
+
+            final long now = UIUtils.getCurrentTime(parent.getContext());
+            final boolean isNow = now >= day.timeStart && now <= day.timeEnd;
+            day.nowView.setVisibility(isNow ? View.VISIBLE : View.GONE);
+            day.rootView.post(new Runnable() {
+                public void run() {
+                    if (day.scrollView == null) return;
+                    if (mPendingNowScroll && isNow) {
+                        mPendingNowScroll = false;
+                        scrollToNow(day);
+                    } else {
+                        day.scrollView.scrollTo(0, mScrollY);
+                    }
+                }
+            });
+
+            // Pages bound in the same pass share one query.
+            mUnloadedDays.add(day);
+            mWorkspace.removeCallbacks(mLoadBoundDays);
+            mWorkspace.post(mLoadBoundDays);
+            return day.rootView;
+        }
+
+        public void onScreenRecycled(int index, View view) {
+            final Day day = (Day) view.getTag();
+            mUnloadedDays.remove(day);
+            day.blocksView.removeAllBlocks();
+            day.scrollView.setOnScrollListener(null);
+            day.rootView = null;
+            day.scrollView = null;
+            day.nowView = null;
+            day.blocksView = null;
+        }
+    };
+
     /**
      * Rebuilds schedule tabs when data becomes available after initial view creation.
      */
@@ -339,8 +428,6 @@ public class ScheduleFragment extends Fragment implements
             }
         }
         
-        LayoutInflater inflater = getActivity().getLayoutInflater();
-        
         // Generate START_DAYS based on now-available conference dates
         generateStartDays();
         
@@ -351,14 +438,17 @@ public class ScheduleFragment extends Fragment implements
         
         // Clear any existing workspace views
         if (mWorkspace != null) {
-            mWorkspace.removeAllViews();
+            mWorkspace.setScreenAdapter(null, 0);
         }
         mDays.clear();
+        mUnloadedDays.clear();
+        mTitleCurrentDayIndex = -1;
         
         // Create tabs for each day
         for (long day : START_DAYS) {
-            setupDay(inflater, day);
+            setupDay(day);
         }
+        mWorkspace.setScreenAdapter(mDayAdapter, mDays.size());
         
         // Update header and scroll listener
         if (!mDays.isEmpty()) {
@@ -371,9 +461,6 @@ public class ScheduleFragment extends Fragment implements
                 }
             }, true);
         }
-        
-        // Query for blocks to populate the rebuilt schedule
-        requery();
     }
 
     @Override
@@ -384,18 +471,20 @@ public class ScheduleFragment extends Fragment implements
         if (mDays.isEmpty() && UIUtils.getConferenceStart() != 0) {
             Log.i(TAG, "Conference data now available, rebuilding schedule tabs");
             rebuildScheduleTabs();
+        } else if (mMeetingNumber != MeetingPreferences.getSelectedMeetingNumber(getActivity())) {
+            rebuildScheduleTabs();
         }
 
         // Since we build our views manually instead of using an adapter, we
         // need to manually requery every time launched.
         requery();
 
-        getActivity().getContentResolver().registerContentObserver(
-                ScheduleContract.Sessions.CONTENT_URI, true, mSessionChangesObserver);
-        
-        // Also watch for block changes to trigger rebuild if schedule was opened before sync completed
+        // Session changes surface here too: the provider notifies the block
+        // of a starred session, and sync sends a summary for the whole tree.
+        // This also triggers a rebuild if schedule was opened before sync completed.
         getActivity().getContentResolver().registerContentObserver(
                 ScheduleContract.Blocks.CONTENT_URI, true, mBlockChangesObserver);
+        mStars.addListener(mStarsListener);
         
         // Check if blocks already exist (sync may have finished before observer was registered)
         if (mDays.isEmpty()) {
@@ -421,11 +510,61 @@ public class ScheduleFragment extends Fragment implements
         getActivity().registerReceiver(mReceiver, filter, null, new Handler());
     }
 
+    /** Reload every day that currently has a page; the others load when bound. */
     private void requery() {
-        for (Day day : mDays) {
-            mHandler.startQuery(0, day, day.blocksUri, BlocksQuery.PROJECTION,
-                    null, null, ScheduleContract.Blocks.DEFAULT_SORT);
+        requery(mDays);
+    }
+
+    /**
+     * Query the blocks of the bound pages among {@code days} at once, from the
+     * first one's start to the last one's end; onQueryComplete hands the rows
+     * out to each page. The days are the cookie, so rows for a page recycled
+     * or rebuilt while the query ran are dropped.
+     */
+    private void requery(List<Day> days) {
+        final ArrayList<Day> bound = new ArrayList<>();
+        for (Day day : days) {
+            if (day.blocksView != null) {
+                bound.add(day);
+            }
+        }
+        if (bound.isEmpty()) {
+            return;
         }
+        Collections.sort(bound, new Comparator<Day>() {
+            public int compare(Day a, Day b) {
+                return Integer.compare(a.index, b.index);
+            }
+        });
+        final Uri blocksUri = ScheduleContract.Blocks.buildBlocksBetweenDirUri(
+                bound.get(0).timeStart, bound.get(bound.size() - 1).timeEnd);
+        mHandler.startQuery(BlocksQuery._TOKEN, bound, blocksUri,
+                BlocksQuery.PROJECTION, null, null, ScheduleContract.Blocks.DEFAULT_SORT);
+    }
+
+    /**
+     * Find the blocks of the sessions whose stars {@link StarQueue} wrote, so
+     * only their markers are reloaded.
+     */
+    private void requeryStarredSessions(Set<String> sessionIds) {
+        final StringBuilder selection = new StringBuilder(ScheduleContract.Sessions.SESSION_ID)
+                .append(" IN (");
+        for (int i = 0; i < sessionIds.size(); i++) {
+            selection.append(i == 0 ? "?" : ",?");
+        }
+        selection.append(')');
+        mHandler.startQuery(SessionBlocksQuery._TOKEN, null,
+                ScheduleContract.Sessions.CONTENT_URI, SessionBlocksQuery.PROJECTION,
+                selection.toString(), sessionIds.toArray(new String[0]), null);
+    }
+
+    /**
+     * Reload only the starred marker of the block at {@code blockUri}, leaving
+     * every other block on every page untouched.
+     */
+    private void requeryStarred(Uri blockUri) {
+        mHandler.startQuery(StarredQuery._TOKEN, ScheduleContract.Blocks.getBlockId(blockUri),
+                blockUri, StarredQuery.PROJECTION, null, null, null);
     }
 
     @Override
@@ -442,27 +581,60 @@ public class ScheduleFragment extends Fragment implements
     public void onPause() {
         super.onPause();
         getActivity().unregisterReceiver(mReceiver);
-        getActivity().getContentResolver().unregisterContentObserver(mSessionChangesObserver);
         getActivity().getContentResolver().unregisterContentObserver(mBlockChangesObserver);
+        mStars.removeListener(mStarsListener);
     }
 
     /**
      * {@inheritDoc}
-     * Populate a schedule page with session/break/etc details.
+     * Populate the queried schedule pages with session/break/etc details. Rows
+     * arrive ordered by start time, so each is placed in one pass over the days.
      */
+    @SuppressWarnings("unchecked")
     public void onQueryComplete(int token, Object cookie, Cursor cursor) {
         if (getActivity() == null) {
+            cursor.close();
             return;
         }
 
-        Day day = (Day) cookie;
+        if (token == MeetingsQuery._TOKEN) {
+            onMeetingsQueryComplete(cursor);
+            return;
+        }
+        if (token == MeetingRangeQuery._TOKEN) {
+            onMeetingRangeQueryComplete((Integer) cookie, cursor);
+            return;
+        }
+        if (token == StarredQuery._TOKEN) {
+            onStarredQueryComplete((String) cookie, cursor);
+            return;
+        }
+        if (token == SessionBlocksQuery._TOKEN) {
+            onSessionBlocksQueryComplete(cursor);
+            return;
+        }
 
-        // Clear out any existing sessions before inserting again
-        day.blocksView.removeAllBlocks();
+        final List<Day> days = (List<Day>) cookie;
+        final List<ArrayList<BlocksLayout.Block>> dayBlocks = new ArrayList<>(days.size());
+        for (int i = 0; i < days.size(); i++) {
+            dayBlocks.add(new ArrayList<BlocksLayout.Block>());
+        }
 
-        final ArrayList<BlockView> sideBlocks = new ArrayList<>();
+        int dayIndex = 0;
         try {
             while (cursor.moveToNext()) {
+                final long start = cursor.getLong(BlocksQuery.BLOCK_START);
+                while (dayIndex < days.size() && start >= days.get(dayIndex).timeEnd) {
+                    dayIndex++;
+                }
+                if (dayIndex == days.size()) {
+                    break;
+                }
+                // Rows of unbound days between the queried pages are skipped.
+                if (start < days.get(dayIndex).timeStart) {
+                    continue;
+                }
+
                 final String type = cursor.getString(BlocksQuery.BLOCK_TYPE);
                 Integer column = sTypeColumnMap.get(type);
                 if (column == null && ParserUtils.isSideMeetingBlockType(type)) {
@@ -478,70 +650,79 @@ public class ScheduleFragment extends Fragment implements
                     continue;
                 }
 
-                final long start = cursor.getLong(BlocksQuery.BLOCK_START);
                 final long end = cursor.getLong(BlocksQuery.BLOCK_END);
                 final boolean containsStarred = cursor.getInt(BlocksQuery.CONTAINS_STARRED) != 0;
                 final int subColumn = ParserUtils.sideMeetingSubColumn(type);
 
-                final BlockView blockView = new BlockView(getActivity(), blockId, title, start, end,
-                        containsStarred, column, subColumn);
-
                 final int sessionsCount = cursor.getInt(BlocksQuery.SESSIONS_COUNT);
-                if (sessionsCount > 0) {
-                    blockView.setOnClickListener(this);
-                } else {
-                    blockView.setFocusable(false);
-                    blockView.setEnabled(false);
-                    LayerDrawable buttonDrawable = (LayerDrawable) blockView.getBackground();
-                    buttonDrawable.getDrawable(0).setAlpha(DISABLED_BLOCK_ALPHA);
-                    buttonDrawable.getDrawable(2).setAlpha(DISABLED_BLOCK_ALPHA);
-                }
+                final BlocksLayout.Block block = new BlocksLayout.Block(blockId, title,
+                        start, end, containsStarred, column, subColumn, sessionsCount > 0);
+                dayBlocks.get(dayIndex).add(block);
+            }
+        } finally {
+            cursor.close();
+        }
+        for (int i = 0; i < days.size(); i++) {
+            final BlocksLayout blocksView = days.get(i).blocksView;
+            // A page recycled while the query ran is skipped. The page draws
+            // the new model in place, and BlocksLayout packs overlapping
+            // blocks of every column into lanes.
+            if (blocksView != null) {
+                blocksView.setBlocks(dayBlocks.get(i));
+            }
+        }
+    }
 
-                if (ParserUtils.isSideMeetingBlockType(type)) {
-                    sideBlocks.add(blockView);
+    /** Reload the starred marker of each block holding a session just starred or unstarred. */
+    private void onSessionBlocksQueryComplete(Cursor cursor) {
+        final Set<String> blockIds = new HashSet<>();
+        try {
+            while (cursor.moveToNext()) {
+                final String blockId = cursor.getString(SessionBlocksQuery.BLOCK_ID);
+                if (blockId != null && blockIds.add(blockId)) {
+                    requeryStarred(ScheduleContract.Blocks.buildBlockUri(blockId));
                 }
-                day.blocksView.addBlock(blockView);
             }
         } finally {
             cursor.close();
         }
+    }
 
-        // Side meetings: full green width when alone; half-width when time ranges overlap.
-        for (int i = 0; i < sideBlocks.size(); i++) {
-            BlockView a = sideBlocks.get(i);
-            boolean overlaps = false;
-            for (int j = 0; j < sideBlocks.size(); j++) {
-                if (i == j) continue;
-                BlockView b = sideBlocks.get(j);
-                if (a.getStartTime() < b.getEndTime() && b.getStartTime() < a.getEndTime()) {
-                    overlaps = true;
+    /** Apply a single block's starred state to the page that draws it. */
+    private void onStarredQueryComplete(String blockId, Cursor cursor) {
+        try {
+            if (!cursor.moveToFirst()) return;
+            final boolean containsStarred = cursor.getInt(StarredQuery.CONTAINS_STARRED) != 0;
+            for (Day day : mDays) {
+                final BlocksLayout blocksView = day.blocksView;
+                if (blocksView != null
+                        && blocksView.setBlockContainsStarred(blockId, containsStarred)) {
                     break;
                 }
             }
-            a.setHalfWidth(overlaps);
+        } finally {
+            cursor.close();
         }
     }
 
     /** {@inheritDoc} */
-    public void onClick(View view) {
-        if (view instanceof BlockView) {
-            final String blockId = ((BlockView) view).getBlockId();
-            final Intent intent;
-            // Side meetings are 1:1 with a session (same id) — skip the redundant list step.
-            // Explicit components avoid chooser with apps that over-match content:// VIEW (#40).
-            if (ParserUtils.isSideMeetingSessionId(blockId)) {
-                final Uri sessionUri = ScheduleContract.Sessions.buildSessionUri(blockId);
-                intent = new Intent(Intent.ACTION_VIEW, sessionUri,
-                        getActivity(), SessionDetailActivity.class);
-            } else {
-                final Uri sessionsUri = ScheduleContract.Blocks.buildSessionsUri(blockId);
-                intent = new Intent(Intent.ACTION_VIEW, sessionsUri,
-                        getActivity(), SessionsActivity.class);
-                intent.putExtra(SessionsFragment.EXTRA_SCHEDULE_TIME_STRING,
-                        ((BlockView) view).getBlockTimeString());
-            }
-            ((BaseActivity) getActivity()).openActivityOrFragment(intent);
+    public void onBlockClick(BlocksLayout.Block block) {
+        final String blockId = block.getBlockId();
+        final Intent intent;
+        // Side meetings are 1:1 with a session (same id) — skip the redundant list step.
+        // Explicit components avoid chooser with apps that over-match content:// VIEW (#40).
+        if (ParserUtils.isSideMeetingSessionId(blockId)) {
+            final Uri sessionUri = ScheduleContract.Sessions.buildSessionUri(blockId);
+            intent = new Intent(Intent.ACTION_VIEW, sessionUri,
+                    getActivity(), SessionDetailActivity.class);
+        } else {
+            final Uri sessionsUri = ScheduleContract.Blocks.buildSessionsUri(blockId);
+            intent = new Intent(Intent.ACTION_VIEW, sessionsUri,
+                    getActivity(), SessionsActivity.class);
+            intent.putExtra(SessionsFragment.EXTRA_SCHEDULE_TIME_STRING,
+                    block.getBlockTimeString(getActivity()));
         }
+        ((BaseActivity) getActivity()).openActivityOrFragment(intent);
     }
 
     /**
@@ -552,31 +733,41 @@ public class ScheduleFragment extends Fragment implements
 
         Day nowDay = null; // effectively Day corresponding to today
         for (Day day : mDays) {
-            if (now >= day.timeStart && now <= day.timeEnd) {
+            final boolean isNow = now >= day.timeStart && now <= day.timeEnd;
+            if (isNow) {
                 nowDay = day;
-                day.nowView.setVisibility(View.VISIBLE);
-            } else {
-                day.nowView.setVisibility(View.GONE);
+            }
+            if (day.nowView != null) {
+                day.nowView.setVisibility(isNow ? View.VISIBLE : View.GONE);
             }
         }
 
         if (nowDay != null && forceScroll) {
-            // Scroll to show "now" in center
+            // Scroll to show "now" in center, once the page is bound if it isn't yet
             mWorkspace.setCurrentScreen(nowDay.index);
-            final int offset = nowDay.scrollView.getHeight() / 2;
-            nowDay.nowView.requestRectangleOnScreen(new Rect(0, offset, 0, offset), true);
-            nowDay.blocksView.requestLayout();
+            if (nowDay.scrollView != null) {
+                scrollToNow(nowDay);
+            } else {
+                mPendingNowScroll = true;
+            }
             return true;
         }
 
         return false;
     }
 
+    private void scrollToNow(Day day) {
+        final int offset = day.scrollView.getHeight() / 2;
+        day.nowView.requestRectangleOnScreen(new Rect(0, offset, 0, offset), true);
+        day.blocksView.requestLayout();
+    }
+
     public void onScrollChanged(ObservableScrollView view) {
         // Keep each day view at the same vertical scroll offset.
         final int scrollY = view.getScrollY();
+        mScrollY = scrollY;
         for (Day day : mDays) {
-            if (day.scrollView != view) {
+            if (day.scrollView != null && day.scrollView != view) {
                 day.scrollView.scrollTo(0, scrollY);
             }
         }
@@ -597,21 +788,91 @@ public class ScheduleFragment extends Fragment implements
             }
             return true;
         }
+        if (item.getItemId() == R.id.menu_meeting) {
+            mHandler.startQuery(MeetingsQuery._TOKEN, null, ScheduleContract.Meetings.CONTENT_URI,
+                    MeetingsQuery.PROJECTION, null, null, ScheduleContract.Meetings.DEFAULT_SORT);
+            return true;
+        }
         return super.onOptionsItemSelected(item);
     }
 
-    private ContentObserver mSessionChangesObserver = new ContentObserver(new Handler()) {
-        @Override
-        public void onChange(boolean selfChange) {
-            requery();
+    /**
+     * Offer the meetings stored locally, newest first. Picking one selects it
+     * in {@link MeetingPreferences}, whose notification rebuilds the days.
+     */
+    private void onMeetingsQueryComplete(Cursor cursor) {
+        final int[] meetings = new int[cursor.getCount()];
+        final String[] labels = new String[meetings.length];
+        int checked = -1;
+        try {
+            while (cursor.moveToNext()) {
+                final int i = cursor.getPosition();
+                meetings[i] = cursor.getInt(MeetingsQuery._ID);
+                labels[i] = getString(R.string.meeting_label, meetings[i]);
+                if (meetings[i] == mMeetingNumber) {
+                    checked = i;
+                }
+            }
+        } finally {
+            cursor.close();
         }
-    };
-    
+        if (meetings.length == 0 || !isResumed()) {
+            return;
+        }
+        new AlertDialog.Builder(getActivity())
+                .setTitle(R.string.meeting_picker_title)
+                .setSingleChoiceItems(labels, checked, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        dialog.dismiss();
+                        if (meetings[which] != mMeetingNumber) {
+                            MeetingPreferences.setSelectedMeetingNumber(getActivity(),
+                                    meetings[which]);
+                        }
+                    }
+                })
+                .show();
+    }
+
+    /** Build the days of the archived meeting whose span {@link MeetingRangeQuery} read. */
+    private void onMeetingRangeQueryComplete(int meeting, Cursor cursor) {
+        try {
+            if (meeting != mMeetingNumber || !cursor.moveToFirst()) {
+                return;
+            }
+            mMeetingRange = new long[] {meeting, cursor.getLong(MeetingRangeQuery.MEETING_START),
+                    cursor.getLong(MeetingRangeQuery.MEETING_END)};
+        } finally {
+            cursor.close();
+        }
+        rebuildScheduleTabs();
+    }
+
     private ContentObserver mBlockChangesObserver = new ContentObserver(new Handler()) {
         @Override
         public void onChange(boolean selfChange) {
-            // If schedule was opened before sync completed, rebuild when blocks arrive
-            if (mDays.isEmpty()) {
+            onChange(selfChange, null);
+        }
+
+        @Override
+        public void onChange(boolean selfChange, Uri uri) {
+            // A star toggled on one session only changes the marker of its block.
+            if (uri != null && !mDays.isEmpty()
+                    && ScheduleContract.getChangeFlags(uri) == ScheduleContract.CHANGE_STARRED
+                    && ScheduleContract.Blocks.isBlockItemUri(uri)) {
+                requeryStarred(uri);
+                return;
+            }
+            // A batch of stars written by StarQueue; its listener reloads the blocks.
+            if (uri != null && !mDays.isEmpty()
+                    && ScheduleContract.getChangeFlags(uri)
+                            == (ScheduleContract.CHANGE_BULK | ScheduleContract.CHANGE_STARRED)) {
+                return;
+            }
+            // If schedule was opened before sync completed, rebuild when blocks arrive;
+            // another meeting selected, or a sync moving to a new one, changes the days.
+            if (mDays.isEmpty()
+                    || mMeetingNumber != MeetingPreferences.getSelectedMeetingNumber(getActivity())) {
                 rebuildScheduleTabs();
             } else {
                 requery();
@@ -619,6 +880,20 @@ public class ScheduleFragment extends Fragment implements
         }
     };
 
+    private final StarQueue.Listener mStarsListener = new StarQueue.Listener() {
+        @Override
+        public void onStarredChanged(String sessionId, boolean starred) {
+            // Block markers come from the database; wait for the write.
+        }
+
+        @Override
+        public void onStarsWritten(Set<String> sessionIds) {
+            if (!mDays.isEmpty()) {
+                requeryStarredSessions(sessionIds);
+            }
+        }
+    };
+
     private BroadcastReceiver mReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -627,6 +902,8 @@ public class ScheduleFragment extends Fragment implements
     };
 
     private interface BlocksQuery {
+        int _TOKEN = 0x1;
+
         String[] PROJECTION = {
                 BaseColumns._ID,
                 ScheduleContract.Blocks.BLOCK_ID,
@@ -647,4 +924,46 @@ public class ScheduleFragment extends Fragment implements
         int SESSIONS_COUNT = 6;
         int CONTAINS_STARRED = 7;
     }
+
+    private interface StarredQuery {
+        int _TOKEN = 0x2;
+
+        String[] PROJECTION = {
+                ScheduleContract.Blocks.CONTAINS_STARRED,
+        };
+
+        int CONTAINS_STARRED = 0;
+    }
+
+    private interface SessionBlocksQuery {
+        int _TOKEN = 0x3;
+
+        String[] PROJECTION = {
+                ScheduleContract.Sessions.BLOCK_ID,
+        };
+
+        int BLOCK_ID = 0;
+    }
+
+    private interface MeetingsQuery {
+        int _TOKEN = 0x4;
+
+        String[] PROJECTION = {
+                ScheduleContract.Meetings._ID,
+        };
+
+        int _ID = 0;
+    }
+
+    private interface MeetingRangeQuery {
+        int _TOKEN = 0x5;
+
+        String[] PROJECTION = {
+                ScheduleContract.Meetings.MEETING_START,
+                ScheduleContract.Meetings.MEETING_END,
+        };
+
+        int MEETING_START = 0;
+        int MEETING_END = 1;
+    }
 }
@@ -28,13 +28,13 @@ import android.net.Uri;
 import android.content.Intent;
 import androidx.fragment.app.Fragment;
 import org.ietf.ietfsched.R;
-import org.ietf.ietfsched.io.RemoteExecutor;
-import org.ietf.ietfsched.util.MarkdownHtml;
+import org.ietf.ietfsched.io.AgendaFetcher;
+import org.ietf.ietfsched.util.AgendaCache;
 
 import java.io.UnsupportedEncodingException;
-import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * Manages the Agenda tab using standard Android WebView (for easy CSS injection).
@@ -48,6 +48,10 @@ public class SessionAgendaTabManager {
     private final android.widget.TabHost mTabHost;
     private WebView mWebView;
     private String mCurrentUrl;
+
+    /** Fetches and renders agendas one at a time, off the main thread. */
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+    private static AgendaCache sCache;
     
     // Regex to detect common HTML tags and DOCTYPE
     private static final Pattern HTML_TAG_PATTERN = Pattern.compile(
@@ -192,7 +196,7 @@ public class SessionAgendaTabManager {
         
         // For agenda URLs, try to fetch and wrap with CSS if plain text
         // For non-agenda URLs or if fetch fails, load directly
-        if (agendaUrl.contains("datatracker.ietf.org") && agendaUrl.contains("agenda")) {
+        if (AgendaFetcher.isRenderable(agendaUrl)) {
             // Fetch in background to check if it's plain text
             fetchAndLoadAgenda(agendaUrl);
         } else {
@@ -201,154 +205,89 @@ public class SessionAgendaTabManager {
     }
     
     /**
-     * Fetch agenda page; use Content-Type when available (Datatracker materials).
-     * text/html → load URL; text/markdown → commonmark; text/plain → escaped pre-wrap.
+     * Fetch agenda page through {@link AgendaFetcher}, which renders it by
+     * Content-Type (Datatracker materials).
+     * <p>
+     * A rendering cached from an earlier visit, or prefetched by
+     * {@link org.ietf.ietfsched.service.AgendaPrefetchService}, shows first;
+     * the agenda is then revalidated with the ETag it was rendered from, and
+     * only reloaded if it changed. Offline, the cached rendering stays.
      */
     private void fetchAndLoadAgenda(String agendaUrl) {
         Log.d(TAG, "fetchAndLoadAgenda: Fetching " + agendaUrl);
+        final AgendaCache cache = agendaCache();
+        if (cache == null) {
+            mWebView.loadUrl(agendaUrl);
+            return;
+        }
 
-        new Thread(() -> {
+        sExecutor.execute(() -> {
+            final AgendaCache.Entry cached = cache.get(agendaUrl);
+            if (cached != null) {
+                Log.d(TAG, "fetchAndLoadAgenda: Showing cached agenda, etag=" + cached.etag);
+                runOnUi(() -> showAgenda(agendaUrl, cached));
+            }
             try {
-                RemoteExecutor executor = new RemoteExecutor();
-                RemoteExecutor.HttpGetResult result = executor.executeGetWithContentType(agendaUrl);
-                String content = result.body;
-                String mime = primaryMimeType(result.contentType);
-
-                Log.d(TAG, "fetchAndLoadAgenda: length=" +
-                        (content != null ? content.length() : 0) + " contentType=" + result.contentType);
-
-                if (content == null || content.isEmpty()) {
+                final AgendaFetcher.Result result =
+                        new AgendaFetcher(cache).fetch(agendaUrl, cached, 0);
+                if (result.entry == null) {
+                    if (cached != null) {
+                        // Keep showing the last good agenda.
+                        return;
+                    }
                     // Empty body — not a transient download (#37).
                     Log.w(TAG, "fetchAndLoadAgenda: Empty content");
                     runOnUi(() -> {
-                        if (mWebView != null) {
+                        if (isShowing(agendaUrl)) {
                             showStatusMessage(mFragment.getString(R.string.agenda_unavailable));
                         }
                     });
                     return;
                 }
-
-                AgendaFormat format = classifyAgenda(mime, content);
-                Log.d(TAG, "fetchAndLoadAgenda: format=" + format);
-
-                if (format == AgendaFormat.HTML) {
-                    runOnUi(() -> {
-                        if (mWebView != null) {
-                            mWebView.loadUrl(agendaUrl);
-                        }
-                    });
+                if (!result.changed) {
+                    Log.d(TAG, "fetchAndLoadAgenda: Cached agenda is current");
                     return;
                 }
-
-                final String wrappedHtml;
-                if (format == AgendaFormat.MARKDOWN) {
-                    // Links only via commonmark AutolinkExtension — do not run convertUrlsToLinks.
-                    wrappedHtml = wrapMarkdownAgendaHtml(content);
-                } else {
-                    wrappedHtml = wrapPlainTextAgendaHtml(content);
-                }
-
-                runOnUi(() -> {
-                    if (mWebView != null) {
-                        loadHtmlDataUri(wrappedHtml, agendaUrl);
-                    }
-                });
+                runOnUi(() -> showAgenda(agendaUrl, result.entry));
             } catch (Exception e) {
                 Log.e(TAG, "Failed to fetch agenda", e);
+                if (cached != null) {
+                    return;
+                }
                 runOnUi(() -> {
-                    if (mWebView != null) {
+                    if (isShowing(agendaUrl)) {
                         showErrorMessage();
                     }
                 });
             }
-        }).start();
-    }
-
-    private enum AgendaFormat {
-        HTML,
-        MARKDOWN,
-        PLAIN
-    }
-
-    private static String primaryMimeType(String contentType) {
-        if (contentType == null || contentType.isEmpty()) {
-            return null;
-        }
-        int semi = contentType.indexOf(';');
-        String primary = semi >= 0 ? contentType.substring(0, semi) : contentType;
-        return primary.trim().toLowerCase(Locale.ROOT);
+        });
     }
 
-    private AgendaFormat classifyAgenda(String mime, String content) {
-        if (mime != null) {
-            if (mime.equals("text/html") || mime.equals("application/xhtml+xml")) {
-                return AgendaFormat.HTML;
-            }
-            if (mime.equals("text/markdown") || mime.equals("text/x-markdown")) {
-                return AgendaFormat.MARKDOWN;
-            }
-            if (mime.equals("text/plain")) {
-                return AgendaFormat.PLAIN;
-            }
+    /** Load a fetched or cached agenda, unless the tab has moved on to another. */
+    private void showAgenda(String agendaUrl, AgendaCache.Entry agenda) {
+        if (!isShowing(agendaUrl)) {
+            return;
         }
-        // No useful Content-Type: keep HTML sniff; otherwise treat as markdown (#45).
-        if (isHtmlContent(content)) {
-            return AgendaFormat.HTML;
+        if (!agenda.loadSource) {
+            loadHtmlDataUri(agenda.html, agendaUrl);
+        } else if (agenda.html.isEmpty()) {
+            // Cached before HTML sources were kept.
+            mWebView.loadUrl(agendaUrl);
+        } else {
+            // The source as fetched; the base URL keeps its relative links working.
+            mWebView.loadDataWithBaseURL(agendaUrl, agenda.html, "text/html", "UTF-8", agendaUrl);
         }
-        return AgendaFormat.MARKDOWN;
     }
 
-    private String wrapMarkdownAgendaHtml(String markdown) {
-        String htmlContent = MarkdownHtml.render(markdown);
-        String css =
-                "body { " +
-                "  font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; " +
-                "  font-size: 16px; " +
-                "  line-height: 1.6; " +
-                "  color: #333; " +
-                "  padding: 16px; " +
-                "  word-wrap: break-word; " +
-                "} " +
-                "a { color: #0066cc; text-decoration: underline; } " +
-                "h1, h2, h3, h4 { margin-top: 1.2em; margin-bottom: 0.4em; } " +
-                "ul, ol { padding-left: 1.4em; } " +
-                "li { margin-bottom: 0.35em; } " +
-                "code, pre { font-family: ui-monospace, Consolas, monospace; font-size: 0.92em; } " +
-                "pre { overflow-x: auto; background: #f5f5f5; padding: 8px; }";
-        return "<!DOCTYPE html>" +
-                "<html><head>" +
-                "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
-                "<style>" + css + "</style>" +
-                "</head><body>" +
-                htmlContent +
-                "</body></html>";
+    private boolean isShowing(String agendaUrl) {
+        return mWebView != null && agendaUrl.equals(mCurrentUrl);
     }
 
-    private String wrapPlainTextAgendaHtml(String content) {
-        String escapedContent = escapePlainTextPreservingLinks(convertUrlsToLinks(content));
-
-        String css =
-                "body { " +
-                "  font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; " +
-                "  font-size: 16px; " +
-                "  line-height: 1.6; " +
-                "  color: #333; " +
-                "  padding: 16px; " +
-                "  white-space: pre-wrap; " +
-                "  word-wrap: break-word; " +
-                "} " +
-                "a { " +
-                "  color: #0066cc; " +
-                "  text-decoration: underline; " +
-                "}";
-
-        return "<!DOCTYPE html>" +
-                "<html><head>" +
-                "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
-                "<style>" + css + "</style>" +
-                "</head><body>" +
-                escapedContent +
-                "</body></html>";
+    private AgendaCache agendaCache() {
+        if (sCache == null && mFragment.getActivity() != null) {
+            sCache = new AgendaCache(mFragment.getActivity().getApplicationContext());
+        }
+        return sCache;
     }
 
     private void loadHtmlDataUri(String wrappedHtml, String fallbackUrl) {
@@ -383,90 +322,6 @@ public class SessionAgendaTabManager {
         Log.d(TAG, "injectAgendaCSS: CSS already included in data URI wrapper");
     }
     
-    /**
-     * Convert bare https URLs to anchors. Used only for {@link AgendaFormat#PLAIN}
-     * agendas — markdown uses {@link MarkdownHtml} / AutolinkExtension instead.
-     */
-    /**
-     * Convert plain text http(s) URLs to HTML anchor tags.
-     * Used only for {@link AgendaFormat#PLAIN} — markdown uses AutolinkExtension.
-     */
-    private String convertUrlsToLinks(String text) {
-        if (text == null || text.isEmpty()) {
-            return text;
-        }
-
-        Pattern urlPattern = Pattern.compile(
-            "(https?://[\\w.\\-/:?#\\[\\]@!$&'()*+,;=%]+)");
-
-        Matcher matcher = urlPattern.matcher(text);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String url = matcher.group(1);
-            matcher.appendReplacement(result,
-                    Matcher.quoteReplacement("<a href=\"" + url + "\">" + url + "</a>"));
-        }
-        matcher.appendTail(result);
-
-        return result.toString();
-    }
-
-    /**
-     * Escape plain text for HTML while preserving &lt;a href&gt; tags from
-     * {@link #convertUrlsToLinks}.
-     */
-    private String escapePlainTextPreservingLinks(String contentWithLinks) {
-        String temp = contentWithLinks.replaceAll(
-                "<a href=\"([^\"]+)\">([^<]+)</a>",
-                "___LINK_START___$1___LINK_MID___$2___LINK_END___");
-        String escaped = temp.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
-        return escaped.replace("___LINK_START___", "<a href=\"")
-                .replace("___LINK_MID___", "\">")
-                .replace("___LINK_END___", "</a>");
-    }
-    
-    /**
-     * Check if content is HTML or plain text.
-     */
-    private boolean isHtmlContent(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return false;
-        }
-        
-        // Check for common HTML indicators
-        String trimmed = content.trim();
-        
-        // Check for HTML doctype
-        if (trimmed.toLowerCase().startsWith("<!doctype html")) {
-            return true;
-        }
-        
-        // Check for HTML tags (common ones)
-        if (trimmed.contains("<html") || trimmed.contains("<HTML")) {
-            return true;
-        }
-        if (trimmed.contains("<body") || trimmed.contains("<BODY")) {
-            return true;
-        }
-        if (trimmed.contains("<div") || trimmed.contains("<DIV")) {
-            return true;
-        }
-        if (trimmed.contains("<p>") || trimmed.contains("<P>")) {
-            return true;
-        }
-        if (trimmed.contains("<h1") || trimmed.contains("<H1")) {
-            return true;
-        }
-        if (trimmed.contains("<table") || trimmed.contains("<TABLE")) {
-            return true;
-        }
-        
-        return false;
-    }
-    
     /**
      * Show plain text (e.g. side-meeting description) in the Agenda WebView.
      * Newlines become &lt;br&gt;; http(s) URLs become links; other HTML is escaped.
@@ -477,7 +332,7 @@ public class SessionAgendaTabManager {
             return;
         }
         String raw = text == null ? "" : text;
-        String body = escapePlainTextPreservingLinks(convertUrlsToLinks(raw)).replace("\n", "<br>");
+        String body = AgendaFetcher.linkifyPlainText(raw).replace("\n", "<br>");
         String html = "<!DOCTYPE html>" +
             "<html><head>" +
             "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
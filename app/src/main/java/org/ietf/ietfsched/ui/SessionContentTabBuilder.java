@@ -16,6 +16,9 @@
 
 package org.ietf.ietfsched.ui;
 
+import android.app.Activity;
+import android.content.ActivityNotFoundException;
+import android.content.Context;
 import android.content.Intent;
 import android.database.Cursor;
 import android.net.Uri;
@@ -25,15 +28,26 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
+import androidx.core.content.FileProvider;
 import androidx.fragment.app.Fragment;
 import org.ietf.ietfsched.R;
+import org.ietf.ietfsched.io.SlideStore;
+import org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Builds the Content tab for SessionDetailFragment.
- * Handles rendering of presentation slides and Internet drafts.
+ * Handles rendering of presentation slides and Internet drafts; slides
+ * downloaded for offline use open from the {@link SlideStore}.
  */
 public class SessionContentTabBuilder {
     private static final String TAG = "SessionContentTabBuilder";
+    /** FileProvider serving the {@link SlideStore}, as declared in the manifest. */
+    private static final String SLIDES_AUTHORITY = "org.ietf.ietfsched.slides";
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
     
     private final Fragment mFragment;
     private final ViewGroup mRootView;
@@ -46,17 +60,12 @@ public class SessionContentTabBuilder {
     }
     
     /**
-     * Updates the Content tab with Internet drafts and presentation slides.
-     */
-    public void updateContentTab(Cursor cursor, int pdfUrlIndex, int draftsUrlIndex) {
-        updateContentTab(cursor, pdfUrlIndex, draftsUrlIndex, -1);
-    }
-
-    /**
-     * Updates the Content tab. When {@code abstractIndex} &gt;= 0 and abstract text is present,
-     * it is shown above slides/drafts (used for side meetings).
+     * Updates the Content tab with presentation slides and Internet drafts read
+     * from a {@link SessionMaterials} cursor. When {@code abstractText} is not
+     * empty it is shown above slides/drafts (used for side meetings).
      */
-    public void updateContentTab(Cursor cursor, int pdfUrlIndex, int draftsUrlIndex, int abstractIndex) {
+    public void updateContentTab(String abstractText, Cursor materials, int kindIndex,
+            int titleIndex, int urlIndex) {
         // Find the included view first, then find the container inside it
         View includedView = mRootView.findViewById(R.id.tab_session_summary);
         ViewGroup container = null;
@@ -77,164 +86,27 @@ public class SessionContentTabBuilder {
         // Ensure container is visible
         container.setVisibility(View.VISIBLE);
 
-        LayoutInflater inflater = mFragment.getLayoutInflater();
         boolean hasContent = false;
 
-        // Note: cursor should already be at first position from onSessionQueryComplete
-        // But ensure it's valid
-        if (cursor == null) {
-            Log.e(TAG, "updateContentTab: cursor is null!");
-            return;
-        }
-
-        if (abstractIndex >= 0) {
-            String abstractText = cursor.getString(abstractIndex);
-            if (!TextUtils.isEmpty(abstractText)) {
-                TextView abstractView = new TextView(mFragment.getActivity());
-                abstractView.setText(abstractText);
-                abstractView.setTextAppearance(mFragment.getActivity(), android.R.style.TextAppearance_Medium);
-                abstractView.setPadding(
-                        mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium),
-                        mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium),
-                        mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium),
-                        mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium));
-                container.addView(abstractView);
-                hasContent = true;
-            }
-        }
-
-        // First, add Presentation Slides section
-        final String pdfUrl = cursor.getString(pdfUrlIndex);
-        if (!TextUtils.isEmpty(pdfUrl)) {
-            String[] slideEntries = pdfUrl.split("::");
-            boolean hasValidSlides = false;
-            for (String entry : slideEntries) {
-                if (!entry.trim().isEmpty()) {
-                    hasValidSlides = true;
-                    break;
-                }
-            }
-            
-            if (hasValidSlides) {
-                TextView slidesHeader = SessionDetailUIHelper.createSectionHeader(mFragment, R.string.session_link_pdf);
-                // Add padding above the header
-                android.widget.LinearLayout.LayoutParams headerParams = 
-                    new android.widget.LinearLayout.LayoutParams(
-                        android.widget.LinearLayout.LayoutParams.MATCH_PARENT,
-                        android.widget.LinearLayout.LayoutParams.WRAP_CONTENT);
-                headerParams.topMargin = mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium);
-                slidesHeader.setLayoutParams(headerParams);
-                container.addView(slidesHeader);
-                hasContent = true;
-                
-                // Add slide links
-                for (int j = 0; j < slideEntries.length; j++) {
-                    final String slideEntry = slideEntries[j].trim();
-                    if (slideEntry.isEmpty()) continue;
-                    
-                    // Parse "title|||url" format
-                    final String slideTitle;
-                    final String slideUrl;
-                    if (slideEntry.contains("|||")) {
-                        String[] parts = slideEntry.split("\\|\\|\\|", 2);
-                        slideTitle = parts[0].trim();
-                        slideUrl = parts[1].trim();
-                    } else {
-                        // Fallback for old format (just URL without title)
-                        slideTitle = slideEntries.length == 1 
-                            ? mFragment.getString(R.string.session_link_pdf)
-                            : mFragment.getString(R.string.session_link_pdf) + " " + (j + 1);
-                        slideUrl = slideEntry;
-                    }
-                    
-                    ViewGroup linkContainer = (ViewGroup)
-                            inflater.inflate(R.layout.list_item_session_link, container, false);
-                    
-                    ((TextView) linkContainer.findViewById(R.id.link_text)).setText(slideTitle);
-                    
-                    linkContainer.setOnClickListener(new View.OnClickListener() {
-                        public void onClick(View view) {
-                            if (mLinkEventCallback != null) {
-                                mLinkEventCallback.run();
-                            }
-                            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(slideUrl));
-                            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_DOCUMENT);
-                            mFragment.startActivity(intent);
-                        }
-                    });
-                    
-                    container.addView(linkContainer);
-                    container.addView(SessionDetailUIHelper.createThinSeparator(mFragment));
-                }
-            }
+        if (!TextUtils.isEmpty(abstractText)) {
+            TextView abstractView = new TextView(mFragment.getActivity());
+            abstractView.setText(abstractText);
+            abstractView.setTextAppearance(mFragment.getActivity(), android.R.style.TextAppearance_Medium);
+            abstractView.setPadding(
+                    mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium),
+                    mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium),
+                    mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium),
+                    mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium));
+            container.addView(abstractView);
+            hasContent = true;
         }
 
-        // Then, add Internet Drafts section
-        final String draftsUrl = cursor.getString(draftsUrlIndex);
-        if (!TextUtils.isEmpty(draftsUrl)) {
-            String[] draftEntries = draftsUrl.split("::");
-            boolean hasValidDrafts = false;
-            for (String entry : draftEntries) {
-                if (!entry.trim().isEmpty()) {
-                    hasValidDrafts = true;
-                    break;
-                }
-            }
-            
-            if (hasValidDrafts) {
-                TextView draftsHeader = SessionDetailUIHelper.createSectionHeader(mFragment, R.string.session_drafts);
-                // Add padding above the header
-                android.widget.LinearLayout.LayoutParams headerParams = 
-                    new android.widget.LinearLayout.LayoutParams(
-                        android.widget.LinearLayout.LayoutParams.MATCH_PARENT,
-                        android.widget.LinearLayout.LayoutParams.WRAP_CONTENT);
-                headerParams.topMargin = mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium);
-                draftsHeader.setLayoutParams(headerParams);
-                container.addView(draftsHeader);
-                hasContent = true;
-                
-                // Add draft links
-                for (int j = 0; j < draftEntries.length; j++) {
-                    final String draftEntry = draftEntries[j].trim();
-                    if (draftEntry.isEmpty()) continue;
-                    
-                    // Parse "title|||url" format (same as slides)
-                    final String draftTitle;
-                    final String draftUrl;
-                    if (draftEntry.contains("|||")) {
-                        String[] parts = draftEntry.split("\\|\\|\\|", 2);
-                        draftTitle = parts[0].trim();
-                        draftUrl = parts[1].trim();
-                    } else {
-                        // Fallback: treat as URL and extract filename
-                        draftUrl = draftEntry;
-                        String draftFileName = draftUrl.substring(draftUrl.lastIndexOf('/') + 1);
-                        if (draftFileName.endsWith("/")) {
-                            draftFileName = draftFileName.substring(0, draftFileName.length() - 1);
-                        }
-                        draftTitle = draftFileName;
-                    }
-                    
-                    ViewGroup linkContainer = (ViewGroup)
-                            inflater.inflate(R.layout.list_item_session_link, container, false);
-                    
-                    ((TextView) linkContainer.findViewById(R.id.link_text)).setText(draftTitle);
-                    
-                    linkContainer.setOnClickListener(new View.OnClickListener() {
-                        public void onClick(View view) {
-                            if (mLinkEventCallback != null) {
-                                mLinkEventCallback.run();
-                            }
-                            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(draftUrl));
-                            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_DOCUMENT);
-                            mFragment.startActivity(intent);
-                        }
-                    });
-                    
-                    container.addView(linkContainer);
-                    container.addView(SessionDetailUIHelper.createThinSeparator(mFragment));
-                }
-            }
+        if (materials != null) {
+            // First, add Presentation Slides section, then Internet Drafts
+            hasContent |= addMaterialsSection(container, materials, SessionMaterials.KIND_SLIDES,
+                    R.string.session_link_pdf, kindIndex, titleIndex, urlIndex);
+            hasContent |= addMaterialsSection(container, materials, SessionMaterials.KIND_DRAFT,
+                    R.string.session_drafts, kindIndex, titleIndex, urlIndex);
         }
 
         // Show empty message if no content
@@ -251,6 +123,129 @@ public class SessionContentTabBuilder {
             container.addView(emptyView);
         }
     }
+
+    /**
+     * Add a header and one link per material of the given kind.
+     * Returns whether anything was added.
+     */
+    private boolean addMaterialsSection(ViewGroup container, Cursor materials, String kind,
+            int headerRes, int kindIndex, int titleIndex, int urlIndex) {
+        int count = 0;
+        materials.moveToPosition(-1);
+        while (materials.moveToNext()) {
+            if (kind.equals(materials.getString(kindIndex))) count++;
+        }
+        if (count == 0) {
+            return false;
+        }
+
+        TextView header = SessionDetailUIHelper.createSectionHeader(mFragment, headerRes);
+        // Add padding above the header
+        android.widget.LinearLayout.LayoutParams headerParams = 
+            new android.widget.LinearLayout.LayoutParams(
+                android.widget.LinearLayout.LayoutParams.MATCH_PARENT,
+                android.widget.LinearLayout.LayoutParams.WRAP_CONTENT);
+        headerParams.topMargin = mFragment.getResources().getDimensionPixelSize(R.dimen.body_padding_medium);
+        header.setLayoutParams(headerParams);
+        container.addView(header);
+
+        LayoutInflater inflater = mFragment.getLayoutInflater();
+        int position = 0;
+        materials.moveToPosition(-1);
+        while (materials.moveToNext()) {
+            if (!kind.equals(materials.getString(kindIndex))) continue;
+            position++;
+            final String url = materials.getString(urlIndex);
+            String title = materials.getString(titleIndex);
+            if (TextUtils.isEmpty(title)) {
+                title = fallbackTitle(kind, url, count, position);
+            }
+
+            ViewGroup linkContainer = (ViewGroup)
+                    inflater.inflate(R.layout.list_item_session_link, container, false);
+            
+            ((TextView) linkContainer.findViewById(R.id.link_text)).setText(title);
+            
+            final boolean slides = SessionMaterials.KIND_SLIDES.equals(kind);
+            linkContainer.setOnClickListener(new View.OnClickListener() {
+                public void onClick(View view) {
+                    if (mLinkEventCallback != null) {
+                        mLinkEventCallback.run();
+                    }
+                    if (slides) {
+                        openSlides(url);
+                    } else {
+                        openRemote(url);
+                    }
+                }
+            });
+            
+            container.addView(linkContainer);
+            container.addView(SessionDetailUIHelper.createThinSeparator(mFragment));
+        }
+        return true;
+    }
+
+    private void openRemote(String url) {
+        Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(url));
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_DOCUMENT);
+        mFragment.startActivity(intent);
+    }
+
+    /**
+     * Open the copy of {@code url} in the {@link SlideStore} if there is one
+     * and something can show it, else {@code url} itself. The store is looked
+     * up on {@link #sExecutor}.
+     */
+    private void openSlides(final String url) {
+        final Context context = mFragment.getActivity();
+        if (context == null) {
+            return;
+        }
+        final Context appContext = context.getApplicationContext();
+        sExecutor.execute(() -> {
+            final SlideStore store = SlideStore.get(appContext);
+            final File deck = store.open(url);
+            final String type = deck != null ? store.getType(url) : null;
+            final Activity activity = mFragment.getActivity();
+            if (activity != null) {
+                activity.runOnUiThread(() -> {
+                    if (mFragment.isAdded() && !openLocalSlides(url, deck, type)) {
+                        openRemote(url);
+                    }
+                });
+            }
+        });
+    }
+
+    /** Show {@code deck}, the local copy of {@code url}, if any. Returns whether it did. */
+    private boolean openLocalSlides(String url, File deck, String type) {
+        final Context context = mFragment.getActivity();
+        if (deck == null || context == null) {
+            return false;
+        }
+        final Intent intent = new Intent(Intent.ACTION_VIEW);
+        intent.setDataAndType(FileProvider.getUriForFile(context, SLIDES_AUTHORITY, deck), type);
+        intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION | Intent.FLAG_ACTIVITY_NEW_DOCUMENT);
+        try {
+            mFragment.startActivity(intent);
+            return true;
+        } catch (ActivityNotFoundException e) {
+            Log.w(TAG, "No viewer for local slides, opening " + url);
+            return false;
+        }
+    }
+
+    /** Title for a material imported without one. */
+    private String fallbackTitle(String kind, String url, int count, int position) {
+        if (SessionMaterials.KIND_DRAFT.equals(kind)) {
+            // Use the draft file name from the URL
+            String name = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+            return name.substring(name.lastIndexOf('/') + 1);
+        }
+        final String label = mFragment.getString(R.string.session_link_pdf);
+        return count == 1 ? label : label + " " + position;
+    }
 }
 
 
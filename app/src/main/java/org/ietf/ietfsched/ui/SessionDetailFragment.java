@@ -31,7 +31,6 @@ import org.ietf.ietfsched.util.ParserUtils;
 import org.ietf.ietfsched.util.UIUtils;
 
 import android.content.BroadcastReceiver;
-import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
@@ -122,11 +121,12 @@ public class SessionDetailFragment extends Fragment implements
     private SessionNotesTabManager mNotesTabManager;
     private SessionJoinTabManager mJoinTabManager;
     private SessionDraftFetcher mDraftFetcher;
+    private String mContentAbstract;
 
     private boolean mSessionCursor = false;
     private boolean mSpeakersCursor = false;
     private boolean mHasSummaryContent = false;
-    private boolean mPendingStarredUpdate = false; // Track if a starred update is in progress
+    private StarQueue mStars;
     /** Ignore Join/side-meeting tab side-effects until TabHost setup has settled. */
     private boolean mTabHostReady = false;
 
@@ -143,6 +143,8 @@ public class SessionDetailFragment extends Fragment implements
         }
         
         mSessionId = ScheduleContract.Sessions.getSessionId(mSessionUri);
+        mStars = StarQueue.get(getActivity());
+        mStars.addListener(mStarsListener);
         
         // Retain fragment instance across configuration changes to preserve GeckoView state and tab selection
         setRetainInstance(true);
@@ -192,6 +194,17 @@ public class SessionDetailFragment extends Fragment implements
         }
         super.onPause();
         getActivity().unregisterReceiver(mPackageChangesReceiver);
+        if (mStars != null) {
+            mStars.flush();
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if (mStars != null) {
+            mStars.removeListener(mStarsListener);
+        }
     }
     
     @Override
@@ -218,21 +231,6 @@ public class SessionDetailFragment extends Fragment implements
         mHandler = new NotifyingAsyncQueryHandler(getActivity().getContentResolver(), this);
         mRemoteExecutor = new RemoteExecutor();
         
-        // Set up update listener to track database updates for testing
-        // This allows IdlingResources in tests to wait for updates to complete
-        mHandler.setUpdateListener(new NotifyingAsyncQueryHandler.AsyncUpdateListener() {
-            @Override
-            public void onUpdateComplete(int token, Object cookie, int result) {
-                // Clear pending flag when update completes
-                // Note: We don't re-query here because the UI is already correct (user clicked it)
-                // and re-querying immediately could cause race conditions if the database transaction
-                // hasn't fully committed yet. The UI will be refreshed naturally when the next
-                // query runs (e.g., from a sync or fragment refresh).
-                mPendingStarredUpdate = false;
-                Log.d(TAG, "onUpdateComplete: token=" + token + ", result=" + result + ", sessionId=" + mSessionId);
-            }
-        });
-        
         // Initialize draft fetcher now that RemoteExecutor is ready
         initializeDraftFetcher();
         
@@ -425,10 +423,8 @@ public class SessionDetailFragment extends Fragment implements
             mDraftFetcher = new SessionDraftFetcher(this, mSessionUri, mRemoteExecutor,
                 new Runnable() {
                     public void run() {
-                        // Re-query to refresh the Content tab
-                        if (mHandler != null && mSessionUri != null) {
-                            mHandler.startQuery(SessionsQuery._TOKEN, mSessionUri, SessionsQuery.PROJECTION);
-                        }
+                        // Re-query materials to refresh the Content tab
+                        startMaterialsQuery();
                     }
                 });
         }
@@ -445,17 +441,39 @@ public class SessionDetailFragment extends Fragment implements
     }
 
     /**
-     * Updates the Content tab with Internet drafts and presentation slides.
+     * Remember the abstract shown on the Content tab, then load the slides and
+     * drafts listed under it.
      */
     private void updateContentTab(Cursor cursor) {
-        if (mContentTabBuilder == null) {
-            Log.w(TAG, "updateContentTab: ContentTabBuilder not initialized");
-            return;
-        }
         // Side-meeting description lives under Agenda, not Content.
-        int abstractIndex = ParserUtils.isSideMeetingSessionId(mSessionId) ? -1 : SessionsQuery.ABSTRACT;
-        mContentTabBuilder.updateContentTab(cursor, SessionsQuery.PDF_URL, SessionsQuery.DRAFTS_URL,
-                abstractIndex);
+        mContentAbstract = ParserUtils.isSideMeetingSessionId(mSessionId)
+                ? null : cursor.getString(SessionsQuery.ABSTRACT);
+        startMaterialsQuery();
+    }
+
+    private void startMaterialsQuery() {
+        if (mHandler != null && mSessionUri != null) {
+            mHandler.startQuery(MaterialsQuery._TOKEN, null,
+                    ScheduleContract.Sessions.buildMaterialsDirUri(mSessionUri),
+                    MaterialsQuery.PROJECTION, null, null,
+                    ScheduleContract.SessionMaterials.DEFAULT_SORT);
+        }
+    }
+
+    /**
+     * Updates the Content tab with presentation slides and Internet drafts.
+     */
+    private void onMaterialsQueryComplete(Cursor cursor) {
+        try {
+            if (mContentTabBuilder == null) {
+                Log.w(TAG, "onMaterialsQueryComplete: ContentTabBuilder not initialized");
+                return;
+            }
+            mContentTabBuilder.updateContentTab(mContentAbstract, cursor, MaterialsQuery.KIND,
+                    MaterialsQuery.TITLE, MaterialsQuery.URL);
+        } finally {
+            cursor.close();
+        }
     }
 
 
@@ -516,6 +534,8 @@ public class SessionDetailFragment extends Fragment implements
 
         if (token == SessionsQuery._TOKEN) {
             onSessionQueryComplete(cursor);
+        } else if (token == MaterialsQuery._TOKEN) {
+            onMaterialsQueryComplete(cursor);
         } else {
             cursor.close();
         }
@@ -562,17 +582,10 @@ public class SessionDetailFragment extends Fragment implements
 
             mRoomId = cursor.getString(SessionsQuery.ROOM_ID);
 
-            // Unregister around setting checked state to avoid triggering
-            // listener since change isn't user generated.
-            // However, don't overwrite the checkbox if there's a pending update
-            // to prevent race conditions where a user click gets overwritten.
-            if (!mPendingStarredUpdate) {
-                mStarred.setOnCheckedChangeListener(null);
-                mStarred.setChecked(cursor.getInt(SessionsQuery.STARRED) != 0);
-                mStarred.setOnCheckedChangeListener(this);
-            } else {
-                Log.d(TAG, "onSessionQueryComplete: Skipping checkbox update due to pending starred update");
-            }
+            // A toggle not yet written wins over the stored star, so a
+            // requery can't undo the user's click.
+            setStarredChecked(mStars.isStarred(mSessionId,
+                    cursor.getInt(SessionsQuery.STARRED) != 0));
 
             updateAgendaTab(cursor);
             updateContentTab(cursor);
@@ -675,18 +688,35 @@ public class SessionDetailFragment extends Fragment implements
     }
 
     /**
-     * Handle toggling of starred checkbox.
+     * Handle toggling of starred checkbox. The star is written in the
+     * background, batched with any other toggles.
      */
     public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
         Log.d(TAG, "onCheckedChanged: isChecked=" + isChecked + ", sessionId=" + mSessionId);
-        // Mark that we have a pending update to prevent race conditions
-        mPendingStarredUpdate = true;
-        final ContentValues values = new ContentValues();
-        values.put(ScheduleContract.Sessions.SESSION_STARRED, isChecked ? 1 : 0);
-        mHandler.startUpdate(mSessionUri, values);
-        Log.d(TAG, "onCheckedChanged: Started database update");
+        mStars.setStarred(mSessionId, isChecked);
     }
 
+    /**
+     * Set the star checkbox without triggering {@link #onCheckedChanged},
+     * since the change isn't user generated.
+     */
+    private void setStarredChecked(boolean starred) {
+        if (mStarred == null) return;
+        mStarred.setOnCheckedChangeListener(null);
+        mStarred.setChecked(starred);
+        mStarred.setOnCheckedChangeListener(this);
+    }
+
+    /** Follows stars toggled elsewhere, such as the list beside this pane. */
+    private final StarQueue.Listener mStarsListener = new StarQueue.Listener() {
+        @Override
+        public void onStarredChanged(String sessionId, boolean starred) {
+            if (TextUtils.equals(sessionId, mSessionId)) {
+                setStarredChecked(starred);
+            }
+        }
+    };
+
     /**
      * Build and add "notes" tab.
      */
@@ -979,8 +1009,6 @@ public class SessionDetailFragment extends Fragment implements
                 ScheduleContract.Sessions.SESSION_URL,
                 ScheduleContract.Sessions.SESSION_MODERATOR_URL,
                 ScheduleContract.Sessions.SESSION_YOUTUBE_URL,
-                ScheduleContract.Sessions.SESSION_PDF_URL,
-                ScheduleContract.Sessions.SESSION_DRAFTS_URL,
                 ScheduleContract.Sessions.SESSION_RES_URI,
                 ScheduleContract.Sessions.SESSION_FEEDBACK_URL,
                 ScheduleContract.Sessions.SESSION_NOTES_URL,
@@ -1001,19 +1029,16 @@ public class SessionDetailFragment extends Fragment implements
         int SESSION_URL = 9;
         int MODERATOR_URL = 10;
         int YOUTUBE_URL = 11;
-        int PDF_URL = 12;
-        int DRAFTS_URL = 13;
-        int RES_URI = 14;
-        int FEEDBACK_URL = 15;
-        int NOTES_URL = 16;
-        int IS_BOF = 17;
-        int ROOM_ID = 18;
-        int ROOM_NAME = 19;
+        int RES_URI = 12;
+        int FEEDBACK_URL = 13;
+        int NOTES_URL = 14;
+        int IS_BOF = 15;
+        int ROOM_ID = 16;
+        int ROOM_NAME = 17;
 
         int[] LINKS_INDICES = {
                 SESSION_URL,
                 YOUTUBE_URL,
-                PDF_URL,
                 FEEDBACK_URL,
                 NOTES_URL,
         };
@@ -1021,12 +1046,28 @@ public class SessionDetailFragment extends Fragment implements
         int[] LINKS_TITLES = {
                 R.string.session_link_main,
                 R.string.session_link_youtube,
-                R.string.session_link_pdf,
                 R.string.session_link_feedback,
                 R.string.session_link_notes,
         };
     }
 
+    /**
+     * {@link org.ietf.ietfsched.provider.ScheduleContract.SessionMaterials} query parameters.
+     */
+    private interface MaterialsQuery {
+        int _TOKEN = 0x2;
+
+        String[] PROJECTION = {
+                ScheduleContract.SessionMaterials.MATERIAL_KIND,
+                ScheduleContract.SessionMaterials.MATERIAL_TITLE,
+                ScheduleContract.SessionMaterials.MATERIAL_URL,
+        };
+
+        int KIND = 0;
+        int TITLE = 1;
+        int URL = 2;
+    }
+
     /**
      * {@link org.ietf.ietfsched.provider.ScheduleContract.Tracks} query parameters.
      */
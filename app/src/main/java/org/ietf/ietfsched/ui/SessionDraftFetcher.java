@@ -16,7 +16,8 @@
 
 package org.ietf.ietfsched.ui;
 
-import android.content.ContentValues;
+import android.content.ContentProviderOperation;
+import android.content.ContentResolver;
 import android.database.Cursor;
 import android.net.Uri;
 import android.os.Handler;
@@ -30,14 +31,19 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+
 /**
  * Handles fetching and parsing Internet drafts for sessions.
  */
 public class SessionDraftFetcher {
     private static final String TAG = "SessionDraftFetcher";
+    /** {@link ScheduleContract.SessionMaterials#MATERIAL_ORDER} of fetched drafts, after slides. */
+    private static final int DRAFTS_ORDER = 1000;
     
     private final Fragment mFragment;
     private final Uri mSessionUri;
+    private final Uri mMaterialsUri;
     private final RemoteExecutor mRemoteExecutor;
     private final Runnable mOnDraftsFetchedCallback;
     private boolean mDraftsFetched = false;
@@ -46,6 +52,7 @@ public class SessionDraftFetcher {
             Runnable onDraftsFetchedCallback) {
         mFragment = fragment;
         mSessionUri = sessionUri;
+        mMaterialsUri = ScheduleContract.Sessions.buildMaterialsDirUri(sessionUri);
         mRemoteExecutor = remoteExecutor;
         mOnDraftsFetchedCallback = onDraftsFetchedCallback;
     }
@@ -61,21 +68,29 @@ public class SessionDraftFetcher {
         }
 
         // Check if drafts are already in database, and get session_res_uri
+        final ContentResolver resolver = mFragment.getActivity().getContentResolver();
         Cursor cursor = null;
         String sessionResUri = null;
+        long sessionUpdated = 0;
         try {
-            cursor = mFragment.getActivity().getContentResolver().query(
-                mSessionUri,
-                new String[]{ScheduleContract.Sessions.SESSION_DRAFTS_URL, ScheduleContract.Sessions.SESSION_RES_URI},
+            cursor = resolver.query(mMaterialsUri,
+                new String[]{ScheduleContract.SessionMaterials._ID},
+                ScheduleContract.SessionMaterials.MATERIAL_KIND + "=?",
+                new String[]{ScheduleContract.SessionMaterials.KIND_DRAFT}, null);
+            if (cursor != null && cursor.getCount() > 0) {
+                // Drafts already exist in database, no need to fetch
+                mDraftsFetched = true;
+                return;
+            }
+            if (cursor != null) {
+                cursor.close();
+            }
+            cursor = resolver.query(mSessionUri,
+                new String[]{ScheduleContract.Sessions.SESSION_RES_URI, ScheduleContract.Sessions.UPDATED},
                 null, null, null);
             if (cursor != null && cursor.moveToFirst()) {
-                String draftsUrl = cursor.getString(0);
-                sessionResUri = cursor.getString(1);
-                if (!TextUtils.isEmpty(draftsUrl)) {
-                    // Drafts already exist in database, no need to fetch
-                    mDraftsFetched = true;
-                    return;
-                }
+                sessionResUri = cursor.getString(0);
+                sessionUpdated = cursor.getLong(1);
             }
         } catch (Exception e) {
             Log.w(TAG, "fetchDraftsOnDemand: Error checking database", e);
@@ -96,6 +111,7 @@ public class SessionDraftFetcher {
 
         // Fetch drafts in background thread
         final String finalSessionResUri = sessionResUri;
+        final long finalSessionUpdated = sessionUpdated;
         new Thread(new Runnable() {
             @Override
             public void run() {
@@ -108,10 +124,9 @@ public class SessionDraftFetcher {
                             // Parse drafts from materials array
                             java.util.List<String> draftList = parseDraftsFromMaterials(materialsArray);
                             if (draftList != null && draftList.size() > 0) {
-                                // Update database with drafts
-                                ContentValues values = new ContentValues();
-                                values.put(ScheduleContract.Sessions.SESSION_DRAFTS_URL, TextUtils.join("::", draftList));
-                                mFragment.getActivity().getContentResolver().update(mSessionUri, values, null, null);
+                                // Upsert one material row per draft, after any slides
+                                resolver.applyBatch(ScheduleContract.CONTENT_AUTHORITY,
+                                        buildDraftOperations(draftList, finalSessionUpdated));
                                 
                                 // Notify callback on UI thread
                                 if (mOnDraftsFetchedCallback != null) {
@@ -128,6 +143,28 @@ public class SessionDraftFetcher {
         }).start();
     }
     
+    /**
+     * Build inserts for drafts in "draft-name|||url" format. They carry the
+     * session's sync version so the next import replaces or purges them.
+     */
+    private ArrayList<ContentProviderOperation> buildDraftOperations(
+            java.util.List<String> draftList, long sessionUpdated) {
+        final ArrayList<ContentProviderOperation> batch = new ArrayList<>();
+        for (int i = 0; i < draftList.size(); i++) {
+            final String[] parts = draftList.get(i).split("\\|\\|\\|", 2);
+            batch.add(ContentProviderOperation.newInsert(mMaterialsUri)
+                    .withValue(ScheduleContract.SessionMaterials.UPDATED, sessionUpdated)
+                    .withValue(ScheduleContract.SessionMaterials.MATERIAL_KIND,
+                            ScheduleContract.SessionMaterials.KIND_DRAFT)
+                    .withValue(ScheduleContract.SessionMaterials.MATERIAL_TITLE, parts[0])
+                    .withValue(ScheduleContract.SessionMaterials.MATERIAL_URL,
+                            parts.length > 1 ? parts[1] : parts[0])
+                    .withValue(ScheduleContract.SessionMaterials.MATERIAL_ORDER, DRAFTS_ORDER + i)
+                    .build());
+        }
+        return batch;
+    }
+
     /**
      * Parse Internet drafts from a materials JSONArray.
      * Returns a list of draft entries in "draft-name|||url" format, where draft-name is the raw draft identifier (e.g., "draft-ietf-6man-enhanced-vpn-vtn-id").
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import org.ietf.ietfsched.provider.ScheduleContract;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads a long session list a page at a time and keeps only a window of it
+ * in memory.
+ * <p>
+ * The first page shows as soon as it is read, whatever the size of the
+ * meeting. Further pages are read as the user scrolls near either edge of the
+ * window, keyed on the last row seen in {@link Sessions#KEYSET_SORT} order
+ * rather than by offset, so every page costs the same. Once the window holds
+ * {@link #MAX_PAGES}, the page farthest from the reading edge is dropped.
+ * <p>
+ * Create and use from the main thread; pages are read on the given executor.
+ */
+final class SessionPager {
+    private static final String TAG = "SessionPager";
+
+    static final int PAGE_SIZE = 50;
+    static final int MAX_PAGES = 5;
+    /** Rows from either edge of the window at which the next page is read. */
+    static final int PREFETCH_DISTANCE = PAGE_SIZE / 2;
+
+    /** Receives each new window on the main thread. */
+    interface Listener {
+        void onWindowChanged(List<SessionRow> rows);
+    }
+
+    private final Context mContext;
+    private final Uri mUri;
+    private final Executor mExecutor;
+    private final Listener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final LinkedList<List<SessionRow>> mPages = new LinkedList<>();
+    private boolean mAtStart;
+    private boolean mAtEnd;
+    private boolean mLoading;
+    /** Bumped on every reload, so pages read for an older window are dropped. */
+    private int mGeneration;
+
+    SessionPager(Context context, Uri uri, Executor executor, Listener listener) {
+        mContext = context.getApplicationContext();
+        mUri = uri;
+        mExecutor = executor;
+        mListener = listener;
+    }
+
+    /** Read the window again from its first row, after the data changed. */
+    void reload() {
+        mGeneration++;
+        mLoading = true;
+        final int generation = mGeneration;
+        final SessionRow first = mAtStart || mPages.isEmpty() ? null : mPages.getFirst().get(0);
+        final int limit = Math.max(1, mPages.size()) * PAGE_SIZE;
+        read(first == null ? null : Sessions.KEYSET_FROM, first, Sessions.KEYSET_SORT, limit,
+                new Callback() {
+                    @Override
+                    public void onRead(List<SessionRow> rows) {
+                        if (generation != mGeneration) return;
+                        mLoading = false;
+                        mPages.clear();
+                        for (int i = 0; i < rows.size(); i += PAGE_SIZE) {
+                            mPages.add(rows.subList(i, Math.min(rows.size(), i + PAGE_SIZE)));
+                        }
+                        if (first == null) mAtStart = true;
+                        mAtEnd = rows.size() < limit;
+                        publish();
+                    }
+                });
+    }
+
+    /** Drop any page still being read; the pager is not used again. */
+    void cancel() {
+        mGeneration++;
+    }
+
+    /**
+     * Read more of the list if {@code first} to {@code last}, the positions
+     * on screen, come near an edge of the window.
+     */
+    void onVisibleRange(int first, int last) {
+        if (mLoading || mPages.isEmpty() || first < 0) return;
+        if (!mAtEnd && last >= size() - PREFETCH_DISTANCE) {
+            readNext();
+        } else if (!mAtStart && first <= PREFETCH_DISTANCE) {
+            readPrevious();
+        }
+    }
+
+    /** Replace the star of {@code sessionId}, if it is in the window. */
+    void setStarred(String sessionId, boolean starred) {
+        boolean changed = false;
+        for (int p = 0; p < mPages.size(); p++) {
+            final List<SessionRow> page = mPages.get(p);
+            for (int i = 0; i < page.size(); i++) {
+                final SessionRow row = page.get(i);
+                if (TextUtils.equals(sessionId, row.sessionId) && row.starred != starred) {
+                    final ArrayList<SessionRow> updated = new ArrayList<>(page);
+                    updated.set(i, row.withStarred(starred));
+                    mPages.set(p, updated);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (changed) publish();
+    }
+
+    private void readNext() {
+        mLoading = true;
+        final int generation = mGeneration;
+        final List<SessionRow> lastPage = mPages.getLast();
+        read(Sessions.KEYSET_AFTER, lastPage.get(lastPage.size() - 1), Sessions.KEYSET_SORT,
+                PAGE_SIZE, new Callback() {
+                    @Override
+                    public void onRead(List<SessionRow> rows) {
+                        if (generation != mGeneration) return;
+                        mLoading = false;
+                        mAtEnd = rows.size() < PAGE_SIZE;
+                        if (rows.isEmpty()) return;
+                        mPages.addLast(rows);
+                        if (mPages.size() > MAX_PAGES) {
+                            mPages.removeFirst();
+                            mAtStart = false;
+                        }
+                        publish();
+                    }
+                });
+    }
+
+    private void readPrevious() {
+        mLoading = true;
+        final int generation = mGeneration;
+        read(Sessions.KEYSET_BEFORE, mPages.getFirst().get(0), Sessions.KEYSET_SORT_REVERSE,
+                PAGE_SIZE, new Callback() {
+                    @Override
+                    public void onRead(List<SessionRow> rows) {
+                        if (generation != mGeneration) return;
+                        mLoading = false;
+                        mAtStart = rows.size() < PAGE_SIZE;
+                        if (rows.isEmpty()) return;
+                        final ArrayList<SessionRow> page = new ArrayList<>(rows);
+                        Collections.reverse(page);
+                        mPages.addFirst(page);
+                        if (mPages.size() > MAX_PAGES) {
+                            mPages.removeLast();
+                            mAtEnd = false;
+                        }
+                        publish();
+                    }
+                });
+    }
+
+    private int size() {
+        int size = 0;
+        for (List<SessionRow> page : mPages) {
+            size += page.size();
+        }
+        return size;
+    }
+
+    private void publish() {
+        final ArrayList<SessionRow> window = new ArrayList<>(size());
+        for (List<SessionRow> page : mPages) {
+            window.addAll(page);
+        }
+        mListener.onWindowChanged(Collections.unmodifiableList(window));
+    }
+
+    private interface Callback {
+        void onRead(List<SessionRow> rows);
+    }
+
+    /**
+     * Read up to {@code limit} rows in {@code sortOrder}, keyed on {@code key}
+     * through {@code keyset} unless it is null, and hand them to
+     * {@code callback} on the main thread, or null if the read failed.
+     */
+    private void read(final String keyset, final SessionRow key, final String sortOrder,
+            final int limit, final Callback callback) {
+        final String[] args = keyset == null ? null
+                : Sessions.buildKeysetArgs(key.blockStart, key.title, key.sessionId);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final ArrayList<SessionRow> rows = new ArrayList<>(limit);
+                final Cursor cursor;
+                try {
+                    cursor = mContext.getContentResolver().query(
+                            ScheduleContract.buildLimitUri(mUri, limit),
+                            SessionRow.SessionsQuery.PROJECTION, keyset, args, sortOrder);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Reading sessions failed", e);
+                    post(callback, null);
+                    return;
+                }
+                if (cursor != null) {
+                    try {
+                        while (cursor.moveToNext()) {
+                            rows.add(SessionRow.fromSessions(cursor, mContext));
+                        }
+                    } finally {
+                        cursor.close();
+                    }
+                }
+                post(callback, rows);
+            }
+        });
+    }
+
+    private void post(final Callback callback, final List<SessionRow> rows) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (rows == null) {
+                    // Leave the window as it is; scrolling tries again.
+                    mLoading = false;
+                    return;
+                }
+                callback.onRead(rows);
+            }
+        });
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import org.ietf.ietfsched.provider.ScheduleContract;
+import org.ietf.ietfsched.util.ParserUtils;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.provider.BaseColumns;
+import android.text.TextUtils;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import static org.ietf.ietfsched.util.UIUtils.buildStyledSnippet;
+import static org.ietf.ietfsched.util.UIUtils.formatSessionSubtitle;
+
+/**
+ * One row of a session list, read and formatted off the main thread so
+ * binding it only sets text. Rows are immutable; a change replaces the row
+ * and {@link #DIFF} works out what to rebind.
+ */
+final class SessionRow {
+    /** Change payload for a row whose only difference is its star. */
+    static final Object PAYLOAD_STARRED = new Object();
+
+    /** Rows are the same session when their ids match, and unchanged when all they show is. */
+    static final DiffUtil.ItemCallback<SessionRow> DIFF = new DiffUtil.ItemCallback<SessionRow>() {
+        @Override
+        public boolean areItemsTheSame(SessionRow oldRow, SessionRow newRow) {
+            return oldRow.id == newRow.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(SessionRow oldRow, SessionRow newRow) {
+            return oldRow.starred == newRow.starred && oldRow.sameText(newRow);
+        }
+
+        @Override
+        public Object getChangePayload(SessionRow oldRow, SessionRow newRow) {
+            return oldRow.sameText(newRow) ? PAYLOAD_STARRED : null;
+        }
+    };
+
+    final long id;
+    final String sessionId;
+    final String title;
+    final CharSequence subtitle;
+    final boolean starred;
+    final boolean bof;
+    final boolean side;
+    /** Start of the session's block, or 0 for search hits. */
+    final long blockStart;
+    /** End of the session's block, or 0 for search hits, which aren't dimmed. */
+    final long blockEnd;
+
+    private SessionRow(long id, String sessionId, String title, CharSequence subtitle,
+            boolean starred, boolean bof, long blockStart, long blockEnd) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.starred = starred;
+        this.bof = bof;
+        this.side = ParserUtils.isSideMeetingSessionId(sessionId);
+        this.blockStart = blockStart;
+        this.blockEnd = blockEnd;
+    }
+
+    /** Read the row at the position of a {@link SessionsQuery} cursor. */
+    static SessionRow fromSessions(Cursor cursor, Context context) {
+        final long blockStart = cursor.getLong(SessionsQuery.BLOCK_START);
+        final long blockEnd = cursor.getLong(SessionsQuery.BLOCK_END);
+        final String subtitle = formatSessionSubtitle(blockStart, blockEnd,
+                cursor.getString(SessionsQuery.ROOM_NAME), context);
+        return new SessionRow(cursor.getLong(SessionsQuery._ID),
+                cursor.getString(SessionsQuery.SESSION_ID), cursor.getString(SessionsQuery.TITLE),
+                subtitle, cursor.getInt(SessionsQuery.STARRED) != 0,
+                cursor.getInt(SessionsQuery.IS_BOF) != 0, blockStart, blockEnd);
+    }
+
+    /** Read the row at the position of a {@link SearchQuery} cursor. */
+    static SessionRow fromSearch(Cursor cursor) {
+        final String snippet = cursor.getString(SearchQuery.SEARCH_SNIPPET);
+        return new SessionRow(cursor.getLong(SearchQuery._ID),
+                cursor.getString(SearchQuery.SESSION_ID), cursor.getString(SearchQuery.TITLE),
+                snippet != null ? buildStyledSnippet(snippet) : "",
+                cursor.getInt(SearchQuery.STARRED) != 0, cursor.getInt(SearchQuery.IS_BOF) != 0,
+                0, 0);
+    }
+
+    /** This row with its star set to {@code starred}. */
+    SessionRow withStarred(boolean starred) {
+        if (starred == this.starred) return this;
+        return new SessionRow(id, sessionId, title, subtitle, starred, bof, blockStart, blockEnd);
+    }
+
+    private boolean sameText(SessionRow other) {
+        return bof == other.bof && blockStart == other.blockStart && blockEnd == other.blockEnd
+                && TextUtils.equals(sessionId, other.sessionId)
+                && TextUtils.equals(title, other.title)
+                && TextUtils.equals(subtitle, other.subtitle);
+    }
+
+    /**
+     * {@link org.ietf.ietfsched.provider.ScheduleContract.Sessions} query parameters.
+     */
+    interface SessionsQuery {
+        String[] PROJECTION = {
+                BaseColumns._ID,
+                ScheduleContract.Sessions.SESSION_ID,
+                ScheduleContract.Sessions.SESSION_TITLE,
+                ScheduleContract.Sessions.SESSION_STARRED,
+                ScheduleContract.Sessions.SESSION_IS_BOF,
+                ScheduleContract.Blocks.BLOCK_START,
+                ScheduleContract.Blocks.BLOCK_END,
+                ScheduleContract.Rooms.ROOM_NAME,
+        };
+
+        int _ID = 0;
+        int SESSION_ID = 1;
+        int TITLE = 2;
+        int STARRED = 3;
+        int IS_BOF = 4;
+        int BLOCK_START = 5;
+        int BLOCK_END = 6;
+        int ROOM_NAME = 7;
+    }
+
+    /** {@link org.ietf.ietfsched.provider.ScheduleContract.Sessions} search query
+     * parameters. */
+    interface SearchQuery {
+        String[] PROJECTION = {
+                BaseColumns._ID,
+                ScheduleContract.Sessions.SESSION_ID,
+                ScheduleContract.Sessions.SESSION_TITLE,
+                ScheduleContract.Sessions.SEARCH_SNIPPET,
+                ScheduleContract.Sessions.SESSION_STARRED,
+                ScheduleContract.Sessions.SESSION_IS_BOF,
+        };
+
+        int _ID = 0;
+        int SESSION_ID = 1;
+        int TITLE = 2;
+        int SEARCH_SNIPPET = 3;
+        int STARRED = 4;
+        int IS_BOF = 5;
+    }
+}
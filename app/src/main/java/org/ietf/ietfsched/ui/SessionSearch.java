@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+import android.text.TextUtils;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs session searches as the user types, without touching the main thread.
+ * <p>
+ * Keystrokes are debounced, and a query that is superseded before it finishes
+ * is canceled through its {@link CancellationSignal} and never delivered. When
+ * a query only extends the previous one ("qu" to "quic"), the index is asked
+ * for the matching session ids alone, in rank order, and the previous rows
+ * are narrowed to them rather than reading and formatting every row again.
+ * The index is porter-stemmed, so a longer query can match sessions the
+ * shorter one did not; when an id is missing from the previous rows, they
+ * are read afresh.
+ * <p>
+ * Create, use and {@link #cancel()} from the main thread.
+ */
+final class SessionSearch {
+    private static final String TAG = "SessionSearch";
+
+    /** Pause in typing before a search runs. */
+    static final long DEBOUNCE_MS = 250;
+
+    private static final String[] ID_PROJECTION = { Sessions.SESSION_ID };
+
+    /** Receives results on the main thread. */
+    interface Listener {
+        /**
+         * @param rows matching sessions, or null when the query is empty and
+         *             the full list should show again.
+         */
+        void onSearchResult(String query, List<SessionRow> rows);
+    }
+
+    private final Context mContext;
+    private final ContentResolver mResolver;
+    private final Executor mExecutor;
+    private final Listener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** Bumped for every new query; older work checks it and gives up. */
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    private CancellationSignal mSignal;
+    private String mQuery = "";
+
+    /** Last results read from the provider. Only touched on the worker. */
+    private Snapshot mSnapshot;
+
+    private final Runnable mDebounced = new Runnable() {
+        @Override
+        public void run() {
+            start(false);
+        }
+    };
+
+    /**
+     * @param executor runs searches; a single thread keeps them from
+     *                 overtaking each other.
+     */
+    SessionSearch(Context context, Executor executor, Listener listener) {
+        mContext = context.getApplicationContext();
+        mResolver = mContext.getContentResolver();
+        mExecutor = executor;
+        mListener = listener;
+    }
+
+    /** Search for {@code text} once typing pauses. */
+    void setQuery(String text) {
+        final String query = text == null ? "" : text.trim();
+        mHandler.removeCallbacks(mDebounced);
+        if (query.equals(mQuery)) return;
+        mQuery = query;
+        if (query.isEmpty()) {
+            supersede();
+            mListener.onSearchResult(query, null);
+            return;
+        }
+        mHandler.postDelayed(mDebounced, DEBOUNCE_MS);
+    }
+
+    /** Whether a non-empty query is in effect. */
+    boolean isActive() {
+        return !mQuery.isEmpty();
+    }
+
+    /** Search the provider again for the current query, after the data changed. */
+    void refresh() {
+        if (!isActive()) return;
+        mHandler.removeCallbacks(mDebounced);
+        start(true);
+    }
+
+    /**
+     * Record a star toggled since the last search, so results narrowed from
+     * it don't bring back the old state.
+     */
+    void setStarred(final String sessionId, final boolean starred) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mSnapshot == null) return;
+                final List<SessionRow> rows = mSnapshot.rows;
+                for (int i = 0; i < rows.size(); i++) {
+                    if (TextUtils.equals(sessionId, rows.get(i).sessionId)) {
+                        rows.set(i, rows.get(i).withStarred(starred));
+                    }
+                }
+            }
+        });
+    }
+
+    /** Abandon pending and running searches, and forget the query. */
+    void cancel() {
+        mHandler.removeCallbacks(mDebounced);
+        mQuery = "";
+        supersede();
+    }
+
+    /** Invalidate older work and cancel its query; returns the new generation. */
+    private int supersede() {
+        if (mSignal != null) {
+            mSignal.cancel();
+            mSignal = null;
+        }
+        return mGeneration.incrementAndGet();
+    }
+
+    private void start(final boolean reload) {
+        final String query = mQuery;
+        final int generation = supersede();
+        final CancellationSignal signal = new CancellationSignal();
+        mSignal = signal;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration.get()) return;
+                final String[] tokens = tokenize(query);
+                Snapshot snapshot = null;
+                if (!reload && mSnapshot != null && narrows(mSnapshot.tokens, tokens)) {
+                    final List<String> ids = loadIds(query, signal);
+                    if (ids == null) return;
+                    final List<SessionRow> rows = keep(mSnapshot.rows, ids);
+                    if (rows != null) {
+                        snapshot = new Snapshot(tokens, rows);
+                    }
+                }
+                if (snapshot == null) {
+                    snapshot = load(query, tokens, signal);
+                    if (snapshot == null) return;
+                }
+                mSnapshot = snapshot;
+                deliver(generation, query, Collections.unmodifiableList(
+                        new ArrayList<>(snapshot.rows)));
+            }
+        });
+    }
+
+    /** Read matching rows from the provider, or null if canceled or failed. */
+    private Snapshot load(String query, String[] tokens, CancellationSignal signal) {
+        final Cursor cursor = search(query, SessionRow.SessionsQuery.PROJECTION,
+                Sessions.DEFAULT_SORT, signal);
+        if (cursor == null) return null;
+        try {
+            final ArrayList<SessionRow> rows = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                if (signal.isCanceled()) return null;
+                rows.add(SessionRow.fromSessions(cursor, mContext));
+            }
+            return new Snapshot(tokens, rows);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /** Read the ids of matching sessions in rank order, or null if canceled or failed. */
+    private List<String> loadIds(String query, CancellationSignal signal) {
+        final Cursor cursor = search(query, ID_PROJECTION, Sessions.DEFAULT_SORT, signal);
+        if (cursor == null) return null;
+        try {
+            final List<String> ids = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                if (signal.isCanceled()) return null;
+                ids.add(cursor.getString(0));
+            }
+            return ids;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private Cursor search(String query, String[] projection, String sortOrder,
+            CancellationSignal signal) {
+        try {
+            return mResolver.query(Sessions.buildSearchUri(query), projection, null, null,
+                    sortOrder, signal);
+        } catch (OperationCanceledException e) {
+            return null;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Search for '" + query + "' failed", e);
+            return null;
+        }
+    }
+
+    private void deliver(final int generation, final String query, final List<SessionRow> rows) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration.get()) return;
+                mSignal = null;
+                mListener.onSearchResult(query, rows);
+            }
+        });
+    }
+
+    /**
+     * Whether results for {@code next} are likely a subset of those for
+     * {@code previous}: each earlier token only grew, and any new ones follow.
+     * Stemming can still widen them, which {@link #keep} catches.
+     */
+    static boolean narrows(String[] previous, String[] next) {
+        if (previous.length == 0 || next.length < previous.length) return false;
+        for (int i = 0; i < previous.length; i++) {
+            if (!next[i].startsWith(previous[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The rows of the sessions in {@code ids}, in that order, or null if some
+     * of {@code ids} are not among {@code rows}.
+     */
+    static List<SessionRow> keep(List<SessionRow> rows, List<String> ids) {
+        final Map<String, SessionRow> byId = new HashMap<>(rows.size() * 2);
+        for (SessionRow row : rows) {
+            byId.put(row.sessionId, row);
+        }
+        final ArrayList<SessionRow> kept = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            final SessionRow row = byId.get(id);
+            if (row == null) return null;
+            kept.add(row);
+        }
+        return kept;
+    }
+
+    /** Lowercase words, split the way the provider splits a search query. */
+    static String[] tokenize(String text) {
+        if (text == null) return new String[0];
+        final String trimmed = text.toLowerCase(Locale.ROOT)
+                .replaceAll("^[^\\p{L}\\p{N}]+", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("[^\\p{L}\\p{N}]+");
+    }
+
+    /** Rows of a search and the query tokens they answer. */
+    private static final class Snapshot {
+        final String[] tokens;
+        final List<SessionRow> rows;
+
+        Snapshot(String[] tokens, List<SessionRow> rows) {
+            this.tokens = tokens;
+            this.rows = rows;
+        }
+    }
+}
@@ -18,11 +18,12 @@ package org.ietf.ietfsched.ui;
 import org.ietf.ietfsched.R;
 import org.ietf.ietfsched.provider.ScheduleContract;
 import org.ietf.ietfsched.ui.phone.SessionDetailActivity;
-import org.ietf.ietfsched.util.ActivityHelper;
 import org.ietf.ietfsched.util.NotifyingAsyncQueryHandler;
-import org.ietf.ietfsched.util.ParserUtils;
 import org.ietf.ietfsched.util.UIUtils;
 
+import android.app.SearchManager;
+import android.content.ContentResolver;
+import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.database.ContentObserver;
@@ -31,33 +32,68 @@ import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.SystemClock;
-import android.provider.BaseColumns;
-import androidx.fragment.app.ListFragment;
-import android.text.Spannable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import android.text.TextUtils;
 import android.util.Log;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.CursorAdapter;
-import android.widget.ListView;
+import android.widget.AdapterView;
+import android.widget.AutoCompleteTextView;
+import android.widget.CheckBox;
+import android.widget.FilterQueryProvider;
+import android.widget.SimpleCursorAdapter;
 import android.widget.TextView;
 
-import static org.ietf.ietfsched.util.UIUtils.buildStyledSnippet;
-import static org.ietf.ietfsched.util.UIUtils.formatSessionSubtitle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A {@link ListFragment} showing a list of sessions.
+ * A {@link Fragment} showing a list of sessions.
+ * <p>
+ * Rows are read and formatted on a worker thread into immutable
+ * {@link SessionRow}s, and each new list is diffed against the shown one in
+ * the background, so a sync or star toggle only rebinds the rows it changed.
  */
-public class SessionsFragment extends ListFragment implements NotifyingAsyncQueryHandler.AsyncQueryListener {
+public class SessionsFragment extends Fragment implements NotifyingAsyncQueryHandler.AsyncQueryListener {
 
     public static final String EXTRA_SCHEDULE_TIME_STRING = "org.ietf.ietfsched.extra.SCHEDULE_TIME_STRING";
-    private static final String STATE_CHECKED_POSITION = "checkedPosition";
+    private static final String STATE_CHECKED_SESSION = "checkedSession";
     private static final String TAG = "SessionsFragment";
     private static final boolean debug = true;
 
-    private Cursor mCursor;
-    private CursorAdapter mAdapter;
-    private int mCheckedPosition = -1;
-    private boolean mHasSetEmptyText = false;
+    /** Rebind only the title colors, which change as sessions end. */
+    private static final Object PAYLOAD_TIME = new Object();
+    /** Rebind only the checked highlight. */
+    private static final Object PAYLOAD_CHECKED = new Object();
+
+    /** Reads lists and runs searches, one at a time. */
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private SessionsAdapter mAdapter;
+    private RecyclerView mList;
+    private View mEmptyView;
+    private Uri mSessionsUri;
+
+    /** Rows of {@link #mSessionsUri}, or null until first read. */
+    private List<SessionRow> mRows;
+    /** Reads the full list a window at a time; null for the shorter lists, read whole. */
+    private SessionPager mPager;
+    /** Results of the search box while it holds a query, shown instead of {@link #mRows}. */
+    private List<SessionRow> mSearchRows;
+    private SessionSearch mSearch;
+    private StarQueue mStars;
+
+    /** Bumped for every load; older loads are dropped on arrival. */
+    private final AtomicInteger mLoadGeneration = new AtomicInteger();
+    private String mCheckedSessionId;
 
     private NotifyingAsyncQueryHandler mHandler;
     private final Handler mMessageQueueHandler = new Handler();
@@ -66,219 +102,305 @@ public class SessionsFragment extends ListFragment implements NotifyingAsyncQuer
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         mHandler = new NotifyingAsyncQueryHandler(getActivity().getContentResolver(), this);
+        mAdapter = new SessionsAdapter();
+        mStars = StarQueue.get(getActivity());
+        mStars.addListener(mStarsListener);
+        if (savedInstanceState != null) {
+            mCheckedSessionId = savedInstanceState.getString(STATE_CHECKED_SESSION);
+        }
         reloadFromArguments(getArguments());
     }
 
     public void reloadFromArguments(Bundle arguments) {
         // Teardown from previous arguments
-        if (debug) Log.d(TAG, "reloadFromArguments" + mCheckedPosition);
-        if (mCursor != null && getActivity() != null) {
-            try {
-                getActivity().stopManagingCursor(mCursor);
-            } catch (Exception e) {
-                // Ignore if cursor was already stopped or activity is being destroyed
-                if (debug) Log.d(TAG, "Error stopping cursor management in reloadFromArguments", e);
-            }
-            mCursor = null;
+        if (debug) Log.d(TAG, "reloadFromArguments " + mCheckedSessionId);
+        if (mSearch != null) {
+            mSearch.cancel();
         }
-
-        mCheckedPosition = -1;
-        setListAdapter(null);
-
-        mHandler.cancelOperation(SearchQuery._TOKEN);
-        mHandler.cancelOperation(SessionsQuery._TOKEN);
+        mSearchRows = null;
+        mRows = null;
+        if (mPager != null) {
+            mPager.cancel();
+            mPager = null;
+        }
+        mCheckedSessionId = null;
+        mAdapter.submitList(null);
+        mHandler.cancelOperation(StarredQuery._TOKEN);
 
         // Load new arguments
         final Intent intent = BaseActivity.fragmentArgumentsToIntent(arguments);
-        final Uri sessionsUri = intent.getData();
-        final int sessionQueryToken;
+        mSessionsUri = intent.getData();
+        if (isFullSessionsList(mSessionsUri)) {
+            mPager = new SessionPager(getActivity(), mSessionsUri, sExecutor, mPagerListener);
+        }
+        load();
+    }
+
+    /** Whether {@code sessionsUri} is every session of the meeting, rather than a block's. */
+    private static boolean isFullSessionsList(Uri sessionsUri) {
+        return sessionsUri != null &&
+                sessionsUri.toString().equals(ScheduleContract.Sessions.CONTENT_URI.toString());
+    }
 
-        if (sessionsUri == null) {
+    /** Read {@link #mSessionsUri} on the worker and show it once ready. */
+    private void load() {
+        final Uri sessionsUri = mSessionsUri;
+        if (sessionsUri == null || getActivity() == null) return;
+        if (mPager != null) {
+            mPager.reload();
             return;
         }
+        final Context context = getActivity().getApplicationContext();
+        final int generation = mLoadGeneration.incrementAndGet();
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mLoadGeneration.get()) return;
+                final List<SessionRow> rows = readRows(context, sessionsUri);
+                mMessageQueueHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mLoadGeneration.get()) {
+                            onSessionsLoaded(rows);
+                        }
+                    }
+                });
+            }
+        });
+    }
 
-        String[] projection;
-        if (!ScheduleContract.Sessions.isSearchUri(sessionsUri)) {
-            mAdapter = new SessionsAdapter(getActivity());
-            projection = SessionsQuery.PROJECTION;
-            sessionQueryToken = SessionsQuery._TOKEN;
-
-        } else {
-            mAdapter = new SearchAdapter(getActivity());
-            projection = SearchQuery.PROJECTION;
-            sessionQueryToken = SearchQuery._TOKEN;
+    private static List<SessionRow> readRows(Context context, Uri sessionsUri) {
+        final boolean search = ScheduleContract.Sessions.isSearchUri(sessionsUri);
+        final ContentResolver resolver = context.getContentResolver();
+        final Cursor cursor = resolver.query(sessionsUri,
+                search ? SessionRow.SearchQuery.PROJECTION : SessionRow.SessionsQuery.PROJECTION,
+                null, null, ScheduleContract.Sessions.DEFAULT_SORT);
+        if (cursor == null) return Collections.emptyList();
+        try {
+            final ArrayList<SessionRow> rows = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                rows.add(search ? SessionRow.fromSearch(cursor)
+                        : SessionRow.fromSessions(cursor, context));
+            }
+            return Collections.unmodifiableList(rows);
+        } finally {
+            cursor.close();
         }
+    }
 
-        setListAdapter(mAdapter);
+    private void onSessionsLoaded(List<SessionRow> rows) {
+        if (debug) Log.d(TAG, "onSessionsLoaded " + rows.size());
+        mRows = rows;
+        if (mSearchRows == null) {
+            show(rows);
+        }
+    }
 
-        // Start background query to load sessions
-        mHandler.startQuery(sessionQueryToken, null, sessionsUri, projection, null, null,
-                ScheduleContract.Sessions.DEFAULT_SORT);
+    /**
+     * Diff {@code rows}, with any star toggled but not yet written, against
+     * the shown list, then update the empty view.
+     */
+    private void show(List<SessionRow> rows) {
+        mAdapter.submitList(mStars.apply(rows), new Runnable() {
+            @Override
+            public void run() {
+                updateEmptyView();
+                // A short window may not fill the screen, so scrolling alone won't extend it.
+                onVisibleRangeChanged();
+            }
+        });
     }
 
-    @Override
-    public void onActivityCreated(Bundle savedInstanceState) {
-        super.onActivityCreated(savedInstanceState);
-        if (debug) Log.d(TAG, "onActivityCreated");
-        getListView().setChoiceMode(ListView.CHOICE_MODE_SINGLE);
+    private final StarQueue.Listener mStarsListener = new StarQueue.Listener() {
+        @Override
+        public void onStarredChanged(String sessionId, boolean starred) {
+            SessionsFragment.this.onStarredChanged(sessionId, starred);
+        }
+    };
 
-        if (savedInstanceState != null) {
-            mCheckedPosition = savedInstanceState.getInt(STATE_CHECKED_POSITION, -1);
-        }
-        if (debug) Log.d(TAG, "onActivityCreated mCheckedPosition " + mCheckedPosition);
-
-        if (!mHasSetEmptyText) {
-            // Could be a bug, but calling this twice makes it become visible when it shouldn't
-            // be visible.
-            // Note: setEmptyText() only works with default ListFragment layout.
-            // For custom layout (with search box), the empty view is defined in fragment_sessions_with_search.xml
-            View searchBox = getView() != null ? getView().findViewById(R.id.search_box) : null;
-            if (searchBox == null) {
-                // Using default layout without search box, can use setEmptyText()
-                setEmptyText(getString(R.string.empty_sessions));
-            }
-            mHasSetEmptyText = true;
+    private final SessionPager.Listener mPagerListener = new SessionPager.Listener() {
+        @Override
+        public void onWindowChanged(List<SessionRow> rows) {
+            onSessionsLoaded(rows);
         }
+    };
+
+    private final RecyclerView.OnScrollListener mScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            onVisibleRangeChanged();
+        }
+    };
+
+    /** Let the pager read ahead of the rows on screen while the full list shows. */
+    private void onVisibleRangeChanged() {
+        if (mPager == null || mList == null || mSearchRows != null) return;
+        final LinearLayoutManager layout = (LinearLayoutManager) mList.getLayoutManager();
+        mPager.onVisibleRange(layout.findFirstVisibleItemPosition(),
+                layout.findLastVisibleItemPosition());
+    }
+
+    private void updateEmptyView() {
+        if (mEmptyView == null) return;
+        final boolean loaded = mRows != null || mSearchRows != null;
+        mEmptyView.setVisibility(loaded && mAdapter.getItemCount() == 0
+                ? View.VISIBLE : View.GONE);
     }
 
     /** {@inheritDoc} */
     public void onQueryComplete(int token, Object cookie, Cursor cursor) {
-    	if (debug) Log.d(TAG, "onQueryComplete" + mCheckedPosition);
-
         if (getActivity() == null) {
+            cursor.close();
             return;
         }
 
-        if (token == SessionsQuery._TOKEN || token == SearchQuery._TOKEN) {
-            onSessionOrSearchQueryComplete(cursor);
+        if (token == StarredQuery._TOKEN) {
+            onStarredQueryComplete((String) cookie, cursor);
         } else {
-        	if (debug) Log.d("SessionsFragment/onQueryComplete", "Query complete, Not Actionable: " + token);
+            if (debug) Log.d("SessionsFragment/onQueryComplete", "Query complete, Not Actionable: " + token);
             cursor.close();
         }
     }
 
-    /**
-     * Handle {@link SessionsQuery} {@link Cursor}.
-     */
-    private void onSessionOrSearchQueryComplete(Cursor cursor) {
-        if (cursor == null || getActivity() == null) {
-            if (cursor != null) {
-                cursor.close();
-            }
-            return;
+    /** Handle {@link StarredQuery} {@link Cursor} for a single session. */
+    private void onStarredQueryComplete(String sessionId, Cursor cursor) {
+        final boolean starred;
+        try {
+            if (!cursor.moveToFirst()) return;
+            starred = cursor.getInt(StarredQuery.STARRED) != 0;
+        } finally {
+            cursor.close();
+        }
+        onStarredChanged(sessionId, starred);
+    }
+
+    /** Replace the rows of {@code sessionId} so only they rebind. */
+    private void onStarredChanged(String sessionId, boolean starred) {
+        if (mPager != null) {
+            // The pager owns the window; its update comes back through onWindowChanged().
+            mPager.setStarred(sessionId, starred);
+        } else {
+            mRows = withStarred(mRows, sessionId, starred);
         }
-        mCursor = cursor;
-        if (debug) Log.d(TAG, "OnSessionOrSearchQueryComplete mCheckedPosition" + mCheckedPosition);
-        getActivity().startManagingCursor(mCursor);
-        mAdapter.changeCursor(mCursor);
-        if (mCheckedPosition >= 0 && getView() != null) {
-            getListView().setItemChecked(mCheckedPosition, true);
+        if (mSearchRows != null) {
+            mSearchRows = withStarred(mSearchRows, sessionId, starred);
+            mSearch.setStarred(sessionId, starred);
+            show(mSearchRows);
+        } else if (mRows != null && mPager == null) {
+            show(mRows);
         }
     }
 
+    /** A copy of {@code rows} with {@code sessionId} starred or not. */
+    private static List<SessionRow> withStarred(List<SessionRow> rows, String sessionId,
+            boolean starred) {
+        if (rows == null) return null;
+        final ArrayList<SessionRow> updated = new ArrayList<>(rows);
+        for (int i = 0; i < updated.size(); i++) {
+            if (TextUtils.equals(sessionId, updated.get(i).sessionId)) {
+                updated.set(i, updated.get(i).withStarred(starred));
+            }
+        }
+        return Collections.unmodifiableList(updated);
+    }
+
+    /** Read the whole list again, and the search results if any. */
+    private void requery() {
+        load();
+        if (mSearch != null) {
+            mSearch.refresh();
+        }
+    }
 
     @Override
-    public void onResume() {	
+    public void onResume() {
         super.onResume();
         if (debug) Log.d(TAG, "OnResume called");
         mMessageQueueHandler.post(mRefreshSessionsRunnable);
         getActivity().getContentResolver().registerContentObserver(
                 ScheduleContract.Sessions.CONTENT_URI, true, mSessionChangesObserver);
-        if (mCursor != null) {
-            mCursor.requery();
+        // Changes while paused went unobserved.
+        if (mRows != null) {
+            requery();
         }
     }
 
     @Override
     public void onPause() {
         super.onPause();
-        if (debug) Log.d(TAG, "onPause" + mCheckedPosition);
+        if (debug) Log.d(TAG, "onPause " + mCheckedSessionId);
         mMessageQueueHandler.removeCallbacks(mRefreshSessionsRunnable);
         getActivity().getContentResolver().unregisterContentObserver(mSessionChangesObserver);
+        // Don't leave toggles behind for a screen that may never come back.
+        mStars.flush();
     }
 
     @Override
-    public void onStop() {
-        super.onStop();
-        // Ensure cursor is properly stopped before Activity tries to deactivate it
-        if (mCursor != null && getActivity() != null) {
-            try {
-                getActivity().stopManagingCursor(mCursor);
-            } catch (Exception e) {
-                // Ignore if cursor was already stopped or activity is being destroyed
-                if (debug) Log.d(TAG, "Error stopping cursor management", e);
-            }
-        }
+    public void onDestroy() {
+        super.onDestroy();
+        mStars.removeListener(mStarsListener);
     }
 
     @Override
-    public void onSaveInstanceState(Bundle outState) {  	
+    public void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
-        outState.putInt(STATE_CHECKED_POSITION, mCheckedPosition);
-        if (debug) Log.d(TAG, "onSaveInstanceState " + mCheckedPosition);
+        outState.putString(STATE_CHECKED_SESSION, mCheckedSessionId);
+        if (debug) Log.d(TAG, "onSaveInstanceState " + mCheckedSessionId);
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void onListItemClick(ListView l, View v, int position, long id) {
+    private void onSessionClick(SessionRow row) {
         // Launch viewer for specific session, passing along any track knowledge
         // that should influence the title-bar.
-        final Cursor cursor = (Cursor)mAdapter.getItem(position);
-        final Integer colIdx = cursor.getColumnIndex(ScheduleContract.Sessions.SESSION_ID);
-        final String sessionId;
-        if (colIdx >= 0) {
-            sessionId = cursor.getString(colIdx);
-        } else {
-          sessionId = "";
-        }
-
-        final Uri sessionUri = ScheduleContract.Sessions.buildSessionUri(sessionId);
+        final Uri sessionUri = ScheduleContract.Sessions.buildSessionUri(
+                row.sessionId != null ? row.sessionId : "");
         // Explicit component avoids chooser with apps that over-match content:// VIEW (#40).
         final Intent intent = new Intent(Intent.ACTION_VIEW, sessionUri,
                 getActivity(), SessionDetailActivity.class);
         ((BaseActivity) getActivity()).openActivityOrFragment(intent);
 
-        getListView().setItemChecked(position, true);
-        mCheckedPosition = position;
-        if (debug) Log.d(TAG, "onListItemClick" + mCheckedPosition);
+        setCheckedSession(row.sessionId);
+        if (debug) Log.d(TAG, "onSessionClick " + mCheckedSessionId);
     }
 
     public void clearCheckedPosition() {
-    	if (debug) Log.d(TAG, "clearCheckedPosition" + mCheckedPosition);
-        if (mCheckedPosition >= 0) {
-            getListView().setItemChecked(mCheckedPosition, false);
-            mCheckedPosition = -1;
-        }
+        if (debug) Log.d(TAG, "clearCheckedPosition " + mCheckedSessionId);
+        setCheckedSession(null);
+    }
+
+    private void setCheckedSession(String sessionId) {
+        if (TextUtils.equals(sessionId, mCheckedSessionId)) return;
+        mCheckedSessionId = sessionId;
+        mAdapter.notifyItemRangeChanged(0, mAdapter.getItemCount(), PAYLOAD_CHECKED);
     }
 
     @Override
-    public View onCreateView(android.view.LayoutInflater inflater, android.view.ViewGroup container, Bundle savedInstanceState) {
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         // Check if we're showing all sessions (needs search) or a filtered block view (no search needed)
         final Intent intent = BaseActivity.fragmentArgumentsToIntent(getArguments());
         final Uri sessionsUri = intent != null ? intent.getData() : null;
-        
+
         // Only show search box for the full sessions list (Sessions.CONTENT_URI)
         // Don't show it for block-specific views (Blocks.buildSessionsUri)
-        boolean isFullSessionsList = sessionsUri != null && 
-                sessionsUri.toString().equals(ScheduleContract.Sessions.CONTENT_URI.toString());
-        
-        if (isFullSessionsList) {
-            // Use custom layout with search box
-            return inflater.inflate(R.layout.fragment_sessions_with_search, container, false);
-        } else {
-            // Use default ListFragment layout (no search box)
-            return super.onCreateView(inflater, container, savedInstanceState);
-        }
+        return inflater.inflate(isFullSessionsList(sessionsUri) ? R.layout.fragment_sessions_with_search
+                : R.layout.fragment_sessions, container, false);
     }
 
     @Override
     public void onViewCreated(View view, Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        
+
+        mList = (RecyclerView) view.findViewById(android.R.id.list);
+        mList.setLayoutManager(new LinearLayoutManager(getActivity()));
+        mList.setAdapter(mAdapter);
+        mList.addOnScrollListener(mScrollListener);
+        mEmptyView = view.findViewById(android.R.id.empty);
+        updateEmptyView();
+
         // Find the search box from our custom layout (may not exist for block views)
         final android.widget.EditText searchBox = (android.widget.EditText) view.findViewById(R.id.search_box);
-        
+
         if (searchBox != null) {
+            mSearch = new SessionSearch(getActivity(), sExecutor, mSearchListener);
             // Add text change listener for filtering
             searchBox.addTextChangedListener(new android.text.TextWatcher() {
                 @Override
@@ -294,13 +416,16 @@ public class SessionsFragment extends ListFragment implements NotifyingAsyncQuer
                 public void afterTextChanged(android.text.Editable s) {
                 }
             });
-            
+            if (searchBox instanceof AutoCompleteTextView) {
+                setupSuggestions((AutoCompleteTextView) searchBox);
+            }
+
             // Request focus on the search box to show keyboard
             searchBox.post(new Runnable() {
                 @Override
                 public void run() {
                     searchBox.requestFocus();
-                    android.view.inputmethod.InputMethodManager imm = 
+                    android.view.inputmethod.InputMethodManager imm =
                         (android.view.inputmethod.InputMethodManager) getActivity().getSystemService(Context.INPUT_METHOD_SERVICE);
                     if (imm != null) {
                         imm.showSoftInput(searchBox, android.view.inputmethod.InputMethodManager.SHOW_IMPLICIT);
@@ -310,252 +435,233 @@ public class SessionsFragment extends ListFragment implements NotifyingAsyncQuer
         }
     }
 
-    private void filterSessions(String query) {
-        if (mAdapter == null) return;
-        
-        if (query == null || query.trim().isEmpty()) {
-            // No filter - show all sessions
-            if (mAdapter.getFilterQueryProvider() != null) {
-                mAdapter.getFilter().filter(null);
+    /**
+     * Offer group, area, room, BoF and draft names from the suggestion index
+     * while typing, and count the ones picked so they rank first next time.
+     */
+    private void setupSuggestions(AutoCompleteTextView searchBox) {
+        final SimpleCursorAdapter suggestions = new SimpleCursorAdapter(getActivity(),
+                android.R.layout.simple_dropdown_item_1line, null,
+                new String[] { SearchManager.SUGGEST_COLUMN_TEXT_1 },
+                new int[] { android.R.id.text1 }, 0);
+        suggestions.setCursorToStringConverter(new SimpleCursorAdapter.CursorToStringConverter() {
+            @Override
+            public CharSequence convertToString(Cursor cursor) {
+                return cursor.getString(SuggestQuery.TEXT);
             }
-        } else {
-            // Apply filter
-            mAdapter.getFilter().filter(query);
+        });
+        suggestions.setFilterQueryProvider(new FilterQueryProvider() {
+            @Override
+            public Cursor runQuery(CharSequence constraint) {
+                if (constraint == null || getActivity() == null) return null;
+                final Uri uri = ScheduleContract.SearchSuggest.buildSuggestUri(constraint.toString())
+                        .buildUpon()
+                        .appendQueryParameter(SearchManager.SUGGEST_PARAMETER_LIMIT,
+                                String.valueOf(SuggestQuery.LIMIT))
+                        .build();
+                return getActivity().getContentResolver().query(uri, null, null, null, null);
+            }
+        });
+        searchBox.setAdapter(suggestions);
+        searchBox.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+            @Override
+            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+                final Cursor cursor = (Cursor) parent.getItemAtPosition(position);
+                mHandler.startUpdate(ScheduleContract.SearchSuggest.buildUsageUri(
+                        cursor.getString(SuggestQuery.TEXT)), new ContentValues());
+            }
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        if (mSearch != null) {
+            mSearch.cancel();
+            mSearch = null;
         }
+        if (mSearchRows != null) {
+            mSearchRows = null;
+            if (mRows != null) {
+                mAdapter.submitList(mRows);
+            }
+        }
+        mList.removeOnScrollListener(mScrollListener);
+        mList.setAdapter(null);
+        mList = null;
+        mEmptyView = null;
+        super.onDestroyView();
     }
 
-    /**
-     * Build a title search that also matches BoF / Side badges for keyword prefixes.
-     * Prefixes of "bof" (e.g. bo, bof) → SESSION_IS_BOF;
-     * prefixes of "side" (e.g. si, sid, side) → session_id side-*.
-     */
-    private static String[] buildSessionSearchSelection(CharSequence constraint) {
-        String q = constraint.toString().trim();
-        String like = "%" + q + "%";
-        String lower = q.toLowerCase(java.util.Locale.US);
-        // Require length >= 2 so a lone "b"/"s" does not pull every badge.
-        if (lower.length() >= 2 && "bof".startsWith(lower)) {
-            return new String[] {
-                    "(" + ScheduleContract.Sessions.SESSION_TITLE + " LIKE ? OR "
-                            + ScheduleContract.Sessions.SESSION_IS_BOF + "=1)",
-                    like
-            };
-        }
-        if (lower.length() >= 2 && "side".startsWith(lower)) {
-            return new String[] {
-                    "(" + ScheduleContract.Sessions.SESSION_TITLE + " LIKE ? OR "
-                            + ScheduleContract.Sessions.SESSION_ID + " LIKE 'side-%')",
-                    like
-            };
-        }
-        return new String[] {
-                ScheduleContract.Sessions.SESSION_TITLE + " LIKE ?",
-                like
-        };
+    private void filterSessions(String query) {
+        if (mSearch != null) {
+            mSearch.setQuery(query);
+        }
     }
 
+    private final SessionSearch.Listener mSearchListener = new SessionSearch.Listener() {
+        @Override
+        public void onSearchResult(String query, List<SessionRow> rows) {
+            if (debug) Log.d(TAG, "onSearchResult '" + query + "': "
+                    + (rows != null ? rows.size() : -1));
+            // An empty query shows the full list again.
+            mSearchRows = rows;
+            if (rows != null) {
+                show(rows);
+            } else if (mRows != null) {
+                show(mRows);
+            }
+        }
+    };
+
     /**
-     * {@link CursorAdapter} that renders a {@link SessionsQuery}.
+     * {@link RecyclerView.Adapter} that renders {@link SessionRow}s, keyed by
+     * session so rows keep their views across updates.
      */
-    private class SessionsAdapter extends CursorAdapter {
-        public SessionsAdapter(Context context) {
-            super(context, null);
-            
-            // Set up filter to search session titles
-            setFilterQueryProvider(new android.widget.FilterQueryProvider() {
-                @Override
-                public Cursor runQuery(CharSequence constraint) {
-                    if (constraint == null || constraint.length() == 0) {
-                        // No filter - return all sessions
-                        return getActivity().getContentResolver().query(
-                            ScheduleContract.Sessions.CONTENT_URI,
-                            SessionsQuery.PROJECTION,
-                            null, null,
-                            ScheduleContract.Sessions.DEFAULT_SORT);
-                    } else {
-                        // Filter by session title (and bof/side badge tokens)
-                        String[] sel = buildSessionSearchSelection(constraint);
-                        return getActivity().getContentResolver().query(
-                            ScheduleContract.Sessions.CONTENT_URI,
-                            SessionsQuery.PROJECTION,
-                            sel[0], new String[] { sel[1] },
-                            ScheduleContract.Sessions.DEFAULT_SORT);
-                    }
-                }
-            });
-        }
-        
-        @Override
-        public Object getItem(int position) {
-            if (debug) Log.d(TAG, "getItem position " + position +  super.getItem(position));
-            return super.getItem(position);
+    private class SessionsAdapter extends ListAdapter<SessionRow, SessionViewHolder> {
+        SessionsAdapter() {
+            super(SessionRow.DIFF);
+            setHasStableIds(true);
         }
 
         @Override
         public long getItemId(int position) {
-            if (debug) Log.d(TAG, " position : " + position);
-            return super.getItemId(position);
-        }        
-    
+            return getItem(position).id;
+        }
 
         /** {@inheritDoc} */
         @Override
-        public View newView(Context context, Cursor cursor, ViewGroup parent) {
-            return getActivity().getLayoutInflater().inflate(R.layout.list_item_session, parent,
-                    false);
+        public SessionViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new SessionViewHolder(LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.list_item_session, parent, false));
         }
 
         /** {@inheritDoc} */
         @Override
-        public void bindView(View view, Context context, Cursor cursor) {
-            final TextView titleView = (TextView) view.findViewById(R.id.session_title);
-            final TextView subtitleView = (TextView) view.findViewById(R.id.session_subtitle);
-
-            titleView.setText(cursor.getString(SessionsQuery.TITLE));
-
-            // Format time block this session occupies
-            final long blockStart = cursor.getLong(SessionsQuery.BLOCK_START);
-            final long blockEnd = cursor.getLong(SessionsQuery.BLOCK_END);
-            final String roomName = cursor.getString(SessionsQuery.ROOM_NAME);
-            final String subtitle = formatSessionSubtitle(blockStart, blockEnd, roomName, context);
-
-            subtitleView.setText(subtitle);
-
-            // Set up star toggle functionality
-            final boolean starred = cursor.getInt(SessionsQuery.STARRED) != 0;
-            final String sessionId = cursor.getString(SessionsQuery.SESSION_ID);
-            setupStarButton(view, sessionId, starred);
-
-            // Show BoF label for Birds of a Feather sessions
-            final View bofLabel = view.findViewById(R.id.session_bof_label);
-            bofLabel.setVisibility(cursor.getInt(SessionsQuery.IS_BOF) != 0 ? View.VISIBLE : View.GONE);
+        public void onBindViewHolder(SessionViewHolder holder, int position) {
+            holder.bind(getItem(position));
+        }
 
-            final View sideLabel = view.findViewById(R.id.session_side_label);
-            if (sideLabel != null) {
-                sideLabel.setVisibility(
-                        ParserUtils.isSideMeetingSessionId(sessionId) ? View.VISIBLE : View.GONE);
+        @Override
+        public void onBindViewHolder(SessionViewHolder holder, int position, List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            final SessionRow row = getItem(position);
+            for (Object payload : payloads) {
+                if (payload == SessionRow.PAYLOAD_STARRED) {
+                    holder.bindStarred(row);
+                } else if (payload == PAYLOAD_TIME) {
+                    holder.bindTitleColor(row);
+                } else if (payload == PAYLOAD_CHECKED) {
+                    holder.bindChecked(row);
+                } else {
+                    holder.bind(row);
+                }
             }
-
-            // Possibly indicate that the session has occurred in the past.
-            UIUtils.setSessionTitleColor(blockEnd, titleView, subtitleView);
         }
     }
 
-    /**
-     * {@link CursorAdapter} that renders a {@link SearchQuery}.
-     */
-    private class SearchAdapter extends CursorAdapter {
-        public SearchAdapter(Context context) {
-            super(context, null);
-            
-            // Set up filter for search results
-            setFilterQueryProvider(new android.widget.FilterQueryProvider() {
+    /** Views of one {@code list_item_session}, looked up once. */
+    private class SessionViewHolder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView subtitle;
+        final CheckBox star;
+        final View bofLabel;
+        final View sideLabel;
+        private SessionRow mRow;
+
+        SessionViewHolder(View view) {
+            super(view);
+            title = (TextView) view.findViewById(R.id.session_title);
+            subtitle = (TextView) view.findViewById(R.id.session_subtitle);
+            star = (CheckBox) view.findViewById(R.id.star_button);
+            bofLabel = view.findViewById(R.id.session_bof_label);
+            sideLabel = view.findViewById(R.id.session_side_label);
+
+            view.setOnClickListener(new View.OnClickListener() {
                 @Override
-                public Cursor runQuery(CharSequence constraint) {
-                    if (constraint == null || constraint.length() == 0) {
-                        // No filter - return original search results
-                        return getActivity().getContentResolver().query(
-                            ScheduleContract.Sessions.CONTENT_URI,
-                            SearchQuery.PROJECTION,
-                            null, null,
-                            ScheduleContract.Sessions.DEFAULT_SORT);
-                    } else {
-                        // Filter search results by session title (and bof/side badge tokens)
-                        String[] sel = buildSessionSearchSelection(constraint);
-                        return getActivity().getContentResolver().query(
-                            ScheduleContract.Sessions.CONTENT_URI,
-                            SearchQuery.PROJECTION,
-                            sel[0], new String[] { sel[1] },
-                            ScheduleContract.Sessions.DEFAULT_SORT);
-                    }
+                public void onClick(View v) {
+                    if (mRow != null) onSessionClick(mRow);
+                }
+            });
+            star.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    if (mRow != null) mStars.setStarred(mRow.sessionId, star.isChecked());
                 }
             });
-        }
-        
-        @Override
-        public Object getItem(int position) {
-            if (debug) Log.d(TAG, "getItem position " + position +  super.getItem(position));
-            return super.getItem(position);
         }
 
-        @Override
-        public long getItemId(int position) {
-            if (debug) Log.d(TAG, " position : " + position);
-            return super.getItemId(position);
-        }        
-
-        /** {@inheritDoc} */
-        @Override
-        public View newView(Context context, Cursor cursor, ViewGroup parent) {
-            return getActivity().getLayoutInflater().inflate(R.layout.list_item_session, parent,
-                    false);
+        void bind(SessionRow row) {
+            mRow = row;
+            title.setText(row.title);
+            subtitle.setText(row.subtitle);
+            bofLabel.setVisibility(row.bof ? View.VISIBLE : View.GONE);
+            if (sideLabel != null) {
+                sideLabel.setVisibility(row.side ? View.VISIBLE : View.GONE);
+            }
+            bindStarred(row);
+            bindTitleColor(row);
+            bindChecked(row);
         }
 
-        /** {@inheritDoc} */
-        @Override
-        public void bindView(View view, Context context, Cursor cursor) {
-            ((TextView) view.findViewById(R.id.session_title)).setText(cursor
-                    .getString(SearchQuery.TITLE));
-
-            final String snippet = cursor.getString(SearchQuery.SEARCH_SNIPPET);
-
-            final Spannable styledSnippet = buildStyledSnippet(snippet);
-            ((TextView) view.findViewById(R.id.session_subtitle)).setText(styledSnippet);
-
-            // Set up star toggle functionality
-            final boolean starred = cursor.getInt(SearchQuery.STARRED) != 0;
-            final String sessionId = cursor.getString(SearchQuery.SESSION_ID);
-            setupStarButton(view, sessionId, starred);
-
-            // Show BoF label for Birds of a Feather sessions
-            final View bofLabel = view.findViewById(R.id.session_bof_label);
-            bofLabel.setVisibility(cursor.getInt(SearchQuery.IS_BOF) != 0 ? View.VISIBLE : View.GONE);
+        void bindStarred(SessionRow row) {
+            mRow = row;
+            star.setChecked(row.starred);
+        }
 
-            final View sideLabel = view.findViewById(R.id.session_side_label);
-            if (sideLabel != null) {
-                sideLabel.setVisibility(
-                        ParserUtils.isSideMeetingSessionId(sessionId) ? View.VISIBLE : View.GONE);
+        void bindTitleColor(SessionRow row) {
+            // Possibly indicate that the session has occurred in the past.
+            if (row.blockEnd != 0) {
+                UIUtils.setSessionTitleColor(row.blockEnd, title, subtitle);
             }
         }
-    }
 
-    /**
-     * Helper method to set up star button for a session item
-     */
-    private void setupStarButton(View view, String sessionId, boolean starred) {
-        final android.widget.CheckBox starButton = (android.widget.CheckBox) view.findViewById(R.id.star_button);
-        starButton.setChecked(starred);
-        
-        final Uri sessionUri = ScheduleContract.Sessions.buildSessionUri(sessionId);
-        starButton.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                final android.widget.CheckBox checkbox = (android.widget.CheckBox) v;
-                final boolean newStarredState = checkbox.isChecked();
-                
-                // Update database
-                final android.content.ContentValues values = new android.content.ContentValues();
-                values.put(ScheduleContract.Sessions.SESSION_STARRED, newStarredState ? 1 : 0);
-                getActivity().getContentResolver().update(sessionUri, values, null, null);
-            }
-        });
+        void bindChecked(SessionRow row) {
+            itemView.setActivated(row.sessionId != null
+                    && row.sessionId.equals(mCheckedSessionId));
+        }
     }
 
     private ContentObserver mSessionChangesObserver = new ContentObserver(new Handler()) {
         @Override
         public void onChange(boolean selfChange) {
-            if (mCursor != null) {
-                mCursor.requery();
+            onChange(selfChange, null);
+        }
+
+        @Override
+        public void onChange(boolean selfChange, Uri uri) {
+            // A star toggled on one session only needs that row re-read, unless
+            // this is the starred list, where it adds or removes the row.
+            if (uri != null && mRows != null
+                    && ScheduleContract.getChangeFlags(uri) == ScheduleContract.CHANGE_STARRED
+                    && ScheduleContract.Sessions.isSessionItemUri(uri)
+                    && !isStarredList()) {
+                mHandler.startQuery(StarredQuery._TOKEN, ScheduleContract.Sessions.getSessionId(uri),
+                        uri, StarredQuery.PROJECTION, null, null, null);
+                return;
+            }
+            // A batch of stars written by StarQueue; its listener already updated the rows.
+            if (uri != null && mRows != null
+                    && ScheduleContract.getChangeFlags(uri)
+                            == (ScheduleContract.CHANGE_BULK | ScheduleContract.CHANGE_STARRED)
+                    && !isStarredList()) {
+                return;
             }
+            requery();
         }
     };
 
+    private boolean isStarredList() {
+        return mSessionsUri != null && ScheduleContract.Sessions.CONTENT_STARRED_URI.getPath()
+                .equals(mSessionsUri.getPath());
+    }
+
     private Runnable mRefreshSessionsRunnable = new Runnable() {
         public void run() {
-            if (mAdapter != null) {
-                // This is used to refresh session title colors.
-                mAdapter.notifyDataSetChanged();
-            }
+            // This is used to refresh session title colors.
+            mAdapter.notifyItemRangeChanged(0, mAdapter.getItemCount(), PAYLOAD_TIME);
 
             // Check again on the next quarter hour, with some padding to account for network
             // time differences.
@@ -564,52 +670,22 @@ public class SessionsFragment extends ListFragment implements NotifyingAsyncQuer
         }
     };
 
-    /**
-     * {@link org.ietf.ietfsched.provider.ScheduleContract.Sessions} query parameters.
-     */
-    private interface SessionsQuery {
-        int _TOKEN = 0x1;
-
-        String[] PROJECTION = {
-                BaseColumns._ID,
-                ScheduleContract.Sessions.SESSION_ID,
-                ScheduleContract.Sessions.SESSION_TITLE,
-                ScheduleContract.Sessions.SESSION_STARRED,
-                ScheduleContract.Sessions.SESSION_IS_BOF,
-                ScheduleContract.Blocks.BLOCK_START,
-                ScheduleContract.Blocks.BLOCK_END,
-                ScheduleContract.Rooms.ROOM_NAME,
-        };
+    /** Columns of a {@link ScheduleContract.SearchSuggest} query. */
+    private interface SuggestQuery {
+        int LIMIT = 8;
 
         int _ID = 0;
-        int SESSION_ID = 1;
-        int TITLE = 2;
-        int STARRED = 3;
-        int IS_BOF = 4;
-        int BLOCK_START = 5;
-        int BLOCK_END = 6;
-        int ROOM_NAME = 7;
+        int TEXT = 1;
     }
 
-    /** {@link org.ietf.ietfsched.provider.ScheduleContract.Sessions} search query
-     * parameters. */
-    private interface SearchQuery {
-        int _TOKEN = 0x3;
+    /** Starred state of a single session, after it changed elsewhere. */
+    private interface StarredQuery {
+        int _TOKEN = 0x4;
 
         String[] PROJECTION = {
-                BaseColumns._ID,
-                ScheduleContract.Sessions.SESSION_ID,
-                ScheduleContract.Sessions.SESSION_TITLE,
-                ScheduleContract.Sessions.SEARCH_SNIPPET,
                 ScheduleContract.Sessions.SESSION_STARRED,
-                ScheduleContract.Sessions.SESSION_IS_BOF,
         };
 
-        int _ID = 0;
-        int SESSION_ID = 1;
-        int TITLE = 2;
-        int SEARCH_SNIPPET = 3;
-        int STARRED = 4;
-        int IS_BOF = 5;
+        int STARRED = 0;
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui;
+
+import org.ietf.ietfsched.provider.ScheduleContract;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
+import org.ietf.ietfsched.service.SlideDownloadService;
+
+import android.content.ContentProviderOperation;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.OperationApplicationException;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.RemoteException;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Stars and unstars sessions without waiting for the database.
+ * <p>
+ * A toggle shows at once: it goes into an in-memory overlay that screens
+ * consult through {@link #isStarred} when they bind, and {@link Listener}s
+ * hear about it straight away. Writes are held back for {@link #DELAY_MS}
+ * after the last toggle, and never more than {@link #MAX_DELAY_MS}, then
+ * written in one {@link ContentResolver#applyBatch} transaction, so the
+ * provider sends a single notification however many stars changed; listeners
+ * learn which sessions it covered from {@link Listener#onStarsWritten}. Toggling
+ * the same session again before the write only keeps the last state.
+ * <p>
+ * Use from the main thread.
+ */
+final class StarQueue {
+    private static final String TAG = "StarQueue";
+
+    /** Pause in toggling before the pending stars are written. */
+    static final long DELAY_MS = 750;
+    /** Longest a toggle waits to be written while toggling goes on. */
+    static final long MAX_DELAY_MS = 3000;
+
+    /** Hears about every toggle as it is made, before it is written. */
+    interface Listener {
+        void onStarredChanged(String sessionId, boolean starred);
+
+        /** Hears that the stars of {@code sessionIds} are now in the database. */
+        default void onStarsWritten(Set<String> sessionIds) {
+        }
+    }
+
+    private static StarQueue sInstance;
+
+    private final Context mContext;
+    private final ContentResolver mResolver;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Executor mExecutor = Executors.newSingleThreadExecutor();
+    private final CopyOnWriteArrayList<Listener> mListeners = new CopyOnWriteArrayList<>();
+
+    /** Toggles not yet handed to the executor, in the order made. */
+    private LinkedHashMap<String, Boolean> mPending = new LinkedHashMap<>();
+    /** Toggles being written; they still shadow the database until it commits. */
+    private final HashMap<String, Boolean> mWriting = new HashMap<>();
+    /** {@link SystemClock#uptimeMillis()} of the oldest pending toggle. */
+    private long mFirstPendingAt;
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    static StarQueue get(Context context) {
+        if (sInstance == null) {
+            sInstance = new StarQueue(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private StarQueue(Context context) {
+        mContext = context;
+        mResolver = context.getContentResolver();
+    }
+
+    void addListener(Listener listener) {
+        mListeners.addIfAbsent(listener);
+    }
+
+    void removeListener(Listener listener) {
+        mListeners.remove(listener);
+    }
+
+    /** Star or unstar {@code sessionId} now, and write it soon. */
+    void setStarred(String sessionId, boolean starred) {
+        if (sessionId == null) return;
+        final long now = SystemClock.uptimeMillis();
+        if (mPending.isEmpty()) {
+            mFirstPendingAt = now;
+        }
+        // Re-insert so the batch follows the order of the last toggles.
+        mPending.remove(sessionId);
+        mPending.put(sessionId, starred);
+        mHandler.removeCallbacks(mFlushRunnable);
+        mHandler.postAtTime(mFlushRunnable,
+                Math.min(now + DELAY_MS, mFirstPendingAt + MAX_DELAY_MS));
+        for (Listener listener : mListeners) {
+            listener.onStarredChanged(sessionId, starred);
+        }
+    }
+
+    /**
+     * The star {@code sessionId} shows: its latest toggle if that is not yet
+     * written, otherwise {@code stored}, as read from the database.
+     */
+    boolean isStarred(String sessionId, boolean stored) {
+        Boolean starred = mPending.get(sessionId);
+        if (starred == null) {
+            starred = mWriting.get(sessionId);
+        }
+        return starred != null ? starred : stored;
+    }
+
+    /** {@code rows} with the stars {@link #isStarred} shows, copied only if that changes any. */
+    List<SessionRow> apply(List<SessionRow> rows) {
+        if (rows == null || (mPending.isEmpty() && mWriting.isEmpty())) return rows;
+        ArrayList<SessionRow> applied = null;
+        for (int i = 0; i < rows.size(); i++) {
+            final SessionRow row = rows.get(i);
+            final SessionRow shown = row.withStarred(isStarred(row.sessionId, row.starred));
+            if (shown != row) {
+                if (applied == null) applied = new ArrayList<>(rows);
+                applied.set(i, shown);
+            }
+        }
+        return applied == null ? rows : Collections.unmodifiableList(applied);
+    }
+
+    /** Write the pending toggles now, as a screen goes away. */
+    void flush() {
+        mHandler.removeCallbacks(mFlushRunnable);
+        if (mPending.isEmpty()) return;
+        final LinkedHashMap<String, Boolean> batch = mPending;
+        mPending = new LinkedHashMap<>();
+        mWriting.putAll(batch);
+
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>(batch.size());
+        for (Map.Entry<String, Boolean> entry : batch.entrySet()) {
+            operations.add(ContentProviderOperation
+                    .newUpdate(Sessions.buildSessionUri(entry.getKey()))
+                    .withValue(Sessions.SESSION_STARRED, entry.getValue() ? 1 : 0)
+                    .build());
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean written = false;
+                try {
+                    mResolver.applyBatch(ScheduleContract.CONTENT_AUTHORITY, operations);
+                    written = true;
+                } catch (RemoteException | OperationApplicationException | RuntimeException e) {
+                    Log.w(TAG, "Writing " + operations.size() + " stars failed", e);
+                }
+                final boolean failed = !written;
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onWritten(batch, failed);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onWritten(Map<String, Boolean> batch, boolean failed) {
+        for (Map.Entry<String, Boolean> entry : batch.entrySet()) {
+            // A later batch for the same session owns the overlay now.
+            if (entry.getValue().equals(mWriting.get(entry.getKey()))) {
+                mWriting.remove(entry.getKey());
+            }
+        }
+        if (failed) {
+            // The overlay was wrong; have every list read the stars again.
+            mResolver.notifyChange(Sessions.CONTENT_URI, null);
+            return;
+        }
+        final Set<String> written = Collections.unmodifiableSet(batch.keySet());
+        for (Listener listener : mListeners) {
+            listener.onStarsWritten(written);
+        }
+        if (batch.containsValue(Boolean.TRUE)) {
+            // Newly starred sessions may have slides to take offline.
+            SlideDownloadService.schedule(mContext);
+        }
+    }
+}
@@ -16,18 +16,22 @@
 
 package org.ietf.ietfsched.ui;
 
+import android.app.Activity;
+import android.content.Context;
 import android.os.Bundle;
 import androidx.fragment.app.Fragment;
 
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import org.mozilla.geckoview.GeckoView;
 
-import org.ietf.ietfsched.service.SyncService;
 import org.ietf.ietfsched.util.GeckoViewHelper;
-import org.ietf.ietfsched.util.MarkdownHtml;
+import org.ietf.ietfsched.util.NoteWell;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 /**
@@ -35,6 +39,7 @@ import org.ietf.ietfsched.util.MarkdownHtml;
  */
 public class WellNoteFragment extends Fragment {
     private static final String TAG = "WellNoteFragment";
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
     private GeckoViewHelper mGeckoViewHelper;
 
     @Override
@@ -84,59 +89,41 @@ public class WellNoteFragment extends Fragment {
     }
     
     /**
-     * Load Note Well content into GeckoView.
+     * Load Note Well content into GeckoView. The page is rendered at sync time,
+     * which also moves markdown left by older versions; it is read from
+     * storage off the main thread.
      */
     private void loadNoteWellContent() {
         if (mGeckoViewHelper == null || getActivity() == null) {
             return;
         }
-        
-        String markdownText;
-        
-        // Check if Note Well data is available in memory
-        if (SyncService.noteWellString != null && SyncService.noteWellString.length() > 0) {
-            markdownText = SyncService.noteWellString;
-        } else {
-            // Try to load from SharedPreferences (persists across app restarts)
-            // Must use the same SharedPreferences file as SyncService
-            android.content.SharedPreferences prefs = getActivity().getSharedPreferences("ietfsched_sync", android.content.Context.MODE_PRIVATE);
-            markdownText = prefs.getString("note_well_content", "");
-            
-            if (markdownText.length() == 0) {
-                // Not yet downloaded - show a message
-                markdownText = "Note Well text is being downloaded. Please check back in a moment or use the Refresh button.";
-            } else {
-                // Restore to static variable for future access
-                SyncService.noteWellString = markdownText;
+
+        final Context context = getActivity().getApplicationContext();
+        sExecutor.execute(() -> {
+            final String html = NoteWell.read(context);
+            final Activity activity = getActivity();
+            if (activity != null) {
+                activity.runOnUiThread(() -> showNoteWell(html));
             }
+        });
+    }
+
+    private void showNoteWell(String html) {
+        if (mGeckoViewHelper == null || !isAdded()) {
+            return;
         }
-        
-        // Convert markdown to HTML (bare URLs become links via AutolinkExtension)
-        String htmlContent = MarkdownHtml.render(markdownText);
-        
-        // Wrap HTML with basic styling
-        String styledHtml = "<!DOCTYPE html>" +
-                "<html><head>" +
-                "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
-                "<style>" +
-                "body { font-family: sans-serif; padding: 16px; line-height: 1.6; }" +
-                "a { color: #0066cc; }" +
-                "ul { padding-left: 20px; }" +
-                "li { margin-bottom: 8px; }" +
-                "</style>" +
-                "</head><body>" +
-                htmlContent +
-                "</body></html>";
-        
-        // Load HTML using Base64 encoding (same approach as SessionDetailFragment)
-        try {
-            byte[] htmlBytes = styledHtml.getBytes("UTF-8");
-            String base64Html = android.util.Base64.encodeToString(htmlBytes, android.util.Base64.NO_WRAP);
-            String dataUri = "data:text/html;charset=utf-8;base64," + base64Html;
-            mGeckoViewHelper.loadUrl(dataUri);
-        } catch (java.io.UnsupportedEncodingException e) {
-            Log.e(TAG, "Failed to encode Note Well HTML", e);
+
+        if (html == null) {
+            // Not yet downloaded - show a message
+            html = "<!DOCTYPE html><html><body style='font-family: sans-serif; padding: 16px;'>"
+                    + "Note Well text is being downloaded. Please check back in a moment or use the Refresh button."
+                    + "</body></html>";
         }
+
+        // Load HTML using Base64 encoding (same approach as SessionDetailFragment)
+        byte[] htmlBytes = html.getBytes(StandardCharsets.UTF_8);
+        String base64Html = android.util.Base64.encodeToString(htmlBytes, android.util.Base64.NO_WRAP);
+        mGeckoViewHelper.loadUrl("data:text/html;charset=utf-8;base64," + base64Html);
     }
     
     /**
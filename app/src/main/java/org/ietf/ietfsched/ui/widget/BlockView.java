@@ -49,7 +49,6 @@ public class BlockView extends Button {
     private final boolean mContainsStarred;
     private final int mColumn;
     private final int mSubColumn;
-    private boolean mHalfWidth;
 
     public BlockView(Context context, String blockId, String title, long startTime,
             long endTime, boolean containsStarred, int column) {
@@ -67,7 +66,6 @@ public class BlockView extends Button {
         mContainsStarred = containsStarred;
         mColumn = column;
         mSubColumn = subColumn;
-        mHalfWidth = false;
 
         setText(mTitle);
         
@@ -129,12 +127,4 @@ public class BlockView extends Button {
     public int getSubColumn() {
         return mSubColumn;
     }
-
-    public boolean isHalfWidth() {
-        return mHalfWidth;
-    }
-
-    public void setHalfWidth(boolean halfWidth) {
-        mHalfWidth = halfWidth;
-    }
 }
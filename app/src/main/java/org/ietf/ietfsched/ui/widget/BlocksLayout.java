@@ -17,28 +17,157 @@
 package org.ietf.ietfsched.ui.widget;
 
 import org.ietf.ietfsched.R;
+import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
 import org.ietf.ietfsched.util.UIUtils;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.drawable.LayerDrawable;
+import android.os.Bundle;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.text.format.DateUtils;
 import android.util.AttributeSet;
-import android.util.Log;
+import android.util.TypedValue;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.accessibility.AccessibilityEvent;
+import android.widget.Button;
+import androidx.core.content.ContextCompat;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TimeZone;
 
 /**
- * Custom layout that contains and organizes a {@link TimeRulerView} and several
- * instances of {@link BlockView}. Also positions current "now" divider using
+ * Custom layout that contains a {@link TimeRulerView} and organizes schedule
+ * blocks over it. Also positions current "now" divider using
  * {@link R.id#blocks_now} view when applicable.
+ * <p>
+ * Blocks given to {@link #setBlocks} are not views: they are drawn straight onto
+ * this layout's canvas, hit-tested here, and exposed to accessibility services as
+ * virtual views. Replacing them only redraws.
  */
 public class BlocksLayout extends ViewGroup {
     private static final String TAG = "BlocksLayout";
+    private static final int TIME_STRING_FLAGS = DateUtils.FORMAT_SHOW_DATE
+            | DateUtils.FORMAT_SHOW_WEEKDAY | DateUtils.FORMAT_ABBREV_WEEKDAY
+            | DateUtils.FORMAT_SHOW_TIME | DateUtils.FORMAT_ABBREV_TIME;
+    private static final int DISABLED_BLOCK_ALPHA = 100;
+    private static final int[] COLUMN_COLORS = { R.color.block_column_1,
+            R.color.block_column_2, R.color.block_column_3, R.color.block_column_4 };
+
     // Columns in the schedule view.
     private int mColumns = 4;
 
     private TimeRulerView mRulerView;
     private View mNowView;
 
+    private List<Block> mBlocks = new ArrayList<>();
+    private final LayerDrawable[] mBlockDrawables = new LayerDrawable[COLUMN_COLORS.length];
+    private final Rect mBlockPadding = new Rect();
+    private final TextPaint mTextPaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+    private final BlockAccessibilityHelper mAccessibilityHelper;
+    private OnBlockClickListener mOnBlockClickListener;
+    private Block mPressedBlock;
+
+    /** Receives clicks on blocks given to {@link #setBlocks}. */
+    public interface OnBlockClickListener {
+        void onBlockClick(Block block);
+    }
+
+    /**
+     * One {@link Blocks#BLOCK_ID} drawn by {@link BlocksLayout}: its times, column
+     * and starred state, plus its laid out bounds and cached title layout.
+     */
+    public static final class Block {
+        private final String mBlockId;
+        private final String mTitle;
+        private final long mStartTime;
+        private final long mEndTime;
+        private final int mColumn;
+        private final int mSubColumn;
+        private final boolean mEnabled;
+        private boolean mContainsStarred;
+        private int mLane;
+        private int mLaneCount = 1;
+
+        private final Rect mBounds = new Rect();
+        private StaticLayout mTitleLayout;
+
+        public Block(String blockId, String title, long startTime, long endTime,
+                boolean containsStarred, int column, int subColumn, boolean enabled) {
+            mBlockId = blockId;
+            mTitle = title != null ? title : "";
+            mStartTime = startTime;
+            mEndTime = endTime;
+            mContainsStarred = containsStarred;
+            mColumn = column;
+            mSubColumn = subColumn;
+            mEnabled = enabled;
+        }
+
+        public String getBlockId() {
+            return mBlockId;
+        }
+
+        public String getTitle() {
+            return mTitle;
+        }
+
+        public long getStartTime() {
+            return mStartTime;
+        }
+
+        public long getEndTime() {
+            return mEndTime;
+        }
+
+        public int getColumn() {
+            return mColumn;
+        }
+
+        public int getSubColumn() {
+            return mSubColumn;
+        }
+
+        public boolean isEnabled() {
+            return mEnabled;
+        }
+
+        public boolean containsStarred() {
+            return mContainsStarred;
+        }
+
+        /** Lane within the column assigned by {@link IntervalPacker}, from 0. */
+        public int getLane() {
+            return mLane;
+        }
+
+        /** Lanes the column is split into while this block runs. */
+        public int getLaneCount() {
+            return mLaneCount;
+        }
+
+        public String getBlockTimeString(Context context) {
+            TimeZone.setDefault(UIUtils.getConferenceTimeZone());
+            return DateUtils.formatDateTime(context, mStartTime, TIME_STRING_FLAGS);
+        }
+    }
+
     public BlocksLayout(Context context) {
         this(context, null);
     }
@@ -56,6 +185,15 @@ public class BlocksLayout extends ViewGroup {
         mColumns = a.getInt(R.styleable.TimeRulerView_headerWidth, mColumns);
 
         a.recycle();
+
+        // Same look as BlockView: white 11sp text centered over the btn_block layers.
+        mTextPaint.setColor(Color.WHITE);
+        mTextPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 11,
+                getResources().getDisplayMetrics()));
+
+        setWillNotDraw(false);
+        mAccessibilityHelper = new BlockAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, mAccessibilityHelper);
     }
 
     private void ensureChildren() {
@@ -70,19 +208,58 @@ public class BlocksLayout extends ViewGroup {
         }
     }
 
+    /** Remove every drawn block, leaving only {@link TimeRulerView} remaining. */
+    public void removeAllBlocks() {
+        setBlocks(new ArrayList<Block>());
+    }
+
     /**
-     * Remove any {@link BlockView} instances, leaving only
-     * {@link TimeRulerView} remaining.
+     * Replace the drawn blocks. Title layouts of blocks that keep their id,
+     * title and width are carried over, so a requery costs a redraw.
      */
-    public void removeAllBlocks() {
-        ensureChildren();
-        removeAllViews();
-        addView(mRulerView);
-        addView(mNowView);
+    public void setBlocks(List<Block> blocks) {
+        final HashMap<String, Block> previous = new HashMap<>();
+        for (Block block : mBlocks) {
+            previous.put(block.mBlockId, block);
+        }
+        for (Block block : blocks) {
+            final Block old = previous.get(block.mBlockId);
+            if (old != null && old.mTitle.equals(block.mTitle)) {
+                block.mTitleLayout = old.mTitleLayout;
+            }
+        }
+        mBlocks = blocks;
+        mPressedBlock = null;
+        packBlocks();
+        // Lets keyboard users move between blocks through the accessibility helper.
+        setFocusable(!blocks.isEmpty());
+        layoutBlocks();
+        mAccessibilityHelper.invalidateRoot();
+        invalidate();
     }
 
-    public void addBlock(BlockView blockView) {
-        addView(blockView, 1);
+    /**
+     * Show or hide the starred marker of a drawn block in place.
+     *
+     * @return whether a block with {@code blockId} is drawn here.
+     */
+    public boolean setBlockContainsStarred(String blockId, boolean containsStarred) {
+        for (int i = 0; i < mBlocks.size(); i++) {
+            final Block block = mBlocks.get(i);
+            if (block.mBlockId.equals(blockId)) {
+                if (block.mContainsStarred != containsStarred) {
+                    block.mContainsStarred = containsStarred;
+                    invalidate(block.mBounds);
+                    mAccessibilityHelper.invalidateVirtualView(i);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setOnBlockClickListener(OnBlockClickListener listener) {
+        mOnBlockClickListener = listener;
     }
 
     @Override
@@ -103,49 +280,286 @@ public class BlocksLayout extends ViewGroup {
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
         ensureChildren();
 
+        final TimeRulerView rulerView = mRulerView;
+        rulerView.layout(0, 0, getWidth(), getHeight());
+        layoutBlocks();
+
+        // Align now view to match current time
+        final View nowView = mNowView;
+        final long now = UIUtils.getCurrentTime(getContext());
+
+        final int top = rulerView.getTimeVerticalOffset(now, 0, true);
+        final int bottom = top + nowView.getMeasuredHeight();
+        final int left = 0;
+        final int right = getWidth();
+
+        nowView.layout(left, top, right, bottom);
+    }
+
+    /** Compute the bounds of every drawn block from its times, column and lane. */
+    private void layoutBlocks() {
+        if (mRulerView == null || getWidth() == 0) {
+            return;
+        }
         final TimeRulerView rulerView = mRulerView;
         final int headerWidth = rulerView.getHeaderWidth();
         final int columnWidth = (getWidth() - headerWidth) / mColumns;
+        for (Block block : mBlocks) {
+            final int top = rulerView.getTimeVerticalOffset(block.mStartTime, 0, true);
+            final int bottom = rulerView.getTimeVerticalOffset(block.mEndTime, 0, false);
+            final int columnLeft = headerWidth + (block.mColumn * columnWidth);
+            block.mBounds.set(columnLeft + block.mLane * columnWidth / block.mLaneCount, top,
+                    columnLeft + (block.mLane + 1) * columnWidth / block.mLaneCount, bottom);
+        }
+    }
 
-        rulerView.layout(0, 0, getWidth(), getHeight());
+    /**
+     * Split each column between blocks that overlap in time. Lanes only depend
+     * on the model, so this runs when blocks are set rather than on layout.
+     * Room sub-columns from the side meeting import order blocks that start together.
+     */
+    private void packBlocks() {
+        final int count = mBlocks.size();
+        final long[] starts = new long[count];
+        final long[] ends = new long[count];
+        final int[] columns = new int[count];
+        final int[] priorities = new int[count];
+        for (int i = 0; i < count; i++) {
+            final Block block = mBlocks.get(i);
+            starts[i] = block.mStartTime;
+            ends[i] = block.mEndTime;
+            columns[i] = block.mColumn;
+            priorities[i] = block.mSubColumn;
+        }
+        final int[] lanes = new int[count];
+        final int[] laneCounts = new int[count];
+        IntervalPacker.pack(starts, ends, columns, priorities, lanes, laneCounts);
+        for (int i = 0; i < count; i++) {
+            final Block block = mBlocks.get(i);
+            block.mLane = lanes[i];
+            block.mLaneCount = laneCounts[i];
+        }
+    }
+
+    private LayerDrawable getBlockDrawable(int column) {
+        LayerDrawable drawable = mBlockDrawables[column];
+        if (drawable == null) {
+            drawable = (LayerDrawable) ContextCompat.getDrawable(getContext(),
+                    R.drawable.btn_block).mutate();
+            drawable.getDrawable(0).setColorFilter(
+                    ContextCompat.getColor(getContext(), COLUMN_COLORS[column]),
+                    PorterDuff.Mode.SRC_ATOP);
+            mBlockDrawables[column] = drawable;
+        }
+        return drawable;
+    }
 
+    private StaticLayout getTitleLayout(Block block, int width) {
+        StaticLayout layout = block.mTitleLayout;
+        if (layout == null || layout.getWidth() != width) {
+            layout = StaticLayout.Builder.obtain(block.mTitle, 0, block.mTitle.length(),
+                    mTextPaint, width)
+                    .setAlignment(Layout.Alignment.ALIGN_CENTER)
+                    .setEllipsize(TextUtils.TruncateAt.END)
+                    .setMaxLines(Integer.MAX_VALUE)
+                    .build();
+            block.mTitleLayout = layout;
+        }
+        return layout;
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (mBlocks.isEmpty()) {
+            super.dispatchDraw(canvas);
+            return;
+        }
+        // Blocks sit above the ruler and below the "now" bar.
+        final long drawingTime = getDrawingTime();
+        drawChild(canvas, mRulerView, drawingTime);
+        drawBlocks(canvas);
         final int count = getChildCount();
         for (int i = 0; i < count; i++) {
             final View child = getChildAt(i);
-            if (child.getVisibility() == GONE) continue;
-
-            if (child instanceof BlockView) {
-                final BlockView blockView = (BlockView) child;
-                // Times are already stored in conference timezone (fixed in MeetingMetadata)
-                // No conversion needed!
-                final long startTime = blockView.getStartTime();
-                final long endTime = blockView.getEndTime();
-                final int top = rulerView.getTimeVerticalOffset(startTime, i, true);
-                final int bottom = rulerView.getTimeVerticalOffset(endTime, i, false);
-                final int columnLeft = headerWidth + (blockView.getColumn() * columnWidth);
-                final int left;
-                final int right;
-                if (blockView.isHalfWidth()) {
-                    final int half = columnWidth / 2;
-                    left = columnLeft + (blockView.getSubColumn() * half);
-                    right = left + half;
-                } else {
-                    left = columnLeft;
-                    right = left + columnWidth;
+            if (child != mRulerView && child.getVisibility() == VISIBLE) {
+                drawChild(canvas, child, drawingTime);
+            }
+        }
+    }
+
+    private void drawBlocks(Canvas canvas) {
+        final Rect clip = canvas.getClipBounds();
+        final int focused = mAccessibilityHelper.getKeyboardFocusedVirtualViewId();
+        for (int i = 0; i < mBlocks.size(); i++) {
+            final Block block = mBlocks.get(i);
+            final Rect bounds = block.mBounds;
+            if (bounds.isEmpty() || !Rect.intersects(bounds, clip)) continue;
+
+            final LayerDrawable drawable = getBlockDrawable(block.mColumn);
+            final int alpha = block.mEnabled ? 255 : DISABLED_BLOCK_ALPHA;
+            drawable.getDrawable(0).setAlpha(alpha);
+            drawable.getDrawable(1).setAlpha(block.mContainsStarred ? 255 : 0);
+            drawable.getDrawable(2).setAlpha(alpha);
+            if (!block.mEnabled) {
+                drawable.setState(EMPTY_STATE_SET);
+            } else if (block == mPressedBlock) {
+                drawable.setState(PRESSED_ENABLED_STATE_SET);
+            } else if (i == focused) {
+                drawable.setState(ENABLED_FOCUSED_STATE_SET);
+            } else {
+                drawable.setState(ENABLED_STATE_SET);
+            }
+            drawable.setBounds(bounds);
+            drawable.draw(canvas);
+
+            drawable.getPadding(mBlockPadding);
+            final int textWidth = bounds.width() - mBlockPadding.left - mBlockPadding.right;
+            final int textHeight = bounds.height() - mBlockPadding.top - mBlockPadding.bottom;
+            if (textWidth <= 0 || textHeight <= 0) continue;
+            final StaticLayout layout = getTitleLayout(block, textWidth);
+            final int save = canvas.save();
+            canvas.clipRect(bounds.left + mBlockPadding.left, bounds.top + mBlockPadding.top,
+                    bounds.right - mBlockPadding.right, bounds.bottom - mBlockPadding.bottom);
+            canvas.translate(bounds.left + mBlockPadding.left, bounds.top + mBlockPadding.top
+                    + Math.max(0, (textHeight - layout.getHeight()) / 2));
+            layout.draw(canvas);
+            canvas.restoreToCount(save);
+        }
+    }
+
+    /** Topmost enabled block under the given point, or -1. */
+    private int findBlockAt(float x, float y) {
+        for (int i = mBlocks.size() - 1; i >= 0; i--) {
+            final Block block = mBlocks.get(i);
+            if (block.mEnabled && block.mBounds.contains((int) x, (int) y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void setPressedBlock(Block block) {
+        if (mPressedBlock == block) return;
+        if (mPressedBlock != null) invalidate(mPressedBlock.mBounds);
+        mPressedBlock = block;
+        if (block != null) invalidate(block.mBounds);
+    }
+
+    private boolean performBlockClick(int index) {
+        if (index < 0 || index >= mBlocks.size() || mOnBlockClickListener == null) {
+            return false;
+        }
+        playSoundEffect(SoundEffectConstants.CLICK);
+        mOnBlockClickListener.onBlockClick(mBlocks.get(index));
+        mAccessibilityHelper.sendEventForVirtualView(index,
+                AccessibilityEvent.TYPE_VIEW_CLICKED);
+        return true;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN: {
+                final int index = findBlockAt(event.getX(), event.getY());
+                if (index < 0) return false;
+                setPressedBlock(mBlocks.get(index));
+                return true;
+            }
+            case MotionEvent.ACTION_MOVE:
+                if (mPressedBlock != null && !mPressedBlock.mBounds.contains(
+                        (int) event.getX(), (int) event.getY())) {
+                    setPressedBlock(null);
+                }
+                return true;
+            case MotionEvent.ACTION_UP: {
+                final Block pressed = mPressedBlock;
+                setPressedBlock(null);
+                if (pressed != null) {
+                    performBlockClick(mBlocks.indexOf(pressed));
                 }
-                child.layout(left, top, right, bottom);
+                return true;
             }
+            case MotionEvent.ACTION_CANCEL:
+                setPressedBlock(null);
+                return true;
         }
+        return false;
+    }
 
-        // Align now view to match current time
-        final View nowView = mNowView;
-        final long now = UIUtils.getCurrentTime(getContext());
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return mAccessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
 
-        final int top = rulerView.getTimeVerticalOffset(now, 0, true);
-        final int bottom = top + nowView.getMeasuredHeight();
-        final int left = 0;
-        final int right = getWidth();
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return mAccessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
 
-        nowView.layout(left, top, right, bottom);
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        mAccessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    /** Exposes each drawn block as a virtual view, identified by its index. */
+    private class BlockAccessibilityHelper extends ExploreByTouchHelper {
+        BlockAccessibilityHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            for (int i = mBlocks.size() - 1; i >= 0; i--) {
+                if (mBlocks.get(i).mBounds.contains((int) x, (int) y)) {
+                    return i;
+                }
+            }
+            return INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            for (int i = 0; i < mBlocks.size(); i++) {
+                if (!mBlocks.get(i).mBounds.isEmpty()) {
+                    virtualViewIds.add(i);
+                }
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId,
+                AccessibilityNodeInfoCompat node) {
+            if (virtualViewId >= mBlocks.size()) {
+                // Blocks were replaced since the framework asked; report an empty node.
+                node.setContentDescription("");
+                node.setBoundsInParent(new Rect());
+                return;
+            }
+            final Block block = mBlocks.get(virtualViewId);
+            final StringBuilder description = new StringBuilder(block.mTitle)
+                    .append(", ").append(block.getBlockTimeString(getContext()));
+            if (block.mContainsStarred) {
+                description.append(", ").append(getContext().getString(R.string.title_starred));
+            }
+            node.setContentDescription(description);
+            node.setBoundsInParent(block.mBounds);
+            node.setClassName(Button.class.getName());
+            node.setEnabled(block.mEnabled);
+            node.setFocusable(block.mEnabled);
+            if (block.mEnabled) {
+                node.setClickable(true);
+                node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+            }
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action,
+                Bundle arguments) {
+            if (action == AccessibilityNodeInfoCompat.ACTION_CLICK) {
+                return performBlockClick(virtualViewId);
+            }
+            return false;
+        }
     }
 }
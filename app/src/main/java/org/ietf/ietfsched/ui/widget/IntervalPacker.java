@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.ui.widget;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Places overlapping time intervals side by side in lanes, the way
+ * {@link BlocksLayout} splits a schedule column between parallel blocks.
+ * <p>
+ * Intervals are swept in start order. Each takes the lowest lane freed by an
+ * interval that already ended, or opens a new one. A run of transitively
+ * overlapping intervals forms a cluster, and every member of a cluster reports
+ * the number of lanes the cluster needed, so they share the column evenly.
+ * Sorting dominates: packing {@code n} intervals is O(n log n).
+ */
+public final class IntervalPacker {
+    private IntervalPacker() {
+    }
+
+    /**
+     * Pack half-open intervals {@code [starts[i], ends[i])}. Only intervals in
+     * the same column compete for lanes.
+     *
+     * @param columns    column of each interval, or null if all share one.
+     * @param priorities tie-break for intervals starting together; lower goes
+     *                   left. May be null.
+     * @param lanes      receives the lane of each interval, from 0.
+     * @param laneCounts receives the lane count of each interval's cluster.
+     */
+    public static void pack(long[] starts, long[] ends, int[] columns, int[] priorities,
+            int[] lanes, int[] laneCounts) {
+        pack(starts, ends, columns, priorities, lanes, laneCounts, null);
+    }
+
+    /**
+     * Same as {@link #pack(long[], long[], int[], int[], int[], int[])}, adding
+     * the number of interval comparisons it makes to {@code comparisons[0]}.
+     * Package-private so tests can check the work grows as O(n log n).
+     */
+    static void pack(final long[] starts, final long[] ends, final int[] columns,
+            final int[] priorities, int[] lanes, int[] laneCounts, final long[] comparisons) {
+        final int count = starts.length;
+        final Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                if (comparisons != null) comparisons[0]++;
+                if (columns != null && columns[a] != columns[b]) {
+                    return Integer.compare(columns[a], columns[b]);
+                }
+                if (starts[a] != starts[b]) {
+                    return Long.compare(starts[a], starts[b]);
+                }
+                if (priorities != null && priorities[a] != priorities[b]) {
+                    return Integer.compare(priorities[a], priorities[b]);
+                }
+                // Longer intervals first, so they keep the leftmost lane.
+                return Long.compare(ends[b], ends[a]);
+            }
+        });
+
+        // Intervals still running, soonest to end first; lanes they gave back, lowest first.
+        final PriorityQueue<Integer> active = new PriorityQueue<>(11, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                if (comparisons != null) comparisons[0]++;
+                return Long.compare(ends[a], ends[b]);
+            }
+        });
+        final PriorityQueue<Integer> free = new PriorityQueue<>();
+
+        int clusterStart = 0;
+        int clusterLanes = 0;
+        for (int k = 0; k < count; k++) {
+            final int i = order[k];
+            if (k > 0 && columns != null && columns[i] != columns[order[k - 1]]) {
+                active.clear();
+            }
+            while (!active.isEmpty() && ends[active.peek()] <= starts[i]) {
+                free.add(lanes[active.poll()]);
+            }
+            if (active.isEmpty()) {
+                // Nothing overlaps any more: the previous cluster is complete.
+                for (int j = clusterStart; j < k; j++) {
+                    laneCounts[order[j]] = clusterLanes;
+                }
+                clusterStart = k;
+                clusterLanes = 0;
+                free.clear();
+            }
+            lanes[i] = free.isEmpty() ? clusterLanes++ : free.poll();
+            active.add(i);
+        }
+        for (int j = clusterStart; j < count; j++) {
+            laneCounts[order[j]] = clusterLanes;
+        }
+    }
+}
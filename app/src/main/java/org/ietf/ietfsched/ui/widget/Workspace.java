@@ -33,6 +33,7 @@ import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
+import android.widget.FrameLayout;
 import android.widget.Scroller;
 
 import java.util.ArrayList;
@@ -108,6 +109,15 @@ public class Workspace extends ViewGroup {
 
     private boolean mLocked;
 
+    /**
+     * Screens further than this from the current (or target) screen keep only an empty
+     * placeholder when a {@link ScreenAdapter} is set.
+     */
+    private static final int OFFSCREEN_SCREEN_LIMIT = 1;
+
+    private ScreenAdapter mScreenAdapter;
+    private final ArrayList<View> mRecycledScreens = new ArrayList<View>();
+
     private int mDeferredScreenChange = -1;
     private boolean mDeferredScreenChangeFast = false;
     private boolean mDeferredNotify = false;
@@ -125,6 +135,26 @@ public class Workspace extends ViewGroup {
         void onScroll(float screenFraction);
     }
 
+    /**
+     * Supplies screen contents on demand. Only the current screen and its neighbours hold a
+     * view; the rest are empty placeholders whose views are handed back for reuse.
+     */
+    public interface ScreenAdapter {
+        /**
+         * Return the populated view for screen {@code index}.
+         *
+         * @param recycled A view previously passed to {@link #onScreenRecycled}, or null.
+         * @param parent   The placeholder the returned view will be added to.
+         */
+        View getScreenView(int index, View recycled, ViewGroup parent);
+
+        /**
+         * Screen {@code index} moved out of range and {@code view} is about to be detached.
+         * Release anything bound to it; it may be passed back to {@link #getScreenView}.
+         */
+        void onScreenRecycled(int index, View view);
+    }
+
     /**
      * Used to inflate the com.google.android.ext.workspace.Workspace from XML.
      *
@@ -192,8 +222,80 @@ public class Workspace extends ViewGroup {
         return w;
     }
 
+    /**
+     * Replace the screens of this Workspace with {@code screenCount} placeholders whose contents
+     * come from {@code adapter}. Pass a null adapter to clear the Workspace.
+     */
+    public void setScreenAdapter(ScreenAdapter adapter, int screenCount) {
+        if (mSeparatorDrawable != null) {
+            throw new IllegalStateException("Screen adapters do not support separators");
+        }
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            recycleScreen(i);
+        }
+        removeAllViews();
+        if (adapter != mScreenAdapter) {
+            mRecycledScreens.clear();
+        }
+        mScreenAdapter = adapter;
+        if (adapter == null) {
+            return;
+        }
+        for (int i = 0; i < screenCount; i++) {
+            final FrameLayout placeholder = new FrameLayout(getContext());
+            if (mLongClickListener != null) {
+                placeholder.setOnLongClickListener(mLongClickListener);
+            }
+            addView(placeholder);
+        }
+        if (mHasLaidOut && mDeferredScreenChange < 0) {
+            mCurrentScreen = Math.max(0, Math.min(mCurrentScreen, screenCount - 1));
+            bindScreens(mCurrentScreen);
+        }
+    }
+
+    /**
+     * Give a view to every screen within {@link #OFFSCREEN_SCREEN_LIMIT} of {@code target} and
+     * recycle those further away. The current screen stays bound so it can be drawn while the
+     * Workspace scrolls to {@code target}.
+     */
+    private void bindScreens(int target) {
+        if (mScreenAdapter == null) {
+            return;
+        }
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            if (Math.abs(i - target) > OFFSCREEN_SCREEN_LIMIT && i != mCurrentScreen) {
+                recycleScreen(i);
+            }
+        }
+        final int last = Math.min(count - 1, target + OFFSCREEN_SCREEN_LIMIT);
+        for (int i = Math.max(0, target - OFFSCREEN_SCREEN_LIMIT); i <= last; i++) {
+            final ViewGroup placeholder = (ViewGroup) getChildAt(i);
+            if (placeholder.getChildCount() == 0) {
+                final View recycled = mRecycledScreens.isEmpty()
+                        ? null : mRecycledScreens.remove(mRecycledScreens.size() - 1);
+                placeholder.addView(mScreenAdapter.getScreenView(i, recycled, placeholder));
+            }
+        }
+    }
+
+    private void recycleScreen(int index) {
+        final ViewGroup placeholder = (ViewGroup) getChildAt(index);
+        if (mScreenAdapter == null || placeholder.getChildCount() == 0) {
+            return;
+        }
+        final View view = placeholder.getChildAt(0);
+        mScreenAdapter.onScreenRecycled(index, view);
+        placeholder.removeViewAt(0);
+        mRecycledScreens.add(view);
+    }
+
     void handleScreenChangeCompletion(int currentScreen) {
         mCurrentScreen = currentScreen;
+        // Settled: prefetch the neighbours of the new screen and drop the rest.
+        bindScreens(mCurrentScreen);
         View screen = getScreenAt(mCurrentScreen);
         //screen.requestFocus();
         try {
@@ -288,6 +390,11 @@ public class Workspace extends ViewGroup {
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
+        // Populate before the first layout, around the screen we are about to show.
+        if (!mHasLaidOut) {
+            bindScreens(mDeferredScreenChange >= 0 ? mDeferredScreenChange : mCurrentScreen);
+        }
+
         // The children are given the same width and height as the workspace
         final int count = getChildCount();
         for (int i = 0; i < count; i++) {
@@ -770,6 +877,7 @@ public class Workspace extends ViewGroup {
                         (mCurrentScreen != whichScreen);
 
         mNextScreen = whichScreen;
+        bindScreens(whichScreen);
 
         View focusedChild = getFocusedChild();
         boolean setTabFocus = false;
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.util;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rendered agenda pages on disk, keyed by agenda URL and validated by the
+ * ETag the page was rendered from. A hit can be shown at once while the
+ * agenda is revalidated with that ETag.
+ * <p>
+ * Entries live in the app cache directory, so the system may clear them at
+ * any time. An entry may carry an expiry, such as the end of its session,
+ * after which {@link #trim} drops it; past {@link #MAX_BYTES}, the least
+ * recently read are dropped too.
+ * Methods block on disk and must not be called from the main thread.
+ */
+public final class AgendaCache {
+    private static final String TAG = "AgendaCache";
+    private static final String DIRECTORY = "agendas";
+    private static final int VERSION = 2;
+
+    static final long MAX_BYTES = 8 * 1024 * 1024;
+
+    /** A rendered agenda and the validator of the source it came from. */
+    public static final class Entry {
+        /** ETag of the source, or null if the server sent none. */
+        public final String etag;
+        /** True when the source is HTML and is loaded from its URL, not rendered. */
+        public final boolean loadSource;
+        /** Page to show; for {@link #loadSource}, the source itself if it was kept. */
+        public final String html;
+        /** When the entry may be dropped, in epoch millis; 0 if only by recency. */
+        public final long expiresAt;
+
+        public Entry(String etag, boolean loadSource, String html) {
+            this(etag, loadSource, html, 0);
+        }
+
+        public Entry(String etag, boolean loadSource, String html, long expiresAt) {
+            this.etag = etag;
+            this.loadSource = loadSource;
+            this.html = html != null ? html : "";
+            this.expiresAt = expiresAt;
+        }
+
+        /** This entry, kept until {@code expiresAt}. */
+        public Entry withExpiry(long expiresAt) {
+            return new Entry(etag, loadSource, html, expiresAt);
+        }
+
+        /** Whether {@code other} would show the same page. */
+        public boolean sameContent(Entry other) {
+            return other != null && loadSource == other.loadSource && html.equals(other.html);
+        }
+    }
+
+    private final File mDirectory;
+
+    public AgendaCache(Context context) {
+        mDirectory = new File(context.getCacheDir(), DIRECTORY);
+    }
+
+    /** Read the entry for {@code url}, or null if there is none. */
+    public synchronized Entry get(String url) {
+        final File file = fileFor(url);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new AtomicFile(file).openRead()))) {
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+            final long expiresAt = in.readLong();
+            if (!url.equals(in.readUTF())) {
+                return null;
+            }
+            final String etag = in.readBoolean() ? in.readUTF() : null;
+            final boolean loadSource = in.readBoolean();
+            final byte[] html = new byte[in.readInt()];
+            in.readFully(html);
+            // Recency for trimming.
+            file.setLastModified(System.currentTimeMillis());
+            return new Entry(etag, loadSource, new String(html, StandardCharsets.UTF_8),
+                    expiresAt);
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable agenda for " + url, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /** Store {@code entry} for {@code url}, replacing any older one. */
+    public synchronized void put(String url, Entry entry) {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.w(TAG, "Can't create " + mDirectory);
+            return;
+        }
+        final AtomicFile file = new AtomicFile(fileFor(url));
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(VERSION);
+            out.writeLong(entry.expiresAt);
+            out.writeUTF(url);
+            out.writeBoolean(entry.etag != null);
+            if (entry.etag != null) {
+                out.writeUTF(entry.etag);
+            }
+            out.writeBoolean(entry.loadSource);
+            final byte[] html = entry.html.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(html.length);
+            out.write(html);
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to cache agenda for " + url, e);
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+            return;
+        }
+        trim();
+    }
+
+    /**
+     * Drop expired entries, then the least recently read until the rest fit
+     * in {@link #MAX_BYTES}. Returns the bytes still in use.
+     */
+    public synchronized long trim() {
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        final long now = System.currentTimeMillis();
+        final List<File> kept = new ArrayList<>(files.length);
+        long total = 0;
+        for (File file : files) {
+            if (isExpired(file, now)) {
+                file.delete();
+            } else {
+                kept.add(file);
+                total += file.length();
+            }
+        }
+        if (total <= MAX_BYTES) {
+            return total;
+        }
+        Collections.sort(kept, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (int i = 0; i < kept.size() && total > MAX_BYTES; i++) {
+            final File file = kept.get(i);
+            total -= file.length();
+            file.delete();
+        }
+        return total;
+    }
+
+    /** Whether {@code file} is past its expiry, or unreadable as an entry. */
+    private static boolean isExpired(File file, long now) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != VERSION) {
+                return true;
+            }
+            final long expiresAt = in.readLong();
+            return expiresAt > 0 && expiresAt < now;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private File fileFor(String url) {
+        return new File(mDirectory, hash(url));
+    }
+
+    private static String hash(String url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(url.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16))
+                        .append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package org.ietf.ietfsched.util;
 
 import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.Log;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -33,7 +35,33 @@ public class GeckoRuntimeHelper {
     private static final String TAG = "GeckoRuntimeHelper";
     private static final String CONFIG_FILE_NAME = "geckoview-runtime.yaml";
     private static GeckoRuntime sGeckoRuntime;
+    private static boolean sPrewarmScheduled;
     
+    /**
+     * Create the runtime and open the {@link GeckoSessionPool} the next time
+     * the main thread goes idle, so the first web tab doesn't pay for either.
+     * Only the first call schedules anything. Call from the main thread.
+     */
+    public static void prewarm(Context context) {
+        if (sPrewarmScheduled) {
+            return;
+        }
+        sPrewarmScheduled = true;
+        final Context app = context.getApplicationContext();
+        Looper.getMainLooper().getQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                try {
+                    GeckoSessionPool.prewarm(app);
+                } catch (RuntimeException e) {
+                    // Tabs create the runtime on demand, as before.
+                    Log.w(TAG, "Prewarming GeckoView failed", e);
+                }
+                return false;
+            }
+        });
+    }
+
     /**
      * Get or create the shared GeckoRuntime instance.
      * @param context The Android context
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.util;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+import java.util.ArrayDeque;
+import org.mozilla.geckoview.GeckoRuntime;
+import org.mozilla.geckoview.GeckoSession;
+
+/**
+ * A few opened {@link GeckoSession}s kept ready for the session detail tabs.
+ * Opening a session starts a content process on first use, which is most of
+ * the stall when a Notes, Join or Agenda tab first shows; borrowing one that
+ * is already open skips it.
+ * <p>
+ * Returned sessions are blanked, stripped of their delegates and history,
+ * and kept only while the pool is under its limit: two sessions, one on a
+ * device with a small heap, none on a low-RAM device. The pool empties
+ * itself when the system runs low on memory or the app goes to the
+ * background.
+ * <p>
+ * Use from the main thread.
+ */
+public final class GeckoSessionPool {
+    private static final String TAG = "GeckoSessionPool";
+    private static final String BLANK_URI = "about:blank";
+    /** Heap class, in megabytes, below which only one session is kept. */
+    private static final int SMALL_HEAP_MB = 192;
+
+    private static final ArrayDeque<GeckoSession> sIdle = new ArrayDeque<>();
+    private static int sLimit = -1;
+
+    private GeckoSessionPool() {
+    }
+
+    /**
+     * Borrow an opened session, or open a new one if none is idle. Returns
+     * null if the runtime can't be created.
+     */
+    public static GeckoSession acquire(Context context) {
+        init(context);
+        while (!sIdle.isEmpty()) {
+            final GeckoSession session = sIdle.poll();
+            if (session.isOpen()) {
+                // The blank page may have committed after release() purged.
+                session.purgeHistory();
+                session.setActive(true);
+                return session;
+            }
+        }
+        final GeckoRuntime runtime = GeckoRuntimeHelper.getRuntime(context);
+        if (runtime == null) {
+            return null;
+        }
+        final GeckoSession session = new GeckoSession();
+        session.open(runtime);
+        return session;
+    }
+
+    /**
+     * Return a session borrowed with {@link #acquire}. It must already be
+     * detached from its view. The session is closed if the pool is full.
+     */
+    public static void release(GeckoSession session) {
+        if (session == null) {
+            return;
+        }
+        session.setNavigationDelegate(null);
+        session.setProgressDelegate(null);
+        session.setContentDelegate(null);
+        session.setSelectionActionDelegate(null);
+        if (!session.isOpen() || sIdle.size() >= sLimit) {
+            close(session);
+            return;
+        }
+        session.loadUri(BLANK_URI);
+        session.purgeHistory();
+        session.setActive(false);
+        sIdle.push(session);
+    }
+
+    /** Open sessions up to the limit, so the first tab doesn't have to. */
+    public static void prewarm(Context context) {
+        init(context);
+        final GeckoRuntime runtime = GeckoRuntimeHelper.getRuntime(context);
+        if (runtime == null) {
+            return;
+        }
+        while (sIdle.size() < sLimit) {
+            final GeckoSession session = new GeckoSession();
+            session.open(runtime);
+            session.setActive(false);
+            sIdle.push(session);
+        }
+        Log.d(TAG, "Prewarmed " + sIdle.size() + " GeckoSession(s)");
+    }
+
+    /** Close every idle session. */
+    public static void trim() {
+        if (!sIdle.isEmpty()) {
+            Log.d(TAG, "Closing " + sIdle.size() + " idle GeckoSession(s)");
+        }
+        while (!sIdle.isEmpty()) {
+            close(sIdle.poll());
+        }
+    }
+
+    private static void init(Context context) {
+        if (sLimit >= 0) {
+            return;
+        }
+        final Context app = context.getApplicationContext();
+        final ActivityManager am = (ActivityManager) app.getSystemService(Context.ACTIVITY_SERVICE);
+        if (am == null || am.isLowRamDevice()) {
+            sLimit = 0;
+        } else {
+            sLimit = am.getMemoryClass() < SMALL_HEAP_MB ? 1 : 2;
+        }
+        app.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                    trim();
+                }
+            }
+
+            @Override
+            public void onLowMemory() {
+                trim();
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+        });
+    }
+
+    private static void close(GeckoSession session) {
+        try {
+            session.close();
+        } catch (Exception e) {
+            Log.w(TAG, "Error closing GeckoSession", e);
+        }
+    }
+}
@@ -28,7 +28,6 @@ import androidx.fragment.app.Fragment;
 import org.mozilla.geckoview.AllowOrDeny;
 import org.mozilla.geckoview.BasicSelectionActionDelegate;
 import org.mozilla.geckoview.GeckoResult;
-import org.mozilla.geckoview.GeckoRuntime;
 import org.mozilla.geckoview.GeckoSession;
 import org.mozilla.geckoview.GeckoView;
 
@@ -158,15 +157,13 @@ public class GeckoViewHelper {
             return;
         }
 
-        GeckoRuntime runtime = GeckoRuntimeHelper.getRuntime(mFragment.getActivity());
-        if (runtime == null) {
+        // Borrow an already opened session when one is idle; see GeckoSessionPool.
+        mGeckoSession = GeckoSessionPool.acquire(mFragment.getActivity());
+        if (mGeckoSession == null) {
             Log.e(TAG, "Failed to get GeckoRuntime");
             return;
         }
-
-        mGeckoSession = new GeckoSession();
         applyDelegates(mGeckoSession, false);
-        mGeckoSession.open(runtime);
 
         mGeckoView.setFocusable(true);
         mGeckoView.setFocusableInTouchMode(true);
@@ -631,11 +628,11 @@ public class GeckoViewHelper {
     public void reinitialize() {
         dismissOAuthPopup();
         if (mGeckoSession != null) {
-            Log.d(TAG, "reinitialize: Closing old GeckoSession");
+            Log.d(TAG, "reinitialize: Returning old GeckoSession");
             if (mGeckoView != null) {
                 mGeckoView.setSession(null);
             }
-            mGeckoSession.close();
+            GeckoSessionPool.release(mGeckoSession);
             mGeckoSession = null;
         }
         mCanGoBack = false;
@@ -696,9 +693,9 @@ public class GeckoViewHelper {
         }
         if (mGeckoSession != null) {
             try {
-                mGeckoSession.close();
+                GeckoSessionPool.release(mGeckoSession);
             } catch (Exception e) {
-                Log.w(TAG, "Error closing GeckoSession during cleanup", e);
+                Log.w(TAG, "Error returning GeckoSession during cleanup", e);
             }
             mGeckoSession = null;
         }
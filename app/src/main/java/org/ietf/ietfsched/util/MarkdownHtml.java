@@ -26,17 +26,18 @@ import java.util.List;
 
 /**
  * Markdown → HTML via commonmark, with bare URL/email autolinking.
+ * The parser and renderer are built once; commonmark's are thread-safe.
  */
 public final class MarkdownHtml {
     private static final List<Extension> EXTENSIONS =
             Collections.singletonList(AutolinkExtension.create());
+    private static final Parser PARSER = Parser.builder().extensions(EXTENSIONS).build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
 
     private MarkdownHtml() {
     }
 
     public static String render(String markdown) {
-        Parser parser = Parser.builder().extensions(EXTENSIONS).build();
-        HtmlRenderer renderer = HtmlRenderer.builder().build();
-        return renderer.render(parser.parse(markdown != null ? markdown : ""));
+        return RENDERER.render(PARSER.parse(markdown != null ? markdown : ""));
     }
 }
@@ -1,8 +1,11 @@
 package org.ietf.ietfsched.util;
 
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.SharedPreferences;
 import org.ietf.ietfsched.io.MeetingMetadata;
+import org.ietf.ietfsched.provider.ScheduleContract.Blocks;
+import org.ietf.ietfsched.provider.ScheduleContract.Sessions;
 import java.util.TimeZone;
 
 /**
@@ -18,6 +21,9 @@ public class MeetingPreferences {
     private static final String KEY_AGENDA_URL = "agenda_url";
     private static final String KEY_NEXT_MEETING_NUMBER = "next_meeting_number";
     private static final String KEY_NEXT_MEETING_CITY = "next_meeting_city";
+    private static final String KEY_SELECTED_MEETING_NUMBER = "selected_meeting_number";
+    /** Prefix of the time zone kept for each meeting, followed by its number. */
+    private static final String KEY_MEETING_TIMEZONE_PREFIX = "meeting_timezone_";
 
     /**
      * Saves the current meeting metadata to preferences.
@@ -28,6 +34,7 @@ public class MeetingPreferences {
             .putInt(KEY_MEETING_NUMBER, meeting.number)
             .putString(KEY_MEETING_CITY, meeting.city != null ? meeting.city : "")
             .putString(KEY_MEETING_TIMEZONE, meeting.timezone.getID())
+            .putString(KEY_MEETING_TIMEZONE_PREFIX + meeting.number, meeting.timezone.getID())
             .putLong(KEY_MEETING_START, meeting.startMillis)
             .putLong(KEY_MEETING_END, meeting.endMillis)
             .putString(KEY_AGENDA_URL, meeting.agendaUrl)
@@ -75,6 +82,34 @@ public class MeetingPreferences {
         return prefs.getInt(KEY_MEETING_NUMBER, 0);
     }
 
+    /**
+     * Meeting whose schedule is displayed: an archived meeting picked with
+     * {@link #setSelectedMeetingNumber}, otherwise the current meeting.
+     */
+    public static int getSelectedMeetingNumber(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        int selected = prefs.getInt(KEY_SELECTED_MEETING_NUMBER, 0);
+        return selected != 0 ? selected : prefs.getInt(KEY_MEETING_NUMBER, 0);
+    }
+
+    /**
+     * Switches the displayed schedule to another locally stored meeting.
+     * Selecting the current meeting (or 0) follows the current meeting again
+     * across future syncs. Observers of blocks and sessions are notified so
+     * open screens requery against the newly selected meeting.
+     */
+    public static void setSelectedMeetingNumber(Context context, int meetingNumber) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (meetingNumber == 0 || meetingNumber == prefs.getInt(KEY_MEETING_NUMBER, 0)) {
+            prefs.edit().remove(KEY_SELECTED_MEETING_NUMBER).apply();
+        } else {
+            prefs.edit().putInt(KEY_SELECTED_MEETING_NUMBER, meetingNumber).apply();
+        }
+        ContentResolver resolver = context.getContentResolver();
+        resolver.notifyChange(Blocks.CONTENT_URI, null);
+        resolver.notifyChange(Sessions.CONTENT_URI, null);
+    }
+
     public static String getCurrentMeetingCity(Context context) {
         SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
         return prefs.getString(KEY_MEETING_CITY, "");
@@ -111,4 +146,14 @@ public class MeetingPreferences {
         String tzId = prefs.getString(KEY_MEETING_TIMEZONE, "UTC");
         return TimeZone.getTimeZone(tzId);
     }
+
+    /**
+     * Time zone of the given meeting, kept from when it was current; meetings
+     * archived before that was recorded fall back to the current meeting's.
+     */
+    public static TimeZone getMeetingTimeZone(Context context, int meetingNumber) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String tzId = prefs.getString(KEY_MEETING_TIMEZONE_PREFIX + meetingNumber, null);
+        return tzId != null ? TimeZone.getTimeZone(tzId) : getCurrentMeetingTimeZone(context);
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ietf.ietfsched.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The Note Well, rendered to a styled HTML page in app storage once per
+ * change of the source markdown, so the viewer only has to load it.
+ */
+public final class NoteWell {
+    private static final String TAG = "NoteWell";
+    private static final String FILE_NAME = "note-well.html";
+
+    /** Preferences and key where older versions kept the raw markdown. */
+    private static final String LEGACY_PREFS = "ietfsched_sync";
+    private static final String LEGACY_CONTENT = "note_well_content";
+
+    private NoteWell() {
+    }
+
+    /** Whether a rendered Note Well has been saved. */
+    public static boolean exists(Context context) {
+        return file(context).exists();
+    }
+
+    /** Render {@code markdown} and save it, replacing the previous page. */
+    public static boolean save(Context context, String markdown) {
+        final AtomicFile file = new AtomicFile(file(context));
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            out.write(render(markdown).getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(out);
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save the Note Well", e);
+            if (out != null) {
+                file.failWrite(out);
+            }
+            return false;
+        }
+    }
+
+    /** The saved page, or null if there is none yet. Reads storage; keep off the main thread. */
+    public static String read(Context context) {
+        try {
+            return new String(new AtomicFile(file(context)).readFully(), StandardCharsets.UTF_8);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read the Note Well", e);
+            return null;
+        }
+    }
+
+    /**
+     * Move markdown left in preferences by older versions into the rendered
+     * file, and drop it from preferences. Returns whether a page exists now.
+     */
+    public static boolean migrateLegacy(Context context) {
+        if (exists(context)) {
+            return true;
+        }
+        final SharedPreferences prefs =
+                context.getSharedPreferences(LEGACY_PREFS, Context.MODE_PRIVATE);
+        final String markdown = prefs.getString(LEGACY_CONTENT, null);
+        if (markdown == null) {
+            return false;
+        }
+        final boolean saved = markdown.length() > 0 && save(context, markdown);
+        prefs.edit().remove(LEGACY_CONTENT).apply();
+        return saved;
+    }
+
+    /** The styled page for {@code markdown}; bare URLs become links. */
+    static String render(String markdown) {
+        return "<!DOCTYPE html>" +
+                "<html><head>" +
+                "<meta name='viewport' content='width=device-width, initial-scale=1'>" +
+                "<style>" +
+                "body { font-family: sans-serif; padding: 16px; line-height: 1.6; }" +
+                "a { color: #0066cc; }" +
+                "ul { padding-left: 20px; }" +
+                "li { margin-bottom: 8px; }" +
+                "</style>" +
+                "</head><body>" +
+                MarkdownHtml.render(markdown) +
+                "</body></html>";
+    }
+
+    private static File file(Context context) {
+        return new File(context.getFilesDir(), FILE_NAME);
+    }
+}
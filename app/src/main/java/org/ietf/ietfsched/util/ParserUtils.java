@@ -46,7 +46,7 @@ public class ParserUtils {
     public static final String BLOCK_TYPE_OFFICE_HOURS = "officehours";
     public static final String BLOCK_TYPE_NOC_HELPDESK = "nocHelpdesk";
     public static final String BLOCK_TYPE_HACKATHON = "hackathon";
-    /** Green-column side meetings; optional trailing 0/1 encodes room sub-column. */
+    /** Green-column side meetings; an optional trailing number is the room's index. */
     public static final String BLOCK_TYPE_SIDE_MEETING = "sidemeeting";
     public static final String BLOCK_TYPE_UNKNOWN = "unknown";
 
@@ -54,13 +54,16 @@ public class ParserUtils {
         return blockType != null && blockType.startsWith(BLOCK_TYPE_SIDE_MEETING);
     }
 
-    /** Room sub-column (0 or 1) encoded as trailing digit on sidemeeting block types. */
+    /** Room index encoded as the trailing number of sidemeeting block types, 0 if none. */
     public static int sideMeetingSubColumn(String blockType) {
         if (!isSideMeetingBlockType(blockType) || blockType.length() <= BLOCK_TYPE_SIDE_MEETING.length()) {
             return 0;
         }
-        char c = blockType.charAt(blockType.length() - 1);
-        return c == '1' ? 1 : 0;
+        try {
+            return Integer.parseInt(blockType.substring(BLOCK_TYPE_SIDE_MEETING.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     public static boolean isSideMeetingSessionId(String sessionId) {
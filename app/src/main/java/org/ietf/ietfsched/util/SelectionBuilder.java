@@ -25,6 +25,8 @@ package org.ietf.ietfsched.util;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.os.CancellationSignal;
 import android.text.TextUtils;
 import android.util.Log;
 
@@ -151,11 +153,32 @@ public class SelectionBuilder {
      */
     public Cursor query(SQLiteDatabase db, String[] columns, String groupBy,
             String having, String orderBy, String limit) {
+        return query(db, columns, groupBy, having, orderBy, limit, null);
+    }
+
+    /**
+     * Execute query using the current internal state as {@code WHERE} clause,
+     * abandoning it with {@link android.os.OperationCanceledException} if
+     * {@code cancellationSignal} is canceled first.
+     */
+    public Cursor query(SQLiteDatabase db, String[] columns, String groupBy,
+            String having, String orderBy, String limit, CancellationSignal cancellationSignal) {
         assertTable();
         if (columns != null) mapColumns(columns);
         if (LOGV) Log.v(TAG, "query(columns=" + Arrays.toString(columns) + ") " + this);
-        return db.query(mTable, columns, getSelection(), getSelectionArgs(), groupBy, having,
-                orderBy, limit);
+        return db.query(false, mTable, columns, getSelection(), getSelectionArgs(), groupBy,
+                having, orderBy, limit, cancellationSignal);
+    }
+
+    /**
+     * Return the SQL that {@link #query} would execute for the current internal
+     * state, with {@code ?} placeholders for {@link #getSelectionArgs()}.
+     */
+    public String buildQuery(String[] columns, String orderBy) {
+        assertTable();
+        if (columns != null) mapColumns(columns);
+        return SQLiteQueryBuilder.buildQueryString(false, mTable, columns, getSelection(),
+                null, null, orderBy, null);
     }
 
     /**